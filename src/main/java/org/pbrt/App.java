@@ -11,9 +11,12 @@ package org.pbrt;
 
 import com.sampullara.cli.*;
 import org.pbrt.core.Api;
+import org.pbrt.core.Metrics;
+import org.pbrt.core.Profiler;
 import org.pbrt.core.Options;
 import org.pbrt.core.PBrtTLogger;
 import org.pbrt.core.Parser;
+import org.pbrt.core.Pbrt;
 
 import java.util.List;
 
@@ -52,6 +55,36 @@ public class App {
     @Argument(description = "Print a reformatted version of the input file(s) to standard output and convert all triangle meshes to PLY files. Does not render an image.")
     private static Boolean toply = false;
 
+    @Argument(description = "Run as a render server that keeps rendering queued scenes without exiting.")
+    private static Boolean server = false;
+
+    @Argument(description = "Accept render jobs on this local TCP port (server mode).")
+    private static Integer port = 0;
+
+    @Argument(description = "Render .pbrt files that appear in this directory (server mode).")
+    private static String watch = "";
+
+    @Argument(description = "Directory for images and statistics written by server jobs. Default: current directory.")
+    private static String outdir = ".";
+
+    @Argument(description = "Number of jobs the server renders at the same time. Render statistics, -profile and the metrics outputs need 1. Default: 1.")
+    private static Integer jobs = 1;
+
+    @Argument(description = "Serve live render metrics as JSON at http://localhost:<port>/metrics.")
+    private static Integer metricsport = 0;
+
+    @Argument(description = "Append live render metrics to this file as JSON lines.")
+    private static String metricslog = "";
+
+    @Argument(description = "Seconds between lines of the metrics log. Default: 10.")
+    private static Integer metricsinterval = 10;
+
+    @Argument(description = "Publish live render metrics as the JMX MBean org.pbrt:type=Metrics.")
+    private static Boolean jmx = false;
+
+    @Argument(description = "Sample where render time is spent and add the breakdown to the render statistics.")
+    private static Boolean profile = false;
+
     public static void main(String[] args) {
 
 	    final List<String> parse;
@@ -85,6 +118,27 @@ public class App {
             System.out.format("Matt Pharr, Greg Humphreys, and Wenzel Jakob.\n");
         }
 
+        if (metricsport > 0) Metrics.StartHttpServer(metricsport);
+        if (!metricslog.isEmpty()) Metrics.StartJsonLog(metricslog, metricsinterval);
+        if (jmx) Metrics.RegisterMBean();
+        if (profile) Profiler.Start();
+
+        if (server) {
+            Pbrt.options = options;
+            // The profiler and live metrics are process wide and can't tell concurrent jobs apart
+            boolean processWideStats = profile || metricsport > 0 || !metricslog.isEmpty() || jmx;
+            if (jobs > 1 && processWideStats) {
+                PBrtTLogger.Warning("-profile and the metrics outputs need -jobs 1; rendering one job at a time.");
+                jobs = 1;
+            }
+            RenderDaemon daemon = new RenderDaemon(options, outdir, jobs);
+            for (String f : parse) daemon.Submit(f, null, null);
+            if (port > 0) daemon.ListenOnPort(port);
+            if (!watch.isEmpty()) daemon.WatchDirectory(watch);
+            daemon.Run();
+            return;
+        }
+
         Api.pbrtInit(options);
 
         if (parse.isEmpty()) {
@@ -99,5 +153,7 @@ public class App {
             }
         }
         Api.pbrtCleanup();
+        Metrics.Shutdown();
+        Profiler.Stop();
     }
 }
@@ -0,0 +1,265 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt;
+
+import org.pbrt.core.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Long running render server. Scenes are queued from the command line, a local socket
+// or a watched directory and rendered one after another (or a few at a time) in this
+// JVM, so class loading and JIT warm-up are paid once. Each job gets its own
+// RenderContext; image textures and PLY meshes are kept in the AssetCache between jobs.
+//
+// Socket protocol, one request per connection:
+//   RENDER <scene file> [<image file>]
+//   SCENE [<image file>]  followed by the scene text and a line containing only END
+// The server answers "QUEUED <id>" and, once the job finishes,
+// "DONE <id> <seconds>" or "FAILED <id> <message>". Requests that can't be queued, such
+// as image names that lead outside the output directory, get "ERROR <message>".
+public class RenderDaemon {
+
+    public static class Job {
+        Job(int id, String sceneFile, String sceneText, String imageFile) {
+            this.id = id;
+            this.sceneFile = sceneFile;
+            this.sceneText = sceneText;
+            this.imageFile = imageFile;
+        }
+
+        public final int id;
+        public final String sceneFile;
+        public final String sceneText;
+        public final String imageFile;
+        public final long queuedTime = System.nanoTime();
+        // Completes with the render time in seconds
+        public final CompletableFuture<Float> done = new CompletableFuture<>();
+    }
+
+    public RenderDaemon(Options options, String outputDirectory, int maxConcurrentJobs) {
+        this.options = options;
+        this.outputDirectory = outputDirectory;
+        this.maxConcurrentJobs = Math.max(1, maxConcurrentJobs);
+        AssetCache.SetEnabled(true);
+    }
+
+    // Throws IllegalArgumentException if the image would be written outside the output directory
+    public Job Submit(String sceneFile, String sceneText, String imageFile) {
+        int id = nextJobId.incrementAndGet();
+        Job job = new Job(id, sceneFile, sceneText, ImagePath(id, sceneFile, imageFile));
+        queue.add(job);
+        return job;
+    }
+
+    // Every image goes under the output directory. Unnamed images are named after the scene
+    // file, or after the job for scene text. Client names are resolved against the output
+    // directory and rejected if the normalized path isn't inside it, which rules out
+    // absolute paths elsewhere and ".." components that climb out of it.
+    private String ImagePath(int id, String sceneFile, String imageFile) {
+        if (imageFile == null) {
+            if (sceneFile != null) {
+                String name = Paths.get(sceneFile).getFileName().toString();
+                if (name.endsWith(".pbrt")) name = name.substring(0, name.length() - ".pbrt".length());
+                imageFile = name + ".exr";
+            } else {
+                imageFile = String.format("job-%d.exr", id);
+            }
+        }
+        Path directory = Paths.get(outputDirectory).toAbsolutePath().normalize();
+        Path path;
+        try {
+            path = directory.resolve(imageFile).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("invalid image file name \"" + imageFile + "\"");
+        }
+        if (!path.startsWith(directory) || path.equals(directory))
+            throw new IllegalArgumentException("image file \"" + imageFile + "\" is outside the output directory");
+        return path.toString();
+    }
+
+    public void ListenOnPort(int port) {
+        Thread listener = new Thread(() -> {
+            try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+                System.out.format("Listening for render jobs on port %d\n", server.getLocalPort());
+                while (!Thread.currentThread().isInterrupted()) {
+                    Socket client = server.accept();
+                    Thread handler = new Thread(() -> HandleClient(client), "pbrt-client");
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                PBrtTLogger.Error("Render server socket failed: %s", e.toString());
+            }
+        }, "pbrt-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    // Poll _directory_ for new or changed .pbrt files and render each one once its size and
+    // modification time have stayed the same for one polling interval.
+    public void WatchDirectory(String directory) {
+        Thread watcher = new Thread(() -> {
+            File dir = new File(directory);
+            HashMap<String, Long> pending = new HashMap<>();
+            HashMap<String, Long> submitted = new HashMap<>();
+            System.out.format("Watching \"%s\" for scene files\n", dir.getAbsolutePath());
+            while (!Thread.currentThread().isInterrupted()) {
+                File[] files = dir.listFiles((d, name) -> name.endsWith(".pbrt"));
+                if (files != null) {
+                    for (File f : files) {
+                        String path = f.getAbsolutePath();
+                        long stamp = f.lastModified() * 31 + f.length();
+                        if (submitted.containsKey(path) && submitted.get(path) == stamp) continue;
+                        if (pending.containsKey(path) && pending.get(path) == stamp) {
+                            Submit(path, null, null);
+                            submitted.put(path, stamp);
+                            pending.remove(path);
+                        } else {
+                            pending.put(path, stamp);
+                        }
+                    }
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "pbrt-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    // Render queued jobs until the process is stopped
+    public void Run() {
+        ArrayList<Thread> workers = new ArrayList<>(maxConcurrentJobs);
+        for (int i = 0; i < maxConcurrentJobs; i++) {
+            Thread worker = new Thread(() -> {
+                while (true) {
+                    try {
+                        Render(queue.take());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "pbrt-job-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void Render(Job job) {
+        Options jobOptions = new Options(options);
+        // Progress bars of concurrent jobs would interleave; the server reports per job instead
+        jobOptions.Quiet = true;
+        jobOptions.ImageFile = job.imageFile;
+        // Stats counters accumulate per render context, so concurrent jobs each get their own
+        jobOptions.StatsFile = Paths.get(outputDirectory, String.format("job-%d-stats.txt", job.id)).toString();
+        String description = (job.sceneFile != null) ? job.sceneFile : "<scene text>";
+
+        RenderContext context = new RenderContext(jobOptions);
+        long startTime = System.nanoTime();
+        try {
+            context.pbrtInit(jobOptions);
+            if (job.sceneFile != null)
+                context.pbrtParseFile(job.sceneFile);
+            else
+                context.pbrtParseString(job.sceneText);
+            context.pbrtCleanup();
+            if (AsyncImageWriter.WriteFailed(jobOptions.ImageFile))
+                throw new RuntimeException("unable to write image " + jobOptions.ImageFile);
+        } catch (Throwable e) {
+            // Anything thrown by the job, errors included, fails only that job; the worker carries on
+            PBrtTLogger.Error("Job %d \"%s\" failed: %s", job.id, description, e.toString());
+            job.done.completeExceptionally(e);
+            return;
+        }
+        long endTime = System.nanoTime();
+        float queuedSeconds = (startTime - job.queuedTime) * 1e-9f;
+        float renderSeconds = (endTime - startTime) * 1e-9f;
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(jobOptions.StatsFile, true))) {
+            pw.format("Job %d\n", job.id);
+            pw.format("    %-42s%s\n", "Scene", description);
+            pw.format("    %-42s%s\n", "Image", jobOptions.ImageFile);
+            pw.format("    %-42s%12.3f s\n", "Time in queue", queuedSeconds);
+            pw.format("    %-42s%12.3f s\n", "Parse and render time", renderSeconds);
+            pw.format("    %-42s%12d\n", "Asset cache entries", AssetCache.Size());
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to write stats for job %d: %s", job.id, e.toString());
+        }
+        System.out.format("Job %d \"%s\" rendered in %.3fs (queued %.3fs)\n", job.id, description, renderSeconds, queuedSeconds);
+        job.done.complete(renderSeconds);
+    }
+
+    private void HandleClient(Socket client) {
+        try (Socket socket = client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String request = in.readLine();
+            if (request == null) return;
+            String[] tokens = request.trim().split("\\s+");
+            Job job;
+            try {
+                if (tokens[0].equalsIgnoreCase("RENDER") && tokens.length >= 2) {
+                    job = Submit(tokens[1], null, (tokens.length > 2) ? tokens[2] : null);
+                } else if (tokens[0].equalsIgnoreCase("SCENE")) {
+                    StringBuilder scene = new StringBuilder();
+                    String line;
+                    while ((line = in.readLine()) != null && !line.trim().equals("END")) {
+                        scene.append(line).append('\n');
+                    }
+                    job = Submit(null, scene.toString(), (tokens.length > 1) ? tokens[1] : null);
+                } else {
+                    out.println("ERROR unknown request: " + request);
+                    return;
+                }
+            } catch (IllegalArgumentException e) {
+                out.println("ERROR " + e.getMessage());
+                return;
+            }
+            out.println("QUEUED " + job.id);
+            try {
+                float seconds = job.done.get();
+                out.format("DONE %d %.3f\n", job.id, seconds);
+            } catch (Exception e) {
+                out.format("FAILED %d %s\n", job.id, e.getMessage());
+            }
+            out.flush();
+        } catch (IOException e) {
+            PBrtTLogger.Error("Render client connection failed: %s", e.toString());
+        }
+    }
+
+    private final Options options;
+    private final String outputDirectory;
+    private final int maxConcurrentJobs;
+    private final LinkedBlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger nextJobId = new AtomicInteger(0);
+}
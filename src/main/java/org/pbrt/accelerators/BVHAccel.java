@@ -18,7 +18,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class BVHAccel extends Aggregate {
 
@@ -79,8 +79,23 @@ public class BVHAccel extends Aggregate {
 
     @Override
     public SurfaceInteraction Intersect(Ray ray) {
-        if (nodes == null) return null;
-        SurfaceInteraction isect = null, hitIsect = null;
+        HitRecord hit = new HitRecord();
+        return Intersect(ray, hit) ? hit.Finalize() : null;
+    }
+
+    @Override
+    public boolean Intersect(Ray ray, HitRecord hit) {
+        int prof = Profiler.Enter(Profiler.AccelIntersect);
+        try {
+            return IntersectNodes(ray, hit);
+        } finally {
+            Profiler.Exit(prof);
+        }
+    }
+
+    private boolean IntersectNodes(Ray ray, HitRecord hit) {
+        if (nodes == null) return false;
+        boolean hitFound = false;
         Vector3f invDir = new Vector3f(1 / ray.d.x, 1 / ray.d.y, 1 / ray.d.z);
         int[] dirIsNeg = {invDir.x < 0 ? 1 : 0, invDir.y < 0 ? 1 : 0, invDir.z < 0 ? 1 :0};
         // Follow ray through BVH nodes to find primitive intersections
@@ -93,10 +108,8 @@ public class BVHAccel extends Aggregate {
                 if (node.nPrimitives > 0) {
                     // Intersect ray with primitives in leaf BVH node
                     for (int i = 0; i < node.nPrimitives; ++i) {
-                        isect = primitives[node.primitivesOffset + i].Intersect(ray);
-                        if (isect != null) {
-                            hitIsect = isect;
-                        }
+                        if (primitives[node.primitivesOffset + i].Intersect(ray, hit))
+                            hitFound = true;
                     }
                     if (toVisitOffset == 0) break;
                     currentNodeIndex = nodesToVisit[--toVisitOffset];
@@ -117,11 +130,20 @@ public class BVHAccel extends Aggregate {
                 currentNodeIndex = nodesToVisit[--toVisitOffset];
             }
         }
-        return hitIsect;
+        return hitFound;
     }
 
     @Override
     public boolean IntersectP(Ray ray) {
+        int prof = Profiler.Enter(Profiler.AccelIntersect);
+        try {
+            return IntersectPNodes(ray);
+        } finally {
+            Profiler.Exit(prof);
+        }
+    }
+
+    private boolean IntersectPNodes(Ray ray) {
         if (nodes == null) return false;
         Vector3f invDir = new Vector3f(1.f / ray.d.x, 1.f / ray.d.y, 1.f / ray.d.z);
         int[] dirIsNeg = {invDir.x < 0 ? 1 : 0, invDir.y < 0 ? 1 : 0, invDir.z < 0 ? 1 : 0};
@@ -177,81 +199,35 @@ public class BVHAccel extends Aggregate {
         return new BVHAccel(prims, maxPrimsInNode, splitMethod);
     }
 
+    // Move the primitives in [first, last) with centroids below _pmid_ to the front; returns the
+    // index of the first one that is not
     private int partition(ArrayList<BVHPrimitiveInfo> infos, int first, int last, int dim, float pmid) {
-        if (first == last) {
-            return first;
-        }
-        first++;
         int part = first;
-        if (first == last) {
-            if (infos.get(part).centroid.at(dim) < pmid) {
-                return first;
-            } else {
-                return part;
-            }
-        }
-        while (first != last) {
-            if (infos.get(part).centroid.at(dim) < pmid) {
-                part++;
-            } else if (infos.get(first).centroid.at(dim) < pmid) {
-                Collections.swap(infos, first, part);
-                part++;
-            }
-            first++;
+        for (int i = first; i < last; ++i) {
+            if (infos.get(i).centroid.at(dim) < pmid) Collections.swap(infos, i, part++);
         }
         return part;
     }
 
+    // As above for the primitives that _comp_ orders before anything (compared against null)
     private int partition(ArrayList<BVHPrimitiveInfo> infos, int first, int last, Comparator<BVHPrimitiveInfo> comp) {
-        if (first == last) {
-            return first;
-        }
-        first++;
         int part = first;
-        if (first == last) {
-            if (comp.compare(infos.get(part), null) < 0) {
-                return first;
-            } else {
-                return part;
-            }
-        }
-        while (first != last) {
-            if (comp.compare(infos.get(part), null) < 0) {
-                part++;
-            } else if (comp.compare(infos.get(first), null) < 0) {
-                Collections.swap(infos, first, part);
-                part++;
-            }
-            first++;
+        for (int i = first; i < last; ++i) {
+            if (comp.compare(infos.get(i), null) < 0) Collections.swap(infos, i, part++);
         }
         return part;
     }
 
-    private int partitionNodes(ArrayList<BVHBuildNode> nodes, int first, int last, BVHBuildNode node, int dim, Bounds3f centroidBounds, int nBuckets, int minCostSplitBucket) {
-        if (first == last) {
-            return first;
-        }
-        float centroid = (node.bounds.pMin.at(dim) + node.bounds.pMax.at(dim)) * 0.5f;
-        int b = nBuckets * (int)((centroid - centroidBounds.pMin.at(dim)) / (centroidBounds.pMax.at(dim) - centroidBounds.pMin.at(dim)));
-        if (b == nBuckets) b = nBuckets - 1;
-
-        first++;
+    // Move the nodes in [first, last) whose centroids fall in SAH buckets up to
+    // _minCostSplitBucket_ to the front; returns the index of the first one that does not
+    private int partitionNodes(ArrayList<BVHBuildNode> nodes, int first, int last, int dim, Bounds3f centroidBounds, int nBuckets, int minCostSplitBucket) {
         int part = first;
-        if (first == last) {
-            if (b <= minCostSplitBucket) {
-                return first;
-            } else {
-                return part;
-            }
-        }
-        while (first != last) {
-            if (b <= minCostSplitBucket) {
-                part++;
-            } else if (b <= minCostSplitBucket) {
-                Collections.swap(nodes, first, part);
-                part++;
-            }
-            first++;
+        for (int i = first; i < last; ++i) {
+            Bounds3f bounds = nodes.get(i).bounds;
+            float centroid = (bounds.pMin.at(dim) + bounds.pMax.at(dim)) * 0.5f;
+            int b = (int)(nBuckets * ((centroid - centroidBounds.pMin.at(dim)) / (centroidBounds.pMax.at(dim) - centroidBounds.pMin.at(dim))));
+            if (b == nBuckets) b = nBuckets - 1;
+            if (b <= minCostSplitBucket) Collections.swap(nodes, i, part++);
         }
         return part;
     }
@@ -289,13 +265,12 @@ public class BVHAccel extends Aggregate {
 
         @Override
         public int compare(BVHPrimitiveInfo a, BVHPrimitiveInfo b) {
-            int bndx = nBuckets * (int)centroidBounds.Offset(a.centroid).at(dim);
+            int bndx = (int)(nBuckets * centroidBounds.Offset(a.centroid).at(dim));
             if (bndx == nBuckets) bndx = nBuckets - 1;
             assert(bndx >= 0);
             assert(bndx < nBuckets);
-            if (bndx < minCostSplitBucket) return -1;
-            else if (bndx > minCostSplitBucket) return 1;
-            return 0;
+            // Primitives in buckets up to the split go to the first child
+            return (bndx <= minCostSplitBucket) ? -1 : 1;
         }
 
         @Override
@@ -378,7 +353,7 @@ public class BVHAccel extends Aggregate {
 
                             // Initialize _BucketInfo_ for SAH partition buckets
                             for (int i = start; i < end; ++i) {
-                                int b = nBuckets * (int)centroidBounds.Offset(primitiveInfo.get(i).centroid).at(dim);
+                                int b = (int)(nBuckets * centroidBounds.Offset(primitiveInfo.get(i).centroid).at(dim));
                                 if (b == nBuckets) b = nBuckets - 1;
                                 assert(b >= 0);
                                 assert(b < nBuckets);
@@ -449,8 +424,7 @@ public class BVHAccel extends Aggregate {
         final MortonPrimitive[] mortonPrims = new MortonPrimitive[primitiveInfo.size()];
         for (int i = 0; i < mortonPrims.length; i++) mortonPrims[i] = new MortonPrimitive();
         final Bounds3f localBounds = bounds;
-        Consumer<Long> mortonFunc = (Long li) -> {
-            int i = Math.toIntExact(li);
+        IntConsumer mortonFunc = (int i) -> {
             // Initialize _mortonPrims[i]_ for _i_th primitive
             final int mortonBits = 10;
             final int mortonScale = 1 << mortonBits;
@@ -473,10 +447,7 @@ public class BVHAccel extends Aggregate {
                     ((mortonPrimsSorted[start].mortonCode & mask) !=
                             (mortonPrimsSorted[end].mortonCode & mask))) {
                 // Add entry to _treeletsToBuild_ for this treelet
-                int nPrimitives = end - start;
-                int maxBVHNodes = 2 * nPrimitives;
-                BVHBuildNode[] nodes = new BVHBuildNode[maxBVHNodes];
-                treeletsToBuild.add(new LBVHTreelet(start, nPrimitives, nodes));
+                treeletsToBuild.add(new LBVHTreelet(start, end - start));
                 start = end;
             }
         }
@@ -484,15 +455,15 @@ public class BVHAccel extends Aggregate {
         // Create LBVHs for treelets in parallel
         AtomicInteger atomicTotal = new AtomicInteger(0);
         AtomicInteger orderedPrimsOffset = new AtomicInteger(0);
+        // Treelets fill disjoint ranges of _orderedPrims_, so it is sized up front
         orderedPrims.ensureCapacity(primitives.length);
-        Consumer<Long> treeletFunc = (Long li) -> {
-            int i = Math.toIntExact(li);
+        for (int i = 0; i < primitives.length; ++i) orderedPrims.add(null);
+        IntConsumer treeletFunc = (int i) -> {
             // Generate _i_th LBVH treelet
             Integer[] nodesCreated = { 0 };
             final int firstBitIndex = 29 - 12;
             LBVHTreelet tr = treeletsToBuild.get(i);
-            tr.buildNodes[i] =
-                    emitLBVH(tr.buildNodes, i, primitiveInfo, mortonPrimsSorted, tr.startIndex,
+            tr.root = emitLBVH(primitiveInfo, mortonPrimsSorted, tr.startIndex,
                     tr.nPrimitives, nodesCreated, orderedPrims,
                      orderedPrimsOffset, firstBitIndex);
             atomicTotal.addAndGet(nodesCreated[0]);
@@ -503,13 +474,13 @@ public class BVHAccel extends Aggregate {
         // Create and return SAH BVH from LBVH treelets
         ArrayList<BVHBuildNode> finishedTreelets = new ArrayList<>(treeletsToBuild.size());
         for (LBVHTreelet treelet : treeletsToBuild)
-            finishedTreelets.add(treelet.buildNodes[0]);
+            finishedTreelets.add(treelet.root);
 
         return buildUpperSAH(finishedTreelets, 0, finishedTreelets.size(), totalNodes);
     }
 
+    // Build the LBVH over the _nPrimitives_ Morton-sorted primitives starting at _startPrim_
     private BVHBuildNode emitLBVH(
-            BVHBuildNode[] buildNodes, int nodeIndex,
             ArrayList<BVHPrimitiveInfo> primitiveInfo,
             MortonPrimitive[] mortonPrims, int startPrim, int nPrimitives, Integer[] totalNodes,
             ArrayList<Primitive> orderedPrims,
@@ -519,11 +490,11 @@ public class BVHAccel extends Aggregate {
         if (bitIndex == -1 || nPrimitives < maxPrimsInNode) {
             // Create and return leaf node of LBVH treelet
             totalNodes[0]++;
-            BVHBuildNode node = buildNodes[nodeIndex++];
+            BVHBuildNode node = new BVHBuildNode();
             Bounds3f bounds = new Bounds3f();
             int firstPrimOffset = orderedPrimsOffset.getAndAdd(nPrimitives);
             for (int i = 0; i < nPrimitives; ++i) {
-                int primitiveIndex = mortonPrims[i].primitiveIndex;
+                int primitiveIndex = mortonPrims[startPrim + i].primitiveIndex;
                 orderedPrims.set(firstPrimOffset + i, primitives[primitiveIndex]);
                 bounds = Bounds3f.Union(bounds, primitiveInfo.get(primitiveIndex).bounds);
             }
@@ -532,9 +503,9 @@ public class BVHAccel extends Aggregate {
         } else {
             int mask = 1 << bitIndex;
             // Advance to next subtree level if there's no LBVH split for this bit
-            if ((mortonPrims[0].mortonCode & mask) ==
-                    (mortonPrims[nPrimitives - 1].mortonCode & mask))
-                return emitLBVH(buildNodes, nodeIndex, primitiveInfo, mortonPrims, startPrim, nPrimitives,
+            if ((mortonPrims[startPrim].mortonCode & mask) ==
+                    (mortonPrims[startPrim + nPrimitives - 1].mortonCode & mask))
+                return emitLBVH(primitiveInfo, mortonPrims, startPrim, nPrimitives,
                         totalNodes, orderedPrims, orderedPrimsOffset,
                         bitIndex - 1);
 
@@ -543,26 +514,26 @@ public class BVHAccel extends Aggregate {
             while (searchStart + 1 != searchEnd) {
                 assert (searchStart != searchEnd);
                 int mid = (searchStart + searchEnd) / 2;
-                if ((mortonPrims[searchStart].mortonCode & mask) ==
-                        (mortonPrims[mid].mortonCode & mask))
+                if ((mortonPrims[startPrim + searchStart].mortonCode & mask) ==
+                        (mortonPrims[startPrim + mid].mortonCode & mask))
                     searchStart = mid;
                 else {
-                    assert ((mortonPrims[mid].mortonCode & mask) == (mortonPrims[searchEnd].mortonCode & mask));
+                    assert ((mortonPrims[startPrim + mid].mortonCode & mask) == (mortonPrims[startPrim + searchEnd].mortonCode & mask));
                     searchEnd = mid;
                 }
             }
             int splitOffset = searchEnd;
             assert (splitOffset <= nPrimitives - 1);
-            assert ((mortonPrims[splitOffset - 1].mortonCode & mask) != (mortonPrims[splitOffset].mortonCode & mask));
+            assert ((mortonPrims[startPrim + splitOffset - 1].mortonCode & mask) != (mortonPrims[startPrim + splitOffset].mortonCode & mask));
 
             // Create and return interior LBVH node
             totalNodes[0]++;
-            BVHBuildNode node = buildNodes[nodeIndex++];
+            BVHBuildNode node = new BVHBuildNode();
             BVHBuildNode[] lbvh = {
-                    emitLBVH(buildNodes, nodeIndex, primitiveInfo, mortonPrims, startPrim, splitOffset,
+                    emitLBVH(primitiveInfo, mortonPrims, startPrim, splitOffset,
                             totalNodes, orderedPrims, orderedPrimsOffset,
                             bitIndex - 1),
-                    emitLBVH(buildNodes, nodeIndex, primitiveInfo, mortonPrims, startPrim+splitOffset,
+                    emitLBVH(primitiveInfo, mortonPrims, startPrim+splitOffset,
                     nPrimitives - splitOffset, totalNodes, orderedPrims,
                     orderedPrimsOffset, bitIndex - 1)};
             int axis = bitIndex % 3;
@@ -597,6 +568,9 @@ public class BVHAccel extends Aggregate {
         // Allocate _BucketInfo_ for SAH partition buckets
         final int nBuckets = 12;
         BucketInfo[] buckets = new BucketInfo[nBuckets];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new BucketInfo(0, new Bounds3f());
+        }
 
         // Initialize _BucketInfo_ for HLBVH SAH partition buckets
         for (int i = start; i < end; ++i) {
@@ -635,7 +609,7 @@ public class BVHAccel extends Aggregate {
             }
         }
 
-        int mid = partitionNodes(treeletRoots, start, end, node, dim, centroidBounds, nBuckets, minCostSplitBucket);
+        int mid = partitionNodes(treeletRoots, start, end, dim, centroidBounds, nBuckets, minCostSplitBucket);
         assert (mid > start);
         assert (mid < end);
         node.InitInterior(dim, this.buildUpperSAH(treeletRoots, start, mid, totalNodes),
@@ -708,13 +682,12 @@ public class BVHAccel extends Aggregate {
     }
 
     private static class LBVHTreelet {
-        public LBVHTreelet(int startIndex, int nPrimitives, BVHBuildNode[] nodes) {
+        public LBVHTreelet(int startIndex, int nPrimitives) {
             this.startIndex = startIndex;
             this.nPrimitives = nPrimitives;
-            this.buildNodes = nodes;
         }
         int startIndex, nPrimitives;
-        BVHBuildNode[] buildNodes;
+        BVHBuildNode root;
     }
 
     private static class LinearBVHNode {
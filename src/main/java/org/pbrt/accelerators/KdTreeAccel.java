@@ -78,10 +78,25 @@ public class KdTreeAccel extends Aggregate {
 
     @Override
     public SurfaceInteraction Intersect(Ray ray) {
+        HitRecord hit = new HitRecord();
+        return Intersect(ray, hit) ? hit.Finalize() : null;
+    }
+
+    @Override
+    public boolean Intersect(Ray ray, HitRecord hit) {
+        int prof = Profiler.Enter(Profiler.AccelIntersect);
+        try {
+            return IntersectNodes(ray, hit);
+        } finally {
+            Profiler.Exit(prof);
+        }
+    }
+
+    private boolean IntersectNodes(Ray ray, HitRecord hit) {
         // Compute initial parametric range of ray inside kd-tree extent
         Bounds3f.BoundIntersect bisect = bounds.IntersectP(ray);
         if (bisect == null) {
-            return null;
+            return false;
         }
         float tMin = bisect.hit0;
         float tMax = bisect.hit1;
@@ -92,7 +107,7 @@ public class KdTreeAccel extends Aggregate {
         int todoPos = 0;
 
         // Traverse kd-tree nodes in order for ray
-        SurfaceInteraction isect = null, hitIsect = null;
+        boolean hitFound = false;
         int nodeNdx = 0;
         KdAccelNode node = nodes[nodeNdx];
         while (node != null) {
@@ -137,16 +152,14 @@ public class KdTreeAccel extends Aggregate {
                 if (nPrimitives == 1) {
                 Primitive p = primitives[node.onePrimitive];
                 // Check one primitive inside leaf node
-                isect = p.Intersect(ray);
-                if (isect != null)
-                    hitIsect = isect;
+                if (p.Intersect(ray, hit))
+                    hitFound = true;
                 } else {
                     for (int i = 0; i < nPrimitives; ++i) {
                         int index = primitiveIndices.get(node.primitiveIndicesOffset + i);
                         Primitive p = primitives[index];
                         // Check one primitive inside leaf node
-                        isect = p.Intersect(ray);
-                        if (isect != null) hitIsect = isect;
+                        if (p.Intersect(ray, hit)) hitFound = true;
                     }
                 }
 
@@ -161,11 +174,20 @@ public class KdTreeAccel extends Aggregate {
                     break;
             }
         }
-        return hitIsect;
+        return hitFound;
     }
 
     @Override
     public boolean IntersectP(Ray ray) {
+        int prof = Profiler.Enter(Profiler.AccelIntersect);
+        try {
+            return IntersectPNodes(ray);
+        } finally {
+            Profiler.Exit(prof);
+        }
+    }
+
+    private boolean IntersectPNodes(Ray ray) {
         // Compute initial parametric range of ray inside kd-tree extent
         Bounds3f.BoundIntersect bisect = bounds.IntersectP(ray);
         if (bisect == null) {
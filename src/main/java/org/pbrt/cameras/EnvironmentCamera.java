@@ -32,6 +32,37 @@ public class EnvironmentCamera extends Camera {
         return cr;
     }
 
+    @Override
+    public void GenerateRayDifferentials(CameraRayBuffer rays) {
+        // The differentials are the camera rays one pixel over in $x$ and $y$
+        float resX = film.fullResolution.x, resY = film.fullResolution.y;
+        for (int i = 0; i < rays.count; ++i) {
+            float x = rays.pFilmX[i], y = rays.pFilmY[i];
+            rays.ox[i] = rays.oy[i] = rays.oz[i] = 0;
+            rays.rxOx[i] = rays.rxOy[i] = rays.rxOz[i] = 0;
+            rays.ryOx[i] = rays.ryOy[i] = rays.ryOz[i] = 0;
+            SetDirection(rays.dx, rays.dy, rays.dz, i, x, y, resX, resY);
+            SetDirection(rays.rxDx, rays.rxDy, rays.rxDz, i, x + 1, y, resX, resY);
+            // Camera.GenerateRayDifferential() steps back from x + 1, which needn't round to x
+            SetDirection(rays.ryDx, rays.ryDy, rays.ryDz, i, (x + 1) - 1, y + 1, resX, resY);
+            rays.tMax[i] = Pbrt.Infinity;
+            rays.time[i] = Pbrt.Lerp(rays.sampleTime[i], shutterOpen, shutterClose);
+            rays.weight[i] = 1;
+        }
+        rays.medium = medium;
+        CameraToWorld.xform(rays, true);
+    }
+
+    // Compute environment camera ray direction for film position (x, y)
+    private static void SetDirection(float[] vx, float[] vy, float[] vz, int i, float x, float y, float resX, float resY) {
+        float theta = Pbrt.Pi * y / resY;
+        float phi = 2 * Pbrt.Pi * x / resX;
+        float sinTheta = (float)Math.sin(theta);
+        vx[i] = sinTheta * (float)Math.cos(phi);
+        vy[i] = (float)Math.cos(theta);
+        vz[i] = sinTheta * (float)Math.sin(phi);
+    }
+
     public static Camera Create(ParamSet paramSet, AnimatedTransform cam2world, Film film, Medium medium) {
         // Extract common camera parameters from _ParamSet_
         float shutteropen = paramSet.FindOneFloat("shutteropen", 0);
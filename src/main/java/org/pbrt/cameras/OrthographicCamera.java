@@ -105,6 +105,52 @@ public class OrthographicCamera extends ProjectiveCamera {
         return cr;
     }
 
+    @Override
+    public void GenerateRayDifferentials(CameraRayBuffer rays) {
+        // Lens sampling is left to the per-sample path
+        if (lensRadius > 0) {
+            super.GenerateRayDifferentials(rays);
+            return;
+        }
+        // Film samples lie on the $z=0$ plane; hoist the raster-to-camera terms that don't
+        // depend on the sample
+        float[][] m = RasterToCamera.GetMatrix().m;
+        float m00 = m[0][0], m01 = m[0][1], m03 = m[0][3];
+        float m10 = m[1][0], m11 = m[1][1], m13 = m[1][3];
+        float m20 = m[2][0], m21 = m[2][1], m23 = m[2][3];
+        float m30 = m[3][0], m31 = m[3][1], m33 = m[3][3];
+        float dxx = dxCamera.x, dxy = dxCamera.y, dxz = dxCamera.z;
+        float dyx = dyCamera.x, dyy = dyCamera.y, dyz = dyCamera.z;
+        for (int i = 0; i < rays.count; ++i) {
+            // Compute raster and camera sample positions
+            float x = rays.pFilmX[i], y = rays.pFilmY[i];
+            float px = m00 * x + m01 * y + m03;
+            float py = m10 * x + m11 * y + m13;
+            float pz = m20 * x + m21 * y + m23;
+            float pw = m30 * x + m31 * y + m33;
+            if (pw != 1) {
+                float inv = 1.0f / pw;
+                px = inv * px;
+                py = inv * py;
+                pz = inv * pz;
+            }
+            rays.ox[i] = px; rays.oy[i] = py; rays.oz[i] = pz;
+            rays.dx[i] = 0; rays.dy[i] = 0; rays.dz[i] = 1;
+
+            // Compute ray differentials for _OrthographicCamera_
+            rays.rxOx[i] = px + dxx; rays.rxOy[i] = py + dxy; rays.rxOz[i] = pz + dxz;
+            rays.ryOx[i] = px + dyx; rays.ryOy[i] = py + dyy; rays.ryOz[i] = pz + dyz;
+            rays.rxDx[i] = rays.ryDx[i] = 0;
+            rays.rxDy[i] = rays.ryDy[i] = 0;
+            rays.rxDz[i] = rays.ryDz[i] = 1;
+            rays.tMax[i] = Pbrt.Infinity;
+            rays.time[i] = Pbrt.Lerp(rays.sampleTime[i], shutterOpen, shutterClose);
+            rays.weight[i] = 1;
+        }
+        rays.medium = medium;
+        CameraToWorld.xform(rays, false);
+    }
+
     public static Camera Create(ParamSet paramSet, AnimatedTransform cam2world, Film film, Medium medium) {
         // Extract common camera parameters from _ParamSet_
         float shutteropen = paramSet.FindOneFloat("shutteropen", 0);
@@ -25,8 +25,8 @@ public class PerspectiveCamera extends ProjectiveCamera {
         Point2i res = film.fullResolution;
         Point3f pMin = RasterToCamera.xform(new Point3f(0, 0, 0));
         Point3f pMax = RasterToCamera.xform(new Point3f(res.x, res.y, 0));
-        pMin.invScale(pMin.z);
-        pMax.invScale(pMax.z);
+        pMin = pMin.invScale(pMin.z);
+        pMax = pMax.invScale(pMax.z);
         A = Math.abs((pMax.x - pMin.x) * (pMax.y - pMin.y));
     }
 
@@ -110,6 +110,61 @@ public class PerspectiveCamera extends ProjectiveCamera {
         return cr;
     }
 
+    @Override
+    public void GenerateRayDifferentials(CameraRayBuffer rays) {
+        // Lens sampling is left to the per-sample path
+        if (lensRadius > 0) {
+            super.GenerateRayDifferentials(rays);
+            return;
+        }
+        // Film samples lie on the $z=0$ plane; hoist the raster-to-camera terms that don't
+        // depend on the sample
+        float[][] m = RasterToCamera.GetMatrix().m;
+        float m00 = m[0][0], m01 = m[0][1], m03 = m[0][3];
+        float m10 = m[1][0], m11 = m[1][1], m13 = m[1][3];
+        float m20 = m[2][0], m21 = m[2][1], m23 = m[2][3];
+        float m30 = m[3][0], m31 = m[3][1], m33 = m[3][3];
+        float dxx = dxCamera.x, dxy = dxCamera.y, dxz = dxCamera.z;
+        float dyx = dyCamera.x, dyy = dyCamera.y, dyz = dyCamera.z;
+        for (int i = 0; i < rays.count; ++i) {
+            // Compute raster and camera sample positions
+            float x = rays.pFilmX[i], y = rays.pFilmY[i];
+            float px = m00 * x + m01 * y + m03;
+            float py = m10 * x + m11 * y + m13;
+            float pz = m20 * x + m21 * y + m23;
+            float pw = m30 * x + m31 * y + m33;
+            if (pw != 1) {
+                float inv = 1.0f / pw;
+                px = inv * px;
+                py = inv * py;
+                pz = inv * pz;
+            }
+            rays.ox[i] = rays.oy[i] = rays.oz[i] = 0;
+            SetNormalized(rays.dx, rays.dy, rays.dz, i, px, py, pz);
+
+            // Compute offset rays for _PerspectiveCamera_ ray differentials
+            rays.rxOx[i] = rays.rxOy[i] = rays.rxOz[i] = 0;
+            rays.ryOx[i] = rays.ryOy[i] = rays.ryOz[i] = 0;
+            SetNormalized(rays.rxDx, rays.rxDy, rays.rxDz, i, px + dxx, py + dxy, pz + dxz);
+            SetNormalized(rays.ryDx, rays.ryDy, rays.ryDz, i, px + dyx, py + dyy, pz + dyz);
+            rays.tMax[i] = Pbrt.Infinity;
+            rays.time[i] = Pbrt.Lerp(rays.sampleTime[i], shutterOpen, shutterClose);
+            rays.weight[i] = 1;
+        }
+        rays.medium = medium;
+        CameraToWorld.xform(rays, false);
+    }
+
+    // Stores (x, y, z) normalized as Vector3f.Normalize() would
+    private static void SetNormalized(float[] vx, float[] vy, float[] vz, int i, float x, float y, float z) {
+        float length = (float)Math.sqrt(x * x + y * y + z * z);
+        float inv = 0;
+        if (length != 0) inv = 1.0f / length;
+        vx[i] = x * inv;
+        vy[i] = y * inv;
+        vz[i] = z * inv;
+    }
+
     @Override
     public CameraWe We(Ray ray) {
         CameraWe cwe = new CameraWe();
@@ -188,7 +243,7 @@ public class PerspectiveCamera extends ProjectiveCamera {
         cw.vis = new Light.VisibilityTester(ref, lensIntr);
         cw.wi = lensIntr.p.subtract(ref.p);
         float dist = cw.wi.Length();
-        cw.wi.invScale(dist);
+        cw.wi = cw.wi.invScale(dist);
 
         // Compute PDF for importance arriving at _ref_
 
@@ -14,8 +14,11 @@ import org.pbrt.core.*;
 import org.pbrt.core.PBrtTLogger;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class RealisticCamera extends Camera {
 
@@ -38,6 +41,14 @@ public class RealisticCamera extends Camera {
                     lensData[i + 2], lensData[i + 3] * 0.001f / 2));
         }
 
+        // The rear element sample points used to bound the exit pupil are the same for every bound
+        pupilSampleU = new float[nPupilSamples];
+        pupilSampleV = new float[nPupilSamples];
+        for (int i = 0; i < nPupilSamples; ++i) {
+            pupilSampleU[i] = LowDiscrepancy.RadicalInverse(0, i);
+            pupilSampleV[i] = LowDiscrepancy.RadicalInverse(1, i);
+        }
+
         // Compute lens--film distance for given focus distance
         float fb = FocusBinarySearch(focusDistance);
         PBrtTLogger.Info("Binary search focus: %f -> %f\n", fb, FocusDistance(fb));
@@ -45,51 +56,118 @@ public class RealisticCamera extends Camera {
         PBrtTLogger.Info("Thick lens focus: %f -> %f\n", elementInterfaces.get(elementInterfaces.size()-1).thickness,
                 FocusDistance(elementInterfaces.get(elementInterfaces.size()-1).thickness));
 
-        // Compute exit pupil bounds at sampled points on the film
-        int nSamples = 64;
-        exitPupilBounds = new Bounds2f[nSamples];
-        Consumer<Long> exitFunc = (Long li) -> {
-            int i = Math.toIntExact(li);
-            float r0 = (float)i / nSamples * film.diagonal / 2;
-            float r1 = (float)(i + 1) / nSamples * film.diagonal / 2;
-            exitPupilBounds[i] = BoundExitPupil(r0, r1);
-        };
-        Parallel.ParallelFor(exitFunc, nSamples, 1);
+        // Compute exit pupil bounds at sampled points on the film, reusing the table of an earlier
+        // camera with the same lens system, focus and film size
+        physicalExtent = film.GetPhysicalExtent();
+        String pupilKey = ExitPupilKey();
+        exitPupilBounds = exitPupilCache.get(pupilKey);
+        if (exitPupilBounds == null) {
+            int nSamples = 64;
+            Bounds2f[] bounds = new Bounds2f[nSamples];
+            IntConsumer exitFunc = (int i) -> {
+                float r0 = (float)i / nSamples * film.diagonal / 2;
+                float r1 = (float)(i + 1) / nSamples * film.diagonal / 2;
+                bounds[i] = BoundExitPupil(r0, r1);
+            };
+            Parallel.ParallelFor(exitFunc, nSamples, 1);
+            exitPupilCache.putIfAbsent(pupilKey, bounds);
+            exitPupilBounds = bounds;
+        }
+        pupilSampleU = pupilSampleV = null;
     }
 
     @Override
     public CameraRay GenerateRay(CameraSample sample) {
         //++totalRays;
-        // Find point on film, _pFilm_, corresponding to _sample.pFilm_
-        Point2f s = new Point2f(sample.pFilm.x / film.fullResolution.x, sample.pFilm.y / film.fullResolution.y);
-        Point2f pFilm2 = film.GetPhysicalExtent().Lerp(s);
-        Point3f pFilm = new Point3f(-pFilm2.x, pFilm2.y, 0);
-
-        // Trace ray from _pFilm_ through lens system
-        PupilSample pupilSample = SampleExitPupil(new Point2f(pFilm.x, pFilm.y), sample.pLens);
-        Point3f pRear = pupilSample.p;
-        float exitPupilBoundsArea = pupilSample.area;
-        Ray rFilm = new Ray(pFilm, pRear.subtract(pFilm), Pbrt.Infinity, Pbrt.Lerp(sample.time, shutterOpen, shutterClose), null);
-        Ray ray = TraceLensesFromFilm(rFilm);
-        if (ray == null) {
+        LensRay r = new LensRay();
+        float weight = TraceCameraRay(sample.pFilm.x, sample.pFilm.y, sample.pLens.x, sample.pLens.y, r);
+        if (weight == 0) {
             //++vignettedRays;
             return null;
         }
 
         // Finish initialization of _RealisticCamera_ ray
         CameraRay cray = new CameraRay();
+        Ray ray = new Ray(new Point3f(r.ox, r.oy, r.oz), new Vector3f(r.dx, r.dy, r.dz), Pbrt.Infinity,
+                Pbrt.Lerp(sample.time, shutterOpen, shutterClose), null);
         cray.ray = CameraToWorld.xform(ray);
         cray.ray.d = Vector3f.Normalize(cray.ray.d);
         cray.ray.medium = medium;
+        cray.weight = weight;
+        return cray;
+    }
+
+    @Override
+    public void GenerateRayDifferentials(CameraRayBuffer rays) {
+        rays.medium = medium;
+        LensRay r = new LensRay();
+        for (int i = 0; i < rays.count; ++i) {
+            float fx = rays.pFilmX[i], fy = rays.pFilmY[i], u = rays.pLensX[i], v = rays.pLensY[i];
+            rays.tMax[i] = Pbrt.Infinity;
+            rays.time[i] = Pbrt.Lerp(rays.sampleTime[i], shutterOpen, shutterClose);
+            float weight = TraceCameraRay(fx, fy, u, v, r);
+            if (weight == 0) {
+                rays.weight[i] = 0;
+                continue;
+            }
+            rays.ox[i] = r.ox; rays.oy[i] = r.oy; rays.oz[i] = r.oz;
+            rays.dx[i] = r.dx; rays.dy[i] = r.dy; rays.dz[i] = r.dz;
+
+            // Trace the rays for samples shifted one pixel in $x$ and $y$ for the differentials
+            if (TraceCameraRay(fx + 1, fy, u, v, r) == 0) {
+                rays.weight[i] = 0;
+                continue;
+            }
+            rays.rxOx[i] = r.ox; rays.rxOy[i] = r.oy; rays.rxOz[i] = r.oz;
+            rays.rxDx[i] = r.dx; rays.rxDy[i] = r.dy; rays.rxDz[i] = r.dz;
+            if (TraceCameraRay(fx, fy + 1, u, v, r) == 0) {
+                rays.weight[i] = 0;
+                continue;
+            }
+            rays.ryOx[i] = r.ox; rays.ryOy[i] = r.oy; rays.ryOz[i] = r.oz;
+            rays.ryDx[i] = r.dx; rays.ryDy[i] = r.dy; rays.ryDz[i] = r.dz;
+            rays.weight[i] = weight;
+        }
+
+        CameraToWorld.xform(rays, true);
+        for (int i = 0; i < rays.count; ++i) {
+            if (rays.weight[i] == 0) continue;
+            Normalize(rays.dx, rays.dy, rays.dz, i);
+            Normalize(rays.rxDx, rays.rxDy, rays.rxDz, i);
+            Normalize(rays.ryDx, rays.ryDy, rays.ryDz, i);
+        }
+    }
+
+    // Same as Vector3f.Normalize() on the vector stored at index _i_
+    private static void Normalize(float[] x, float[] y, float[] z, int i) {
+        float length = (float)Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+        float inv = (length != 0) ? 1.0f / length : 0;
+        x[i] *= inv;
+        y[i] *= inv;
+        z[i] *= inv;
+    }
+
+    // Traces the ray for the film sample (_filmX_, _filmY_) and lens sample (_u_, _v_) through the
+    // lens system, leaving it in _r_ in camera space.  Returns the ray's weight, or zero if the
+    // lens system blocks it.
+    private float TraceCameraRay(float filmX, float filmY, float u, float v, LensRay r) {
+        // Find point on film, _pFilm_, corresponding to the film sample
+        float sx = filmX / film.fullResolution.x, sy = filmY / film.fullResolution.y;
+        float pFilmX = -Pbrt.Lerp(sx, physicalExtent.pMin.x, physicalExtent.pMax.x);
+        float pFilmY = Pbrt.Lerp(sy, physicalExtent.pMin.y, physicalExtent.pMax.y);
+
+        // Trace ray from _pFilm_ through lens system
+        float exitPupilBoundsArea = SampleExitPupil(pFilmX, pFilmY, u, v, r);
+        float dLength = (float)Math.sqrt(r.dx * r.dx + r.dy * r.dy + r.dz * r.dz);
+        float cosTheta = r.dz * (1.0f / dLength);
+        if (!TraceLensesFromFilm(r)) return 0;
 
         // Return weighting for _RealisticCamera_ ray
-        float cosTheta = Vector3f.Normalize(rFilm.d).z;
         float cos4Theta = (cosTheta * cosTheta) * (cosTheta * cosTheta);
         if (simpleWeighting)
-            cray.weight = cos4Theta;
+            return cos4Theta;
         else
-            cray.weight = (shutterClose - shutterOpen) * (cos4Theta * exitPupilBoundsArea) / (LensRearZ() * LensRearZ());
-        return cray;
+            return (shutterClose - shutterOpen) * (cos4Theta * exitPupilBoundsArea) / (LensRearZ() * LensRearZ());
     }
 
     public static Camera Create(ParamSet paramSet, AnimatedTransform cam2world, Film film, Medium medium) {
@@ -141,10 +219,40 @@ public class RealisticCamera extends Camera {
 
     // RealisticCamera Private Data
     private boolean simpleWeighting;
-    private ArrayList<LensElementInterface> elementInterfaces;
+    private ArrayList<LensElementInterface> elementInterfaces = new ArrayList<>();
     private Bounds2f[] exitPupilBounds;
+    private Bounds2f physicalExtent;
+    // Exit pupil bounds near the film center for the current rear element position, used while focusing
+    private Bounds2f focusPupilBounds;
+    private float focusPupilRearZ = Float.NaN;
+    // Low-discrepancy points on the rear element for BoundExitPupil(), only kept during construction
+    private static final int nPupilSamples = 1024 * 1024;
+    private float[] pupilSampleU, pupilSampleV;
 
     private static final Transform CameraToLens = Transform.Scale(1, 1, -1);
+    // Exit pupil tables by lens system, focus and film size; see ExitPupilKey(). Only the most
+    // recently used tables are kept, so a long running server doesn't collect one per focus setting.
+    private static final int maxCachedExitPupils = 16;
+    private static final Map<String, Bounds2f[]> exitPupilCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, Bounds2f[]>(maxCachedExitPupils, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bounds2f[]> eldest) {
+                    return size() > maxCachedExitPupils;
+                }
+            });
+
+    // Origin and direction of a ray traced through the lens system, updated in place
+    private static final class LensRay {
+        float ox, oy, oz, dx, dy, dz;
+
+        void Set(Ray r) {
+            ox = r.o.x; oy = r.o.y; oz = r.o.z;
+            dx = r.d.x; dy = r.d.y; dz = r.d.z;
+        }
+        Ray ToRay(Ray r) {
+            return new Ray(new Point3f(ox, oy, oz), new Vector3f(dx, dy, dz), r.tMax, r.time, r.medium);
+        }
+    }
 
     // RealisticCamera Private Methods
     private float LensRearZ() { return elementInterfaces.get(elementInterfaces.size()-1).thickness; }
@@ -159,50 +267,115 @@ public class RealisticCamera extends Camera {
     }
 
     private Ray TraceLensesFromFilm(Ray rCamera) {
+        LensRay r = new LensRay();
+        r.Set(rCamera);
+        return TraceLensesFromFilm(r) ? r.ToRay(rCamera) : null;
+    }
+
+    // Traces _r_, given in camera space, from the film through the lens system without
+    // allocating; on return it holds the ray leaving the front element, in camera space.
+    // Returns false if the ray is blocked.
+    private boolean TraceLensesFromFilm(LensRay r) {
         float elementZ = 0;
-        // Transform _rCamera_ from camera to lens system space
-        Ray rLens = CameraToLens.xform(rCamera);
+        // Transform _r_ from camera to lens system space
+        FlipZ(r);
         for (int i = elementInterfaces.size() - 1; i >= 0; --i) {
             LensElementInterface element = elementInterfaces.get(i);
             // Update ray from film accounting for interaction with _element_
             elementZ -= element.thickness;
+            float etaI = element.eta;
+            float etaT = (i > 0 && elementInterfaces.get(i - 1).eta != 0) ? elementInterfaces.get(i - 1).eta : 1;
+            if (!TraceElement(r, element, elementZ, etaI / etaT)) return false;
+        }
+        // Transform _r_ from lens system space back to camera space
+        FlipZ(r);
+        return true;
+    }
 
-            // Compute intersection of ray with lens element
-            float t;
-            Normal3f n = new Normal3f();
-            boolean isStop = (element.curvatureRadius == 0);
-            if (isStop)
-                t = (elementZ - rLens.o.z) / rLens.d.z;
-            else {
-                float radius = element.curvatureRadius;
-                float zCenter = elementZ + element.curvatureRadius;
-                InterResult ires = IntersectSphericalElement(radius, zCenter, rLens);
-                if (ires == null)
-                    return null;
-                t = ires.t;
-                n = ires.n;
-            }
-            assert (t >= 0);
-
-            // Test intersection point against element aperture
-            Point3f pHit = rLens.at(t);
-            float r2 = pHit.x * pHit.x + pHit.y * pHit.y;
-            if (r2 > element.apertureRadius * element.apertureRadius) return null;
-            rLens.o = pHit;
+    // Same as xform(Ray) with CameraToLens, which is its own inverse, including the offset of the
+    // origin to the edge of its error bounds
+    private static void FlipZ(LensRay r) {
+        r.oz = -r.oz;
+        r.dz = -r.dz;
+        float lengthSquared = r.dx * r.dx + r.dy * r.dy + r.dz * r.dz;
+        if (lengthSquared > 0) {
+            float g3 = Pbrt.gamma(3);
+            float dt = (Math.abs(r.dx) * (Math.abs(r.ox) * g3) + Math.abs(r.dy) * (Math.abs(r.oy) * g3) +
+                    Math.abs(r.dz) * (Math.abs(r.oz) * g3)) / lengthSquared;
+            r.ox += r.dx * dt;
+            r.oy += r.dy * dt;
+            r.oz += r.dz * dt;
+        }
+    }
 
-            // Update ray path for element interface interaction
-            if (!isStop) {
-                float etaI = element.eta;
-                float etaT = (i > 0 && elementInterfaces.get(i - 1).eta != 0) ? elementInterfaces.get(i - 1).eta : 1;
-                Vector3f w = Reflection.Refract(Vector3f.Normalize(rLens.d.negate()), n, etaI / etaT);
-                if (w == null) return null;
-                rLens.d = w;
+    // Moves _r_, in lens system space, to its intersection with _element_ at _elementZ_ and
+    // refracts it there with relative index of refraction _eta_.  Returns false if the ray misses
+    // the element, falls outside its aperture or is totally internally reflected.
+    private static boolean TraceElement(LensRay r, LensElementInterface element, float elementZ, float eta) {
+        // Compute intersection of ray with lens element
+        float t;
+        float nx = 0, ny = 0, nz = 0;
+        boolean isStop = (element.curvatureRadius == 0);
+        if (isStop)
+            t = (elementZ - r.oz) / r.dz;
+        else {
+            // Compute _t0_ and _t1_ for ray--element intersection
+            float radius = element.curvatureRadius;
+            float zCenter = elementZ + element.curvatureRadius;
+            float ox = r.ox, oy = r.oy, oz = r.oz - zCenter;
+            float A = r.dx * r.dx + r.dy * r.dy + r.dz * r.dz;
+            float B = 2 * (r.dx * ox + r.dy * oy + r.dz * oz);
+            float C = ox * ox + oy * oy + oz * oz - radius * radius;
+            double discrim = (double)B * (double)B - 4 * (double)A * (double)C;
+            if (discrim < 0) return false;
+            double rootDiscrim = Math.sqrt(discrim);
+            double q = (B < 0) ? -.5 * (B - rootDiscrim) : -.5 * (B + rootDiscrim);
+            float t0 = (float)q / A, t1 = C / (float)q;
+
+            // Select intersection $t$ based on ray direction and element curvature
+            boolean useCloserT = (r.dz > 0) ^ (radius < 0);
+            t = useCloserT ? Math.min(t0, t1) : Math.max(t0, t1);
+            if (t < 0) return false;
+
+            // Compute surface normal of element at ray intersection point, facing the ray origin
+            nx = ox + r.dx * t;
+            ny = oy + r.dy * t;
+            nz = oz + r.dz * t;
+            float invLength = 1.0f / (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+            nx *= invLength;
+            ny *= invLength;
+            nz *= invLength;
+            if (nx * -r.dx + ny * -r.dy + nz * -r.dz < 0) {
+                nx = -nx;
+                ny = -ny;
+                nz = -nz;
             }
         }
-        // Transform _rLens_ from lens system space back to camera space
-        Transform LensToCamera = Transform.Scale(1, 1, -1);
-
-        return LensToCamera.xform(rLens);
+        assert (t >= 0);
+
+        // Test intersection point against element aperture
+        float px = r.ox + r.dx * t, py = r.oy + r.dy * t, pz = r.oz + r.dz * t;
+        float r2 = px * px + py * py;
+        if (r2 > element.apertureRadius * element.apertureRadius) return false;
+        r.ox = px;
+        r.oy = py;
+        r.oz = pz;
+
+        // Update ray path for element interface interaction; see Reflection.Refract()
+        if (!isStop) {
+            float invLength = 1.0f / (float)Math.sqrt(r.dx * r.dx + r.dy * r.dy + r.dz * r.dz);
+            float wix = -r.dx * invLength, wiy = -r.dy * invLength, wiz = -r.dz * invLength;
+            float cosThetaI = nx * wix + ny * wiy + nz * wiz;
+            float sin2ThetaI = Math.max(0, 1 - cosThetaI * cosThetaI);
+            float sin2ThetaT = eta * eta * sin2ThetaI;
+            if (sin2ThetaT >= 1) return false;
+            float cosThetaT = (float)Math.sqrt(1 - sin2ThetaT);
+            float nScale = eta * cosThetaI - cosThetaT;
+            r.dx = eta * -wix + nScale * nx;
+            r.dy = eta * -wiy + nScale * ny;
+            r.dz = eta * -wiz + nScale * nz;
+        }
+        return true;
     }
 
     private static class InterResult {
@@ -234,45 +407,20 @@ public class RealisticCamera extends Camera {
     private Ray TraceLensesFromScene(Ray rCamera) {
         float elementZ = -LensFrontZ();
         // Transform _rCamera_ from camera to lens system space
-        Ray rLens = CameraToLens.xform(rCamera);
+        LensRay r = new LensRay();
+        r.Set(rCamera);
+        FlipZ(r);
         for (int i = 0; i < elementInterfaces.size(); ++i) {
             LensElementInterface element = elementInterfaces.get(i);
-            // Compute intersection of ray with lens element
-            float t;
-            Normal3f n = new Normal3f();
-            boolean isStop = (element.curvatureRadius == 0);
-            if (isStop)
-                t = (elementZ - rLens.o.z) / rLens.d.z;
-            else {
-                float radius = element.curvatureRadius;
-                float zCenter = elementZ + element.curvatureRadius;
-                InterResult ires = IntersectSphericalElement(radius, zCenter, rLens);
-                if (ires == null)
-                    return null;
-                t = ires.t;
-                n = ires.n;
-            }
-            assert (t >= 0);
-
-            // Test intersection point against element aperture
-            Point3f pHit = rLens.at(t);
-            float r2 = pHit.x * pHit.x + pHit.y * pHit.y;
-            if (r2 > element.apertureRadius * element.apertureRadius) return null;
-            rLens.o = pHit;
-
             // Update ray path for from-scene element interface interaction
-            if (!isStop) {
-                float etaI = (i == 0 || elementInterfaces.get(i - 1).eta == 0) ? 1 : elementInterfaces.get(i - 1).eta;
-                float etaT = (elementInterfaces.get(i).eta != 0) ? elementInterfaces.get(i).eta : 1;
-                Vector3f wt = Reflection.Refract(Vector3f.Normalize(rLens.d.negate()), n, etaI / etaT);
-                if (wt == null) return null;
-                rLens.d = wt;
-            }
+            float etaI = (i == 0 || elementInterfaces.get(i - 1).eta == 0) ? 1 : elementInterfaces.get(i - 1).eta;
+            float etaT = (element.eta != 0) ? element.eta : 1;
+            if (!TraceElement(r, element, elementZ, etaI / etaT)) return null;
             elementZ += element.thickness;
         }
-        // Transform _rLens_ from lens system space back to camera space
-        Transform LensToCamera = Transform.Scale(1, 1, -1);
-        return LensToCamera.xform(rLens);
+        // Transform _r_ from lens system space back to camera space
+        FlipZ(r);
+        return r.ToRay(rCamera);
     }
 
     private void DrawLensSystem() {
@@ -543,7 +691,11 @@ public class RealisticCamera extends Camera {
 
     private float FocusDistance(float filmDist) {
         // Find offset ray from film center through lens
-        Bounds2f bounds = BoundExitPupil(0, 0.001f * film.diagonal);
+        if (focusPupilRearZ != LensRearZ()) {
+            focusPupilBounds = BoundExitPupil(0, 0.001f * film.diagonal);
+            focusPupilRearZ = LensRearZ();
+        }
+        Bounds2f bounds = focusPupilBounds;
         float lu = 0.1f * bounds.pMax.x;
         Ray ray = TraceLensesFromFilm(new Ray(new Point3f(0, 0, LensRearZ() - filmDist), new Vector3f(lu, 0, filmDist)));
         if (ray == null) {
@@ -559,26 +711,36 @@ public class RealisticCamera extends Camera {
     }
 
     private Bounds2f BoundExitPupil(float pFilmX0, float pFilmX1) {
-        Bounds2f pupilBounds = new Bounds2f();
         // Sample a collection of points on the rear lens to find exit pupil
-        int nSamples = 1024 * 1024;
+        int nSamples = nPupilSamples;
         int nExitingRays = 0;
 
         // Compute bounding box of projection of rear element on sampling plane
         float rearRadius = RearElementRadius();
         Bounds2f projRearBounds = new Bounds2f(new Point2f(-1.5f * rearRadius, -1.5f * rearRadius),
                 new Point2f(1.5f * rearRadius, 1.5f * rearRadius));
+        float rearZ = LensRearZ();
+        float minX = Pbrt.Infinity, minY = Pbrt.Infinity, maxX = -Pbrt.Infinity, maxY = -Pbrt.Infinity;
+        LensRay r = new LensRay();
         for (int i = 0; i < nSamples; ++i) {
             // Find location of sample points on $x$ segment and rear lens element
-            Point3f pFilm = new Point3f(Pbrt.Lerp((i + 0.5f) / nSamples, pFilmX0, pFilmX1), 0, 0);
-            float[] u = {LowDiscrepancy.RadicalInverse(0, i), LowDiscrepancy.RadicalInverse(1, i)};
-            Point3f pRear = new Point3f(Pbrt.Lerp(u[0], projRearBounds.pMin.x, projRearBounds.pMax.x),
-                    Pbrt.Lerp(u[1], projRearBounds.pMin.y, projRearBounds.pMax.y), LensRearZ());
-
-            // Expand pupil bounds if ray makes it through the lens system
-            Ray ray = TraceLensesFromFilm(new Ray(pFilm, pRear.subtract(pFilm)));
-            if (Bounds2f.Inside(new Point2f(pRear.x, pRear.y), pupilBounds) || (ray != null)) {
-                pupilBounds = Bounds2f.Union(pupilBounds, new Point2f(pRear.x, pRear.y));
+            float pFilmX = Pbrt.Lerp((i + 0.5f) / nSamples, pFilmX0, pFilmX1);
+            float pRearX = Pbrt.Lerp(pupilSampleU[i], projRearBounds.pMin.x, projRearBounds.pMax.x);
+            float pRearY = Pbrt.Lerp(pupilSampleV[i], projRearBounds.pMin.y, projRearBounds.pMax.y);
+
+            // Expand pupil bounds if ray makes it through the lens system; points already inside
+            // the bounds need not be traced
+            if (pRearX >= minX && pRearX <= maxX && pRearY >= minY && pRearY <= maxY) {
+                ++nExitingRays;
+                continue;
+            }
+            r.ox = pFilmX; r.oy = 0; r.oz = 0;
+            r.dx = pRearX - pFilmX; r.dy = pRearY; r.dz = rearZ;
+            if (TraceLensesFromFilm(r)) {
+                minX = Math.min(minX, pRearX);
+                minY = Math.min(minY, pRearY);
+                maxX = Math.max(maxX, pRearX);
+                maxY = Math.max(maxY, pRearY);
                 ++nExitingRays;
             }
         }
@@ -590,6 +752,7 @@ public class RealisticCamera extends Camera {
         }
 
         // Expand bounds to account for sample spacing
+        Bounds2f pupilBounds = new Bounds2f(new Point2f(minX, minY), new Point2f(maxX, maxY));
         pupilBounds = Bounds2f.Expand(pupilBounds, 2 * projRearBounds.Diagonal().Length() / (float)Math.sqrt(nSamples));
         return pupilBounds;
     }
@@ -629,29 +792,38 @@ public class RealisticCamera extends Camera {
 
         ImageIO.Write(filename, image, new Bounds2i(new Point2i(0, 0), new Point2i(nSamples, nSamples)), new Point2i(nSamples, nSamples));
     }
-    private class PupilSample {
-        Point3f p;
-        float area;
-    }
-    private PupilSample SampleExitPupil(Point2f pFilm, Point2f lensSample) {
+    // Sets _r_ to the ray from the film point (_pFilmX_, _pFilmY_) to a point in the exit pupil
+    // chosen by the lens sample (_u_, _v_); returns the area of the pupil bounds sampled
+    private float SampleExitPupil(float pFilmX, float pFilmY, float u, float v, LensRay r) {
         // Find exit pupil bound for sample distance from film center
-        float rFilm = (float)Math.sqrt(pFilm.x * pFilm.x + pFilm.y * pFilm.y);
+        float rFilm = (float)Math.sqrt(pFilmX * pFilmX + pFilmY * pFilmY);
         int rIndex = (int)(rFilm / (film.diagonal / 2) * exitPupilBounds.length);
         rIndex = Math.min(exitPupilBounds.length - 1, rIndex);
         Bounds2f pupilBounds = exitPupilBounds[rIndex];
 
-        PupilSample psamp = new PupilSample();
-        psamp.area = pupilBounds.Area();
-
         // Generate sample point inside exit pupil bound
-        Point2f pLens = pupilBounds.Lerp(lensSample);
-
-        // Return sample point rotated by angle of _pFilm_ with $+x$ axis
-        float sinTheta = (rFilm != 0) ? pFilm.y / rFilm : 0;
-        float cosTheta = (rFilm != 0) ? pFilm.x / rFilm : 1;
-        psamp.p =  new Point3f(cosTheta * pLens.x - sinTheta * pLens.y,
-                sinTheta * pLens.x + cosTheta * pLens.y, LensRearZ());
-        return psamp;
+        float pLensX = Pbrt.Lerp(u, pupilBounds.pMin.x, pupilBounds.pMax.x);
+        float pLensY = Pbrt.Lerp(v, pupilBounds.pMin.y, pupilBounds.pMax.y);
+
+        // Aim at the sample point rotated by angle of _pFilm_ with $+x$ axis
+        float sinTheta = (rFilm != 0) ? pFilmY / rFilm : 0;
+        float cosTheta = (rFilm != 0) ? pFilmX / rFilm : 1;
+        r.ox = pFilmX; r.oy = pFilmY; r.oz = 0;
+        r.dx = (cosTheta * pLensX - sinTheta * pLensY) - pFilmX;
+        r.dy = (sinTheta * pLensX + cosTheta * pLensY) - pFilmY;
+        r.dz = LensRearZ();
+        return pupilBounds.Area();
+    }
+
+    // Key for exitPupilCache: the exit pupil bounds depend only on the lens elements, including
+    // the focused rear element position, and the film diagonal
+    private String ExitPupilKey() {
+        StringBuilder key = new StringBuilder();
+        key.append(film.diagonal);
+        for (LensElementInterface element : elementInterfaces)
+            key.append(',').append(element.curvatureRadius).append(',').append(element.thickness)
+                    .append(',').append(element.eta).append(',').append(element.apertureRadius);
+        return key.toString();
     }
 
     private void TestExitPupilBounds() {
@@ -21,6 +21,31 @@ public class AnimatedTransform {
     private Quaternion R0, R1;
     private Matrix4x4 S0, S1;
     private boolean hasRotation;
+    private final Transform startInverse, endInverse;
+
+    // Interpolation fast paths: with _translationOnly_ the rotation and scale don't change and the
+    // linear part of the matrix is always _fixedLinear_; with _rotationFixed_ only the scale
+    // changes and the rotation part is always _fixedRotation_.  Otherwise the rotation is slerped
+    // with the constant _slerpTheta_ and _qperp_.
+    private boolean translationOnly, rotationFixed;
+    private Matrix4x4 fixedLinear, fixedLinearInv, fixedRotation;
+    private float slerpCosTheta, slerpTheta;
+    private Quaternion qperp;
+
+    // Recently interpolated transforms and their inverses, in slots chosen by a hash of the time.
+    // All the rays along a path share the camera ray's time, so while rendering most lookups hit.
+    // Entries are immutable, so threads may race on the slots without locking.
+    private static final int nCachedTransforms = 16;
+    private static final class CachedTransform {
+        final float time;
+        final Transform transform, inverse;
+        CachedTransform(float time, Transform transform, Transform inverse) {
+            this.time = time;
+            this.transform = transform;
+            this.inverse = inverse;
+        }
+    }
+    private CachedTransform[] cache;
 
     private class DerivativeTerm {
         public float kc, kx, ky, kz;
@@ -145,6 +170,8 @@ public class AnimatedTransform {
         this.startTime = startTime;
         this.endTime = endTime;
         this.actuallyAnimated = this.startTransform.notEqual(this.endTransform);
+        this.startInverse = Transform.Inverse(startTransform);
+        this.endInverse = Transform.Inverse(endTransform);
         if (!this.actuallyAnimated) {
             return;
         }
@@ -158,11 +185,31 @@ public class AnimatedTransform {
         
         T1 = eComp.T;
         R1 = eComp.R;
-        S1 = sComp.S;
+        S1 = eComp.S;
         
         // Flip _R[1]_ if needed to select shortest path
         if (Quaternion.Dot(R0, R1) < 0) R1 = R1.negate();
         hasRotation = Quaternion.Dot(R0, R1) < 0.9995f;
+
+        // Set up interpolation
+        cache = new CachedTransform[nCachedTransforms];
+        slerpCosTheta = Quaternion.Dot(R0, R1);
+        if (slerpCosTheta <= .9995f) {
+            slerpTheta = (float)Math.acos(Pbrt.Clamp(slerpCosTheta, -1, 1));
+            qperp = Quaternion.Normalize(R1.subtract(R0.scale(slerpCosTheta)));
+        }
+        rotationFixed = R0.v.x == R1.v.x && R0.v.y == R1.v.y && R0.v.z == R1.v.z && R0.w == R1.w;
+        if (rotationFixed) {
+            fixedRotation = new Matrix4x4();
+            SetRotation(fixedRotation, R0.v.x, R0.v.y, R0.v.z, R0.w);
+            translationOnly = S0.equal(S1);
+            if (translationOnly) {
+                fixedLinear = new Matrix4x4(fixedRotation);
+                MultiplyScale(fixedLinear, S0, S0, 0);
+                fixedLinearInv = new Matrix4x4();
+                InvertLinear(fixedLinear, fixedLinearInv);
+            }
+        }
         // Compute terms of motion derivative function
         if (hasRotation) {
             float cosTheta = Quaternion.Dot(R0, R1);
@@ -860,9 +907,9 @@ public class AnimatedTransform {
     }
 
     public static class MatComponents {
-        Vector3f T = new Vector3f();
-        Quaternion R = new Quaternion();
-        Matrix4x4 S = new Matrix4x4();
+        public Vector3f T = new Vector3f();
+        public Quaternion R = new Quaternion();
+        public Matrix4x4 S = new Matrix4x4();
     }
     
     public static MatComponents Decompose(Matrix4x4 m) {
@@ -916,22 +963,134 @@ public class AnimatedTransform {
         if (time >= endTime) {
             return endTransform;
         }
+        return CachedInterpolation(time).transform;
+    }
+
+    // Same as Transform.Inverse(Interpolate(time))
+    public Transform InterpolateInverse(float time) {
+        if (!actuallyAnimated || time <= startTime) {
+            return startInverse;
+        }
+        if (time >= endTime) {
+            return endInverse;
+        }
+        return CachedInterpolation(time).inverse;
+    }
+
+    private CachedTransform CachedInterpolation(float time) {
+        int slot = (Float.floatToIntBits(time) * 0x9E3779B9) >>> (32 - 4);
+        CachedTransform c = cache[slot];
+        if (c != null && c.time == time) return c;
+        Matrix4x4 m = new Matrix4x4(), mInv = new Matrix4x4();
+        Interpolate(time, m, mInv);
+        c = new CachedTransform(time, new Transform(m, mInv), new Transform(mInv, m));
+        cache[slot] = c;
+        return c;
+    }
+
+    // Writes the matrix Interpolate(time) represents to _m_ and, if _mInv_ isn't null, its
+    // inverse to _mInv_, without allocating
+    public void Interpolate(float time, Matrix4x4 m, Matrix4x4 mInv) {
+        // Handle boundary conditions for matrix interpolation
+        if (!actuallyAnimated || time <= startTime || time >= endTime) {
+            Transform t = (!actuallyAnimated || time <= startTime) ? startTransform : endTransform;
+            Copy(t.GetMatrix(), m);
+            if (mInv != null) Copy(t.GetInverseMatrix(), mInv);
+            return;
+        }
         float dt = (time - startTime) / (endTime - startTime);
+
+        // Compute the linear part of the matrix as the product of the interpolated rotation and scale
+        if (translationOnly)
+            Copy(fixedLinear, m);
+        else {
+            // Interpolate rotation at _dt_; see Quaternion.Slerp()
+            if (rotationFixed)
+                Copy(fixedRotation, m);
+            else if (slerpCosTheta > .9995f) {
+                float x = (1 - dt) * R0.v.x + dt * R1.v.x, y = (1 - dt) * R0.v.y + dt * R1.v.y;
+                float z = (1 - dt) * R0.v.z + dt * R1.v.z, w = (1 - dt) * R0.w + dt * R1.w;
+                float invLength = 1 / (float)Math.sqrt(x * x + y * y + z * z + w * w);
+                SetRotation(m, x * invLength, y * invLength, z * invLength, w * invLength);
+            }
+            else {
+                float thetap = slerpTheta * dt;
+                float cos = (float)Math.cos(thetap), sin = (float)Math.sin(thetap);
+                SetRotation(m, R0.v.x * cos + qperp.v.x * sin, R0.v.y * cos + qperp.v.y * sin,
+                        R0.v.z * cos + qperp.v.z * sin, R0.w * cos + qperp.w * sin);
+            }
+            // Interpolate scale at _dt_
+            MultiplyScale(m, S0, S1, dt);
+        }
+
         // Interpolate translation at _dt_
-        Vector3f trans = T0.scale(1-dt).add(T1.scale(dt));
+        float tx = (1 - dt) * T0.x + dt * T1.x, ty = (1 - dt) * T0.y + dt * T1.y, tz = (1 - dt) * T0.z + dt * T1.z;
+        m.m[0][3] = tx;
+        m.m[1][3] = ty;
+        m.m[2][3] = tz;
+        m.m[3][0] = m.m[3][1] = m.m[3][2] = 0;
+        m.m[3][3] = 1;
+        if (mInv == null) return;
 
-        // Interpolate rotation at _dt_
-        Quaternion rotate = Quaternion.Slerp(dt, R0, R1);
+        // Invert as [L^-1, -L^-1 t]
+        if (translationOnly)
+            Copy(fixedLinearInv, mInv);
+        else if (!InvertLinear(m, mInv)) {
+            Copy(Matrix4x4.Inverse(m), mInv);
+            return;
+        }
+        mInv.m[0][3] = -(mInv.m[0][0] * tx + mInv.m[0][1] * ty + mInv.m[0][2] * tz);
+        mInv.m[1][3] = -(mInv.m[1][0] * tx + mInv.m[1][1] * ty + mInv.m[1][2] * tz);
+        mInv.m[2][3] = -(mInv.m[2][0] * tx + mInv.m[2][1] * ty + mInv.m[2][2] * tz);
+        mInv.m[3][0] = mInv.m[3][1] = mInv.m[3][2] = 0;
+        mInv.m[3][3] = 1;
+    }
 
-        // Interpolate scale at _dt_
-        Matrix4x4 scale = new Matrix4x4();
-        for (int i = 0; i < 3; ++i)
+    // Sets the upper 3x3 of _m_ to the rotation of the unit quaternion (_x_, _y_, _z_, _w_), as in
+    // Quaternion.ToTransform()
+    private static void SetRotation(Matrix4x4 m, float x, float y, float z, float w) {
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = x * w, wy = y * w, wz = z * w;
+        m.m[0][0] = 1 - 2 * (yy + zz);
+        m.m[0][1] = 2 * (xy - wz);
+        m.m[0][2] = 2 * (xz + wy);
+        m.m[1][0] = 2 * (xy + wz);
+        m.m[1][1] = 1 - 2 * (xx + zz);
+        m.m[1][2] = 2 * (yz - wx);
+        m.m[2][0] = 2 * (xz - wy);
+        m.m[2][1] = 2 * (yz + wx);
+        m.m[2][2] = 1 - 2 * (xx + yy);
+    }
+
+    // Multiplies the upper 3x3 of _m_, in place, by the scale interpolated at _dt_ between _s0_ and _s1_
+    private static void MultiplyScale(Matrix4x4 m, Matrix4x4 s0, Matrix4x4 s1, float dt) {
+        for (int i = 0; i < 3; ++i) {
+            float a = m.m[i][0], b = m.m[i][1], c = m.m[i][2];
             for (int j = 0; j < 3; ++j)
-                scale.m[i][j] = Pbrt.Lerp(dt, S0.m[i][j], S1.m[i][j]);
+                m.m[i][j] = a * Pbrt.Lerp(dt, s0.m[0][j], s1.m[0][j]) + b * Pbrt.Lerp(dt, s0.m[1][j], s1.m[1][j]) +
+                        c * Pbrt.Lerp(dt, s0.m[2][j], s1.m[2][j]);
+        }
+    }
 
-        // Compute interpolated matrix as product of interpolated components
-        return Transform.Translate(trans).concatenate(rotate.ToTransform()).concatenate(new Transform(scale));
+    // Sets the upper 3x3 of _mInv_ to the inverse of the upper 3x3 of _m_; returns false if it is singular
+    private static boolean InvertLinear(Matrix4x4 m, Matrix4x4 mInv) {
+        float[] r0 = m.m[0], r1 = m.m[1], r2 = m.m[2];
+        float c00 = r1[1] * r2[2] - r1[2] * r2[1], c01 = r0[2] * r2[1] - r0[1] * r2[2], c02 = r0[1] * r1[2] - r0[2] * r1[1];
+        float c10 = r1[2] * r2[0] - r1[0] * r2[2], c11 = r0[0] * r2[2] - r0[2] * r2[0], c12 = r0[2] * r1[0] - r0[0] * r1[2];
+        float c20 = r1[0] * r2[1] - r1[1] * r2[0], c21 = r0[1] * r2[0] - r0[0] * r2[1], c22 = r0[0] * r1[1] - r0[1] * r1[0];
+        float det = r0[0] * c00 + r0[1] * c10 + r0[2] * c20;
+        if (det == 0) return false;
+        float invDet = 1 / det;
+        mInv.m[0][0] = c00 * invDet; mInv.m[0][1] = c01 * invDet; mInv.m[0][2] = c02 * invDet;
+        mInv.m[1][0] = c10 * invDet; mInv.m[1][1] = c11 * invDet; mInv.m[1][2] = c12 * invDet;
+        mInv.m[2][0] = c20 * invDet; mInv.m[2][1] = c21 * invDet; mInv.m[2][2] = c22 * invDet;
+        return true;
+    }
 
+    private static void Copy(Matrix4x4 from, Matrix4x4 to) {
+        for (int i = 0; i < 4; ++i)
+            System.arraycopy(from.m[i], 0, to.m[i], 0, 4);
     }
     public Ray xform(Ray r) {
         if (!actuallyAnimated || r.time <= startTime)
@@ -953,6 +1112,19 @@ public class AnimatedTransform {
             return t.xform(r);
         }
     }
+    // Same as xform(RayDifferential) for each ray of _rays_, in place; see
+    // Transform.xform(CameraRayBuffer, int, int, boolean)
+    public void xform(CameraRayBuffer rays, boolean differentialRays) {
+        if (!actuallyAnimated) {
+            startTransform.xform(rays, 0, rays.count, differentialRays);
+            return;
+        }
+        for (int i = 0; i < rays.count; ++i) {
+            float time = rays.time[i];
+            Transform t = time <= startTime ? startTransform : (time >= endTime ? endTransform : Interpolate(time));
+            t.xform(rays, i, i + 1, differentialRays);
+        }
+    }
     public Point3f xform(float time, Point3f p) {
         if (!actuallyAnimated || time <= startTime)
             return startTransform.xform(p);
@@ -0,0 +1,106 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Process-wide cache for data loaded from scene asset files (image textures, PLY meshes)
+// so that a long running process can share it between render jobs. Entries are keyed by
+// the file and a loader specific key, and are reloaded when the file's modification time
+// or size changes. The cache is disabled by default; each render then loads its own data.
+public class AssetCache {
+
+    private static class Key {
+        Key(String path, Object variant) {
+            this.path = path;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return path.equals(key.path) && Objects.equals(variant, key.variant);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, variant);
+        }
+
+        final String path;
+        final Object variant;
+    }
+
+    private static class Entry {
+        Entry(long lastModified, long length, Object value) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.value = value;
+        }
+
+        final long lastModified;
+        final long length;
+        final Object value;
+    }
+
+    private static volatile boolean enabled = false;
+    private static final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private static Stats.Counter nCacheHits = new Stats.Counter("Asset Cache/Hits");
+    private static Stats.Counter nCacheMisses = new Stats.Counter("Asset Cache/Misses");
+
+    public static void SetEnabled(boolean enable) {
+        enabled = enable;
+        if (!enable) entries.clear();
+    }
+
+    public static boolean IsEnabled() {
+        return enabled;
+    }
+
+    public static void Clear() {
+        entries.clear();
+    }
+
+    public static int Size() {
+        return entries.size();
+    }
+
+    // Return the value cached for _filename_ and _variant_, calling _loader_ if there is
+    // no entry or the file changed since it was loaded. Null results are not cached.
+    @SuppressWarnings("unchecked")
+    public static <T> T Get(String filename, Object variant, Supplier<T> loader) {
+        if (!enabled || filename == null || filename.isEmpty()) return loader.get();
+
+        File file = new File(filename);
+        Key key = new Key(file.getAbsolutePath(), variant);
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.lastModified == lastModified && entry.length == length) {
+            nCacheHits.increment();
+            return (T) entry.value;
+        }
+
+        nCacheMisses.increment();
+        T value = loader.get();
+        if (value != null)
+            entries.put(key, new Entry(lastModified, length, value));
+        else
+            entries.remove(key);
+        return value;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Background stage that encodes and writes final images while rendering continues. Films
+// hand over a snapshot of their RGB values in a pooled buffer; at most MAX_QUEUED images
+// wait to be written, after which Submit() blocks until the writer catches up. Pending
+// writes are flushed by pbrtCleanup(), and reading an image waits for its pending write.
+// A write that throws is logged and recorded for WriteFailed().
+public class AsyncImageWriter {
+
+    private static final int MAX_QUEUED = 2;
+
+    private static class Job {
+        Job(String filename, float[] rgb, Bounds2i outputBounds, Point2i totalResolution, EXROutput.WriteOptions exrOptions) {
+            this.filename = filename;
+            this.rgb = rgb;
+            this.outputBounds = outputBounds;
+            this.totalResolution = totalResolution;
+            this.exrOptions = exrOptions;
+        }
+
+        final String filename;
+        final float[] rgb;
+        final Bounds2i outputBounds;
+        final Point2i totalResolution;
+        final EXROutput.WriteOptions exrOptions;
+    }
+
+    private static final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(MAX_QUEUED);
+    private static Thread writer = null;
+
+    // Number of submitted but unfinished writes, in total and per file; guarded by _pending_
+    private static final HashMap<String, Integer> pending = new HashMap<>();
+    private static int numPending = 0;
+    // Files whose latest write failed; guarded by _pending_
+    private static final HashSet<String> failed = new HashSet<>();
+
+    // Free RGB buffers by length; guarded by _pool_
+    private static final HashMap<Integer, ArrayDeque<float[]>> pool = new HashMap<>();
+
+    // Returns a buffer for _length_ values, reusing one released by an earlier write if possible.
+    // The contents are undefined.
+    public static float[] AcquireBuffer(int length) {
+        synchronized (pool) {
+            ArrayDeque<float[]> free = pool.get(length);
+            if (free != null && !free.isEmpty()) return free.pop();
+        }
+        return new float[length];
+    }
+
+    private static void ReleaseBuffer(float[] buffer) {
+        synchronized (pool) {
+            ArrayDeque<float[]> free = pool.computeIfAbsent(buffer.length, k -> new ArrayDeque<>());
+            // A write can be queued, a write in progress and a snapshot being taken
+            if (free.size() < MAX_QUEUED + 2) free.push(buffer);
+        }
+    }
+
+    // Queue the image for writing; _rgb_ is owned by the writer from here on and should come
+    // from AcquireBuffer(). Blocks while MAX_QUEUED images are already waiting.
+    public static void Submit(String filename, float[] rgb, Bounds2i outputBounds, Point2i totalResolution,
+                              EXROutput.WriteOptions exrOptions) {
+        final Job job = new Job(filename, rgb, outputBounds, totalResolution, exrOptions);
+        synchronized (pending) {
+            pending.merge(filename, 1, Integer::sum);
+            numPending++;
+        }
+        // The write sees the options of the render that submitted it
+        Runnable write = RenderContext.Wrap(() -> Write(job));
+        StartWriter();
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Write on the calling thread rather than lose the image
+            write.run();
+        }
+    }
+
+    // Wait until all submitted images have been written
+    public static void Flush() {
+        synchronized (pending) {
+            while (numPending > 0) {
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Wait until pending writes of _filename_ have completed
+    public static void WaitFor(String filename) {
+        synchronized (pending) {
+            while (pending.containsKey(filename)) {
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // True if the latest write of _filename_ failed
+    public static boolean WriteFailed(String filename) {
+        synchronized (pending) {
+            return failed.contains(filename);
+        }
+    }
+
+    private static void Write(Job job) {
+        long startTime = System.nanoTime();
+        boolean ok = false;
+        try {
+            ImageIO.Write(job.filename, job.rgb, job.outputBounds, job.totalResolution, job.exrOptions);
+            ok = true;
+        } catch (Throwable e) {
+            // Errors too: the writer thread must survive so that later writes and Flush() complete
+            PBrtTLogger.Error("Unable to write image \"%s\": %s", job.filename, e.toString());
+        } finally {
+            Metrics.AddPhaseTime(Metrics.Phase.Write, startTime);
+            ReleaseBuffer(job.rgb);
+            synchronized (pending) {
+                if (ok) failed.remove(job.filename);
+                else failed.add(job.filename);
+                pending.computeIfPresent(job.filename, (k, n) -> (n > 1) ? n - 1 : null);
+                numPending--;
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private static synchronized void StartWriter() {
+        if (writer != null) return;
+        writer = new Thread(() -> {
+            for (;;) {
+                try {
+                    queue.take().run();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "pbrt-image-writer");
+        // Pending images are flushed by pbrtCleanup(); the writer must not keep the process alive
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
@@ -31,9 +31,9 @@ public class AtomicFloat {
     }
 
     public void add(float value) {
-        int oldBits = bits.get();
-        int newBits;
+        int oldBits, newBits;
         do {
+            oldBits = bits.get();
             newBits = Float.floatToIntBits(Float.intBitsToFloat(oldBits) + value);
         } while (!bits.weakCompareAndSet(oldBits, newBits));
     }
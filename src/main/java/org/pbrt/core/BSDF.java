@@ -21,13 +21,40 @@ public class BSDF {
 
     // BSDF Public Methods
     public BSDF(SurfaceInteraction si, float eta) {
-        this.eta = eta;
-        this.ns = new Normal3f(si.shading.n);
-        this.ng = new Normal3f(si.n);
-        this.ss = Vector3f.Normalize(si.shading.dpdu);
-        this.ts = Vector3f.Cross(ns, ss);
+        this.ns = new Normal3f();
+        this.ng = new Normal3f();
+        this.ss = new Vector3f();
+        this.ts = new Vector3f();
+        Init(si, eta);
+    }
+
+    // Allocate a BSDF from the calling thread's MemoryArena when one is active
+    public static BSDF Alloc(SurfaceInteraction si, float eta) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new BSDF(si, eta);
+        return arena.Alloc(arenaPool).Init(si, eta);
     }
 
+    private BSDF Init(SurfaceInteraction si, float eta) {
+        this.eta = eta;
+        this.nBxDFs = 0;
+        final Normal3f n = si.shading.n;
+        ns.x = n.x; ns.y = n.y; ns.z = n.z;
+        ng.x = si.n.x; ng.y = si.n.y; ng.z = si.n.z;
+        final Vector3f dpdu = si.shading.dpdu;
+        // Same arithmetic as Vector3f.Normalize() and Vector3f.Cross(), without the temporaries
+        float len = dpdu.Length();
+        float invLen = (len != 0) ? 1.0f / len : 0;
+        ss.x = dpdu.x * invLen; ss.y = dpdu.y * invLen; ss.z = dpdu.z * invLen;
+        double nx = ns.x, ny = ns.y, nz = ns.z;
+        ts.x = (float)((ny * ss.z) - (nz * ss.y));
+        ts.y = (float)((nz * ss.x) - (nx * ss.z));
+        ts.z = (float)((nx * ss.y) - (ny * ss.x));
+        return this;
+    }
+
+    private static final MemoryArena.Pool<BSDF> arenaPool = MemoryArena.NewPool(() -> new BSDF(new SurfaceInteraction(), 1));
+
     public void Add(BxDF b) {
         assert(nBxDFs < MaxBxDFs);
         bxdfs[nBxDFs++] = b;
@@ -142,7 +169,8 @@ public class BSDF {
         if (matchingComps > 1) sample.pdf /= matchingComps;
 
         // Compute value of BSDF for sampled direction
-        if ((bxdf.type & BxDF.BSDF_SPECULAR) == 0) {
+        if ((bxdf.type & BxDF.BSDF_SPECULAR) == 0 && matchingComps > 1) {
+            sample.f = new Spectrum(0);
             boolean reflect = Normal3f.Dot(sample.wiWorld, ng) * Normal3f.Dot(woWorld, ng) > 0;
             for (int i = 0; i < nBxDFs; ++i) {
                 if (bxdfs[i].MatchesFlags(type) &&
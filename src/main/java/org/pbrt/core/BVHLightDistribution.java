@@ -0,0 +1,276 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.util.ArrayList;
+
+// Samples lights by walking a BVH built over their spatial and directional bounds (as in
+// pbrt-v4's BVHLightSampler). At each interior node the child is chosen in proportion to
+// a conservative estimate of its lights' contribution to the shading point, so sampling
+// cost grows with the log of the number of lights and nothing is precomputed per point.
+// Lights without bounds (infinite and distant lights) are sampled uniformly beside the BVH.
+public class BVHLightDistribution extends LightDistribution {
+
+    private static class Node {
+        Node(LightBounds lightBounds, int childOrLightIndex, boolean isLeaf) {
+            this.lightBounds = lightBounds;
+            this.childOrLightIndex = childOrLightIndex;
+            this.isLeaf = isLeaf;
+        }
+
+        final LightBounds lightBounds;
+        // Second child for interior nodes, the first directly follows its parent; the scene
+        // light index for leaves
+        int childOrLightIndex;
+        final boolean isLeaf;
+    }
+
+    private static class BVHLight {
+        BVHLight(int lightIndex, LightBounds lightBounds) {
+            this.lightIndex = lightIndex;
+            this.lightBounds = lightBounds;
+        }
+
+        final int lightIndex;
+        final LightBounds lightBounds;
+    }
+
+    public BVHLightDistribution(Scene scene) {
+        int nLights = scene.lights.size();
+        bitTrails = new long[nLights];
+        ArrayList<BVHLight> bvhLights = new ArrayList<>();
+        ArrayList<Integer> infinite = new ArrayList<>();
+        for (int i = 0; i < nLights; ++i) {
+            LightBounds lightBounds = scene.lights.get(i).Bounds();
+            if (lightBounds == null)
+                infinite.add(i);
+            else if (lightBounds.phi > 0)
+                bvhLights.add(new BVHLight(i, lightBounds));
+            // Lights with zero power are never sampled and keep a zero bit trail
+        }
+        infiniteLights = new int[infinite.size()];
+        for (int i = 0; i < infiniteLights.length; ++i) infiniteLights[i] = infinite.get(i);
+        if (!bvhLights.isEmpty())
+            BuildBVH(bvhLights.toArray(new BVHLight[0]), 0, bvhLights.size(), 0, 0);
+
+        // Light subpaths in BDPT start without a shading point, so Lookup() samples by power
+        powerDistrib = Integrator.ComputeLightPowerDistribution(scene);
+        PBrtTLogger.Info("BVHLightDistribution: %d lights in %d nodes, %d infinite lights", bvhLights.size(),
+                nodes.size(), infiniteLights.length);
+    }
+
+    @Override
+    public Distribution1D Lookup(Point3f p) {
+        return powerDistrib;
+    }
+
+    @Override
+    public Distribution1D.DiscreteSample Sample(Interaction it, float u) {
+        // Compute infinite light sampling probability _pInfinite_
+        float pInfinite = (float) infiniteLights.length / (float) (infiniteLights.length + (nodes.isEmpty() ? 0 : 1));
+
+        Distribution1D.DiscreteSample ds = new Distribution1D.DiscreteSample();
+        if (u < pInfinite) {
+            // Sample infinite lights with uniform probability
+            int index = Math.min((int) (u / pInfinite * infiniteLights.length), infiniteLights.length - 1);
+            ds.offset = infiniteLights[index];
+            ds.pdf = pInfinite / infiniteLights.length;
+            return ds;
+        }
+        if (nodes.isEmpty()) return null;
+
+        // Traverse light BVH to sample light
+        Point3f p = it.p;
+        Normal3f n = it.n;
+        u = Math.min((u - pInfinite) / (1 - pInfinite), Pbrt.OneMinusEpsilon);
+        int nodeIndex = 0;
+        float pmf = 1 - pInfinite;
+        while (true) {
+            Node node = nodes.get(nodeIndex);
+            if (!node.isLeaf) {
+                // Compute light BVH child node importances
+                float ci0 = nodes.get(nodeIndex + 1).lightBounds.Importance(p, n);
+                float ci1 = nodes.get(node.childOrLightIndex).lightBounds.Importance(p, n);
+                if (ci0 == 0 && ci1 == 0) return null;
+
+                // Randomly sample light BVH child node
+                float nodePMF = ci0 / (ci0 + ci1);
+                if (u < nodePMF) {
+                    u = Math.min(u / nodePMF, Pbrt.OneMinusEpsilon);
+                    pmf *= nodePMF;
+                    nodeIndex = nodeIndex + 1;
+                } else {
+                    u = Math.min((u - nodePMF) / (1 - nodePMF), Pbrt.OneMinusEpsilon);
+                    pmf *= 1 - nodePMF;
+                    nodeIndex = node.childOrLightIndex;
+                }
+            } else {
+                // Confirm light has nonzero importance before returning light sample
+                if (nodeIndex > 0 || node.lightBounds.Importance(p, n) > 0) {
+                    ds.offset = node.childOrLightIndex;
+                    ds.pdf = pmf;
+                    return ds;
+                }
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public float PMF(Interaction it, int lightIndex) {
+        // Handle infinite lights
+        for (int infiniteLight : infiniteLights)
+            if (infiniteLight == lightIndex) return 1.f / (infiniteLights.length + (nodes.isEmpty() ? 0 : 1));
+
+        // Lights that are not in the BVH have a zero bit trail
+        long bitTrail = bitTrails[lightIndex];
+        if (bitTrail == 0) return 0;
+
+        // Compute light's PMF by walking down tree nodes to the light
+        Point3f p = it.p;
+        Normal3f n = it.n;
+        float pmf = 1 - (float) infiniteLights.length / (infiniteLights.length + 1);
+        int nodeIndex = 0;
+        while (true) {
+            Node node = nodes.get(nodeIndex);
+            if (node.isLeaf) return pmf;
+            // Compute child importances and update PMF for current node
+            float ci0 = nodes.get(nodeIndex + 1).lightBounds.Importance(p, n);
+            float ci1 = nodes.get(node.childOrLightIndex).lightBounds.Importance(p, n);
+            int child = (int) (bitTrail & 1);
+            if (ci0 + ci1 == 0) return 0;
+            pmf *= ((child == 0) ? ci0 : ci1) / (ci0 + ci1);
+            nodeIndex = (child == 0) ? nodeIndex + 1 : node.childOrLightIndex;
+            bitTrail >>>= 1;
+        }
+    }
+
+    // Number of buckets for the split cost evaluation
+    private static final int nBuckets = 12;
+
+    // Builds the subtree for lights[start, end) and returns its bounds. _bitTrail_ records the
+    // child taken at each level (bit set for the second child) below a leading 1 bit.
+    private LightBounds BuildBVH(BVHLight[] lights, int start, int end, long bitTrail, int depth) {
+        assert (start < end);
+        // Initialize leaf node if only a single light remains
+        if (end - start == 1) {
+            BVHLight light = lights[start];
+            nodes.add(new Node(light.lightBounds, light.lightIndex, true));
+            bitTrails[light.lightIndex] = bitTrail | (1L << depth);
+            return light.lightBounds;
+        }
+
+        // Choose split dimension and position using modified SAH
+        // Compute bounds and centroid bounds for lights
+        Bounds3f bounds = null, centroidBounds = null;
+        for (int i = start; i < end; ++i) {
+            LightBounds lb = lights[i].lightBounds;
+            bounds = (bounds == null) ? new Bounds3f(lb.bounds) : Bounds3f.Union(bounds, lb.bounds);
+            centroidBounds = (centroidBounds == null) ? new Bounds3f(lb.Centroid()) : Bounds3f.Union(centroidBounds, lb.Centroid());
+        }
+
+        float minCost = Float.POSITIVE_INFINITY;
+        int minCostSplitBucket = -1, minCostSplitDim = -1;
+        for (int dim = 0; dim < 3; ++dim) {
+            // Compute minimum cost bucket for splitting along dimension _dim_
+            float cMin = centroidBounds.pMin.at(dim), cMax = centroidBounds.pMax.at(dim);
+            if (cMax == cMin) continue;
+            // Compute _LightBounds_ for each bucket
+            LightBounds[] bucketLightBounds = new LightBounds[nBuckets];
+            for (int i = start; i < end; ++i) {
+                LightBounds lb = lights[i].lightBounds;
+                int b = Bucket(lb.Centroid().at(dim), cMin, cMax);
+                bucketLightBounds[b] = (bucketLightBounds[b] == null) ? lb : LightBounds.Union(bucketLightBounds[b], lb);
+            }
+
+            // Compute costs for splitting lights after each bucket
+            for (int i = 0; i < nBuckets - 1; ++i) {
+                // Find _LightBounds_ for lights below and above bucket split
+                LightBounds b0 = null, b1 = null;
+                for (int j = 0; j <= i; ++j)
+                    if (bucketLightBounds[j] != null) b0 = (b0 == null) ? bucketLightBounds[j] : LightBounds.Union(b0, bucketLightBounds[j]);
+                for (int j = i + 1; j < nBuckets; ++j)
+                    if (bucketLightBounds[j] != null) b1 = (b1 == null) ? bucketLightBounds[j] : LightBounds.Union(b1, bucketLightBounds[j]);
+
+                // Compute final light split cost for bucket
+                float cost = EvaluateCost(b0, bounds, dim) + EvaluateCost(b1, bounds, dim);
+                if (cost > 0 && cost < minCost) {
+                    minCost = cost;
+                    minCostSplitBucket = i;
+                    minCostSplitDim = dim;
+                }
+            }
+        }
+
+        // Partition lights according to chosen split
+        int mid;
+        if (minCostSplitDim == -1)
+            mid = (start + end) / 2;
+        else {
+            final int dim = minCostSplitDim;
+            final float cMin = centroidBounds.pMin.at(dim), cMax = centroidBounds.pMax.at(dim);
+            mid = start;
+            for (int i = start; i < end; ++i) {
+                if (Bucket(lights[i].lightBounds.Centroid().at(dim), cMin, cMax) <= minCostSplitBucket) {
+                    BVHLight t = lights[mid];
+                    lights[mid] = lights[i];
+                    lights[i] = t;
+                    ++mid;
+                }
+            }
+            if (mid == start || mid == end) mid = (start + end) / 2;
+        }
+
+        // The children's bit trails need bits up to _depth_ + 1, which must fit in 64 bits
+        if (depth >= 63)
+            throw new IllegalStateException(String.format("Light BVH is too deep for its bit trails: %d lights left at depth %d", end - start, depth));
+
+        // Allocate interior _LightBVHNode_ and recursively initialize children
+        int nodeIndex = nodes.size();
+        nodes.add(null);
+        LightBounds lb0 = BuildBVH(lights, start, mid, bitTrail, depth + 1);
+        assert (nodeIndex + 1 < nodes.size());
+        int secondChild = nodes.size();
+        LightBounds lb1 = BuildBVH(lights, mid, end, bitTrail | (1L << depth), depth + 1);
+
+        // Initialize interior node and return node index
+        LightBounds lb = LightBounds.Union(lb0, lb1);
+        nodes.set(nodeIndex, new Node(lb, secondChild, false));
+        return lb;
+    }
+
+    private static int Bucket(float c, float cMin, float cMax) {
+        int b = (int) (nBuckets * ((c - cMin) / (cMax - cMin)));
+        return Math.max(0, Math.min(b, nBuckets - 1));
+    }
+
+    // Surface area and orientation heuristic cost of a child with bounds _b_
+    private static float EvaluateCost(LightBounds b, Bounds3f bounds, int dim) {
+        if (b == null) return 0;
+        // Evaluate direction bounds measure for _LightBounds_
+        float theta_o = DirectionCone.SafeACos(b.cosTheta_o), theta_e = DirectionCone.SafeACos(b.cosTheta_e);
+        float theta_w = Math.min(theta_o + theta_e, Pbrt.Pi);
+        float sinTheta_o = DirectionCone.SafeSqrt(1 - b.cosTheta_o * b.cosTheta_o);
+        float M_omega = 2 * Pbrt.Pi * (1 - b.cosTheta_o) +
+                Pbrt.Pi / 2 * (2 * theta_w * sinTheta_o - (float) Math.cos(theta_o - 2 * theta_w) -
+                        2 * theta_o * sinTheta_o + b.cosTheta_o);
+
+        // Return complete cost estimate for _LightBounds_
+        Vector3f diag = bounds.Diagonal();
+        float Kr = (diag.at(dim) > 0) ? Vector3f.MaxComponent(diag) / diag.at(dim) : 1;
+        return b.phi * M_omega * Kr * b.bounds.SurfaceArea();
+    }
+
+    private final ArrayList<Node> nodes = new ArrayList<>();
+    private final int[] infiniteLights;
+    // Path from the root to each light's leaf, indexed by scene light
+    private final long[] bitTrails;
+    private final Distribution1D powerDistrib;
+}
@@ -17,6 +17,17 @@ public class BeckmannDistribution extends MicrofacetDistribution {
         this.alphay = alphay;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static BeckmannDistribution Alloc(float alphax, float alphay, boolean samplevis) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new BeckmannDistribution(alphax, alphay, samplevis);
+        BeckmannDistribution distrib = arena.Alloc(arenaPool);
+        distrib.alphax = alphax;
+        distrib.alphay = alphay;
+        distrib.sampleVisibleArea = samplevis;
+        return distrib;
+    }
+
     @Override
     public float D(Vector3f wh) {
         float tan2Theta = Reflection.Tan2Theta(wh);
@@ -186,5 +197,7 @@ public class BeckmannDistribution extends MicrofacetDistribution {
         return new Point2f(slope_x, slope_y);
     }
 
-    private final float alphax, alphay;
+    private float alphax, alphay;
+
+    private static final MemoryArena.Pool<BeckmannDistribution> arenaPool = MemoryArena.NewPool(() -> new BeckmannDistribution(1, 1, true));
 }
\ No newline at end of file
@@ -72,11 +72,12 @@ public abstract class Camera {
 
     public CameraRayDiff GenerateRayDifferential(CameraSample sample) {
         CameraRay cray = GenerateRay(sample);
+        if (cray == null || cray.weight == 0) return null;
         // Find camera ray after shifting one pixel in the $x$ direction
         CameraSample sshift = new CameraSample(sample);
         sshift.pFilm.x++;
         CameraRay rx = GenerateRay(sshift);
-        if (rx.weight == 0) return null;
+        if (rx == null || rx.weight == 0) return null;
         CameraRayDiff crd = new CameraRayDiff();
         crd.rd = new RayDifferential(cray.ray);
         crd.rd.rxOrigin = rx.ray.o;
@@ -86,7 +87,7 @@ public abstract class Camera {
         sshift.pFilm.x--;
         sshift.pFilm.y++;
         CameraRay ry = GenerateRay(sshift);
-        if (ry.weight == 0) return null;
+        if (ry == null || ry.weight == 0) return null;
         crd.rd.ryOrigin = ry.ray.o;
         crd.rd.ryDirection = ry.ray.d;
         crd.rd.hasDifferentials = true;
@@ -94,6 +95,19 @@ public abstract class Camera {
         return crd;
     }
 
+    // Generates the ray differentials for all samples in _rays_. Cameras that can compute a
+    // batch directly override this; the default calls GenerateRayDifferential() per sample.
+    public void GenerateRayDifferentials(CameraRayBuffer rays) {
+        rays.medium = medium;
+        CameraSample sample = new CameraSample();
+        for (int i = 0; i < rays.count; ++i) {
+            rays.GetSample(i, sample);
+            CameraRayDiff crd = GenerateRayDifferential(sample);
+            if (crd == null) rays.SetRay(i, null, 0);
+            else rays.SetRay(i, crd.rd, crd.weight);
+        }
+    }
+
     public class CameraWe {
         public Point2f pRaster2;
         public Spectrum we;
@@ -0,0 +1,154 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.util.Arrays;
+
+// Camera samples for a batch of image samples (typically a tile's worth) and the primary ray
+// differentials generated for them, stored as parallel arrays. Camera.GenerateRayDifferentials()
+// fills in the rays for the whole batch; code that traces rays one at a time copies them out
+// with GetRay().
+public class CameraRayBuffer {
+
+    // CameraRayBuffer Public Data
+    public int count = 0;
+    // Camera samples
+    public float[] pFilmX, pFilmY, pLensX, pLensY, sampleTime;
+    // Ray origins and directions, and those of the offset rays for the differentials
+    public float[] ox, oy, oz, dx, dy, dz;
+    public float[] rxOx, rxOy, rxOz, rxDx, rxDy, rxDz;
+    public float[] ryOx, ryOy, ryOz, ryDx, ryDy, ryDz;
+    public float[] tMax, time, weight;
+    public Medium medium;
+
+    public CameraRayBuffer(int capacity) {
+        Allocate(Math.max(capacity, 1));
+    }
+
+    public int Capacity() {
+        return pFilmX.length;
+    }
+
+    public void Clear() {
+        count = 0;
+    }
+
+    // Appends the camera sample _cs_ and returns its index
+    public int Add(Camera.CameraSample cs) {
+        if (count == Capacity()) Grow(2 * count);
+        int i = count++;
+        pFilmX[i] = cs.pFilm.x;
+        pFilmY[i] = cs.pFilm.y;
+        pLensX[i] = cs.pLens.x;
+        pLensY[i] = cs.pLens.y;
+        sampleTime[i] = cs.time;
+        return i;
+    }
+
+    public void GetSample(int i, Camera.CameraSample cs) {
+        cs.pFilm.x = pFilmX[i];
+        cs.pFilm.y = pFilmY[i];
+        cs.pLens.x = pLensX[i];
+        cs.pLens.y = pLensY[i];
+        cs.time = sampleTime[i];
+    }
+
+    // Stores the ray differential _rd_ generated for sample _i_ with weight _w_; a null _rd_
+    // marks a sample that produced no ray
+    public void SetRay(int i, RayDifferential rd, float w) {
+        if (rd == null) {
+            weight[i] = 0;
+            return;
+        }
+        ox[i] = rd.o.x; oy[i] = rd.o.y; oz[i] = rd.o.z;
+        dx[i] = rd.d.x; dy[i] = rd.d.y; dz[i] = rd.d.z;
+        rxOx[i] = rd.rxOrigin.x; rxOy[i] = rd.rxOrigin.y; rxOz[i] = rd.rxOrigin.z;
+        rxDx[i] = rd.rxDirection.x; rxDy[i] = rd.rxDirection.y; rxDz[i] = rd.rxDirection.z;
+        ryOx[i] = rd.ryOrigin.x; ryOy[i] = rd.ryOrigin.y; ryOz[i] = rd.ryOrigin.z;
+        ryDx[i] = rd.ryDirection.x; ryDy[i] = rd.ryDirection.y; ryDz[i] = rd.ryDirection.z;
+        tMax[i] = rd.tMax;
+        time[i] = rd.time;
+        weight[i] = w;
+    }
+
+    // Copies ray _i_ into _ray_, reusing its point and vector objects
+    public void GetRay(int i, RayDifferential ray) {
+        ray.o = Set(ray.o, ox[i], oy[i], oz[i]);
+        ray.d = Set(ray.d, dx[i], dy[i], dz[i]);
+        ray.rxOrigin = Set(ray.rxOrigin, rxOx[i], rxOy[i], rxOz[i]);
+        ray.rxDirection = Set(ray.rxDirection, rxDx[i], rxDy[i], rxDz[i]);
+        ray.ryOrigin = Set(ray.ryOrigin, ryOx[i], ryOy[i], ryOz[i]);
+        ray.ryDirection = Set(ray.ryDirection, ryDx[i], ryDy[i], ryDz[i]);
+        ray.tMax = tMax[i];
+        ray.time = time[i];
+        ray.medium = medium;
+        ray.hasDifferentials = true;
+    }
+
+    // Same as RayDifferential.ScaleDifferentials() applied to every ray
+    public void ScaleDifferentials(float s) {
+        for (int i = 0; i < count; ++i) {
+            rxOx[i] = ox[i] + s * (rxOx[i] - ox[i]);
+            rxOy[i] = oy[i] + s * (rxOy[i] - oy[i]);
+            rxOz[i] = oz[i] + s * (rxOz[i] - oz[i]);
+            ryOx[i] = ox[i] + s * (ryOx[i] - ox[i]);
+            ryOy[i] = oy[i] + s * (ryOy[i] - oy[i]);
+            ryOz[i] = oz[i] + s * (ryOz[i] - oz[i]);
+            rxDx[i] = dx[i] + s * (rxDx[i] - dx[i]);
+            rxDy[i] = dy[i] + s * (rxDy[i] - dy[i]);
+            rxDz[i] = dz[i] + s * (rxDz[i] - dz[i]);
+            ryDx[i] = dx[i] + s * (ryDx[i] - dx[i]);
+            ryDy[i] = dy[i] + s * (ryDy[i] - dy[i]);
+            ryDz[i] = dz[i] + s * (ryDz[i] - dz[i]);
+        }
+    }
+
+    private static Point3f Set(Point3f p, float x, float y, float z) {
+        if (p == null) return new Point3f(x, y, z);
+        p.x = x;
+        p.y = y;
+        p.z = z;
+        return p;
+    }
+
+    private static Vector3f Set(Vector3f v, float x, float y, float z) {
+        if (v == null) return new Vector3f(x, y, z);
+        v.x = x;
+        v.y = y;
+        v.z = z;
+        return v;
+    }
+
+    private void Allocate(int n) {
+        pFilmX = new float[n]; pFilmY = new float[n]; pLensX = new float[n]; pLensY = new float[n];
+        sampleTime = new float[n];
+        AllocateRays(n);
+    }
+
+    // Ray arrays are only written after all samples are added, so they need not be copied
+    private void AllocateRays(int n) {
+        ox = new float[n]; oy = new float[n]; oz = new float[n];
+        dx = new float[n]; dy = new float[n]; dz = new float[n];
+        rxOx = new float[n]; rxOy = new float[n]; rxOz = new float[n];
+        rxDx = new float[n]; rxDy = new float[n]; rxDz = new float[n];
+        ryOx = new float[n]; ryOy = new float[n]; ryOz = new float[n];
+        ryDx = new float[n]; ryDy = new float[n]; ryDz = new float[n];
+        tMax = new float[n]; time = new float[n]; weight = new float[n];
+    }
+
+    private void Grow(int n) {
+        pFilmX = Arrays.copyOf(pFilmX, n);
+        pFilmY = Arrays.copyOf(pFilmY, n);
+        pLensX = Arrays.copyOf(pLensX, n);
+        pLensY = Arrays.copyOf(pLensY, n);
+        sampleTime = Arrays.copyOf(sampleTime, n);
+        AllocateRays(n);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+// Set of directions within the angle acos(cosTheta) of the unit vector w
+public class DirectionCone {
+
+    public DirectionCone(Vector3f w, float cosTheta) {
+        this.w = Vector3f.Normalize(w);
+        this.cosTheta = cosTheta;
+    }
+
+    public DirectionCone(Vector3f w) {
+        this(w, 1);
+    }
+
+    public static DirectionCone EntireSphere() {
+        return new DirectionCone(new Vector3f(0, 0, 1), -1);
+    }
+
+    public final Vector3f w;
+    public final float cosTheta;
+
+    // Cone of directions from _p_ that covers the bounds _b_
+    public static DirectionCone BoundSubtendedDirections(Bounds3f b, Point3f p) {
+        Bounds3f.BoundSphere sphere = b.BoundingSphere();
+        float radius2 = sphere.radius * sphere.radius;
+        float dist2 = Point3f.DistanceSquared(p, sphere.center);
+        if (dist2 < radius2) return EntireSphere();
+        float sin2ThetaMax = radius2 / dist2;
+        float cosThetaMax = SafeSqrt(1 - sin2ThetaMax);
+        return new DirectionCone(sphere.center.subtract(p), cosThetaMax);
+    }
+
+    public static DirectionCone Union(DirectionCone a, DirectionCone b) {
+        // Handle the cases where one cone is inside the other
+        float theta_a = SafeACos(a.cosTheta), theta_b = SafeACos(b.cosTheta);
+        float theta_d = AngleBetween(a.w, b.w);
+        if (Math.min(theta_d + theta_b, Pbrt.Pi) <= theta_a) return a;
+        if (Math.min(theta_d + theta_a, Pbrt.Pi) <= theta_b) return b;
+
+        // Compute the spread angle of the merged cone, $\theta_o$
+        float theta_o = (theta_a + theta_d + theta_b) / 2;
+        if (theta_o >= Pbrt.Pi) return EntireSphere();
+
+        // Rotate _a_'s axis towards _b_'s to get the merged cone's axis
+        float theta_r = theta_o - theta_a;
+        Vector3f wr = Vector3f.Cross(a.w, b.w);
+        if (wr.LengthSquared() == 0) return EntireSphere();
+        Vector3f w = Transform.Rotate((float) Math.toDegrees(theta_r), wr).xform(a.w);
+        return new DirectionCone(w, (float) Math.cos(theta_o));
+    }
+
+    public static float AngleBetween(Vector3f v1, Vector3f v2) {
+        // Numerically stable for nearly parallel and nearly opposite vectors
+        if (Vector3f.Dot(v1, v2) < 0)
+            return Pbrt.Pi - 2 * SafeASin(v1.add(v2).Length() / 2);
+        else
+            return 2 * SafeASin(v2.subtract(v1).Length() / 2);
+    }
+
+    static float SafeSqrt(float x) {
+        return (float) Math.sqrt(Math.max(0, x));
+    }
+
+    static float SafeACos(float x) {
+        return (float) Math.acos(Pbrt.Clamp(x, -1, 1));
+    }
+
+    static float SafeASin(float x) {
+        return (float) Math.asin(Pbrt.Clamp(x, -1, 1));
+    }
+}
@@ -15,6 +15,11 @@ public class Distribution1D {
     public float[] func, cdf;
     public float funcInt;
 
+    public Distribution1D(float[] f, boolean useAliasTable) {
+        this(f);
+        if (useAliasTable) BuildAliasTable();
+    }
+
     public Distribution1D(float[] f) {
         func = f.clone();
         cdf = new float[f.length + 1];
@@ -43,6 +48,14 @@ public class Distribution1D {
 
     public ContSample SampleContinuous(float u) {
         ContSample dsamp = new ContSample();
+        if (aliasProb != null) {
+            // Pick the segment in constant time and place the sample by the remapped _u_
+            DiscreteSample ds = SampleDiscrete(u);
+            dsamp.offset = ds.offset;
+            dsamp.pdf = (funcInt > 0) ? func[dsamp.offset] / funcInt : 0;
+            dsamp.sample = Math.min((dsamp.offset + ds.uRemapped) / Count(), Pbrt.OneMinusEpsilon);
+            return dsamp;
+        }
         dsamp.offset = Pbrt.FindInterval(cdf.length, index -> cdf[index] < u);
 
         // Compute offset along CDF segment
@@ -69,8 +82,23 @@ public class Distribution1D {
 
     public DiscreteSample SampleDiscrete(float u) {
         DiscreteSample dsamp = new DiscreteSample();
+        if (aliasProb != null) {
+            int n = func.length;
+            int column = Math.min((int)(u * n), n - 1);
+            float up = Math.min(u * n - column, Pbrt.OneMinusEpsilon);
+            float q = aliasProb[column];
+            if (up < q) {
+                dsamp.offset = column;
+                dsamp.uRemapped = Math.min(up / q, Pbrt.OneMinusEpsilon);
+            } else {
+                dsamp.offset = alias[column];
+                dsamp.uRemapped = Math.min((up - q) / (1 - q), Pbrt.OneMinusEpsilon);
+            }
+            dsamp.pdf = (funcInt > 0) ? func[dsamp.offset] / (funcInt * Count()) : 0;
+            return dsamp;
+        }
         // Find surrounding CDF segments and _offset_
-        dsamp.offset = Pbrt.FindInterval(cdf.length, index -> cdf[index] <= u);
+        dsamp.offset = Pbrt.FindInterval(cdf, cdf.length, u);
         dsamp.pdf = (funcInt > 0) ? func[dsamp.offset] / (funcInt * Count()) : 0;
         dsamp.uRemapped = (u - cdf[dsamp.offset]) / (cdf[dsamp.offset + 1] - cdf[dsamp.offset]);
         assert(dsamp.uRemapped >= 0 && dsamp.uRemapped <= 1);
@@ -82,4 +110,56 @@ public class Distribution1D {
         return func[index] / (funcInt * Count());
     }
 
+    public boolean HasAliasTable() { return aliasProb != null; }
+
+    // Build Vose's alias table so that sampling no longer searches the CDF. Each of the n
+    // columns keeps its own segment with probability aliasProb[i] and otherwise yields
+    // alias[i]; the probability of every segment is unchanged, but neighbouring values of
+    // _u_ no longer map to neighbouring segments.
+    public void BuildAliasTable() {
+        int n = func.length;
+        aliasProb = new float[n];
+        alias = new int[n];
+        double sum = 0;
+        for (float f : func) sum += f;
+
+        // Scale probabilities so that the average column holds exactly 1
+        double[] pHat = new double[n];
+        int[] under = new int[n], over = new int[n];
+        int nUnder = 0, nOver = 0;
+        for (int i = 0; i < n; ++i) {
+            pHat[i] = (sum > 0) ? func[i] * n / sum : 1;
+            if (pHat[i] < 1)
+                under[nUnder++] = i;
+            else
+                over[nOver++] = i;
+        }
+
+        // Fill each underfull column with the remainder of an overfull one
+        while (nUnder > 0 && nOver > 0) {
+            int un = under[--nUnder], ov = over[--nOver];
+            aliasProb[un] = (float)pHat[un];
+            alias[un] = ov;
+            pHat[ov] = pHat[ov] + pHat[un] - 1;
+            if (pHat[ov] < 1)
+                under[nUnder++] = ov;
+            else
+                over[nOver++] = ov;
+        }
+        // Columns left over are full up to round-off
+        while (nUnder > 0) {
+            int i = under[--nUnder];
+            aliasProb[i] = 1;
+            alias[i] = i;
+        }
+        while (nOver > 0) {
+            int i = over[--nOver];
+            aliasProb[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+    private float[] aliasProb;
+    private int[] alias;
+
 }
\ No newline at end of file
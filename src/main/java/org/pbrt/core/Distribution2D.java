@@ -15,18 +15,24 @@ public class Distribution2D {
     private Distribution1D pMarginal;
 
     public Distribution2D(float[] data, int nu, int nv) {
+        this(data, nu, nv, false);
+    }
+
+    // With _useAliasTable_ the marginal and conditional distributions are sampled with
+    // alias tables in constant time rather than by searching their CDFs.
+    public Distribution2D(float[] data, int nu, int nv, boolean useAliasTable) {
         this.pConditionalV = new Distribution1D[nv];
         for (int v = 0; v < nv; ++v) {
             // Compute conditional sampling distribution for $\tilde{v}$
             float[] func = new float[nu];
             System.arraycopy(data, v * nu + 0, func, 0, nu);
-            pConditionalV[v] = new Distribution1D(func);
+            pConditionalV[v] = new Distribution1D(func, useAliasTable);
         }
         // Compute marginal sampling distribution $p[\tilde{v}]$
         float[] marginalFunc = new float[nv];
         for (int v = 0; v < nv; ++v)
             marginalFunc[v] = pConditionalV[v].funcInt;
-        pMarginal = new Distribution1D(marginalFunc);
+        pMarginal = new Distribution1D(marginalFunc, useAliasTable);
     }
 
     public static class ContSample {
@@ -9,27 +9,60 @@
 
 package org.pbrt.core;
 
+import org.pbrt.openexr.compressor.PizCompressor;
+import org.pbrt.openexr.compressor.ZipCompressor;
+
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class EXROutput {
 
     public static final int SUCCESS = 0;
     public static final int INVALID_ARGUMENT = -1;
+    public static final int WRITE_FAILED = -2;
 
     public static final int PIXELTYPE_UINT = 0;
     public static final int PIXELTYPE_HALF = 1;
     public static final int PIXELTYPE_FLOAT = 2;
 
     public static final int COMPRESSIONTYPE_NONE = 0;
+    public static final int COMPRESSIONTYPE_ZIPS = 2;
+    public static final int COMPRESSIONTYPE_ZIP = 3;
+    public static final int COMPRESSIONTYPE_PIZ = 4;
+
+    // Layout and encoding of the written file
+    public static class WriteOptions {
+        public int compression = COMPRESSIONTYPE_NONE;
+        public int pixelType = PIXELTYPE_HALF;
+        // Width and height of tiles; 0 writes scanline blocks
+        public int tileSize = 0;
+    }
 
-    private static CharsetEncoder enc = Charset.forName("ISO-8859-1").newEncoder();
+    // Returns the COMPRESSIONTYPE_ value for _name_, or -1 if it is not supported
+    public static int CompressionFromName(String name) {
+        switch (name.toLowerCase()) {
+            case "none": return COMPRESSIONTYPE_NONE;
+            case "zips": return COMPRESSIONTYPE_ZIPS;
+            case "zip": return COMPRESSIONTYPE_ZIP;
+            case "piz": return COMPRESSIONTYPE_PIZ;
+            default: return -1;
+        }
+    }
+
+    private static final Charset latin1 = Charset.forName("ISO-8859-1");
 
     public static int SaveEXR(float[] data, int width, int height, int components, String filename) {
+        return SaveEXR(data, width, height, components, filename, new WriteOptions());
+    }
+
+    public static int SaveEXR(float[] data, int width, int height, int components, String filename, WriteOptions options) {
 
         if (components == 3 || components == 4) {
             // OK
@@ -37,56 +70,41 @@ public class EXROutput {
         else {
             return INVALID_ARGUMENT;
         }
+        if (options.pixelType != PIXELTYPE_HALF && options.pixelType != PIXELTYPE_FLOAT)
+            return INVALID_ARGUMENT;
+        if (options.compression != COMPRESSIONTYPE_NONE && options.compression != COMPRESSIONTYPE_ZIPS &&
+                options.compression != COMPRESSIONTYPE_ZIP && options.compression != COMPRESSIONTYPE_PIZ)
+            return INVALID_ARGUMENT;
+        if (options.tileSize < 0)
+            return INVALID_ARGUMENT;
 
         Header header = new Header();
-        Image image = new Image();
-
-        image.num_channels = components;
-
-        float[] imageRed = new float[width * height];
-        float[] imageGreen = new float[width * height];
-        float[] imageBlue = new float[width * height];
-        float[] imageAlpha = new float[width * height];
-
-        for (int i = 0; i < width * height; i++) {
-            imageRed[i] = data[components * i + 0];
-            imageGreen[i] = data[components * i + 1];
-            imageBlue[i] = data[components * i + 2];
-            if (components == 4) {
-                imageAlpha[i] = data[components * i + 3];
-            }
-        }
-
-        image.images = new float[4][];
-        if (components == 4) {
-            image.images[0] = imageAlpha;
-            image.images[1] = imageBlue;
-            image.images[2] = imageGreen;
-            image.images[3] = imageRed;
-        }
-        else {
-            image.images[0] = imageBlue;
-            image.images[1] = imageGreen;
-            image.images[2] = imageRed;
-        }
-
-        image.width = width;
-        image.height = height;
+        header.compression = options.compression;
+        header.tile_size = options.tileSize;
 
+        // Channels are stored in alphabetical order
         header.channels = new ChannelInfo[components];
         for (int c = 0; c < components; c++) {
             header.channels[c] = new ChannelInfo();
+            header.channels[c].pixel_type = options.pixelType;
         }
         if (components == 4) {
             header.channels[0].name = "A";
+            header.channels[0].component = 3;
             header.channels[1].name = "B";
+            header.channels[1].component = 2;
             header.channels[2].name = "G";
+            header.channels[2].component = 1;
             header.channels[3].name = "R";
+            header.channels[3].component = 0;
         }
         else {
             header.channels[0].name = "B";
+            header.channels[0].component = 2;
             header.channels[1].name = "G";
+            header.channels[1].component = 1;
             header.channels[2].name = "R";
+            header.channels[2].component = 0;
         }
 
         header.data_window = new int[]{ 0, 0, width-1, height-1};
@@ -98,28 +116,77 @@ public class EXROutput {
         header.screen_window_center[0] = 0;
         header.screen_window_center[1] = 0;
 
+        Image image = new Image();
+        image.data = data;
+        image.width = width;
+        image.height = height;
+        image.num_channels = components;
+
         return SaveEXRImageToFile(image, header, filename);
     }
 
     private static int SaveEXRImageToFile(Image image, Header header, String filename) {
-        ByteArrayOutputStream byteBuffer = new ByteArrayOutputStream();
-
-        int ret = SaveEXRImageToMemory(image, header, byteBuffer);
-        if (ret == SUCCESS) {
-            // write byte buffer to file
-            FileOutputStream fos;
-            try {
-                fos = new FileOutputStream(new File(filename));
-                fos.write(byteBuffer.toByteArray());
-                fos.close();
-            } catch (IOException e) {
-                e.printStackTrace();
+        BlockLayout layout = new BlockLayout(image, header);
+        int[] channelSizes = new int[header.channels.length];
+        for (int c = 0; c < header.channels.length; c++)
+            channelSizes[c] = (header.channels[c].pixel_type == PIXELTYPE_HALF) ? 1 : 2;
+        PizCompressor piz = new PizCompressor(channelSizes);
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            WriteHeader(header, headerBytes);
+            WriteFully(channel, ByteBuffer.wrap(headerBytes.toByteArray()));
+
+            // The block offset table is filled in once all blocks are written
+            long tablePosition = channel.position();
+            long[] offsets = new long[layout.numBlocks];
+            long position = tablePosition + 8L * layout.numBlocks;
+            channel.position(position);
+
+            // Encode a batch of blocks in parallel, then append them to the file in order
+            int batchSize = Math.max(1, 2 * Parallel.MaxThreadIndex());
+            byte[][] blocks = new byte[Math.min(batchSize, layout.numBlocks)][];
+            for (int first = 0; first < layout.numBlocks; first += batchSize) {
+                final int batchStart = first;
+                final int count = Math.min(batchSize, layout.numBlocks - first);
+                Parallel.ParallelFor((int index) -> {
+                    blocks[index] = EncodeBlock(image, header, layout, batchStart + index, piz);
+                }, count, 1);
+
+                for (int i = 0; i < count; i++) {
+                    if (blocks[i] == null) {
+                        PBrtTLogger.Error("Unable to encode block %d of EXR image \"%s\"", batchStart + i, filename);
+                        return WRITE_FAILED;
+                    }
+                    offsets[batchStart + i] = position;
+                    ByteBuffer blockHeader = layout.BlockHeader(batchStart + i, blocks[i].length);
+                    position += blockHeader.remaining() + blocks[i].length;
+                    WriteFully(channel, blockHeader);
+                    WriteFully(channel, ByteBuffer.wrap(blocks[i]));
+                    blocks[i] = null;
+                }
             }
+
+            ByteBuffer table = ByteBuffer.allocate(8 * layout.numBlocks).order(ByteOrder.LITTLE_ENDIAN);
+            for (long offset : offsets) table.putLong(offset);
+            table.flip();
+            while (table.hasRemaining())
+                tablePosition += channel.write(table, tablePosition);
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to write EXR image \"%s\": %s", filename, e.toString());
+            return WRITE_FAILED;
         }
-        return ret;
+        return SUCCESS;
+    }
+
+    private static void WriteFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
     }
 
     private static void writeString(ByteArrayOutputStream byteBuffer, String str) throws IOException {
+        // Encoders are not thread safe and several renders may save images at once
+        CharsetEncoder enc = latin1.newEncoder();
         byte[] buf = new byte[str.length()+1];
         ByteBuffer bb = ByteBuffer.wrap(buf);
         enc.encode(CharBuffer.wrap(str), bb, true);
@@ -135,105 +202,160 @@ public class EXROutput {
         byteBuffer.write(b);
     }
 
-    private static byte[] packChannelInfo(Header header) {
+    private static byte[] packChannelInfo(Header header) throws IOException {
         ByteArrayOutputStream channelBytes = new ByteArrayOutputStream();
-        try {
-            for (int c = 0; c < header.channels.length; c++) {
-                writeString(channelBytes, header.channels[c].name);
-                channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].pixel_type).array());
+        for (int c = 0; c < header.channels.length; c++) {
+            writeString(channelBytes, header.channels[c].name);
+            channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].pixel_type).array());
 
-                channelBytes.write(header.channels[c].p_linear);
-                channelBytes.write(header.channels[c].pad);
+            channelBytes.write(header.channels[c].p_linear);
+            channelBytes.write(header.channels[c].pad);
 
-                channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].x_sampling).array());
-                channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].y_sampling).array());
-            }
-            channelBytes.write(0);
-        }
-        catch (IOException ex) {
-            ex.printStackTrace();
+            channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].x_sampling).array());
+            channelBytes.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(header.channels[c].y_sampling).array());
         }
+        channelBytes.write(0);
         return channelBytes.toByteArray();
     }
 
-    private static int SaveEXRImageToMemory(Image image, Header header, ByteArrayOutputStream byteBuffer) {
+    private static void WriteHeader(Header header, ByteArrayOutputStream byteBuffer) throws IOException {
+        final byte[] magicNumber = { 0x76, 0x2f, 0x31, 0x01};
+        byteBuffer.write(magicNumber);
 
-        // Write header attributes
-        try {
-            final byte[] magicNumber = { 0x76, 0x2f, 0x31, 0x01};
-            byteBuffer.write(magicNumber);
+        // Version 2; the second byte flags a single part tiled file
+        final byte[] marker = {2, (byte)((header.tile_size > 0) ? 2 : 0), 0, 0 };
+        byteBuffer.write(marker);
 
-            final byte[] marker = {2, 0, 0, 0 };
-            byteBuffer.write(marker);
+        byte[] channelBytes = packChannelInfo(header);
+        writeAttribute(byteBuffer, "channels", "chlist", channelBytes);
 
-            byte[] channelBytes = packChannelInfo(header);
-            writeAttribute(byteBuffer, "channels", "chlist", channelBytes);
+        writeAttribute(byteBuffer, "compression", "compression", ByteBuffer.allocate(1).put((byte)header.compression).array());
 
-            writeAttribute(byteBuffer, "compression", "compression", ByteBuffer.allocate(1).put((byte)COMPRESSIONTYPE_NONE).array());
+        ByteBuffer sizeBuff = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        sizeBuff.putInt(header.data_window[0]);
+        sizeBuff.putInt(header.data_window[1]);
+        sizeBuff.putInt(header.data_window[2]);
+        sizeBuff.putInt(header.data_window[3]);
+        writeAttribute(byteBuffer, "dataWindow", "box2i", sizeBuff.array());
 
-            ByteBuffer sizeBuff = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
-            sizeBuff.putInt(header.data_window[0]);
-            sizeBuff.putInt(header.data_window[1]);
-            sizeBuff.putInt(header.data_window[2]);
-            sizeBuff.putInt(header.data_window[3]);
-            writeAttribute(byteBuffer, "dataWindow", "box2i", sizeBuff.array());
+        sizeBuff.clear();
+        sizeBuff.putInt(header.display_window[0]);
+        sizeBuff.putInt(header.display_window[1]);
+        sizeBuff.putInt(header.display_window[2]);
+        sizeBuff.putInt(header.display_window[3]);
 
-            sizeBuff.clear();
-            sizeBuff.putInt(header.display_window[0]);
-            sizeBuff.putInt(header.display_window[1]);
-            sizeBuff.putInt(header.display_window[2]);
-            sizeBuff.putInt(header.display_window[3]);
+        writeAttribute(byteBuffer, "displayWindow", "box2i", sizeBuff.array());
 
-            writeAttribute(byteBuffer, "displayWindow", "box2i", sizeBuff.array());
+        writeAttribute(byteBuffer, "lineOrder", "lineOrder", ByteBuffer.allocate(1).put((byte)header.line_order).array());
+        writeAttribute(byteBuffer, "pixelAspectRatio", "float", ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(header.pixel_aspect_ratio).array());
 
-            writeAttribute(byteBuffer, "lineOrder", "lineOrder", ByteBuffer.allocate(1).put((byte)header.line_order).array());
-            writeAttribute(byteBuffer, "pixelAspectRatio", "float", ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(header.pixel_aspect_ratio).array());
+        ByteBuffer centerBuff = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        centerBuff.putFloat(header.screen_window_center[0]);
+        centerBuff.putFloat(header.screen_window_center[1]);
+        writeAttribute(byteBuffer, "screenWindowCenter", "v2f", centerBuff.array());
 
-            ByteBuffer centerBuff = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
-            centerBuff.putFloat(header.screen_window_center[0]);
-            centerBuff.putFloat(header.screen_window_center[1]);
-            writeAttribute(byteBuffer, "screenWindowCenter", "v2f", centerBuff.array());
+        writeAttribute(byteBuffer, "screenWindowWidth", "float", ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(header.screen_window_width).array());
 
-            writeAttribute(byteBuffer, "screenWindowWidth", "float", ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putFloat(header.screen_window_width).array());
+        if (header.tile_size > 0) {
+            // One resolution level, rounding mode down
+            ByteBuffer tileBuff = ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN);
+            tileBuff.putInt(header.tile_size);
+            tileBuff.putInt(header.tile_size);
+            tileBuff.put((byte)0);
+            writeAttribute(byteBuffer, "tiles", "tiledesc", tileBuff.array());
+        }
 
-            // End of header
-            byteBuffer.write(0);
+        // End of header
+        byteBuffer.write(0);
+    }
 
-        } catch (IOException ex) {
-            ex.printStackTrace();
+    // Pixel data of block _index_ in file order (for each line, for each channel, the
+    // line's pixels), compressed unless that would not make it smaller.
+    private static byte[] EncodeBlock(Image image, Header header, BlockLayout layout, int index, PizCompressor piz) {
+        int x0 = layout.BlockX(index), y0 = layout.BlockY(index);
+        int w = layout.BlockWidth(index), h = layout.BlockHeight(index);
+        int bytesPerPixel = 0;
+        for (ChannelInfo channel : header.channels)
+            bytesPerPixel += (channel.pixel_type == PIXELTYPE_HALF) ? 2 : 4;
+
+        byte[] raw = new byte[w * h * bytesPerPixel];
+        ByteBuffer rawBuff = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        for (int y = y0; y < y0 + h; y++) {
+            for (ChannelInfo channel : header.channels) {
+                for (int x = x0; x < x0 + w; x++) {
+                    float pixel = image.data[image.num_channels * (y * image.width + x) + channel.component];
+                    if (channel.pixel_type == PIXELTYPE_HALF)
+                        rawBuff.putShort(toHalf(pixel));
+                    else
+                        rawBuff.putFloat(pixel);
+                }
+            }
         }
 
-        int numScanlines = 1;  // always 1 for uncompressed
-        int numBlocks = image.height / numScanlines;
-        int headerSize = byteBuffer.size();
-        long offset = headerSize + numBlocks * 8;
+        byte[] compressed;
+        switch (header.compression) {
+            case COMPRESSIONTYPE_ZIPS:
+            case COMPRESSIONTYPE_ZIP:
+                compressed = ZipCompressor.compress(raw);
+                break;
+            case COMPRESSIONTYPE_PIZ:
+                compressed = piz.compress(raw, w, h);
+                break;
+            default:
+                return raw;
+        }
+        return (compressed.length < raw.length) ? compressed : raw;
+    }
 
-        // Write pixels - half, uncompressed
-        try {
-            // Table of block (line) offsets
-            final int lineSize = image.width * 2 * header.channels.length;
+    // Division of the image into scanline blocks or tiles
+    private static class BlockLayout {
+        BlockLayout(Image image, Header header) {
+            width = image.width;
+            height = image.height;
+            tiled = header.tile_size > 0;
+            if (tiled) {
+                blockWidth = blockHeight = header.tile_size;
+            } else {
+                blockWidth = width;
+                blockHeight = LinesPerBlock(header.compression);
+            }
+            numXBlocks = (width + blockWidth - 1) / blockWidth;
+            numBlocks = numXBlocks * ((height + blockHeight - 1) / blockHeight);
+        }
 
-            for (int y = 0; y < image.height; y++) {
-                byteBuffer.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(offset).array());
-                offset += lineSize;
+        static int LinesPerBlock(int compression) {
+            switch (compression) {
+                case COMPRESSIONTYPE_ZIP: return 16;
+                case COMPRESSIONTYPE_PIZ: return 32;
+                default: return 1;
             }
+        }
 
-            for (int y = 0; y < image.height; y++) {
-                byteBuffer.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(y).array());
-                byteBuffer.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(lineSize).array());
-                for (int c = 0; c < header.channels.length; c++) {
-                    for (int x = 0; x < image.width; x++) {
-                        float pixel = image.images[c][y * image.width + x];
-                        short hpixel = toHalf(pixel);
-                        byteBuffer.write(ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort(hpixel).array());
-                    }
-                }
+        int BlockX(int index) { return (index % numXBlocks) * blockWidth; }
+        int BlockY(int index) { return (index / numXBlocks) * blockHeight; }
+        int BlockWidth(int index) { return Math.min(blockWidth, width - BlockX(index)); }
+        int BlockHeight(int index) { return Math.min(blockHeight, height - BlockY(index)); }
+
+        // Scanline blocks start with their first line, tiles with their tile and level coordinates
+        ByteBuffer BlockHeader(int index, int dataSize) {
+            ByteBuffer buff = ByteBuffer.allocate(tiled ? 20 : 8).order(ByteOrder.LITTLE_ENDIAN);
+            if (tiled) {
+                buff.putInt(index % numXBlocks);
+                buff.putInt(index / numXBlocks);
+                buff.putInt(0);
+                buff.putInt(0);
+            } else {
+                buff.putInt(BlockY(index));
             }
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            buff.putInt(dataSize);
+            buff.flip();
+            return buff;
         }
 
-        return SUCCESS;
+        final int width, height;
+        final boolean tiled;
+        final int blockWidth, blockHeight;
+        final int numXBlocks, numBlocks;
     }
 
     private static class ChannelInfo {
@@ -243,6 +365,8 @@ public class EXROutput {
         int y_sampling = 1;
         byte p_linear = 0;
         byte[] pad = new byte[3];
+        // Index of the channel in the interleaved input pixels
+        int component;
     }
 
     private static class Header {
@@ -252,12 +376,15 @@ public class EXROutput {
         int[] display_window = new int[4];
         float[] screen_window_center = new float[2];
         float screen_window_width;
+        int compression = COMPRESSIONTYPE_NONE;
+        int tile_size = 0;
 
         ChannelInfo[] channels;
     }
 
     private static class Image {
-        float[][] images;
+        // Interleaved pixels, num_channels per pixel
+        float[] data;
         int width;
         int height;
         int num_channels;
@@ -280,4 +407,4 @@ public class EXROutput {
 
         return(short)((( f>>>16 ) & 0x8000 ) | (((( f & 0x7f800000 ) - 0x38000000 )>>>13 ) & 0x7c00 ) | (( f>>>13 ) & 0x03ff ));
     }
-}
\ No newline at end of file
+}
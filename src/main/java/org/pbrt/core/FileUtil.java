@@ -14,12 +14,6 @@ import java.nio.file.Paths;
 
 public class FileUtil {
 
-    private static String searchDirectory;
-
-    static {
-        searchDirectory = "";
-    }
-
     public static boolean IsAbsolutePath(String filename) {
         Path path = Paths.get(filename);
         return path.isAbsolute();
@@ -31,6 +25,7 @@ public class FileUtil {
     }
 
     public static String ResolveFilename(String filename) {
+        String searchDirectory = RenderContext.Current().GetSearchDirectory();
         if (searchDirectory.isEmpty() || filename.isEmpty()) {
             return filename;
         }
@@ -48,7 +43,7 @@ public class FileUtil {
         return path.getParent().toString();
     }
     public static void SetSearchDirectory(String dirname) {
-        searchDirectory = dirname;
+        RenderContext.Current().SetSearchDirectory(dirname);
     }
 
     public static boolean HasExtension(String value, String ending) {
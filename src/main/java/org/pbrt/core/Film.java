@@ -10,6 +10,10 @@
 
 package org.pbrt.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 public class Film {
 
     // Film Private Data
@@ -20,6 +24,9 @@ public class Film {
         AtomicFloat splatXYZ[] = {new AtomicFloat(0), new AtomicFloat(0), new AtomicFloat(0)};
     }
     private Pixel[] pixels;
+    private static final int splatBlockSize = 16;
+    private final Point2i nSplatBlocks;
+    private final ConcurrentLinkedQueue<SplatBuffer> freeSplatBuffers = new ConcurrentLinkedQueue<>();
     private static final int filterTableWidth = 16;
     private float filterTable[] = new float[filterTableWidth * filterTableWidth];
     private final float scale;
@@ -47,6 +54,12 @@ public class Film {
             }
         }
         public void AddSample(Point2f pFilm, Spectrum L, float sampleWeight) {
+            int prof = Profiler.Enter(Profiler.AddFilmSample);
+            AddFilteredSample(pFilm, L, sampleWeight);
+            Profiler.Exit(prof);
+        }
+
+        private void AddFilteredSample(Point2f pFilm, Spectrum L, float sampleWeight) {
             if (L.y() > maxSampleLuminance)
                 L.scale(maxSampleLuminance / L.y());
 
@@ -122,6 +135,8 @@ public class Film {
         // Allocate film image storage
         this.pixels = new Pixel[croppedPixelBounds.Area()];
         for (int i = 0; i < this.pixels.length; i++) this.pixels[i] = new Pixel();
+        Vector2i extent = croppedPixelBounds.Diagonal();
+        this.nSplatBlocks = new Point2i((extent.x + splatBlockSize - 1) / splatBlockSize, (extent.y + splatBlockSize - 1) / splatBlockSize);
         filmPixelMemory.increment(croppedPixelBounds.Area() * 8*4);
 
         // Precompute filter weight table
@@ -139,7 +154,7 @@ public class Film {
     public Bounds2i GetSampleBounds() {
         Vector2f halfPixel = new Vector2f(0.5f, 0.5f);
         Bounds2f floatBounds = new Bounds2f(Point2f.Floor(new Point2f(croppedPixelBounds.pMin).add(halfPixel.subtract(filter.radius))),
-                Point2f.Ceil(new Point2f(croppedPixelBounds.pMax).subtract(halfPixel.add(filter.radius))));
+                Point2f.Ceil(new Point2f(croppedPixelBounds.pMax).subtract(halfPixel).add(filter.radius)));
         return new Bounds2i(floatBounds);
     }
 
@@ -190,42 +205,120 @@ public class Film {
     }
 
     public void AddSplat(Point2f p, Spectrum v) {
+        int offset = SplatOffset(p, v);
+        if (offset < 0) return;
+        float[] xyz = SplatXYZ(v);
+        Pixel pixel = pixels[offset];
+        for (int i = 0; i < 3; ++i) pixel.splatXYZ[i].add(xyz[i]);
+    }
+
+    // Splatted XYZ sum of pixel _p_, not including splats still held in splat buffers
+    public float[] GetSplatXYZ(Point2i p) {
+        Pixel pixel = GetPixel(p);
+        return new float[] { pixel.splatXYZ[0].get(), pixel.splatXYZ[1].get(), pixel.splatXYZ[2].get() };
+    }
+
+    // Offset in _pixels_ of a splat of _v_ at _p_, or -1 if it is to be ignored
+    private int SplatOffset(Point2f p, Spectrum v) {
         if (v.hasNaNs()) {
             PBrtTLogger.Error("Ignoring splatted spectrum with NaN values at (%f, %f)", p.x, p.y);
-            return;
+            return -1;
         } else if (v.y() < 0) {
             PBrtTLogger.Error("Ignoring splatted spectrum with negative luminance %f at (%f, %f)", v.y(), p.x, p.y);
-            return;
+            return -1;
         } else if (Float.isInfinite(v.y())) {
             PBrtTLogger.Error("Ignoring splatted spectrum with infinite luminance at (%f, %f)", p.x, p.y);
-            return;
+            return -1;
         }
 
-        Point2i pi = new Point2i((int)Math.floor(p.x), (int)Math.floor(p.y));
-        if (!Bounds2i.InsideExclusive(pi, croppedPixelBounds)) return;
+        int x = (int)Math.floor(p.x), y = (int)Math.floor(p.y);
+        if (x < croppedPixelBounds.pMin.x || x >= croppedPixelBounds.pMax.x ||
+                y < croppedPixelBounds.pMin.y || y >= croppedPixelBounds.pMax.y) return -1;
+        int width = croppedPixelBounds.pMax.x - croppedPixelBounds.pMin.x;
+        return (x - croppedPixelBounds.pMin.x) + (y - croppedPixelBounds.pMin.y) * width;
+    }
 
+    private float[] SplatXYZ(Spectrum v) {
         if (v.y() > maxSampleLuminance)
             v = v.scale(maxSampleLuminance / v.y());
-        float[] xyz = v.toXYZ();
-        Pixel pixel = GetPixel(pi);
-        for (int i = 0; i < 3; ++i) pixel.splatXYZ[i].add(xyz[i]);
+        return v.toXYZ();
+    }
+
+    // Splats accumulated privately by one thread at a time, so that integrators that
+    // splat heavily (BDPT, MLT) don't contend on the film's atomic pixels. Splat XYZ
+    // values are stored in 16x16 pixel blocks that are allocated on first use.
+    public class SplatBuffer {
+        private final float[][] blocks = new float[nSplatBlocks.x * nSplatBlocks.y][];
+
+        public void AddSplat(Point2f p, Spectrum v) {
+            int offset = SplatOffset(p, v);
+            if (offset < 0) return;
+            float[] xyz = SplatXYZ(v);
+            int width = croppedPixelBounds.pMax.x - croppedPixelBounds.pMin.x;
+            int x = offset % width, y = offset / width;
+            int b = (y / splatBlockSize) * nSplatBlocks.x + x / splatBlockSize;
+            if (blocks[b] == null) blocks[b] = new float[3 * splatBlockSize * splatBlockSize];
+            int i = 3 * ((y % splatBlockSize) * splatBlockSize + x % splatBlockSize);
+            blocks[b][i] += xyz[0];
+            blocks[b][i + 1] += xyz[1];
+            blocks[b][i + 2] += xyz[2];
+        }
+    }
 
+    // A splat buffer for the calling thread's exclusive use until it is released
+    public SplatBuffer AcquireSplatBuffer() {
+        SplatBuffer buffer = freeSplatBuffers.poll();
+        return (buffer != null) ? buffer : new SplatBuffer();
+    }
+
+    // Hand back a buffer from AcquireSplatBuffer(); its splats reach the film
+    // at the next MergeSplatBuffers()
+    public void ReleaseSplatBuffer(SplatBuffer buffer) {
+        freeSplatBuffers.add(buffer);
+    }
+
+    // Add the splats of all released buffers to the film and clear the buffers.
+    // Blocks are summed in parallel, each by a single task, so the adds never contend.
+    public synchronized void MergeSplatBuffers() {
+        ArrayList<SplatBuffer> buffers = new ArrayList<>();
+        for (SplatBuffer buffer; (buffer = freeSplatBuffers.poll()) != null; ) buffers.add(buffer);
+        if (buffers.isEmpty()) return;
+        final int width = croppedPixelBounds.pMax.x - croppedPixelBounds.pMin.x;
+        final int height = croppedPixelBounds.pMax.y - croppedPixelBounds.pMin.y;
+        Parallel.ParallelFor((int b) -> {
+            int x0 = (b % nSplatBlocks.x) * splatBlockSize, y0 = (b / nSplatBlocks.x) * splatBlockSize;
+            for (SplatBuffer buffer : buffers) {
+                float[] block = buffer.blocks[b];
+                if (block == null) continue;
+                for (int y = y0; y < Math.min(y0 + splatBlockSize, height); ++y) {
+                    for (int x = x0; x < Math.min(x0 + splatBlockSize, width); ++x) {
+                        int i = 3 * ((y - y0) * splatBlockSize + (x - x0));
+                        Pixel pixel = pixels[y * width + x];
+                        for (int c = 0; c < 3; ++c)
+                            pixel.splatXYZ[c].add(block[i + c]);
+                    }
+                }
+                Arrays.fill(block, 0);
+            }
+        }, nSplatBlocks.x * nSplatBlocks.y, 1);
+        freeSplatBuffers.addAll(buffers);
     }
 
     public void WriteImage(float splatScale) {
+        MergeSplatBuffers();
 
         // Convert image to RGB and compute final pixel values
         //LOG(INFO) << "Converting image to RGB and computing final weighted pixel values";
-        float[] pixRGB = new float[3];
-        float[] splatRGB = new float[3];
-        float[] rgb = new float[3 * croppedPixelBounds.Area()];
-        int offset = 0;
-        for (int py = croppedPixelBounds.pMin.y; py < croppedPixelBounds.pMax.y; py++) {
-            for (int px = croppedPixelBounds.pMin.x; px < croppedPixelBounds.pMax.x; px++) {
-                Point2i p = new Point2i(px, py);
-
+        final int width = croppedPixelBounds.pMax.x - croppedPixelBounds.pMin.x;
+        final int height = croppedPixelBounds.pMax.y - croppedPixelBounds.pMin.y;
+        float[] rgb = AsyncImageWriter.AcquireBuffer(3 * croppedPixelBounds.Area());
+        Parallel.ParallelFor((int row) -> {
+            float[] pixRGB = new float[3];
+            float[] splatRGB = new float[3];
+            float[] splatXYZ = new float[3];
+            for (int offset = row * width; offset < (row + 1) * width; ++offset) {
                 // Convert pixel XYZ color to RGB
-                Pixel pixel = GetPixel(p);
+                Pixel pixel = pixels[offset];
                 pixRGB = Spectrum.XYZToRGB(pixel.xyz, pixRGB);
                 rgb[3 * offset] = pixRGB[0];
                 rgb[3 * offset+1] = pixRGB[1];
@@ -241,7 +334,7 @@ public class Film {
                 }
 
                 // Add splat value at pixel
-                float[] splatXYZ = {pixel.splatXYZ[0].get(), pixel.splatXYZ[1].get(), pixel.splatXYZ[2].get()};
+                for (int c = 0; c < 3; ++c) splatXYZ[c] = pixel.splatXYZ[c].get();
                 splatRGB = Spectrum.XYZToRGB(splatXYZ, splatRGB);
                 rgb[3 * offset] += splatScale * splatRGB[0];
                 rgb[3 * offset + 1] += splatScale * splatRGB[1];
@@ -251,16 +344,16 @@ public class Film {
                 rgb[3 * offset] *= scale;
                 rgb[3 * offset + 1] *= scale;
                 rgb[3 * offset + 2] *= scale;
-                ++offset;
             }
-        }
+        }, height, 16);
 
-        // Write RGB image
+        // Write RGB image; encoding and file output overlap with whatever is rendered next
         PBrtTLogger.Info("Writing image %s with bounds %s", filename, croppedPixelBounds.toString());
-        ImageIO.Write(filename, rgb, croppedPixelBounds, fullResolution);
+        AsyncImageWriter.Submit(filename, rgb, croppedPixelBounds, fullResolution, exrOptions);
     }
 
     public void Clear() {
+        MergeSplatBuffers();
         for (int py = croppedPixelBounds.pMin.y; py < croppedPixelBounds.pMax.y; py++) {
             for (int px = croppedPixelBounds.pMin.x; px < croppedPixelBounds.pMax.x; px++) {
                 Point2i p = new Point2i(px, py);
@@ -280,18 +373,20 @@ public class Film {
     public Filter filter;
     public final String filename;
     public Bounds2i croppedPixelBounds;
+    // Compression, pixel type and tiling of EXR output
+    public EXROutput.WriteOptions exrOptions = new EXROutput.WriteOptions();
 
     public static Film Create(ParamSet paramSet, Filter filter) {
         String filename = new String();
-        if (!Pbrt.options.ImageFile.isEmpty()) {
-            filename = Pbrt.options.ImageFile;
+        if (!Pbrt.GetOptions().ImageFile.isEmpty()) {
+            filename = Pbrt.GetOptions().ImageFile;
             String paramsFilename = paramSet.FindOneString("filename", "");
             if (!paramsFilename.isEmpty()) {
                 PBrtTLogger.Warning("Output filename supplied on command line, \"%s\" is overriding " +
                         "filename provided in scene description file, \"%s\".",
-                        Pbrt.options.ImageFile, paramsFilename);
+                        Pbrt.GetOptions().ImageFile, paramsFilename);
             } else {
-                filename = Pbrt.options.ImageFile;
+                filename = Pbrt.GetOptions().ImageFile;
             }
         } 
         else {
@@ -300,8 +395,8 @@ public class Film {
 
         int xres = paramSet.FindOneInt("xresolution", 1280);
         int yres = paramSet.FindOneInt("yresolution", 720);
-        if (Pbrt.options.QuickRender) xres = Math.max(1, xres / 4);
-        if (Pbrt.options.QuickRender) yres = Math.max(1, yres / 4);
+        if (Pbrt.GetOptions().QuickRender) xres = Math.max(1, xres / 4);
+        if (Pbrt.GetOptions().QuickRender) yres = Math.max(1, yres / 4);
         Bounds2f crop = new Bounds2f(new Point2f(0, 0), new Point2f(1, 1));
         Float[] cr = paramSet.FindFloat("cropwindow");
         if (cr != null && cr.length == 4) {
@@ -312,16 +407,30 @@ public class Film {
         } else if (cr != null) {
             PBrtTLogger.Error("%d values supplied for \"cropwindow\". Expected 4.", cr.length);
         } else {
-            crop = new Bounds2f(new Point2f(Pbrt.Clamp(Pbrt.options.CropWindow[0][0], 0, 1),
-                                Pbrt.Clamp(Pbrt.options.CropWindow[1][0], 0, 1)),
-                        new Point2f(Pbrt.Clamp(Pbrt.options.CropWindow[0][1], 0, 1),
-                                Pbrt.Clamp(Pbrt.options.CropWindow[1][1], 0, 1)));
+            crop = new Bounds2f(new Point2f(Pbrt.Clamp(Pbrt.GetOptions().CropWindow[0][0], 0, 1),
+                                Pbrt.Clamp(Pbrt.GetOptions().CropWindow[1][0], 0, 1)),
+                        new Point2f(Pbrt.Clamp(Pbrt.GetOptions().CropWindow[0][1], 0, 1),
+                                Pbrt.Clamp(Pbrt.GetOptions().CropWindow[1][1], 0, 1)));
         }
 
         float scale = paramSet.FindOneFloat("scale", 1);
         float diagonal = paramSet.FindOneFloat("diagonal", 35);
         float maxSampleLuminance = paramSet.FindOneFloat("maxsampleluminance", Pbrt.Infinity);
-        return new Film(new Point2i(xres, yres), crop, filter, diagonal, filename, scale, maxSampleLuminance);
+        Film film = new Film(new Point2i(xres, yres), crop, filter, diagonal, filename, scale, maxSampleLuminance);
+
+        String compression = paramSet.FindOneString("exrcompression", "none");
+        film.exrOptions.compression = EXROutput.CompressionFromName(compression);
+        if (film.exrOptions.compression < 0) {
+            PBrtTLogger.Error("EXR compression \"%s\" unknown. Using \"none\".", compression);
+            film.exrOptions.compression = EXROutput.COMPRESSIONTYPE_NONE;
+        }
+        String pixelType = paramSet.FindOneString("exrpixeltype", "half");
+        if (pixelType.equals("float"))
+            film.exrOptions.pixelType = EXROutput.PIXELTYPE_FLOAT;
+        else if (!pixelType.equals("half"))
+            PBrtTLogger.Error("EXR pixel type \"%s\" unknown. Using \"half\".", pixelType);
+        film.exrOptions.tileSize = Math.max(0, paramSet.FindOneInt("exrtilesize", 0));
+        return film;
     }
 
     // Film Private Methods
@@ -1,4 +1,3 @@
-
 /*
  * PBrtJ -- Port of pbrt v3 to Java.
  * Copyright (c) 2017 Rick Weyrauch.
@@ -10,8 +9,65 @@
 
 package org.pbrt.core;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 public class FloatFile {
+
+    // Reads whitespace-separated floats from _filename_; '#' starts a comment that runs to the
+    // end of the line.  Other text is skipped with a warning.  Returns null if the file can't
+    // be read or holds a malformed number.
     public static float[] Read(String filename) {
-        return null;
+        String text;
+        try {
+            text = new String(Files.readAllBytes(Paths.get(filename)), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to open file \"%s\"", filename);
+            return null;
+        }
+
+        float[] values = new float[16];
+        int count = 0;
+        int lineNumber = 1;
+        int i = 0, n = text.length();
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                ++lineNumber;
+                ++i;
+            }
+            else if (Character.isWhitespace(c)) {
+                ++i;
+            }
+            else if (c == '#') {
+                while (i < n && text.charAt(i) != '\n') ++i;
+            }
+            else if (Character.isDigit(c) || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E') {
+                int start = i;
+                while (i < n) {
+                    c = text.charAt(i);
+                    if (!Character.isDigit(c) && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') break;
+                    ++i;
+                }
+                float v;
+                try {
+                    v = Float.parseFloat(text.substring(start, i));
+                } catch (NumberFormatException e) {
+                    PBrtTLogger.Error("Invalid number \"%s\" at line %d of float file \"%s\"", text.substring(start, i),
+                            lineNumber, filename);
+                    return null;
+                }
+                if (count == values.length) values = Arrays.copyOf(values, 2 * count);
+                values[count++] = v;
+            }
+            else {
+                PBrtTLogger.Warning("Unexpected text found at line %d of float file \"%s\"", lineNumber, filename);
+                ++i;
+            }
+        }
+        return Arrays.copyOf(values, count);
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,17 @@ public class FresnelConductor extends Fresnel {
         this.k = k;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static FresnelConductor Alloc(Spectrum etaI, Spectrum etaT, Spectrum k) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new FresnelConductor(etaI, etaT, k);
+        FresnelConductor fresnel = arena.Alloc(arenaPool);
+        fresnel.etaI = etaI;
+        fresnel.etaT = etaT;
+        fresnel.k = k;
+        return fresnel;
+    }
+
     @Override
     public Spectrum Evaluate(float cosI) {
         return FrConductor(Math.abs(cosI), etaI, etaT, k);
@@ -29,6 +40,8 @@ public class FresnelConductor extends Fresnel {
 
     private Spectrum etaI, etaT, k;
 
+    private static final MemoryArena.Pool<FresnelConductor> arenaPool = MemoryArena.NewPool(() -> new FresnelConductor(null, null, null));
+
     // https://seblagarde.wordpress.com/2013/04/29/memo-on-fresnel-equations/
     private static Spectrum FrConductor(float cosThetaI, Spectrum etai, Spectrum etat, Spectrum k) {
         cosThetaI = Pbrt.Clamp(cosThetaI, -1, 1);
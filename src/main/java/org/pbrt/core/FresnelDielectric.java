@@ -16,6 +16,19 @@ public class FresnelDielectric extends Fresnel {
         this.etaT = etaT;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static FresnelDielectric Alloc(float etaI, float etaT) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new FresnelDielectric(etaI, etaT);
+        return arena.Alloc(arenaPool).Init(etaI, etaT);
+    }
+
+    FresnelDielectric Init(float etaI, float etaT) {
+        this.etaI = etaI;
+        this.etaT = etaT;
+        return this;
+    }
+
     @Override
     public Spectrum Evaluate(float cosI) {
         return new Spectrum(FrDielectric(cosI, etaI, etaT));
@@ -28,6 +41,8 @@ public class FresnelDielectric extends Fresnel {
 
     private float etaI, etaT;
 
+    private static final MemoryArena.Pool<FresnelDielectric> arenaPool = MemoryArena.NewPool(() -> new FresnelDielectric(1, 1));
+
     private static float FrDielectric(float cosThetaI, float etaI, float etaT) {
         cosThetaI = Pbrt.Clamp(cosThetaI, -1, 1);
         // Potentially swap indices of refraction
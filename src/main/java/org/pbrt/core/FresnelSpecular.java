@@ -20,6 +20,19 @@ public class FresnelSpecular extends BxDF {
         this.mode = mode;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static FresnelSpecular Alloc(Spectrum R, Spectrum T, float etaA, float etaB, Material.TransportMode mode) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new FresnelSpecular(R, T, etaA, etaB, mode);
+        FresnelSpecular bxdf = arena.Alloc(arenaPool);
+        bxdf.R.set(R);
+        bxdf.T.set(T);
+        bxdf.etaA = etaA;
+        bxdf.etaB = etaB;
+        bxdf.mode = mode;
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         return new Spectrum(0);
@@ -78,6 +91,9 @@ public class FresnelSpecular extends BxDF {
     }
 
     private final Spectrum R, T;
-    private final float etaA, etaB;
-    private final Material.TransportMode mode;
+    private float etaA, etaB;
+    private Material.TransportMode mode;
+
+    private static final MemoryArena.Pool<FresnelSpecular> arenaPool =
+            MemoryArena.NewPool(() -> new FresnelSpecular(new Spectrum(0), new Spectrum(0), 1, 1, Material.TransportMode.Radiance));
 }
\ No newline at end of file
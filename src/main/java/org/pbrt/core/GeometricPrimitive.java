@@ -33,7 +33,9 @@ public class GeometricPrimitive extends Primitive {
 
     @Override
     public SurfaceInteraction Intersect(Ray r) {
+        int prof = Profiler.Enter(Profiler.ShapeIntersect);
         Shape.HitResult hres = shape.Intersect(r, true);
+        Profiler.Exit(prof);
         if (hres == null) return null;
         r.tMax = hres.tHit;
         hres.isect.primitive = this;
@@ -47,9 +49,34 @@ public class GeometricPrimitive extends Primitive {
         return hres.isect;
     }
 
+    @Override
+    public boolean Intersect(Ray r, HitRecord hit) {
+        int prof = Profiler.Enter(Profiler.ShapeIntersect);
+        boolean hitShape = shape.Intersect(r, true, hit);
+        Profiler.Exit(prof);
+        if (!hitShape) return false;
+        r.tMax = hit.tHit;
+        hit.SetPrimitive(this, r);
+        return true;
+    }
+
+    SurfaceInteraction FinalizeHit(HitRecord hit) {
+        SurfaceInteraction isect = shape.FinalizeHit(hit.ray, hit);
+        isect.primitive = this;
+        assert (Normal3f.Dot(isect.n, isect.shading.n) >= 0);
+        if (mediumInterface.IsMediumTransition())
+            isect.mediumInterface = mediumInterface;
+        else
+            isect.mediumInterface = new MediumInterface(hit.ray.medium);
+        return isect;
+    }
+
     @Override
     public boolean IntersectP(Ray r) {
-        return shape.IntersectP(r, true);
+        int prof = Profiler.Enter(Profiler.ShapeIntersect);
+        boolean hitShape = shape.IntersectP(r, true);
+        Profiler.Exit(prof);
+        return hitShape;
     }
 
     @Override
@@ -22,6 +22,11 @@ public abstract class GlobalSampler extends Sampler {
         super(samplesPerPixel);
     }
 
+    // Shares the array sample tables of _sampler_ until they are next written
+    protected GlobalSampler(GlobalSampler sampler) {
+        super(sampler);
+    }
+
     // GlobalSampler Public Methods
     public boolean StartNextSample() {
         dimension = 0;
@@ -29,6 +34,7 @@ public abstract class GlobalSampler extends Sampler {
         return super.StartNextSample();
     }
     public void StartPixel(Point2i p) {
+        UnshareTables();
         super.StartPixel(p);
         dimension = 0;
         intervalSampleIndex = GetIndexForSample(0);
@@ -50,8 +56,8 @@ public abstract class GlobalSampler extends Sampler {
             int nSamples = samples2DArraySizes.get(i) * samplesPerPixel;
             for (int j = 0; j < nSamples; ++j) {
                 int idx = GetIndexForSample(j);
-                sampleArray2D.get(i)[j].x = SampleDimension(idx, dim);
-                sampleArray2D.get(i)[j].y = SampleDimension(idx, dim + 1);
+                sampleArray2D.get(i)[2 * j] = SampleDimension(idx, dim);
+                sampleArray2D.get(i)[2 * j + 1] = SampleDimension(idx, dim + 1);
             }
             dim += 2;
         }
@@ -63,6 +69,12 @@ public abstract class GlobalSampler extends Sampler {
         intervalSampleIndex = GetIndexForSample(sampleNum);
         return super.SetSampleNumber(sampleNum);
     }
+    // Camera samples use the dimensions before _arrayStartDim_
+    public boolean SetSampleNumberPastCamera(int sampleNum) {
+        boolean more = SetSampleNumber(sampleNum);
+        dimension = arrayStartDim;
+        return more;
+    }
     public float Get1D() {
         if (dimension >= arrayStartDim && dimension < arrayEndDim)
             dimension = arrayEndDim;
@@ -76,6 +88,13 @@ public abstract class GlobalSampler extends Sampler {
         dimension += 2;
         return p;
     }
+    public void Get2D(float[] out) {
+        if (dimension + 1 >= arrayStartDim && dimension < arrayEndDim)
+            dimension = arrayEndDim;
+        out[0] = SampleDimension(intervalSampleIndex, dimension);
+        out[1] = SampleDimension(intervalSampleIndex, dimension + 1);
+        dimension += 2;
+    }
 
     public abstract int GetIndexForSample(int sampleNum);
     public abstract float SampleDimension(int index, int dimension);
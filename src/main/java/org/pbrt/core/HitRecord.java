@@ -0,0 +1,73 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+// Closest hit found so far during a ray traversal. Shapes that can record just the hit
+// distance and their parametric hit coordinates do so and build the SurfaceInteraction
+// in Finalize(), once the traversal is done; other shapes store a finished interaction.
+public class HitRecord {
+
+    public float tHit;
+    // Shape specific hit coordinates (barycentrics for triangles)
+    public float b0, b1, b2;
+    // Interaction built by shapes that do not defer it
+    public SurfaceInteraction isect;
+    // Primitive that was hit and the ray it was tested with, in the primitive's space
+    public GeometricPrimitive primitive;
+    public Ray ray;
+
+    // Transforms from the hit primitive's space to world space, innermost first
+    private Transform[] toWorld = new Transform[2];
+    private int nToWorld = 0;
+
+    private static final ThreadLocal<HitRecord> threadRecord = ThreadLocal.withInitial(HitRecord::new);
+
+    public static HitRecord Get() {
+        return threadRecord.get();
+    }
+
+    public void SetPrimitive(GeometricPrimitive primitive, Ray ray) {
+        this.primitive = primitive;
+        this.ray = ray;
+        nToWorld = 0;
+    }
+
+    public void SetInteraction(SurfaceInteraction isect) {
+        this.isect = isect;
+        primitive = null;
+        ray = null;
+        nToWorld = 0;
+    }
+
+    public void AddTransform(Transform primToWorld) {
+        if (nToWorld == toWorld.length) {
+            Transform[] grown = new Transform[2 * toWorld.length];
+            System.arraycopy(toWorld, 0, grown, 0, nToWorld);
+            toWorld = grown;
+        }
+        toWorld[nToWorld++] = primToWorld;
+    }
+
+    // Build the world space interaction for the recorded hit and release the references
+    // held by the record.
+    public SurfaceInteraction Finalize() {
+        SurfaceInteraction si = (primitive != null) ? primitive.FinalizeHit(this) : isect;
+        for (int i = 0; i < nToWorld; ++i) {
+            si = toWorld[i].xform(si);
+            assert (Normal3f.Dot(si.n, si.shading.n) >= 0);
+            toWorld[i] = null;
+        }
+        nToWorld = 0;
+        isect = null;
+        primitive = null;
+        ray = null;
+        return si;
+    }
+}
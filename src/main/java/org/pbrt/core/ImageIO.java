@@ -11,35 +11,68 @@
 package org.pbrt.core;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
 import org.pbrt.openexr.*;
 import org.pbrt.openexr.exception.OpenExrException;
 
 public class ImageIO {
     public static void Write(String filename, float[] rgb, Bounds2i outputBounds, Point2i totalResolution) {
+        Write(filename, rgb, outputBounds, totalResolution, new EXROutput.WriteOptions());
+    }
+
+    // The rgb values hold just the output bounds, row by row
+    public static void Write(String filename, float[] rgb, Bounds2i outputBounds, Point2i totalResolution, EXROutput.WriteOptions exrOptions) {
         Vector2i resolution = outputBounds.Diagonal();
         if (FileUtil.HasExtension(filename, ".exr")) {
-            WriteEXR(filename, rgb, resolution.x, resolution.y);
+            WriteEXR(filename, rgb, resolution.x, resolution.y, exrOptions);
         }
         else if (FileUtil.HasExtension(filename, ".pfm")) {
             WritePFM(filename, rgb, resolution.x, resolution.y);
         }
+        else if (FileUtil.HasExtension(filename, ".raw")) {
+            WriteRaw(filename, rgb, resolution.x, resolution.y);
+        }
+        else {
+            WriteLDR(filename, rgb, resolution.x, resolution.y);
+        }
+    }
+
+    // Rows of pixels converted in each parallel task
+    private static final int ROWS_PER_TASK = 16;
+
+    private static void WriteLDR(String filename, float[] rgb, int width, int height) {
+        BufferedImage bimage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        // Fill the raster's backing array directly rather than pixel by pixel through setRGB
+        final int[] argb = ((DataBufferInt) bimage.getRaster().getDataBuffer()).getData();
+        Parallel.ParallelFor((int task) -> {
+            int y0 = task * ROWS_PER_TASK;
+            int y1 = Math.min(y0 + ROWS_PER_TASK, height);
+            for (int i = y0 * width; i < y1 * width; i++) {
+                int r = Pbrt.Clamp((int)(rgb[3 * i] * 255.0f), 0, 255);
+                int g = Pbrt.Clamp((int)(rgb[3 * i + 1] * 255.0f), 0, 255);
+                int b = Pbrt.Clamp((int)(rgb[3 * i + 2] * 255.0f), 0, 255);
+                argb[i] = (255 << 24) | (r << 16) | (g << 8) | b;
+            }
+        }, (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK, 1);
         try {
-            BufferedImage bimage = new BufferedImage(resolution.x, resolution.y, BufferedImage.TYPE_INT_ARGB);
-            for (int y = 0; y < bimage.getHeight(); y++) {
-                for (int x = 0; x < bimage.getWidth(); x++) {
-                    int r = Pbrt.Clamp((int)(rgb[(y * totalResolution.x + x) * 3 + 0] * 255.0f), 0, 255);
-                    int g = Pbrt.Clamp((int)(rgb[(y * totalResolution.x + x) * 3 + 1] * 255.0f), 0, 255);
-                    int b = Pbrt.Clamp((int)(rgb[(y * totalResolution.x + x) * 3 + 2] * 255.0f), 0, 255);
-                    int bgra = (255 << 24) | (r << 16) | (g << 8) | b;
-                    bimage.setRGB(x, y, bgra);
-                }
+            if (!javax.imageio.ImageIO.write(bimage, FileUtil.GetExtension(filename), new File(filename))) {
+                PBrtTLogger.Error("No image writer for format \"%s\" of filename \"%s\".",
+                        FileUtil.GetExtension(filename), filename);
             }
-            boolean ok = javax.imageio.ImageIO.write(bimage, FileUtil.GetExtension(filename), new File(filename));
         }
         catch (IOException e) {
-            e.printStackTrace();
+            PBrtTLogger.Error("Unable to write image \"%s\": %s", filename, e.toString());
         }
     }
 
@@ -54,6 +87,8 @@ public class ImageIO {
     }
 
     public static SpectrumImage Read(String filename) {
+        // The image may be a render output that is still being written
+        AsyncImageWriter.WaitFor(filename);
         if (FileUtil.HasExtension(filename, ".exr")) {
             return ReadEXR(filename);
         }
@@ -63,15 +98,18 @@ public class ImageIO {
         try {
             BufferedImage bimage = javax.imageio.ImageIO.read(new File(filename));
             if (bimage != null) {
+                final int width = bimage.getWidth();
+                final int height = bimage.getHeight();
+                final int[] argb = bimage.getRGB(0, 0, width, height, null, 0, width);
                 SpectrumImage simage = new SpectrumImage();
-                simage.resolution = new Point2i(bimage.getWidth(), bimage.getHeight());
-                simage.image = new Spectrum[simage.resolution.x * simage.resolution.y];
-                for (int y = 0; y < bimage.getHeight(); y++) {
-                    for (int x = 0; x < bimage.getWidth(); x++) {
-                        int argb = bimage.getRGB(x, y);
-                        simage.image[y * bimage.getWidth() + x] = Spectrum.FromRGB(argb);
-                    }
-                }
+                simage.resolution = new Point2i(width, height);
+                simage.image = new Spectrum[width * height];
+                Parallel.ParallelFor((int task) -> {
+                    int y0 = task * ROWS_PER_TASK;
+                    int y1 = Math.min(y0 + ROWS_PER_TASK, height);
+                    for (int i = y0 * width; i < y1 * width; i++)
+                        simage.image[i] = Spectrum.FromRGB(argb[i]);
+                }, (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK, 1);
                 return simage;
             }
         } catch (IOException e) {
@@ -84,32 +122,163 @@ public class ImageIO {
         return null;
     }
 
+    // Convert interleaved rgb values to spectra, a band of rows per parallel task
+    private static SpectrumImage FromRGB(float[] rgb, int width, int height) {
+        SpectrumImage image = new SpectrumImage();
+        image.resolution = new Point2i(width, height);
+        image.image = new Spectrum[width * height];
+        Parallel.ParallelFor((int task) -> {
+            int y0 = task * ROWS_PER_TASK;
+            int y1 = Math.min(y0 + ROWS_PER_TASK, height);
+            for (int i = y0 * width; i < y1 * width; i++)
+                image.image[i] = Spectrum.FromRGB(rgb[3 * i], rgb[3 * i + 1], rgb[3 * i + 2]);
+        }, (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK, 1);
+        return image;
+    }
+
     private static SpectrumImage ReadEXR(String filename) {
-        SpectrumImage image = null;
         try {
             OpenExr oexr = new OpenExr(new File(filename));
-            image = new SpectrumImage();
-            image.resolution = new Point2i(oexr.getWidth(), oexr.getHeight());
-            image.image = new Spectrum[oexr.getWidth()* oexr.getHeight()];
-            final float[] pixels = oexr.getPixels();
-            for (int pix = 0; pix < pixels.length / 3 ; pix++) {
-                image.image[pix] = Spectrum.FromRGB(pixels[pix*3+0], pixels[pix*3+1], pixels[pix*3+2]);
-            }
+            return FromRGB(oexr.getPixels(), oexr.getWidth(), oexr.getHeight());
         } catch (OpenExrException e) {
-            e.printStackTrace();
+            PBrtTLogger.Error("Unable to read EXR image \"%s\": %s", filename, e.getMessage());
         }
-        return image;
+        return null;
     }
+
     private static SpectrumImage ReadPFM(String filename) {
-        PBrtTLogger.Warning("PFM image read not implemented.");
+        Point2i resolution = new Point2i(0, 0);
+        float[] rgb = ReadPFM(filename, resolution);
+        return (rgb != null) ? FromRGB(rgb, resolution.x, resolution.y) : null;
+    }
+
+    // Read a PFM image into interleaved rgb values, top row first; greyscale images are
+    // expanded to three channels
+    public static float[] ReadPFM(String filename, Point2i resolution) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            // Header: "PF" or "Pf", width and height, then the scale whose sign gives the byte order
+            String[] header = new String[4];
+            for (int i = 0; i < header.length; i++) header[i] = ReadPFMWord(data);
+            int nChannels;
+            if (header[0].equals("PF")) nChannels = 3;
+            else if (header[0].equals("Pf")) nChannels = 1;
+            else {
+                PBrtTLogger.Error("Unable to read PFM image \"%s\": bad header", filename);
+                return null;
+            }
+            int width = Integer.parseInt(header[1]);
+            int height = Integer.parseInt(header[2]);
+            float scale = Float.parseFloat(header[3]);
+            // A single whitespace character separates the header from the data
+            data.get();
+
+            int nFloats = nChannels * width * height;
+            if (data.remaining() < 4L * nFloats) {
+                PBrtTLogger.Error("Unable to read PFM image \"%s\": file is truncated", filename);
+                return null;
+            }
+            data.order(scale < 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            float[] values = new float[nFloats];
+            FloatBuffer floats = data.slice().order(data.order()).asFloatBuffer();
+            // Rows are stored bottom to top
+            int rowLength = nChannels * width;
+            for (int y = height - 1; y >= 0; y--) floats.get(values, y * rowLength, rowLength);
+
+            float absScale = Math.abs(scale);
+            float[] rgb = values;
+            if (nChannels == 1) {
+                rgb = new float[3 * width * height];
+                for (int i = 0; i < values.length; i++) rgb[3 * i] = rgb[3 * i + 1] = rgb[3 * i + 2] = values[i];
+            }
+            if (absScale != 1) {
+                for (int i = 0; i < rgb.length; i++) rgb[i] *= absScale;
+            }
+            resolution.x = width;
+            resolution.y = height;
+            return rgb;
+        } catch (IOException | NumberFormatException e) {
+            PBrtTLogger.Error("Unable to read PFM image \"%s\": %s", filename, e.toString());
+        }
         return null;
     }
 
-    private static void WritePFM(String filename, float[] rgb, int x, int y) {
+    private static String ReadPFMWord(ByteBuffer data) {
+        StringBuilder word = new StringBuilder();
+        while (data.hasRemaining()) {
+            char c = (char) data.get(data.position());
+            if (Character.isWhitespace(c)) {
+                if (word.length() > 0) break;
+            } else {
+                word.append(c);
+            }
+            data.get();
+        }
+        return word.toString();
+    }
+
+    // Read a raw dump of little-endian floats written by WriteRaw
+    public static float[] ReadRaw(String filename, int width, int height, int nChannels) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = 4L * nChannels * width * height;
+            if (channel.size() != size) {
+                PBrtTLogger.Error("Raw image \"%s\" holds %d bytes, expected %d.", filename, channel.size(), size);
+                return null;
+            }
+            float[] values = new float[nChannels * width * height];
+            channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+            return values;
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to read raw image \"%s\": %s", filename, e.toString());
+        }
+        return null;
+    }
+
+    private static void WritePFM(String filename, float[] rgb, int width, int height) {
+        // A negative scale marks little-endian data
+        byte[] header = String.format("PF\n%d %d\n-1\n", width, height).getBytes(StandardCharsets.US_ASCII);
+        // Rows are stored bottom to top
+        int rowLength = 3 * width;
+        WriteFloats(filename, header, rgb, height, rowLength, y -> (height - 1 - y) * rowLength);
+    }
+
+    // Write the interleaved rgb values as little-endian floats with no header, top row first
+    public static void WriteRaw(String filename, float[] rgb, int width, int height) {
+        int rowLength = 3 * width;
+        WriteFloats(filename, new byte[0], rgb, height, rowLength, y -> y * rowLength);
+    }
+
+    // Bytes buffered per write when streaming float images to disk
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private static void WriteFloats(String filename, byte[] headerBytes, float[] values, int nRows, int rowLength,
+                                    IntUnaryOperator rowOffset) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.wrap(headerBytes);
+            while (header.hasRemaining()) channel.write(header);
+
+            // Copy whole rows into a little-endian buffer through a float view and write it out
+            int rowsPerWrite = Math.max(1, WRITE_BUFFER_SIZE / (4 * Math.max(1, rowLength)));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(4 * rowLength * Math.min(rowsPerWrite, Math.max(1, nRows)))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            FloatBuffer floats = buffer.asFloatBuffer();
+            for (int y0 = 0; y0 < nRows; y0 += rowsPerWrite) {
+                int y1 = Math.min(y0 + rowsPerWrite, nRows);
+                floats.clear();
+                for (int y = y0; y < y1; y++) floats.put(values, rowOffset.applyAsInt(y), rowLength);
+                buffer.clear();
+                buffer.limit(4 * floats.position());
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to write image \"%s\": %s", filename, e.toString());
+        }
     }
 
-    private static void WriteEXR(String filename, float[] rgb, int xRes, int yRes) {
-        EXROutput.SaveEXR(rgb, xRes, yRes, 3, filename);
+    private static void WriteEXR(String filename, float[] rgb, int xRes, int yRes, EXROutput.WriteOptions options) {
+        EXROutput.SaveEXR(rgb, xRes, yRes, 3, filename, options);
     }
 
-}
\ No newline at end of file
+}
@@ -14,13 +14,21 @@ public abstract class Integrator {
 
     public abstract void Render(Scene scene);
 
+    // Tile size and order for integrators that render the image in tiles
+    public void SetTileSchedule(TileSchedule tileSchedule) {
+        this.tileSchedule = tileSchedule;
+    }
+
+    protected TileSchedule tileSchedule = new TileSchedule();
+
     public static Distribution1D ComputeLightPowerDistribution(Scene scene) {
         if (scene.lights.isEmpty()) return null;
         float[] lightPower = new float[scene.lights.size()];
         int i = 0;
         for (Light light : scene.lights)
             lightPower[i++] = light.Power().y();
-        return new Distribution1D(lightPower);
+        // Light selection only needs discrete samples, so use the constant time alias table
+        return new Distribution1D(lightPower, true);
     }
 
 }
\ No newline at end of file
@@ -14,7 +14,7 @@ public class Interpolation {
     // Spline Interpolation Declarations
     public static float CatmullRom(int size, float[] nodes, float[] values, float x) {
         if (!(x >= nodes[0] && x <= nodes[size - 1])) return 0;
-        int idx = Pbrt.FindInterval(size, i -> nodes[i] <= x);
+        int idx = Pbrt.FindInterval(nodes, size, x);
         float x0 = nodes[idx], x1 = nodes[idx + 1];
         float f0 = values[idx], f1 = values[idx + 1];
         float width = x1 - x0;
@@ -44,7 +44,7 @@ public class Interpolation {
 
         Weights weights = new Weights();
         // Search for the interval _idx_ containing _x_
-        int idx = Pbrt.FindInterval(size, i -> nodes[i] <= x);
+        int idx = Pbrt.FindInterval(nodes, size, x);
         weights.offset = idx - 1;
         weights.weights = new float[4];
 
@@ -92,7 +92,7 @@ public class Interpolation {
         // Map _u_ to a spline interval by inverting _F_
         u *= F[n - 1];
         float su = u;
-        int i = Pbrt.FindInterval(n, index -> F[index] <= su);
+        int i = Pbrt.FindInterval(F, n, su);
 
         // Look up $x_i$ and function values of spline segment _i_
         float x0 = x[i], x1 = x[i + 1];
@@ -287,7 +287,7 @@ public class Interpolation {
             return x[n - 1];
 
         // Map _u_ to a spline interval by inverting _values_
-        int i = Pbrt.FindInterval(n, index -> values[index] <= u);
+        int i = Pbrt.FindInterval(values, n, u);
 
         // Look up $x_i$ and function values of spline segment _i_
         float x0 = x[i], x1 = x[i + 1];
@@ -17,6 +17,15 @@ public class LambertianReflection extends BxDF {
         this.R = new Spectrum(R);
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static LambertianReflection Alloc(Spectrum R) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new LambertianReflection(R);
+        LambertianReflection bxdf = arena.Alloc(arenaPool);
+        bxdf.R.set(R);
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         return Spectrum.Scale(R, Pbrt.InvPi);
@@ -33,5 +42,7 @@ public class LambertianReflection extends BxDF {
         return "[ LambertianReflection R: " + R.toString() + " ]";
     }
 
-    private Spectrum R;
+    private final Spectrum R;
+
+    private static final MemoryArena.Pool<LambertianReflection> arenaPool = MemoryArena.NewPool(() -> new LambertianReflection(new Spectrum(0)));
 }
\ No newline at end of file
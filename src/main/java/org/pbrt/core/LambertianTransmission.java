@@ -17,6 +17,15 @@ public class LambertianTransmission extends BxDF {
         this.T = new Spectrum(T);
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static LambertianTransmission Alloc(Spectrum T) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new LambertianTransmission(T);
+        LambertianTransmission bxdf = arena.Alloc(arenaPool);
+        bxdf.T.set(T);
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         return Spectrum.Scale(T, Pbrt.InvPi);
@@ -48,5 +57,7 @@ public class LambertianTransmission extends BxDF {
         return "[ LambertianTransmission T: " + T.toString() + " ]";
     }
 
-    private Spectrum T;
+    private final Spectrum T;
+
+    private static final MemoryArena.Pool<LambertianTransmission> arenaPool = MemoryArena.NewPool(() -> new LambertianTransmission(new Spectrum(0)));
 }
\ No newline at end of file
@@ -84,10 +84,7 @@ public abstract class Light {
            MediumInterface mediumInterface, int nSamples) {
         this.flags = flags;
         this.nSamples = Math.max(1, nSamples);
-        if (mediumInterface != null)
-            this.mediumInterface = new MediumInterface(mediumInterface);
-        else
-            this.mediumInterface = null;
+        this.mediumInterface = (mediumInterface != null) ? new MediumInterface(mediumInterface) : new MediumInterface();
         this.LightToWorld = new Transform(LightToWorld);
         this.WorldToLight = Transform.Inverse(LightToWorld);
 
@@ -103,6 +100,10 @@ public abstract class Light {
     public abstract float Pdf_Li(Interaction ref, Vector3f wi);
     public abstract LeResult Sample_Le(Point2f u1, Point2f u2, float time);
     public abstract PdfResult Pdf_Le(Ray ray, Normal3f nLight);
+    // Spatial and directional bounds for light BVHs; null for lights at infinity
+    public LightBounds Bounds() {
+        return null;
+    }
 
     // Light Public Data
     public int flags;
@@ -0,0 +1,99 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+// Conservative bounds on where a light (or group of lights) emits from and in which
+// directions: emitters lie in _bounds_ with surface normals within acos(cosTheta_o) of _w_,
+// and emit within a further acos(cosTheta_e) of their normals. _phi_ is the emitted power.
+public class LightBounds {
+
+    public LightBounds(Bounds3f bounds, Vector3f w, float phi, float cosTheta_o, float cosTheta_e, boolean twoSided) {
+        this.bounds = bounds;
+        this.w = Vector3f.Normalize(w);
+        this.phi = phi;
+        this.cosTheta_o = cosTheta_o;
+        this.cosTheta_e = cosTheta_e;
+        this.twoSided = twoSided;
+    }
+
+    public final Bounds3f bounds;
+    public final Vector3f w;
+    public final float phi;
+    public final float cosTheta_o, cosTheta_e;
+    public final boolean twoSided;
+
+    public Point3f Centroid() {
+        return (bounds.pMin.add(bounds.pMax)).invScale(2);
+    }
+
+    // Upper bound on the contribution of the lights to a point _p_ with surface normal _n_
+    // (zero length for points in media)
+    public float Importance(Point3f p, Normal3f n) {
+        // Return importance for light bounds at reference point
+        // Compute clamped squared distance to reference point
+        Point3f pc = Centroid();
+        float d2 = Point3f.DistanceSquared(p, pc);
+        d2 = Math.max(d2, bounds.Diagonal().Length() / 2);
+
+        // Compute sine and cosine of angle to vector _w_, $\theta_\roman{w}$
+        Vector3f wi = p.subtract(pc);
+        float wiLength = wi.Length();
+        if (wiLength == 0) wi = w;
+        else wi = wi.invScale(wiLength);
+        float cosTheta_w = Vector3f.Dot(w, wi);
+        if (twoSided) cosTheta_w = Math.abs(cosTheta_w);
+        float sinTheta_w = DirectionCone.SafeSqrt(1 - cosTheta_w * cosTheta_w);
+
+        // Compute $\cos\,\theta_\roman{\+b}$ for reference point
+        float cosTheta_b = DirectionCone.BoundSubtendedDirections(bounds, p).cosTheta;
+        float sinTheta_b = DirectionCone.SafeSqrt(1 - cosTheta_b * cosTheta_b);
+
+        // Compute $\cos\,\theta'$ and test against $\cos\,\theta_\roman{e}$
+        float sinTheta_o = DirectionCone.SafeSqrt(1 - cosTheta_o * cosTheta_o);
+        float cosTheta_x = CosSubClamped(sinTheta_w, cosTheta_w, sinTheta_o, cosTheta_o);
+        float sinTheta_x = SinSubClamped(sinTheta_w, cosTheta_w, sinTheta_o, cosTheta_o);
+        float cosThetap = CosSubClamped(sinTheta_x, cosTheta_x, sinTheta_b, cosTheta_b);
+        if (cosThetap <= cosTheta_e) return 0;
+
+        // Return final importance at reference point
+        float importance = phi * cosThetap / d2;
+
+        // Account for $\cos\theta_\roman{i}$ in importance at surfaces
+        if (n.x != 0 || n.y != 0 || n.z != 0) {
+            float cosTheta_i = Math.abs(Normal3f.Dot(n, wi));
+            float sinTheta_i = DirectionCone.SafeSqrt(1 - cosTheta_i * cosTheta_i);
+            float cosThetap_i = CosSubClamped(sinTheta_i, cosTheta_i, sinTheta_b, cosTheta_b);
+            importance *= cosThetap_i;
+        }
+        return Math.max(importance, 0);
+    }
+
+    // cos(max(0, a - b)) and sin(max(0, a - b)) from the sines and cosines of _a_ and _b_
+    private static float CosSubClamped(float sinTheta_a, float cosTheta_a, float sinTheta_b, float cosTheta_b) {
+        if (cosTheta_a > cosTheta_b) return 1;
+        return cosTheta_a * cosTheta_b + sinTheta_a * sinTheta_b;
+    }
+
+    private static float SinSubClamped(float sinTheta_a, float cosTheta_a, float sinTheta_b, float cosTheta_b) {
+        if (cosTheta_a > cosTheta_b) return 0;
+        return sinTheta_a * cosTheta_b - cosTheta_a * sinTheta_b;
+    }
+
+    public static LightBounds Union(LightBounds a, LightBounds b) {
+        // If one _LightBounds_ has zero power, return the other
+        if (a.phi == 0) return b;
+        if (b.phi == 0) return a;
+
+        // Find average direction and updated angles for _LightBounds_
+        DirectionCone cone = DirectionCone.Union(new DirectionCone(a.w, a.cosTheta_o), new DirectionCone(b.w, b.cosTheta_o));
+        return new LightBounds(Bounds3f.Union(a.bounds, b.bounds), cone.w, a.phi + b.phi, cone.cosTheta,
+                Math.min(a.cosTheta_e, b.cosTheta_e), a.twoSided || b.twoSided);
+    }
+}
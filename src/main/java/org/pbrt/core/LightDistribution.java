@@ -15,11 +15,30 @@ import java.util.Objects;
 public abstract class LightDistribution {
     public abstract Distribution1D Lookup(Point3f p);
 
+    // Choose a light for shading at _it_; null if no light can contribute there
+    public Distribution1D.DiscreteSample Sample(Interaction it, float u) {
+        Distribution1D distrib = Lookup(it.p);
+        return (distrib != null) ? distrib.SampleDiscrete(u) : null;
+    }
+
+    // Probability that Sample() chooses light _lightIndex_ at _it_
+    public float PMF(Interaction it, int lightIndex) {
+        Distribution1D distrib = Lookup(it.p);
+        return (distrib != null) ? distrib.DiscretePDF(lightIndex) : 0;
+    }
+
+    // Compute ahead of rendering whatever is needed for the points seen through every
+    // _stride_-th pixel of _pixelBounds_; by default there is nothing to do
+    public void Prepopulate(Camera camera, Bounds2i pixelBounds, int stride) {
+    }
+
     public static LightDistribution CreateLightSampleDistribution(String name, Scene scene) {
         if (Objects.equals(name, "uniform") || scene.lights.size() == 1)
             return new UniformLightDistribution(scene);
         else if (Objects.equals(name, "power"))
             return new PowerLightDistribution(scene);
+        else if (Objects.equals(name, "bvh"))
+            return new BVHLightDistribution(scene);
         else if (Objects.equals(name, "spatial"))
             return new SpatialLightDistribution(scene, 64);
         else {
@@ -0,0 +1,118 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.util.function.Supplier;
+
+// Stand-in for pbrt's MemoryArena. Each thread owns an arena holding pools of reusable
+// objects (BSDFs, BxDFs, Fresnel terms, microfacet distributions, surface interactions).
+// While an arena is active on a thread, the Alloc() methods of those classes hand out
+// pooled objects instead of allocating new ones; Reset() makes every pooled object
+// available again. Objects taken from an arena must not be referenced after the next
+// Reset(). Threads without an active arena get newly allocated objects, so code that keeps
+// scattering functions around (SPPM visible points, BDPT vertices) is unaffected.
+public class MemoryArena {
+
+    // Handle for one kind of pooled object
+    public static final class Pool<T> {
+        private Pool(int index, Supplier<T> factory) {
+            this.index = index;
+            this.factory = factory;
+        }
+
+        private final int index;
+        private final Supplier<T> factory;
+    }
+
+    private static final class Slots {
+        Object[] items = new Object[16];
+        int size = 0, used = 0;
+    }
+
+    private static int numPools = 0;
+    private static final ThreadLocal<MemoryArena> threadArena = ThreadLocal.withInitial(MemoryArena::new);
+
+    private static Stats.Counter nArenaObjects = new Stats.Counter("Memory/Arena objects created");
+
+    public static synchronized <T> Pool<T> NewPool(Supplier<T> factory) {
+        return new Pool<>(numPools++, factory);
+    }
+
+    // Activate the calling thread's arena; calls nest and must be matched by End()
+    public static MemoryArena Begin() {
+        MemoryArena arena = threadArena.get();
+        arena.depth++;
+        return arena;
+    }
+
+    // Deactivate the calling thread's arena and release everything allocated from it
+    public static void End() {
+        MemoryArena arena = threadArena.get();
+        assert arena.depth > 0;
+        if (--arena.depth == 0) arena.Reset();
+    }
+
+    // The calling thread's arena if it is active, otherwise null
+    public static MemoryArena Active() {
+        MemoryArena arena = threadArena.get();
+        return (arena.depth > 0) ? arena : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T Alloc(Pool<T> pool) {
+        if (pool.index >= slots.length) {
+            Slots[] grown = new Slots[Math.max(pool.index + 1, 2 * slots.length)];
+            System.arraycopy(slots, 0, grown, 0, slots.length);
+            slots = grown;
+        }
+        Slots s = slots[pool.index];
+        if (s == null) {
+            s = new Slots();
+            slots[pool.index] = s;
+        }
+        if (s.used == s.size) {
+            if (s.size == s.items.length) {
+                Object[] grown = new Object[2 * s.items.length];
+                System.arraycopy(s.items, 0, grown, 0, s.size);
+                s.items = grown;
+            }
+            s.items[s.size++] = pool.factory.get();
+            nArenaObjects.increment();
+        }
+        return (T) s.items[s.used++];
+    }
+
+    public void Reset() {
+        for (Slots s : slots) {
+            if (s != null) s.used = 0;
+        }
+    }
+
+    // Number of pooled objects currently handed out
+    public int InUse() {
+        int total = 0;
+        for (Slots s : slots) {
+            if (s != null) total += s.used;
+        }
+        return total;
+    }
+
+    // Number of objects owned by the arena
+    public int TotalAllocated() {
+        int total = 0;
+        for (Slots s : slots) {
+            if (s != null) total += s.size;
+        }
+        return total;
+    }
+
+    private Slots[] slots = new Slots[16];
+    private int depth = 0;
+}
@@ -0,0 +1,302 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.ObjectName;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live, machine readable render metrics: throughput of camera rays, intersection tests and
+// samples, tiles completed, wall time per render phase, heap and GC pressure, and the totals
+// of all Stats counters. They can be served as JSON over HTTP on a local port, published as
+// a JMX MXBean and appended periodically to a JSON lines file. Nothing runs until one of
+// these outputs is started. Unlike the Stats counters, which count per render context, they
+// are process wide, so the render server only reports them when it renders one job at a time.
+public class Metrics {
+
+    public enum Phase {
+        Parse, AccelBuild, LightPreprocess, Render, Write
+    }
+
+    private static final String CameraRaysTitle = "Integrator/Camera rays traced";
+    private static final String IntersectionTestsTitle = "Intersections/Regular ray intersection tests";
+    private static final String ShadowTestsTitle = "Intersections/Shadow ray intersection tests";
+
+    private static final LongAdder samples = new LongAdder();
+    private static final LongAdder tilesCompleted = new LongAdder();
+    private static final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    // Threads of the render in progress, set by the RenderContext that started it
+    private static volatile int renderThreads = Parallel.NumSystemCores();
+
+    public static void AddSamples(long count) {
+        samples.add(count);
+    }
+
+    public static void TileCompleted() {
+        tilesCompleted.increment();
+    }
+
+    // Add the time since _startNanos_ (from System.nanoTime()) to _phase_
+    public static void AddPhaseTime(Phase phase, long startNanos) {
+        phaseNanos.addAndGet(phase.ordinal(), System.nanoTime() - startNanos);
+    }
+
+    public static double PhaseSeconds(Phase phase) {
+        return phaseNanos.get(phase.ordinal()) * 1e-9;
+    }
+
+    // Rates are computed by the metrics thread once a second from the change in the totals
+    private static final int TICK_MS = 1000;
+    private static volatile double cameraRaysPerSecond, intersectionTestsPerSecond, shadowTestsPerSecond, samplesPerSecond;
+    private static long lastTickNanos, lastCameraRays, lastIntersectionTests, lastShadowTests, lastSamples;
+
+    private static ScheduledExecutorService ticker = null;
+    private static HttpServer httpServer = null;
+    private static PrintWriter jsonLog = null;
+    private static int jsonLogInterval = 0;
+    private static long ticks = 0;
+
+    private static synchronized void StartTicker() {
+        if (ticker != null) return;
+        lastTickNanos = System.nanoTime();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pbrt-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(Metrics::Tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void Tick() {
+        long now = System.nanoTime();
+        double seconds = (now - lastTickNanos) * 1e-9;
+        if (seconds <= 0) return;
+        long cameraRays = Stats.CounterTotal(CameraRaysTitle);
+        long intersectionTests = Stats.CounterTotal(IntersectionTestsTitle);
+        long shadowTests = Stats.CounterTotal(ShadowTestsTitle);
+        long sampleCount = samples.sum();
+        cameraRaysPerSecond = (cameraRays - lastCameraRays) / seconds;
+        intersectionTestsPerSecond = (intersectionTests - lastIntersectionTests) / seconds;
+        shadowTestsPerSecond = (shadowTests - lastShadowTests) / seconds;
+        samplesPerSecond = (sampleCount - lastSamples) / seconds;
+        lastTickNanos = now;
+        lastCameraRays = cameraRays;
+        lastIntersectionTests = intersectionTests;
+        lastShadowTests = shadowTests;
+        lastSamples = sampleCount;
+
+        if (jsonLog != null && ++ticks % jsonLogInterval == 0) {
+            jsonLog.println(ToJson());
+            jsonLog.flush();
+        }
+    }
+
+    // Serve the current metrics as JSON at http://localhost:<port>/metrics
+    public static synchronized void StartHttpServer(int port) {
+        if (httpServer != null) return;
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", exchange -> {
+                byte[] body = ToJson().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.start();
+            httpServer = server;
+            StartTicker();
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to serve metrics on port %d: %s", port, e.toString());
+        }
+    }
+
+    // Append a JSON object with the current metrics to _filename_ every _intervalSeconds_
+    public static synchronized void StartJsonLog(String filename, int intervalSeconds) {
+        if (jsonLog != null) return;
+        try {
+            jsonLog = new PrintWriter(new FileWriter(filename, true));
+            jsonLogInterval = Math.max(1, intervalSeconds * 1000 / TICK_MS);
+            StartTicker();
+        } catch (IOException e) {
+            PBrtTLogger.Error("Unable to open metrics log \"%s\": %s", filename, e.toString());
+        }
+    }
+
+    public interface MetricsMXBean {
+        long getCameraRays();
+        double getCameraRaysPerSecond();
+        long getIntersectionTests();
+        double getIntersectionTestsPerSecond();
+        long getShadowTests();
+        double getShadowTestsPerSecond();
+        long getSamples();
+        double getSamplesPerSecond();
+        double getSamplesPerSecondPerThread();
+        long getTilesCompleted();
+        double getParseSeconds();
+        double getAccelBuildSeconds();
+        double getLightPreprocessSeconds();
+        double getRenderSeconds();
+        double getWriteSeconds();
+        String getJson();
+    }
+
+    private static class MetricsBean implements MetricsMXBean {
+        public long getCameraRays() { return Stats.CounterTotal(CameraRaysTitle); }
+        public double getCameraRaysPerSecond() { return cameraRaysPerSecond; }
+        public long getIntersectionTests() { return Stats.CounterTotal(IntersectionTestsTitle); }
+        public double getIntersectionTestsPerSecond() { return intersectionTestsPerSecond; }
+        public long getShadowTests() { return Stats.CounterTotal(ShadowTestsTitle); }
+        public double getShadowTestsPerSecond() { return shadowTestsPerSecond; }
+        public long getSamples() { return samples.sum(); }
+        public double getSamplesPerSecond() { return samplesPerSecond; }
+        public double getSamplesPerSecondPerThread() { return samplesPerSecond / RenderThreads(); }
+        public long getTilesCompleted() { return tilesCompleted.sum(); }
+        public double getParseSeconds() { return PhaseSeconds(Phase.Parse); }
+        public double getAccelBuildSeconds() { return PhaseSeconds(Phase.AccelBuild); }
+        public double getLightPreprocessSeconds() { return PhaseSeconds(Phase.LightPreprocess); }
+        public double getRenderSeconds() { return PhaseSeconds(Phase.Render); }
+        public double getWriteSeconds() { return PhaseSeconds(Phase.Write); }
+        public String getJson() { return ToJson(); }
+    }
+
+    private static boolean mbeanRegistered = false;
+
+    // Publish the metrics as org.pbrt:type=Metrics on the platform MBean server
+    public static synchronized void RegisterMBean() {
+        if (mbeanRegistered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsBean(), new ObjectName("org.pbrt:type=Metrics"));
+            mbeanRegistered = true;
+            StartTicker();
+        } catch (Exception e) {
+            PBrtTLogger.Error("Unable to register metrics MBean: %s", e.toString());
+        }
+    }
+
+    // Stop serving metrics; a last line is written to the JSON log
+    public static synchronized void Shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+        if (jsonLog != null) {
+            Tick();
+            jsonLog.println(ToJson());
+            jsonLog.close();
+            jsonLog = null;
+        }
+    }
+
+    public static void SetRenderThreads(int nThreads) {
+        renderThreads = (nThreads <= 0) ? Parallel.NumSystemCores() : nThreads;
+    }
+
+    private static int RenderThreads() {
+        return renderThreads;
+    }
+
+    public static String ToJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append('{');
+        AppendField(json, "timeMs", System.currentTimeMillis());
+        AppendField(json, "cameraRays", Stats.CounterTotal(CameraRaysTitle));
+        AppendField(json, "cameraRaysPerSecond", cameraRaysPerSecond);
+        AppendField(json, "intersectionTests", Stats.CounterTotal(IntersectionTestsTitle));
+        AppendField(json, "intersectionTestsPerSecond", intersectionTestsPerSecond);
+        AppendField(json, "shadowTests", Stats.CounterTotal(ShadowTestsTitle));
+        AppendField(json, "shadowTestsPerSecond", shadowTestsPerSecond);
+        AppendField(json, "samples", samples.sum());
+        AppendField(json, "samplesPerSecond", samplesPerSecond);
+        AppendField(json, "threads", RenderThreads());
+        AppendField(json, "samplesPerSecondPerThread", samplesPerSecond / RenderThreads());
+        AppendField(json, "tilesCompleted", tilesCompleted.sum());
+
+        json.append("\"phaseSeconds\":{");
+        for (Phase phase : Phase.values()) AppendField(json, phase.name(), PhaseSeconds(phase));
+        EndObject(json);
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        json.append("\"heap\":{");
+        AppendField(json, "used", heap.getUsed());
+        AppendField(json, "committed", heap.getCommitted());
+        AppendField(json, "max", heap.getMax());
+        EndObject(json);
+
+        long collections = 0, collectionMs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, gc.getCollectionCount());
+            collectionMs += Math.max(0, gc.getCollectionTime());
+        }
+        json.append("\"gc\":{");
+        AppendField(json, "collections", collections);
+        AppendField(json, "seconds", collectionMs * 1e-3);
+        EndObject(json);
+
+        json.append("\"counters\":{");
+        for (Stats.Counter counter : Stats.Counters()) AppendField(json, counter.Title(), counter.Total());
+        EndObject(json);
+
+        json.setLength(json.length() - 1);
+        json.append('}');
+        return json.toString();
+    }
+
+    private static void AppendField(StringBuilder json, String name, long value) {
+        AppendName(json, name);
+        json.append(value).append(',');
+    }
+
+    private static void AppendField(StringBuilder json, String name, double value) {
+        AppendName(json, name);
+        // JSON has no representation for NaN or infinity
+        if (Double.isFinite(value)) json.append(String.format(Locale.ROOT, "%.3f", value));
+        else json.append("null");
+        json.append(',');
+    }
+
+    private static void AppendName(StringBuilder json, String name) {
+        json.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\');
+            json.append(c);
+        }
+        json.append("\":");
+    }
+
+    // Replace the trailing comma of the last field, if any, with the closing brace
+    private static void EndObject(StringBuilder json) {
+        if (json.charAt(json.length() - 1) == ',') json.setLength(json.length() - 1);
+        json.append("},");
+    }
+}
@@ -34,5 +34,5 @@ public abstract class MicrofacetDistribution {
             return D(wh) * Reflection.AbsCosTheta(wh);
     }
 
-    protected final boolean sampleVisibleArea;
+    protected boolean sampleVisibleArea;
 }
\ No newline at end of file
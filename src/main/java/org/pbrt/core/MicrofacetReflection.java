@@ -18,6 +18,17 @@ public class MicrofacetReflection extends BxDF {
         this.fresnel = fresnel;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static MicrofacetReflection Alloc(Spectrum R, MicrofacetDistribution distribution, Fresnel fresnel) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new MicrofacetReflection(R, distribution, fresnel);
+        MicrofacetReflection bxdf = arena.Alloc(arenaPool);
+        bxdf.R.set(R);
+        bxdf.distribution = distribution;
+        bxdf.fresnel = fresnel;
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         float cosThetaO = Reflection.AbsCosTheta(wo), cosThetaI = Reflection.AbsCosTheta(wi);
@@ -67,6 +78,8 @@ public class MicrofacetReflection extends BxDF {
     }
 
     private final Spectrum R;
-    private final MicrofacetDistribution distribution;
-    private final Fresnel fresnel;
+    private MicrofacetDistribution distribution;
+    private Fresnel fresnel;
+
+    private static final MemoryArena.Pool<MicrofacetReflection> arenaPool = MemoryArena.NewPool(() -> new MicrofacetReflection(new Spectrum(0), null, null));
 }
\ No newline at end of file
@@ -21,6 +21,20 @@ public class MicrofacetTransmission extends BxDF {
         this.mode = mode;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static MicrofacetTransmission Alloc(Spectrum T, MicrofacetDistribution distribution, float etaA, float etaB, Material.TransportMode mode) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new MicrofacetTransmission(T, distribution, etaA, etaB, mode);
+        MicrofacetTransmission bxdf = arena.Alloc(arenaPool);
+        bxdf.T.set(T);
+        bxdf.distribution = distribution;
+        bxdf.etaA = etaA;
+        bxdf.etaB = etaB;
+        bxdf.fresnel.Init(etaA, etaB);
+        bxdf.mode = mode;
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         if (Reflection.SameHemisphere(wo, wi)) return new Spectrum(0);  // transmission only
@@ -81,8 +95,11 @@ public class MicrofacetTransmission extends BxDF {
     }
 
     private final Spectrum T;
-    private final MicrofacetDistribution distribution;
-    private final float etaA, etaB;
+    private MicrofacetDistribution distribution;
+    private float etaA, etaB;
     private final FresnelDielectric fresnel;
-    private final Material.TransportMode mode;
+    private Material.TransportMode mode;
+
+    private static final MemoryArena.Pool<MicrofacetTransmission> arenaPool =
+            MemoryArena.NewPool(() -> new MicrofacetTransmission(new Spectrum(0), null, 1, 1, Material.TransportMode.Radiance));
 }
\ No newline at end of file
@@ -11,12 +11,27 @@ package org.pbrt.core;
 
 public class Options {
 
+    public Options() {}
+
+    public Options(Options opt) {
+        this.NumThreads = opt.NumThreads;
+        this.QuickRender = opt.QuickRender;
+        this.Quiet = opt.Quiet;
+        this.Cat = opt.Cat;
+        this.ToPly = opt.ToPly;
+        this.ImageFile = opt.ImageFile;
+        this.StatsFile = opt.StatsFile;
+        this.CropWindow = new float[][] { opt.CropWindow[0].clone(), opt.CropWindow[1].clone() };
+    }
+
     public int NumThreads = 0;
     public boolean QuickRender = false;
     public boolean Quiet = false;
     public boolean Cat = false;
     public boolean ToPly = false;
     public String ImageFile;
+    // Where to write the render statistics; if null they go to renderStats.txt unless Quiet
+    public String StatsFile = null;
     // x0, x1, y0, y1
     public float[][] CropWindow = { {0, 1}, {0, 1}};
 }
\ No newline at end of file
@@ -15,6 +15,20 @@ public class OrenNayar extends BxDF {
     public OrenNayar(Spectrum R, float sigma) {
         super(BSDF_REFLECTION | BSDF_DIFFUSE);
         this.R = new Spectrum(R);
+        Init(sigma);
+    }
+
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static OrenNayar Alloc(Spectrum R, float sigma) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new OrenNayar(R, sigma);
+        OrenNayar bxdf = arena.Alloc(arenaPool);
+        bxdf.R.set(R);
+        bxdf.Init(sigma);
+        return bxdf;
+    }
+
+    private void Init(float sigma) {
         sigma = (float)Math.toRadians(sigma);
         float sigma2 = sigma * sigma;
         this.A = 1 - (sigma2 / (2 * (sigma2 + 0.33f)));
@@ -51,6 +65,8 @@ public class OrenNayar extends BxDF {
         return "[ OrenNayar R: " + R.toString() + String.format(" A: %f B: %f ]", A, B);
     }
 
-    private Spectrum R;
+    private final Spectrum R;
     private float A, B;
+
+    private static final MemoryArena.Pool<OrenNayar> arenaPool = MemoryArena.NewPool(() -> new OrenNayar(new Spectrum(0), 0));
 }
\ No newline at end of file
@@ -16,17 +16,17 @@ public class PBrtTLogger {
     private static final Logger logger = LogManager.getFormatterLogger("Pbrt");
 
     public synchronized static void Trace(String format, Object... args) {
-        if (Pbrt.options.Quiet) return;
+        if (Pbrt.GetOptions().Quiet) return;
         logger.trace(format, args);
     }
 
     public synchronized static void Info(String format, Object... args) {
-        if (Pbrt.options.Quiet) return;
+        if (Pbrt.GetOptions().Quiet) return;
         logger.info(format, args);
     }
  
     public synchronized static void Warning(String format, Object... args) {
-        if (Pbrt.options.Quiet) return;
+        if (Pbrt.GetOptions().Quiet) return;
         logger.warn(format, args);
     }
 
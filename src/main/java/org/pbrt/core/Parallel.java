@@ -11,98 +11,140 @@ package org.pbrt.core;
 
 import java.util.ArrayList;
 import java.util.concurrent.*;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 public class Parallel {
 
-    public static void ParallelFor(Consumer<Long> func, long count, int chunkSize) {
+    // Loop bodies taking primitive arguments, so that iterations don't box their indices
+    public interface Int2Consumer {
+        void accept(int x, int y);
+    }
+
+    public interface RangeFunction<T> {
+        T apply(long start, long end);
+    }
+
+    public static void ParallelFor(IntConsumer func, int count, int chunkSize) {
+        ParallelFor((long i) -> func.accept((int)i), 0, count, chunkSize);
+    }
+
+    // Runs _func_ for each index in [start, end)
+    public static void ParallelFor(LongConsumer func, long start, long end, int chunkSize) {
+        long count = end - start;
+        if (count <= 0) return;
 
         // Run iterations immediately if _count_ is small
         if (MaxThreadIndex() == 1 || count < chunkSize) {
-            for (long i = 0; i < count; ++i) func.accept(i);
+            for (long i = start; i < end; ++i) func.accept(i);
             return;
         }
 
-        ExecutorService pool = Executors.newFixedThreadPool(MaxThreadIndex());
-
         final long numChunks = (count + chunkSize - 1) / chunkSize;
-
-        ArrayList<Future> futures = new ArrayList();
-        for (long i = 0; i < numChunks; i++) {
-            final long startIndex = i * chunkSize;
-            final long endIndex = Math.min(startIndex+chunkSize, count);
-            Runnable task1D = () -> {
-                //System.out.format("Iteration: %d to %d\n", startIndex, endIndex);
-                for (long ii = startIndex; ii < endIndex; ii++) {
-                    func.accept(ii);
-                }
-            };
-            Future future = pool.submit(task1D);
-            futures.add(future);
-        }
-
-        for (Future ff : futures) {
-            try {
-                ff.get();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            } catch (ExecutionException e) {
-                e.printStackTrace();
+        RunChunks((long chunk) -> {
+            final long startIndex = start + chunk * chunkSize;
+            final long endIndex = Math.min(startIndex + chunkSize, end);
+            for (long ii = startIndex; ii < endIndex; ii++) {
+                func.accept(ii);
             }
-        }
-        try {
-            pool.shutdown();
-            pool.awaitTermination(1000, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        }, numChunks);
     }
 
-    public static void ParallelFor2D(Consumer<Point2i> func, Point2i count) {
+    public static void ParallelFor2D(Int2Consumer func, int nx, int ny) {
+        if (nx <= 0 || ny <= 0) return;
 
-        if (MaxThreadIndex() == 1 || count.x * count.y <= 1) {
-            for (int y = 0; y < count.y; ++y)
-                for (int x = 0; x < count.x; ++x) func.accept(new Point2i(x, y));
+        if (MaxThreadIndex() == 1 || nx * ny <= 1) {
+            for (int y = 0; y < ny; ++y)
+                for (int x = 0; x < nx; ++x) func.accept(x, y);
             return;
         }
 
-        ExecutorService pool = Executors.newFixedThreadPool(MaxThreadIndex());
-
-        final long chunkSize = 1;
-        final long numChunks = count.x * count.y;
+        RunChunks((long i) -> func.accept((int)(i % nx), (int)(i / nx)), (long)nx * ny);
+    }
 
-        ArrayList<Future> futures = new ArrayList();
-        for (long i = 0; i < numChunks; i++) {
-            final long startIndex = i * chunkSize;
-            final long endIndex = startIndex+chunkSize;
-            Runnable task2D = () -> {
-                for (long ii = startIndex; ii < endIndex; ii++) {
-                    func.accept(new Point2i((int)(ii % count.x), (int)(ii / count.x)));
-                }
-            };
-            Future future = pool.submit(task2D);
-            futures.add(future);
+    // Applies _func_ to consecutive chunks of [0, count) in parallel and folds the
+    // chunk results with _combine_, in chunk order so that the result is the same
+    // however many threads ran; _identity_ is returned for an empty range.
+    public static <T> T ParallelReduce(RangeFunction<T> func, BinaryOperator<T> combine, T identity, long count, int chunkSize) {
+        if (count <= 0) return identity;
+        if (MaxThreadIndex() == 1 || count < chunkSize)
+            return combine.apply(identity, func.apply(0, count));
+
+        final int numChunks = Math.toIntExact((count + chunkSize - 1) / chunkSize);
+        Object[] partial = new Object[numChunks];
+        RunChunks((long chunk) -> {
+            final long startIndex = chunk * chunkSize;
+            partial[(int)chunk] = func.apply(startIndex, Math.min(startIndex + chunkSize, count));
+        }, numChunks);
+
+        T result = identity;
+        for (Object p : partial) {
+            @SuppressWarnings("unchecked")
+            T t = (T)p;
+            result = combine.apply(result, t);
         }
+        return result;
+    }
 
-        for (Future ff : futures) {
+    // Worker threads shared by all parallel loops. The pool grows as needed, so loops
+    // started from inside other loops or by concurrent renders never wait for a free thread.
+    private static final ExecutorService workers = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "pbrt-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Runs _chunk_ for each of _numChunks_ chunk indices on up to MaxThreadIndex() threads,
+    // the calling thread included, and waits for all of them. The first exception thrown
+    // by a chunk stops the remaining chunks and is rethrown to the caller.
+    private static void RunChunks(LongConsumer chunk, long numChunks) {
+        AtomicLong nextChunk = new AtomicLong(0);
+        Runnable worker = () -> {
             try {
-                ff.get();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            } catch (ExecutionException e) {
-                e.printStackTrace();
+                for (long i; (i = nextChunk.getAndIncrement()) < numChunks; ) chunk.accept(i);
+            } catch (Throwable t) {
+                nextChunk.set(numChunks);
+                throw t;
             }
-        }
+        };
+
+        int nHelpers = (int)Math.min(MaxThreadIndex(), numChunks) - 1;
+        ArrayList<Future<?>> futures = new ArrayList<>(nHelpers);
+        for (int i = 0; i < nHelpers; i++)
+            futures.add(workers.submit(RenderContext.Wrap(worker)));
+
+        Throwable failure = null;
         try {
-            pool.shutdown();
-            pool.awaitTermination(1000, TimeUnit.SECONDS);
-        } catch (Exception e) {
-            e.printStackTrace();
+            worker.run();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // The helpers are still using the caller's data; finish waiting for them
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                    break;
+                }
+            }
         }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        if (failure instanceof RuntimeException) throw (RuntimeException)failure;
+        if (failure instanceof Error) throw (Error)failure;
+        if (failure != null) throw new RuntimeException(failure);
     }
 
     public static int MaxThreadIndex() {
-        return (Pbrt.options.NumThreads == 0) ? NumSystemCores() : Pbrt.options.NumThreads;
+        return (Pbrt.GetOptions().NumThreads <= 0) ? NumSystemCores() : Pbrt.GetOptions().NumThreads;
     }
 
     public static int NumSystemCores() {
@@ -11,8 +11,8 @@ package org.pbrt.core;
 
 import org.apache.commons.lang3.NotImplementedException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ParamSet {
 
@@ -760,5 +760,5 @@ public class ParamSet {
     private ArrayList<ParamSetItem<String>> strings = new ArrayList<>(1);
     private ArrayList<ParamSetItem<String>> textures = new ArrayList<>(1);
 
-    private static HashMap<String, Spectrum> cachedSpectra = new HashMap<>();
+    private static final ConcurrentHashMap<String, Spectrum> cachedSpectra = new ConcurrentHashMap<>();
 }
\ No newline at end of file
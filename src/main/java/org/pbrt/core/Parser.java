@@ -12,7 +12,6 @@ package org.pbrt.core;
 
 import java.util.ArrayList;
 import java.util.Objects;
-import org.apache.commons.lang3.NotImplementedException;
 
 public class Parser {
 
@@ -65,6 +64,8 @@ public class Parser {
     public static final int WORLDEND = 85;
 
     public static boolean ParseFile(String filename) {
+        if (!filename.equals("-"))
+            FileUtil.SetSearchDirectory(FileUtil.DirectoryContaining(FileUtil.AbsolutePath(filename)));
         try {
             Yylex scanner = new Yylex( new java.io.FileReader(filename) );
             /*
@@ -896,7 +897,9 @@ public class Parser {
     }
 
     public static void ParseString(String str) {
-        throw new NotImplementedException("ParseString");
+        Yylex scanner = new Yylex(new java.io.StringReader(str));
+        Parser p = new Parser(scanner);
+        p.parse();
     }
     
 }
\ No newline at end of file
@@ -9,12 +9,17 @@
 
 package org.pbrt.core;
 
-import java.util.function.Predicate;
+import java.util.function.IntPredicate;
 
 public class Pbrt
 {
     public static Options options;
 
+    // Options of the render context bound to the calling thread
+    public static Options GetOptions() {
+        return RenderContext.Current().GetOptions();
+    }
+
     public static float MachineEpsilon() {
         return Math.ulp(1.0f) * 0.5f;
     }
@@ -118,7 +123,7 @@ public class Pbrt
         return Integer.numberOfTrailingZeros(x);
     }
         
-    public static int FindInterval(int size, Predicate<Integer> pred) {
+    public static int FindInterval(int size, IntPredicate pred) {
         int first = 0, len = size;
         while (len > 0) {
             int half = len >>> 1, middle = first + half;
@@ -132,6 +137,20 @@ public class Pbrt
         return Clamp(first - 1, 0, size - 2);
     }
 
+    // FindInterval(size, i -> values[i] <= x) without the predicate call per probe
+    public static int FindInterval(float[] values, int size, float x) {
+        int first = 0, len = size;
+        while (len > 0) {
+            int half = len >>> 1, middle = first + half;
+            if (values[middle] <= x) {
+                first = middle + 1;
+                len -= half + 1;
+            } else
+                len = half;
+        }
+        return Clamp(first - 1, 0, size - 2);
+    }
+
     public static float Lerp(float t, float v1, float v2) { return (1 - t) * v1 + t * v2; }
 
     public static class QuadRes {
@@ -14,20 +14,37 @@ public class PixelSampler extends Sampler {
 
     // PixelSampler Protected Data
     protected float[][] samples1D;
-    protected Point2f[][] samples2D;
+    // 2D samples are stored as interleaved (x, y) pairs, _samplesPerPixel_ of them per dimension
+    protected float[][] samples2D;
     protected int current1DDimension = 0, current2DDimension = 0;
     protected RNG rng = new RNG();
 
     public PixelSampler(int samplesPerPixel, int nSampledDimensions) {
         super(samplesPerPixel);
         samples1D = new float[nSampledDimensions][samplesPerPixel];
-        samples2D = new Point2f[nSampledDimensions][samplesPerPixel];
-        for (int i = 0; i < nSampledDimensions; ++i) {
-            for (int j = 0; j < samplesPerPixel; j++) {
-                samples1D[i][j] = 0.0f;
-                samples2D[i][j] = new Point2f();
-            }
-        }
+        samples2D = new float[nSampledDimensions][2 * samplesPerPixel];
+    }
+
+    // Shares the sample tables of _sampler_ until they are next written
+    protected PixelSampler(PixelSampler sampler) {
+        super(sampler);
+        samples1D = sampler.samples1D;
+        samples2D = sampler.samples2D;
+    }
+
+    @Override
+    protected void UnshareTables() {
+        if (!tablesShared) return;
+        samples1D = samples1D.clone();
+        for (int i = 0; i < samples1D.length; ++i) samples1D[i] = samples1D[i].clone();
+        samples2D = samples2D.clone();
+        for (int i = 0; i < samples2D.length; ++i) samples2D[i] = samples2D[i].clone();
+        super.UnshareTables();
+    }
+
+    public void StartPixel(Point2i p) {
+        current1DDimension = current2DDimension = 0;
+        super.StartPixel(p);
     }
 
     public boolean StartNextSample() {
@@ -40,6 +57,16 @@ public class PixelSampler extends Sampler {
         return super.SetSampleNumber(sampleNum);
     }
 
+    @Override
+    public boolean SetSampleNumberPastCamera(int sampleNum) {
+        // Camera samples that fall back to the RNG must still draw from it
+        if (samples1D.length < 1 || samples2D.length < 2) return super.SetSampleNumberPastCamera(sampleNum);
+        boolean more = SetSampleNumber(sampleNum);
+        current1DDimension = 1;
+        current2DDimension = 2;
+        return more;
+    }
+
     @Override
     public float Get1D() {
         assert (currentPixelSampleIndex < samplesPerPixel);
@@ -52,14 +79,31 @@ public class PixelSampler extends Sampler {
     @Override
     public Point2f Get2D() {
         assert (currentPixelSampleIndex < samplesPerPixel);
-        if (current2DDimension < samples2D.length)
-            return samples2D[current2DDimension++][currentPixelSampleIndex];
+        if (current2DDimension < samples2D.length) {
+            float[] samples = samples2D[current2DDimension++];
+            return new Point2f(samples[2 * currentPixelSampleIndex], samples[2 * currentPixelSampleIndex + 1]);
+        }
         else
             return new Point2f(rng.UniformFloat(), rng.UniformFloat());
     }
 
+    @Override
+    public void Get2D(float[] out) {
+        assert (currentPixelSampleIndex < samplesPerPixel);
+        if (current2DDimension < samples2D.length) {
+            float[] samples = samples2D[current2DDimension++];
+            out[0] = samples[2 * currentPixelSampleIndex];
+            out[1] = samples[2 * currentPixelSampleIndex + 1];
+        } else {
+            out[0] = rng.UniformFloat();
+            out[1] = rng.UniformFloat();
+        }
+    }
+
     @Override
     public Sampler Clone(int seed) {
-        return new PixelSampler(this.samples1D[0].length, this.samples1D.length);
+        PixelSampler ps = new PixelSampler(this);
+        ps.rng.SetSequence(seed);
+        return ps;
     }
 }
@@ -88,7 +88,7 @@ public class Point3f {
     public void set(int i, float v) {
         assert (i >= 0 && i <= 2);
         if (i == 0) x = v;
-        if (i == 1) y = v;
+        else if (i == 1) y = v;
         else z = v;
     }
     public boolean equal(Point3f p) {
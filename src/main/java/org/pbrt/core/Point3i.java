@@ -65,7 +65,7 @@ public class Point3i {
     public void set(int i, int v) {
         assert (i >= 0 && i <= 2);
         if (i == 0) x = v;
-        if (i == 1) y = v;
+        else if (i == 1) y = v;
         else z = v;
     }
     public boolean equal(Point3i p) {
@@ -14,6 +14,14 @@ public abstract class Primitive {
 
     public abstract Bounds3f WorldBound();
     public abstract SurfaceInteraction Intersect(Ray r);
+    // Closest hit search that leaves the hit in _hit_ and shortens the ray; the
+    // SurfaceInteraction is built by HitRecord.Finalize() once the search is done.
+    public boolean Intersect(Ray r, HitRecord hit) {
+        SurfaceInteraction isect = Intersect(r);
+        if (isect == null) return false;
+        hit.SetInteraction(isect);
+        return true;
+    }
     public abstract boolean IntersectP(Ray r);
     public abstract AreaLight GetAreaLight();
     public abstract Material GetMaterial();
@@ -0,0 +1,174 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sampling profiler equivalent to pbrt's ProfilePhase. Render threads mark the phases they
+// are in with a bit each in a per-thread mask:
+//
+//     int prof = Profiler.Enter(Profiler.ShapeIntersect);
+//     ...
+//     Profiler.Exit(prof);
+//
+// and a sampling thread periodically records the mask of every thread. The breakdown of the
+// samples is written to the render statistics. While the profiler is not running, Enter()
+// and Exit() only read a static flag. The profiler is process wide, so the render server
+// only profiles when it renders one job at a time.
+public class Profiler {
+
+    // Phase bits
+    public static final int AccelIntersect = 1;
+    public static final int ShapeIntersect = 1 << 1;
+    public static final int ComputeScatteringFuncs = 1 << 2;
+    public static final int TextureEvaluation = 1 << 3;
+    public static final int LightSample = 1 << 4;
+    public static final int AddFilmSample = 1 << 5;
+
+    private static final String[] phaseNames = {
+            "Accelerator traversal", "Shape intersection", "Material/BSDF evaluation",
+            "Texture evaluation", "Light sampling", "Film update"
+    };
+    private static final int NumPhases = phaseNames.length;
+
+    // Milliseconds between samples
+    private static final int SAMPLE_PERIOD_MS = 1;
+
+    private static volatile boolean enabled = false;
+    private static Thread sampler = null;
+
+    // Phase masks of all threads that have entered a phase; the sampler drops finished threads
+    private static class ThreadState {
+        ThreadState(Thread thread) {
+            this.thread = thread;
+        }
+
+        final Thread thread;
+        final AtomicInteger mask = new AtomicInteger();
+    }
+
+    private static final CopyOnWriteArrayList<ThreadState> threadStates = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(() -> {
+        ThreadState state = new ThreadState(Thread.currentThread());
+        threadStates.add(state);
+        return state;
+    });
+
+    // Number of samples taken with each mask; guarded by _samples_
+    private static final long[] samples = new long[1 << NumPhases];
+
+    // Mark the calling thread as inside _phase_; returns the previous mask for Exit()
+    public static int Enter(int phase) {
+        if (!enabled) return 0;
+        AtomicInteger mask = threadState.get().mask;
+        int previous = mask.get();
+        // The sampler thread only needs to see the mask eventually
+        mask.lazySet(previous | phase);
+        return previous;
+    }
+
+    // Restore the mask returned by the matching Enter()
+    public static void Exit(int previous) {
+        if (!enabled) return;
+        threadState.get().mask.lazySet(previous);
+    }
+
+    public static boolean Enabled() {
+        return enabled;
+    }
+
+    public static synchronized void Start() {
+        if (sampler != null) return;
+        enabled = true;
+        sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(SAMPLE_PERIOD_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                TakeSample();
+            }
+        }, "pbrt-profiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    public static synchronized void Stop() {
+        if (sampler == null) return;
+        enabled = false;
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler = null;
+    }
+
+    private static void TakeSample() {
+        ArrayList<ThreadState> finished = null;
+        synchronized (samples) {
+            for (ThreadState state : threadStates) {
+                if (!state.thread.isAlive()) {
+                    if (finished == null) finished = new ArrayList<>();
+                    finished.add(state);
+                    continue;
+                }
+                int mask = state.mask.get();
+                if (mask != 0) ++samples[mask];
+            }
+        }
+        if (finished != null) threadStates.removeAll(finished);
+    }
+
+    public static void Clear() {
+        synchronized (samples) {
+            for (int i = 0; i < samples.length; i++) samples[i] = 0;
+        }
+    }
+
+    // Write the share of samples spent in each phase, counting a sample in all phases that
+    // were active, followed by the share of each combination of phases
+    public static void Report(Writer file) throws IOException {
+        long[] counts;
+        synchronized (samples) {
+            counts = samples.clone();
+        }
+        long total = 0;
+        for (long count : counts) total += count;
+        file.write("Profile (share of samples taken inside a profiled phase):\n");
+        if (total == 0) {
+            file.write("  No samples\n");
+            return;
+        }
+        for (int p = 0; p < NumPhases; ++p) {
+            long count = 0;
+            for (int mask = 0; mask < counts.length; ++mask)
+                if ((mask & (1 << p)) != 0) count += counts[mask];
+            file.write(String.format("  %-42s%12d (%6.2f%%)\n", phaseNames[p], count, 100. * count / total));
+        }
+        file.write("  Phase combinations\n");
+        for (int mask = 1; mask < counts.length; ++mask) {
+            if (counts[mask] == 0) continue;
+            StringBuilder name = new StringBuilder();
+            for (int p = 0; p < NumPhases; ++p) {
+                if ((mask & (1 << p)) == 0) continue;
+                if (name.length() > 0) name.append(" / ");
+                name.append(phaseNames[p]);
+            }
+            file.write(String.format("    %-80s%12d (%6.2f%%)\n", name, counts[mask], 100. * counts[mask] / total));
+        }
+    }
+}
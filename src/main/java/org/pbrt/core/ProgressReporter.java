@@ -23,7 +23,7 @@ public class ProgressReporter extends Thread {
         this.workDone.set(0L);
         this.exitThread.set(false);
 
-        if (!Pbrt.options.Quiet) {
+        if (!Pbrt.GetOptions().Quiet) {
             barrier = new CyclicBarrier(2);
             this.start();
 
@@ -38,8 +38,12 @@ public class ProgressReporter extends Thread {
     }
 
     public void Update(long num) {
-        if (num == 0 || Pbrt.options.Quiet) return;
-        workDone.set(workDone.get()+num);
+        // Render threads update concurrently; a get() followed by a set() would lose updates
+        workDone.addAndGet(num);
+    }
+
+    public long WorkDone() {
+        return workDone.get();
     }
 
     public float ElapsedMS() {
@@ -63,7 +67,7 @@ public class ProgressReporter extends Thread {
     }
 
     public void Exit() {
-        if (!Pbrt.options.Quiet) {
+        if (!Pbrt.GetOptions().Quiet) {
             workDone.set(totalWork);
             exitThread.set(true);
             try {
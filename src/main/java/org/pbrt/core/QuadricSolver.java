@@ -0,0 +1,162 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+// Allocation-free form of the EFloat arithmetic the quadric shapes use to intersect rays.
+// Values and their conservative bounds live in preallocated registers that are updated in
+// place; every operation rounds exactly like the corresponding EFloat method, so the
+// intersection tests are as robust as the EFloat version. Each thread has its own solver.
+public final class QuadricSolver {
+
+    // A value with conservative lower and upper bounds, like EFloat but mutable
+    public static final class Var {
+        public float v, low, high;
+
+        public Var set(float v) {
+            this.v = this.low = this.high = v;
+            return this;
+        }
+
+        public Var set(float v, float err) {
+            this.v = v;
+            if (err == 0) {
+                low = high = v;
+            } else {
+                low = Pbrt.NextFloatDown(v - err);
+                high = Pbrt.NextFloatUp(v + err);
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("v=%f (%a) - [%f, %f]", v, v, low, high);
+        }
+    }
+
+    // Object space ray origin and direction with their error bounds, and the ray's tMax
+    public final Var ox = new Var(), oy = new Var(), oz = new Var();
+    public final Var dx = new Var(), dy = new Var(), dz = new Var();
+    public float tMax;
+
+    // Coefficients of the quadratic, the roots found by Solve() and scratch registers
+    public final Var a = new Var(), b = new Var(), c = new Var();
+    public final Var t0 = new Var(), t1 = new Var();
+    public final Var s0 = new Var(), s1 = new Var(), s2 = new Var(), s3 = new Var();
+
+    // The hit selected by the shape: its parameter, object space point and $\phi$
+    public final Var tHit = new Var();
+    public float px, py, pz, phi;
+
+    private static final ThreadLocal<QuadricSolver> threadSolver = ThreadLocal.withInitial(QuadricSolver::new);
+
+    public static QuadricSolver Get() {
+        return threadSolver.get();
+    }
+
+    // Transform _r_ to object space with _worldToObject_ and load it into the ray registers
+    public void SetRay(Transform worldToObject, Ray r) {
+        worldToObject.xform(r, this);
+    }
+
+    // Set _tHit_ to _t_ and the hit point to the object space ray point there
+    public void SetHit(Var t) {
+        tHit.v = t.v;
+        tHit.low = t.low;
+        tHit.high = t.high;
+        px = ox.v + dx.v * t.v;
+        py = oy.v + dy.v * t.v;
+        pz = oz.v + dz.v * t.v;
+    }
+
+    // Absolute error of the ray equation evaluated at _tHit_ along one axis
+    public float HitError(Var o, Var d) {
+        Multiply(tHit, d, s3);
+        Add(o, s3, s3);
+        return s3.high - s3.low;
+    }
+
+    // r = x + y
+    public void Add(Var x, Var y, Var r) {
+        float v = x.v + y.v;
+        float low = Pbrt.NextFloatDown(x.low + y.low);
+        float high = Pbrt.NextFloatUp(x.high + y.high);
+        r.v = v;
+        r.low = low;
+        r.high = high;
+    }
+
+    // r = x - y
+    public void Subtract(Var x, Var y, Var r) {
+        float v = x.v - y.v;
+        float low = Pbrt.NextFloatDown(x.low - y.high);
+        float high = Pbrt.NextFloatUp(x.high - y.low);
+        r.v = v;
+        r.low = low;
+        r.high = high;
+    }
+
+    // r = x * y
+    public void Multiply(Var x, Var y, Var r) {
+        float v = x.v * y.v;
+        float p0 = x.low * y.low, p1 = x.high * y.low, p2 = x.low * y.high, p3 = x.high * y.high;
+        float low = Pbrt.NextFloatDown(Math.min(Math.min(p0, p1), Math.min(p2, p3)));
+        float high = Pbrt.NextFloatUp(Math.max(Math.max(p0, p1), Math.max(p2, p3)));
+        r.v = v;
+        r.low = low;
+        r.high = high;
+    }
+
+    // r = x / y
+    public void Divide(Var x, Var y, Var r) {
+        float v = x.v / y.v;
+        float low, high;
+        if (y.low < 0 && y.high > 0) {
+            // The divisor straddles zero, so the result could be anything
+            low = -Pbrt.Infinity;
+            high = Pbrt.Infinity;
+        } else {
+            float d0 = x.low / y.low, d1 = x.high / y.low, d2 = x.low / y.high, d3 = x.high / y.high;
+            low = Pbrt.NextFloatDown(Math.min(Math.min(d0, d1), Math.min(d2, d3)));
+            high = Pbrt.NextFloatUp(Math.max(Math.max(d0, d1), Math.max(d2, d3)));
+        }
+        r.v = v;
+        r.low = low;
+        r.high = high;
+    }
+
+    // Solve a*t^2 + b*t + c = 0 into _t0_ <= _t1_, following EFloat.Quadratic()
+    public boolean Solve() {
+        // Find quadratic discriminant
+        double discrim = (double)b.v * (double)b.v - 4 * (double)a.v * (double)c.v;
+        if (discrim < 0) return false;
+        double rootDiscrim = Math.sqrt(discrim);
+        s0.set((float)rootDiscrim, (float)(Pbrt.MachineEpsilon() * rootDiscrim));
+
+        // Compute quadratic _t_ values; _s1_ holds _q_
+        if (b.v < 0)
+            Subtract(b, s0, s1);
+        else
+            Add(b, s0, s1);
+        Multiply(s2.set(-0.5f), s1, s1);
+        Divide(s1, a, t0);
+        Divide(c, s1, t1);
+        if (t0.v > t1.v) {
+            float v = t0.v, low = t0.low, high = t0.high;
+            t0.v = t1.v;
+            t0.low = t1.low;
+            t0.high = t1.high;
+            t1.v = v;
+            t1.low = low;
+            t1.high = high;
+        }
+        return true;
+    }
+}
@@ -9,34 +9,54 @@
 
 package org.pbrt.core;
 
-import java.util.Random;
-
+// Generates the same sequences as java.util.Random, with the generator state kept in a
+// plain long so that it can be saved and restored (see GetState()/SetState())
 public class RNG {
 
-    private Random random;
+    private long state;
 
     public static final double DoubleOneMinusEpsilon = 0x1.fffffffffffffp-1;
     public static final float FloatOneMinusEpsilon = 0x1.fffffep-1f;
 
     private static final long PCG32_DEFAULT_STATE = 0x853c49e6748fea9bL;
+    private static final long multiplier = 0x5DEECE66DL, addend = 0xBL, mask = (1L << 48) - 1;
 
     // RNG Public Methods
     public RNG() {
-        this.random = new Random(PCG32_DEFAULT_STATE);
+        SetSequence(PCG32_DEFAULT_STATE);
     }
     public RNG(long sequenceIndex) {
-        this.random = new Random(sequenceIndex);
+        SetSequence(sequenceIndex);
     }
     public void SetSequence(long sequenceIndex) {
-        random.setSeed(sequenceIndex);
+        state = (sequenceIndex ^ multiplier) & mask;
     }
     public int UniformUInt32() {
-        return random.nextInt();
+        return Next(32);
     }
     public int UniformUInt32(int b) {
-        return random.nextInt(b);
+        if (b <= 0) throw new IllegalArgumentException("bound must be positive");
+        int r = Next(31);
+        int m = b - 1;
+        if ((b & m) == 0)
+            return (int)((b * (long)r) >> 31);
+        for (int u = r; u - (r = u % b) + m < 0; u = Next(31)) ;
+        return r;
     }
     public float UniformFloat() {
-        return Math.min(Pbrt.OneMinusEpsilon, random.nextFloat());
+        return Math.min(Pbrt.OneMinusEpsilon, Next(24) / (float)(1 << 24));
+    }
+
+    // Position in the random sequence, for checkpointing
+    public long GetState() {
+        return state;
+    }
+    public void SetState(long state) {
+        this.state = state & mask;
+    }
+
+    private int Next(int bits) {
+        state = (state * multiplier + addend) & mask;
+        return (int)(state >>> (48 - bits));
     }
-}
\ No newline at end of file
+}
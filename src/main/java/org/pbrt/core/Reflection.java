@@ -122,7 +122,7 @@ public class Reflection {
         // Handle total internal reflection for transmission
         if (sin2ThetaT >= 1) return null;
         float cosThetaT = (float)Math.sqrt(1 - sin2ThetaT);
-        return (wi.negate().add(new Vector3f(n).scale(eta * cosThetaI - cosThetaT))).scale(eta);
+        return wi.negate().scale(eta).add(new Vector3f(n).scale(eta * cosThetaI - cosThetaT));
     }
 
     public static boolean SameHemisphere(Vector3f w, Vector3f wp) {
@@ -25,16 +25,38 @@ public abstract class Sampler {
     protected ArrayList<Integer> samples1DArraySizes = new ArrayList<>();
     protected ArrayList<Integer> samples2DArraySizes = new ArrayList<>();
     protected ArrayList<float[]> sampleArray1D = new ArrayList<>();
-    protected ArrayList<Point2f[]> sampleArray2D = new ArrayList<>();
+    // 2D array samples are stored as interleaved (x, y) pairs
+    protected ArrayList<float[]> sampleArray2D = new ArrayList<>();
+    // Set while the sample tables are still those of the sampler this one was cloned from
+    protected boolean tablesShared = false;
 
     // Sampler Private Data
     private int array1DOffset, array2DOffset;
+    private final float[] u2 = new float[2];
 
     // Sampler Interface
     public Sampler(int samplesPerPixel) {
         this.samplesPerPixel = samplesPerPixel;
     }
 
+    // Copies the array requests of _sampler_; its sample tables are shared until
+    // UnshareTables() is called before they are next written
+    protected Sampler(Sampler sampler) {
+        this.samplesPerPixel = sampler.samplesPerPixel;
+        this.samples1DArraySizes = new ArrayList<>(sampler.samples1DArraySizes);
+        this.samples2DArraySizes = new ArrayList<>(sampler.samples2DArraySizes);
+        this.sampleArray1D = new ArrayList<>(sampler.sampleArray1D);
+        this.sampleArray2D = new ArrayList<>(sampler.sampleArray2D);
+        this.tablesShared = true;
+    }
+
+    protected void UnshareTables() {
+        if (!tablesShared) return;
+        for (int i = 0; i < sampleArray1D.size(); ++i) sampleArray1D.set(i, sampleArray1D.get(i).clone());
+        for (int i = 0; i < sampleArray2D.size(); ++i) sampleArray2D.set(i, sampleArray2D.get(i).clone());
+        tablesShared = false;
+    }
+
     public void StartPixel(Point2i p) {
         currentPixel = p;
         currentPixelSampleIndex = 0;
@@ -43,12 +65,24 @@ public abstract class Sampler {
     }
     public abstract float Get1D();
     public abstract Point2f Get2D();
+    // Stores the next 2D sample in out[0] and out[1] without allocating
+    public void Get2D(float[] out) {
+        Point2f u = Get2D();
+        out[0] = u.x;
+        out[1] = u.y;
+    }
     public Camera.CameraSample GetCameraSample(Point2i pRaster) {
-        Camera.CameraSample cs = new Camera.CameraSample();
-        Point2f pRasterf = new Point2f(pRaster);
-        cs.pFilm = pRasterf.add(Get2D());
+        return GetCameraSample(pRaster, new Camera.CameraSample());
+    }
+    // Fills in _cs_ for the next sample of the pixel at _pRaster_
+    public Camera.CameraSample GetCameraSample(Point2i pRaster, Camera.CameraSample cs) {
+        Get2D(u2);
+        cs.pFilm.x = pRaster.x + u2[0];
+        cs.pFilm.y = pRaster.y + u2[1];
         cs.time = Get1D();
-        cs.pLens = Get2D();
+        Get2D(u2);
+        cs.pLens.x = u2[0];
+        cs.pLens.y = u2[1];
         return cs;
     }
     public void Request1DArray(int n) {
@@ -59,7 +93,7 @@ public abstract class Sampler {
     public void Request2DArray(int n) {
         assert (RoundCount(n) == n);
         samples2DArraySizes.add(n);
-        sampleArray2D.add(new Point2f[n * samplesPerPixel]);
+        sampleArray2D.add(new float[2 * n * samplesPerPixel]);
     }
     public int RoundCount(int n) { return n; }
 
@@ -76,10 +110,12 @@ public abstract class Sampler {
         if (array2DOffset == sampleArray2D.size()) return null;
         assert (samples2DArraySizes.get(array2DOffset) == n);
         assert (currentPixelSampleIndex < samplesPerPixel);
-        Point2f[] samples = sampleArray2D.get(array2DOffset++);
-        int startIndex = currentPixelSampleIndex * n;
-        int endIndex = (currentPixelSampleIndex + 1) * n;
-        return Arrays.copyOfRange(samples, startIndex, endIndex);
+        float[] samples = sampleArray2D.get(array2DOffset++);
+        int startIndex = 2 * currentPixelSampleIndex * n;
+        Point2f[] points = new Point2f[n];
+        for (int i = 0; i < n; ++i)
+            points[i] = new Point2f(samples[startIndex + 2 * i], samples[startIndex + 2 * i + 1]);
+        return points;
     }
     public boolean StartNextSample() {
         // Reset array offsets for next pixel sample
@@ -95,4 +131,14 @@ public abstract class Sampler {
     }
     public int CurrentSampleNumber() { return currentPixelSampleIndex; }
 
+    // Moves to sample _sampleNum_ of the current pixel, past the dimensions GetCameraSample()
+    // uses, for integrators that take the camera samples of all of a pixel's samples up front
+    public boolean SetSampleNumberPastCamera(int sampleNum) {
+        if (!SetSampleNumber(sampleNum)) return false;
+        Get2D(u2);
+        Get1D();
+        Get2D(u2);
+        return true;
+    }
+
 }
@@ -29,9 +29,8 @@ public abstract class SamplerIntegrator extends Integrator {
 
         // Compute number of tiles, _nTiles_, to use for parallel rendering
         Bounds2i sampleBounds = camera.film.GetSampleBounds();
-        Vector2i sampleExtent = sampleBounds.Diagonal();
-        int tileSize = 16;
-        Point2i nTiles = new Point2i((sampleExtent.x + tileSize - 1) / tileSize, (sampleExtent.y + tileSize - 1) / tileSize);
+        int tileSize = tileSchedule.TileSize(sampleBounds.Diagonal());
+        Point2i nTiles = TileSchedule.NumTiles(sampleBounds, tileSize);
 
         ProgressReporter reporter = new ProgressReporter(nTiles.x * nTiles.y, "Rendering");
 
@@ -43,74 +42,99 @@ public abstract class SamplerIntegrator extends Integrator {
             Sampler tileSampler = sampler.Clone(seed);
 
             // Compute sample bounds for tile
-            int x0 = sampleBounds.pMin.x + tile.x * tileSize;
-            int x1 = Math.min(x0 + tileSize, sampleBounds.pMax.x);
-            int y0 = sampleBounds.pMin.y + tile.y * tileSize;
-            int y1 = Math.min(y0 + tileSize, sampleBounds.pMax.y);
-            Bounds2i tileBounds = new Bounds2i(new Point2i(x0, y0), new Point2i(x1, y1));
+            Bounds2i tileBounds = TileSchedule.TileBounds(sampleBounds, tile, tileSize);
             //Api.logger.info("Starting image tile %s\n", tileBounds.toString());
 
             // Get _FilmTile_ for tile
             Film.FilmTile filmTile = camera.film.GetFilmTile(tileBounds);
 
-            // Loop over pixels in tile to render them
-            for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py++) {
-                for (int px = tileBounds.pMin.x; px < tileBounds.pMax.x; px++) {
-                    Point2i pixel = new Point2i(px, py);
-                    tileSampler.StartPixel(pixel);
-
-                    // Do this check after the StartPixel() call; this keeps
-                    // the usage of RNG values from (most) Samplers that use
-                    // RNGs consistent, which improves reproducability /
-                    // debugging.
-                    if (!Bounds2i.InsideExclusive(pixel, pixelBounds))
-                        continue;
-
-                    do {
-                        // Initialize _CameraSample_ for current sample
-                        Camera.CameraSample cameraSample = tileSampler.GetCameraSample(pixel);
-
-                        // Generate camera ray for current sample
-                        Camera.CameraRayDiff camRay = camera.GenerateRayDifferential(cameraSample);
-                        RayDifferential ray = camRay.rd;
-                        float rayWeight = camRay.weight;
-
-                        ray.ScaleDifferentials(1 / (float) Math.sqrt((float) tileSampler.samplesPerPixel));
-                        nCameraRays.increment();
-
-                        // Evaluate radiance along camera ray
-                        Spectrum L = new Spectrum(0);
-                        if (rayWeight > 0) L = Li(ray, scene, tileSampler, 0);
-
-                        // Issue warning if unexpected radiance value returned
-                        if (L.hasNaNs()) {
-                            PBrtTLogger.Error("Not-a-number radiance value returned for pixel (%d, %d), sample %d. Setting to black.",
-                                    pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
-                            L = new Spectrum(0);
-                        } else if (L.y() < -1e-5f) {
-                            PBrtTLogger.Error("Negative luminance value, %f, returned for pixel (%d, %d), sample %d. Setting to black.",
-                                    L.y(), pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
-                            L = new Spectrum(0);
-                        } else if (Float.isInfinite(L.y())) {
-                            PBrtTLogger.Error("Infinite luminance value returned for pixel (%d, %d), sample %d. Setting to black.",
-                                    pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
-                            L = new Spectrum(0);
+            // Scattering functions and intersections for each sample come from the thread's arena
+            MemoryArena arena = MemoryArena.Begin();
+            long nSamples = 0;
+            try {
+                // Camera rays are generated a pixel's worth of samples at a time and traced
+                // through one reused ray
+                Camera.CameraSample cameraSample = new Camera.CameraSample();
+                CameraRayBuffer cameraRays = new CameraRayBuffer(tileSampler.samplesPerPixel);
+                RayDifferential ray = new RayDifferential();
+                float differentialScale = 1 / (float) Math.sqrt((float) tileSampler.samplesPerPixel);
+
+                // Loop over pixels in tile to render them
+                for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py++) {
+                    for (int px = tileBounds.pMin.x; px < tileBounds.pMax.x; px++) {
+                        Point2i pixel = new Point2i(px, py);
+                        tileSampler.StartPixel(pixel);
+
+                        // Do this check after the StartPixel() call; this keeps
+                        // the usage of RNG values from (most) Samplers that use
+                        // RNGs consistent, which improves reproducability /
+                        // debugging.
+                        if (!Bounds2i.InsideExclusive(pixel, pixelBounds))
+                            continue;
+
+                        // Initialize _CameraSample_s for all of the pixel's samples
+                        cameraRays.Clear();
+                        do {
+                            cameraRays.Add(tileSampler.GetCameraSample(pixel, cameraSample));
+                        } while (tileSampler.StartNextSample());
+
+                        // Generate camera rays for the pixel's samples
+                        camera.GenerateRayDifferentials(cameraRays);
+                        cameraRays.ScaleDifferentials(differentialScale);
+
+                        for (int sample = 0; sample < cameraRays.count; ++sample) {
+                            tileSampler.SetSampleNumberPastCamera(sample);
+                            cameraRays.GetRay(sample, ray);
+                            float rayWeight = cameraRays.weight[sample];
+                            cameraSample.pFilm.x = cameraRays.pFilmX[sample];
+                            cameraSample.pFilm.y = cameraRays.pFilmY[sample];
+                            nCameraRays.increment();
+
+                            // Evaluate radiance along camera ray
+                            Spectrum L = new Spectrum(0);
+                            if (rayWeight > 0) L = Li(ray, scene, tileSampler, 0);
+
+                            // Issue warning if unexpected radiance value returned
+                            if (L.hasNaNs()) {
+                                PBrtTLogger.Error("Not-a-number radiance value returned for pixel (%d, %d), sample %d. Setting to black.",
+                                        pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
+                                L = new Spectrum(0);
+                            } else if (L.y() < -1e-5f) {
+                                PBrtTLogger.Error("Negative luminance value, %f, returned for pixel (%d, %d), sample %d. Setting to black.",
+                                        L.y(), pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
+                                L = new Spectrum(0);
+                            } else if (Float.isInfinite(L.y())) {
+                                PBrtTLogger.Error("Infinite luminance value returned for pixel (%d, %d), sample %d. Setting to black.",
+                                        pixel.x, pixel.y, tileSampler.CurrentSampleNumber());
+                                L = new Spectrum(0);
+                            }
+                            //System.out.format("Camera sample: (%f,%f) L: (%f,%f,%f)\n", cameraSample.pFilm.x, cameraSample.pFilm.y, L.at(0), L.at(1), L.at(2));
+
+                            // Add camera ray's contribution to image
+                            filmTile.AddSample(cameraSample.pFilm, L, rayWeight);
+
+                            // Free memory computed for the sample
+                            arena.Reset();
+                            ++nSamples;
                         }
-                        //System.out.format("Camera sample: (%f,%f) L: (%f,%f,%f)\n", cameraSample.pFilm.x, cameraSample.pFilm.y, L.at(0), L.at(1), L.at(2));
-
-                        // Add camera ray's contribution to image
-                        filmTile.AddSample(cameraSample.pFilm, L, rayWeight);
-
-                    } while (tileSampler.StartNextSample());
+                    }
                 }
+            } finally {
+                MemoryArena.End();
             }
             //Api.logger.info("Finished image tile, %s", tileBounds.toString());
 
             // Merge image tile into _Film_
             camera.film.MergeFilmTile(filmTile);
+            Metrics.AddSamples(nSamples);
+            Metrics.TileCompleted();
             reporter.Update(1);
         };
-        Parallel.ParallelFor2D(renderFunc, nTiles);
+        // Estimate tile costs with a sampler seeded apart from the ones used for rendering
+        Consumer<Point2i> estimateFunc = (Point2i tile) -> EstimateTile(scene,
+                TileSchedule.TileBounds(sampleBounds, tile, tileSize), sampler.Clone(nTiles.x * nTiles.y + tile.y * nTiles.x + tile.x));
+        final Point2i[] tiles = tileSchedule.Schedule(nTiles, estimateFunc);
+        Parallel.ParallelFor((int i) -> renderFunc.accept(tiles[i]), tiles.length, 1);
 
         reporter.Done();
 
@@ -247,6 +271,18 @@ public abstract class SamplerIntegrator extends Integrator {
                 scene, sampler, handleMedia, false).scale(1.0f / lightPdf);
     }
 
+    public static Spectrum UniformSampleOneLight(Interaction it, Scene scene, Sampler sampler, boolean handleMedia, LightDistribution lightDistribution) {
+        // Choose a single light to sample with the strategy's probabilities at _it_
+        if (scene.lights.isEmpty()) return new Spectrum(0);
+        Distribution1D.DiscreteSample ds = lightDistribution.Sample(it, sampler.Get1D());
+        if (ds == null || ds.pdf == 0) return new Spectrum(0);
+        final Light light = scene.lights.get(ds.offset);
+        Point2f uLight = sampler.Get2D();
+        Point2f uScattering = sampler.Get2D();
+        return EstimateDirect(it, uScattering, light, uLight,
+                scene, sampler, handleMedia, false).scale(1.0f / ds.pdf);
+    }
+
     public static Spectrum EstimateDirect(Interaction it, Point2f uScattering, Light light, Point2f uLight,
                         Scene scene, Sampler sampler, boolean handleMedia, boolean specular) {
         int bsdfFlags =
@@ -257,7 +293,9 @@ public abstract class SamplerIntegrator extends Integrator {
         float lightPdf = 0, scatteringPdf = 0;
         Light.VisibilityTester visibility;
         Spectrum Li;
+        int prof = Profiler.Enter(Profiler.LightSample);
         Light.LiResult lis = light.Sample_Li(it, uLight);
+        Profiler.Exit(prof);
         Li = lis.spectrum;
         visibility = lis.vis;
         wi = lis.wi;
@@ -382,10 +420,34 @@ public abstract class SamplerIntegrator extends Integrator {
         return new Distribution1D(lightPower);
     }
 
+    // Traces one sample in each prePassStride x prePassStride block of pixels of the tile and
+    // discards the radiance; used to time the tile before rendering
+    private void EstimateTile(Scene scene, Bounds2i tileBounds, Sampler tileSampler) {
+        int stride = tileSchedule.prePassStride;
+        MemoryArena arena = MemoryArena.Begin();
+        try {
+            for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py += stride) {
+                for (int px = tileBounds.pMin.x; px < tileBounds.pMax.x; px += stride) {
+                    Point2i pixel = new Point2i(px, py);
+                    tileSampler.StartPixel(pixel);
+                    if (!Bounds2i.InsideExclusive(pixel, pixelBounds)) continue;
+                    Camera.CameraRayDiff camRay = camera.GenerateRayDifferential(tileSampler.GetCameraSample(pixel));
+                    // Vignetted samples have no ray
+                    if (camRay == null || camRay.weight == 0) continue;
+                    camRay.rd.ScaleDifferentials(1 / (float) Math.sqrt((float) tileSampler.samplesPerPixel));
+                    Li(camRay.rd, scene, tileSampler, 0);
+                    arena.Reset();
+                }
+            }
+        } finally {
+            MemoryArena.End();
+        }
+    }
+
     protected Camera camera;
 
     private Sampler sampler;
-    private final Bounds2i pixelBounds;
+    protected final Bounds2i pixelBounds;
 
     private static final Stats.Counter nCameraRays = new Stats.Counter("Integrator/Camera rays traced");
 
@@ -16,7 +16,7 @@ public class Sampling {
         float invNSamples = 1 / (float)nsamples;
         for (int i = firstIndex; i < endIndex; ++i) {
             float delta = jitter ? rng.UniformFloat() : 0.5f;
-            samp[i] = Math.min((i + delta) * invNSamples, Pbrt.OneMinusEpsilon);
+            samp[i] = Math.min((i - firstIndex + delta) * invNSamples, Pbrt.OneMinusEpsilon);
         }
         return samp;
     }
@@ -29,70 +29,57 @@ public class Sampling {
         return StratifiedSample1D(samp, nsamples, rng, true);
     }
 
-    public static Point2f[] StratifiedSample2D(Point2f[] samp, int nx, int ny, RNG rng, boolean jitter) {
+    // _samp_ receives nx * ny interleaved (x, y) pairs
+    public static float[] StratifiedSample2D(float[] samp, int nx, int ny, RNG rng, boolean jitter) {
         float dx = 1 / (float)nx, dy = 1 / (float)ny;
         int i = 0;
         for (int y = 0; y < ny; ++y) {
             for (int x = 0; x < nx; ++x) {
                 float jx = jitter ? rng.UniformFloat() : 0.5f;
                 float jy = jitter ? rng.UniformFloat() : 0.5f;
-                samp[i].x = Math.min((x + jx) * dx, Pbrt.OneMinusEpsilon);
-                samp[i].y = Math.min((y + jy) * dy, Pbrt.OneMinusEpsilon);
+                samp[2 * i] = Math.min((x + jx) * dx, Pbrt.OneMinusEpsilon);
+                samp[2 * i + 1] = Math.min((y + jy) * dy, Pbrt.OneMinusEpsilon);
                 i++;
             }
         }
         return samp;
     }
 
-    public static Point2f[] StratifiedSample2D(Point2f[] samp, int nx, int ny, RNG rng) {
+    public static float[] StratifiedSample2D(float[] samp, int nx, int ny, RNG rng) {
         return StratifiedSample2D(samp, nx, ny, rng, true);
     }
 
-    public static float[] LatinHypercube(float[] samples, int startIndex, int endIndex, RNG rng) {
+    // Latin hypercube samples _startIndex_ to _endIndex_ of _samples_, each of _nDim_ interleaved
+    // dimensions
+    public static float[] LatinHypercube(float[] samples, int startIndex, int endIndex, int nDim, RNG rng) {
         // Generate LHS samples along diagonal
         int nSamples = endIndex - startIndex;
         float invNSamples = 1 / (float)nSamples;
-        for (int i = startIndex; i < endIndex; ++i) {
+        for (int i = 0; i < nSamples; ++i) {
+            for (int j = 0; j < nDim; ++j) {
                 float sj = (i + (rng.UniformFloat())) * invNSamples;
-                samples[i] = Math.min(sj, Pbrt.OneMinusEpsilon);
+                samples[nDim * (startIndex + i) + j] = Math.min(sj, Pbrt.OneMinusEpsilon);
+            }
         }
 
         // Permute LHS samples in each dimension
-        for (int j = startIndex; j < endIndex; ++j) {
-            int other = j + rng.UniformUInt32(nSamples - j);
-            float temp = samples[j];
-            samples[j] = samples[other];
-            samples[other] = temp;
+        for (int i = 0; i < nDim; ++i) {
+            for (int j = 0; j < nSamples; ++j) {
+                int other = j + rng.UniformUInt32(nSamples - j);
+                int a = nDim * (startIndex + j) + i, b = nDim * (startIndex + other) + i;
+                float temp = samples[a];
+                samples[a] = samples[b];
+                samples[b] = temp;
+            }
         }
         return samples;
     }
 
-    public static float[] LatinHypercube(float[] samples, int nSamples, RNG rng) {
-        return LatinHypercube(samples, 0, nSamples, rng);
+    public static float[] LatinHypercube(float[] samples, int startIndex, int endIndex, RNG rng) {
+        return LatinHypercube(samples, startIndex, endIndex, 1, rng);
     }
 
-    public static Point2f[] LatinHypercube(Point2f[] samples, int startIndex, int endIndex, RNG rng) {
-        // Generate LHS samples along diagonal
-        int nSamples = endIndex - startIndex;
-        float invNSamples = 1 / (float)nSamples;
-        for (int i = startIndex; i < endIndex; ++i) {
-            float sj = (i + (rng.UniformFloat())) * invNSamples;
-            samples[i].x = Math.min(sj, Pbrt.OneMinusEpsilon);
-        }
-        for (int i = startIndex; i < endIndex; ++i) {
-            float sj = (i + (rng.UniformFloat())) * invNSamples;
-            samples[i].y = Math.min(sj, Pbrt.OneMinusEpsilon);
-        }
-        // Permute LHS samples in each dimension
-        for (int j = startIndex; j < endIndex; ++j) {
-            int other = j + rng.UniformUInt32(nSamples - j);
-            Point2f temp = samples[j];
-            samples[j] = samples[other];
-            samples[other] = temp;
-        }
-        return samples;
-    }
-    public static Point2f[] LatinHypercube(Point2f[] samples, int nSamples, RNG rng) {
+    public static float[] LatinHypercube(float[] samples, int nSamples, RNG rng) {
         return LatinHypercube(samples, 0, nSamples, rng);
     }
 
@@ -196,6 +183,19 @@ public class Sampling {
         return samp;
     }
 
+    public static short[] ShuffleS(short[] samp, int startIndex, int endIndex, int nDimensions, RNG rng) {
+        int count = endIndex-startIndex;
+        for (int i = startIndex; i < endIndex; ++i) {
+            int other = i + rng.UniformUInt32(count - (i - startIndex));
+            for (int j = 0; j < nDimensions; ++j) {
+                final short temp = samp[nDimensions * i + j];
+                samp[nDimensions * i + j] = samp[nDimensions * other + j];
+                samp[nDimensions * other + j] = temp;
+            }
+        }
+        return samp;
+    }
+
     public static Vector3f CosineSampleHemisphere(Point2f u) {
         Point2f d = ConcentricSampleDisk(u);
         float z = (float)Math.sqrt(Math.max(0, 1 - d.x * d.x - d.y * d.y));
@@ -31,16 +31,21 @@ public class Scene {
 
         // Scene Constructor Implementation
         worldBound = aggregate.WorldBound();
+        long preprocessStartTime = System.nanoTime();
         for (Light light : lights) {
             light.Preprocess(this);
             if ((light.flags & Light.FlagInfinite) != 0)
                 infiniteLights.add(light);
         }
+        Metrics.AddPhaseTime(Metrics.Phase.LightPreprocess, preprocessStartTime);
     }
     public Bounds3f WorldBound() { return worldBound; }
     public SurfaceInteraction Intersect(Ray ray) {
         nIntersectionTests.increment();
-        return aggregate.Intersect(ray);
+        // Only the closest hit gets a SurfaceInteraction
+        HitRecord hit = HitRecord.Get();
+        if (!aggregate.Intersect(ray, hit)) return null;
+        return hit.Finalize();
     }
     public boolean IntersectP(Ray ray) {
         nShadowTests.increment();
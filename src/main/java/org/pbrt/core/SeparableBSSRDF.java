@@ -34,7 +34,7 @@ public abstract class SeparableBSSRDF extends BSSRDF {
         BSSRDFSample bs = Sample_Sp(scene, u1, u2);
         if (!bs.s.isBlack()) {
             // Initialize material model at sampled surface interaction
-            bs.si.bsdf = new BSDF(bs.si, 1);
+            bs.si.bsdf = BSDF.Alloc(bs.si, 1);
             bs.si.bsdf.Add(new SeparableBSSRDFAdapter(this));
             bs.si.wo = new Vector3f(bs.si.shading.n);
         }
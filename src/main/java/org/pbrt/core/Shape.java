@@ -37,11 +37,28 @@ public abstract class Shape {
     public abstract Bounds3f ObjectBound();
     public Bounds3f WorldBound() { return ObjectToWorld.xform(ObjectBound()); }
     public abstract HitResult Intersect(Ray ray, boolean testAlphaTexture);
+    // Hit test for the closest hit search. Shapes that can defer building the
+    // SurfaceInteraction record their hit coordinates in _hit_ and build it in FinalizeHit();
+    // by default the full intersection is computed here. _hit_ is only written on a hit.
+    public boolean Intersect(Ray ray, boolean testAlphaTexture, HitRecord hit) {
+        HitResult hr = Intersect(ray, testAlphaTexture);
+        if (hr == null) return false;
+        hit.tHit = hr.tHit;
+        hit.isect = hr.isect;
+        return true;
+    }
+    public SurfaceInteraction FinalizeHit(Ray ray, HitRecord hit) {
+        return hit.isect;
+    }
     public boolean IntersectP(Ray ray, boolean testAlphaTexture) {
         return (Intersect(ray, testAlphaTexture) != null);
     }
 
     public abstract float Area();
+    // Directions of the surface normal over the shape
+    public DirectionCone NormalBounds() {
+        return DirectionCone.EntireSphere();
+    }
     // Sample a point on the surface of the shape and return the PDF with
     // respect to area on the surface.
     public abstract SampleResult Sample(Point2f u);
@@ -10,8 +10,11 @@
 
 package org.pbrt.core;
 
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class SpatialLightDistribution extends LightDistribution {
 
@@ -38,13 +41,10 @@ public class SpatialLightDistribution extends LightDistribution {
         }
 
         hashTableSize = 4 * nVoxels[0] * nVoxels[1] * nVoxels[2];
-        hashTable = new HashEntry[hashTableSize];
-        for (int i = 0; i < hashTableSize; ++i) {
-            hashTable[i] = new HashEntry();
-            hashTable[i].packedPos = new AtomicLong();
-            hashTable[i].packedPos.set(invalidPackedPos);
-            hashTable[i].distribution = new AtomicReference(null);
-        }
+        packedPositions = new AtomicLongArray(hashTableSize);
+        for (int i = 0; i < hashTableSize; ++i)
+            packedPositions.set(i, invalidPackedPos);
+        distributions = new AtomicReferenceArray<>(hashTableSize);
 
         PBrtTLogger.Info("SpatialLightDistribution: scene bounds %s, voxel res (%d, %d, %d)", b.toString(), nVoxels[0], nVoxels[1], nVoxels[2]);
     }
@@ -52,7 +52,41 @@ public class SpatialLightDistribution extends LightDistribution {
     @Override
     public Distribution1D Lookup(Point3f p) {
         looksPerDistrib.incrementDenom(1); // nLookups
+        return Lookup(VoxelCoords(p));
+    }
+
+    // Fill in the distributions of the voxels seen through every _stride_-th pixel of
+    // _pixelBounds_ before rendering starts, computing one voxel per task so that the
+    // work is spread over all threads rather than stalling the first tiles to reach them.
+    @Override
+    public void Prepopulate(Camera camera, Bounds2i pixelBounds, int stride) {
+        if (stride <= 0 || pixelBounds.Area() == 0) return;
+        Vector2i extent = pixelBounds.Diagonal();
+        int nx = (extent.x + stride - 1) / stride, ny = (extent.y + stride - 1) / stride;
+        byte[] visible = new byte[nVoxels[0] * nVoxels[1] * nVoxels[2]];
+        Parallel.ParallelFor((int row) -> {
+            Camera.CameraSample cs = new Camera.CameraSample();
+            cs.pLens = new Point2f(0.5f, 0.5f);
+            for (int x = 0; x < nx; ++x) {
+                cs.pFilm = new Point2f(pixelBounds.pMin.x + x * stride + 0.5f, pixelBounds.pMin.y + row * stride + 0.5f);
+                Camera.CameraRay camRay = camera.GenerateRay(cs);
+                if (camRay == null || camRay.weight == 0) continue;
+                SurfaceInteraction isect = scene.Intersect(camRay.ray);
+                if (isect == null) continue;
+                Point3i pi = VoxelCoords(isect.p);
+                visible[(pi.z * nVoxels[1] + pi.y) * nVoxels[0] + pi.x] = 1;
+            }
+        }, ny, 1);
+
+        ArrayList<Point3i> voxels = new ArrayList<>();
+        for (int i = 0; i < visible.length; ++i)
+            if (visible[i] != 0)
+                voxels.add(new Point3i(i % nVoxels[0], (i / nVoxels[0]) % nVoxels[1], i / (nVoxels[0] * nVoxels[1])));
+        Parallel.ParallelFor((int i) -> Lookup(voxels.get(i)), voxels.size(), 1);
+        PBrtTLogger.Info("SpatialLightDistribution: prepopulated %d visible voxels", voxels.size());
+    }
 
+    private Point3i VoxelCoords(Point3f p) {
         // First, compute integer voxel coordinates for the given point |p|
         // with respect to the overall voxel grid.
         Vector3f offset = scene.WorldBound().Offset(p);  // offset in [0,1].
@@ -62,7 +96,10 @@ public class SpatialLightDistribution extends LightDistribution {
             // robust to computed intersection points being slightly outside
             // the scene bounds due to floating-point roundoff PBrtTLogger.
             pi.set(i, Pbrt.Clamp((int)(offset.at(i) * nVoxels[i]), 0, nVoxels[i] - 1));
+        return pi;
+    }
 
+    private Distribution1D Lookup(Point3i pi) {
         // Pack the 3D integer voxel coordinates into a single 64-bit value.
         long packedPos = ((long)(pi.x) << 40) | ((long)(pi.y) << 20) | pi.z;
         assert (packedPos != invalidPackedPos);
@@ -79,8 +116,8 @@ public class SpatialLightDistribution extends LightDistribution {
         hash ^= (hash >>> 27);
         hash *= 0x81dadef4bc2dd44dL;
         hash ^= (hash >>> 33);
-        hash %= hashTableSize;
-        assert (hash >= 0);
+        // The mixed value is an unsigned 64-bit quantity in pbrt
+        hash = Long.remainderUnsigned(hash, hashTableSize);
 
         // Now, see if the hash table already has an entry for the voxel. We'll
         // use quadratic probing when the hash table entry is already used for
@@ -89,30 +126,14 @@ public class SpatialLightDistribution extends LightDistribution {
         int nProbes = 0;
         while (true) {
             ++nProbes;
-            HashEntry entry = hashTable[(int)hash];
+            int index = (int)hash;
             // Does the hash table entry at offset |hash| match the current point?
-            long entryPackedPos = entry.packedPos.get();
+            long entryPackedPos = packedPositions.get(index);
             if (entryPackedPos == packedPos) {
                 // Yes! Most of the time, there should already by a light
                 // sampling distribution available.
-                Distribution1D dist = entry.distribution.get();
-                if (dist == null) {
-                    // Rarely, another thread will have already done a lookup
-                    // at this point, found that there isn't a sampling
-                    // distribution, and will already be computing the
-                    // distribution for the point.  In this case, we spin until
-                    // the sampling distribution is ready.  We assume that this
-                    // is a rare case, so don't do anything more sophisticated
-                    // than spinning.
-                    while ((dist = entry.distribution.get()) == null)
-                        // spin :-(. If we were fancy, we'd have any threads
-                        // that hit this instead help out with computing the
-                        // distribution for the voxel...
-                        ;
-                }
-                // We have a valid sampling distribution.
                 nProbesPerLookup.ReportValue(nProbes);
-                return dist;
+                return Await(index);
             } else if (entryPackedPos != invalidPackedPos) {
                 // The hash table entry we're checking has already been
                 // allocated for another voxel. Advance to the next entry with
@@ -126,17 +147,16 @@ public class SpatialLightDistribution extends LightDistribution {
                 // changed since the load into entryPackedPos above.)  Use an
                 // atomic compare/exchange to try to claim this entry for the
                 // current position.
-                long invalid = invalidPackedPos;
-                if (entry.packedPos.weakCompareAndSet(invalid, packedPos)) {
+                if (packedPositions.compareAndSet(index, invalidPackedPos, packedPos)) {
                     // Success; we've claimed this position for this voxel's
-                    // distribution. Now compute the sampling distribution and
-                    // add it to the hash table. As long as packedPos has been
-                    // set but the entry's distribution pointer is nullptr, any
-                    // other threads looking up the distribution for this voxel
-                    // will spin wait until the distribution pointer is
-                    // written.
-                    Distribution1D dist = ComputeDistribution(pi);
-                    entry.distribution.set(dist);
+                    // distribution. Publish a task for it so that other threads
+                    // looking up this voxel block on its result instead of
+                    // spinning, then compute the distribution here.
+                    FutureTask<Distribution1D> task = new FutureTask<>(() -> ComputeDistribution(pi));
+                    distributions.set(index, task);
+                    task.run();
+                    Distribution1D dist = Await(index);
+                    distributions.set(index, dist);
                     nProbesPerLookup.ReportValue(nProbes);
                     return dist;
                 }
@@ -144,6 +164,27 @@ public class SpatialLightDistribution extends LightDistribution {
         }
     }
 
+    // The distribution of the claimed entry _index_, waiting for the thread
+    // computing it if it isn't ready yet.
+    @SuppressWarnings("unchecked")
+    private Distribution1D Await(int index) {
+        Object entry;
+        // The claiming thread publishes its task right after setting the
+        // entry's position, so this loop runs for at most a few iterations.
+        while ((entry = distributions.get(index)) == null)
+            Thread.onSpinWait();
+        if (entry instanceof Distribution1D)
+            return (Distribution1D)entry;
+        try {
+            return ((FutureTask<Distribution1D>)entry).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     private Distribution1D ComputeDistribution(Point3i pi) {
         nCreated.increment();
         looksPerDistrib.incrementDenom(1); // nDistributions;
@@ -202,22 +243,21 @@ public class SpatialLightDistribution extends LightDistribution {
         //Api.logger.info("Initialized light distribution in voxel pi= %s, avgContrib = %f", pi.toString(), avgContrib);
 
         // Compute a sampling distribution from the accumulated contributions.
-        return new Distribution1D(lightContrib);
+        return new Distribution1D(lightContrib, true);
     }
 
     private final Scene scene;
     private int[] nVoxels = { 0, 0, 0};
 
-    // The hash table is a fixed number of HashEntry structs (where we
-    // allocate more than enough entries in the SpatialLightDistribution
-    // constructor). During rendering, the table is allocated without
+    // The hash table is a fixed number of entries (where we allocate more
+    // than enough in the SpatialLightDistribution constructor), stored as
+    // parallel arrays of packed voxel positions and distributions. While an
+    // entry's distribution is being computed, its slot holds the FutureTask
+    // computing it. During rendering, the table is allocated without
     // locks, using atomic operations. (See the Lookup() method
     // implementation for details.)
-    private static class HashEntry {
-        AtomicLong packedPos;
-        AtomicReference<Distribution1D> distribution;
-    }
-    private HashEntry[] hashTable;
+    private final AtomicLongArray packedPositions;
+    private final AtomicReferenceArray<Object> distributions;
     private int hashTableSize;
 
     private static Stats.Counter nCreated = new Stats.Counter("SpatialLightDistribution/Distributions created");
@@ -203,6 +203,9 @@ public final class Spectrum {
         return false;
     }
 
+    public void set(Spectrum s) {
+        System.arraycopy(s.c, 0, this.c, 0, this.c.length);
+    }
     public void set(int i, float v) {
         assert (i >= 0 && i < c.length);
         c[i] = v;
@@ -381,8 +384,7 @@ public final class Spectrum {
         for (int i = 0; i < n - 1; ++i) assert (lambda[i + 1] > lambda[i]);
         if (l <= lambda[0]) return vals[0];
         if (l >= lambda[n - 1]) return vals[n - 1];
-        // TODO: verify the lambda expression is correct!!!
-        int offset = Pbrt.FindInterval(n, index -> lambda[index] <= l);
+        int offset = Pbrt.FindInterval(lambda, n, l);
         assert (l >= lambda[offset] && l <= lambda[offset + 1]);
         float t = (l - lambda[offset]) / (lambda[offset + 1] - lambda[offset]);
         return Pbrt.Lerp(t, vals[offset], vals[offset + 1]);
@@ -17,6 +17,16 @@ public class SpecularReflection extends BxDF {
         this.fresnel = fresnel;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static SpecularReflection Alloc(Spectrum R, Fresnel fresnel) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new SpecularReflection(R, fresnel);
+        SpecularReflection bxdf = arena.Alloc(arenaPool);
+        bxdf.R.set(R);
+        bxdf.fresnel = fresnel;
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         return new Spectrum(0);
@@ -42,5 +52,7 @@ public class SpecularReflection extends BxDF {
     }
 
     private final Spectrum R;
-    private final Fresnel fresnel;
+    private Fresnel fresnel;
+
+    private static final MemoryArena.Pool<SpecularReflection> arenaPool = MemoryArena.NewPool(() -> new SpecularReflection(new Spectrum(0), null));
 }
\ No newline at end of file
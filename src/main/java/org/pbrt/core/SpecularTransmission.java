@@ -20,6 +20,19 @@ public class SpecularTransmission extends BxDF {
         this.mode = mode;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static SpecularTransmission Alloc(Spectrum T, float etaA, float etaB, Material.TransportMode mode) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new SpecularTransmission(T, etaA, etaB, mode);
+        SpecularTransmission bxdf = arena.Alloc(arenaPool);
+        bxdf.T.set(T);
+        bxdf.etaA = etaA;
+        bxdf.etaB = etaB;
+        bxdf.fresnel.Init(etaA, etaB);
+        bxdf.mode = mode;
+        return bxdf;
+    }
+
     @Override
     public Spectrum f(Vector3f wo, Vector3f wi) {
         return new Spectrum(0);
@@ -62,7 +75,10 @@ public class SpecularTransmission extends BxDF {
     }
 
     private final Spectrum T;
-    private final float etaA, etaB;
+    private float etaA, etaB;
     private final FresnelDielectric fresnel;
-    private final Material.TransportMode mode;
+    private Material.TransportMode mode;
+
+    private static final MemoryArena.Pool<SpecularTransmission> arenaPool =
+            MemoryArena.NewPool(() -> new SpecularTransmission(new Spectrum(0), 1, 1, Material.TransportMode.Radiance));
 }
\ No newline at end of file
@@ -13,7 +13,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.*;
 import java.util.function.Consumer;
 
@@ -22,37 +27,67 @@ public class Stats {
     public static class Counter implements Consumer<StatsAccumulator> {
         public Counter(String title) {
             this.title = title;
+            synchronized (counters) {
+                this.index = counters.size();
+                counters.add(this);
+            }
             this.statRegisterer = new StatRegisterer(this);
-            this.var.set(0L);
         }
 
-        void report(StatsAccumulator accum) {
-            accum.ReportCounter(title, var.get());
-            var.set(0L);
+        // Reports the context's count and moves it into the process total kept for live metrics
+        synchronized void report(StatsAccumulator accum) {
+            long count = accum.CounterCount(index);
+            accum.CounterValue(index).add(-count);
+            reported += count;
+            accum.ReportCounter(title, count);
         }
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Long> var = new ThreadLocal<>();
+        private final int index;
+        private long reported = 0;
 
         @Override
         public void accept(StatsAccumulator accum) {
             report(accum);
         }
 
+        // Counts go to the render context current on the calling thread
         public void increment() {
-            //var.set(var.get()+1);
+            RenderContext.Current().GetStats().CounterValue(index).increment();
         }
         public void increment(long val) {
-            //var.set(var.get()+val);
+            RenderContext.Current().GetStats().CounterValue(index).add(val);
+        }
+
+        public String Title() { return title; }
+        // Count since the process started, over all render contexts
+        public synchronized long Total() {
+            long total = reported;
+            for (StatsAccumulator accum : StatsAccumulator.Live()) total += accum.CounterCount(index);
+            return total;
         }
     }
 
+    // All counters, for reading live totals while rendering
+    private static final CopyOnWriteArrayList<Counter> counters = new CopyOnWriteArrayList<>();
+
+    public static List<Counter> Counters() {
+        return Collections.unmodifiableList(counters);
+    }
+
+    // Live total of the counters with the given title
+    public static long CounterTotal(String title) {
+        long total = 0;
+        for (Counter counter : counters)
+            if (counter.title.equals(title)) total += counter.Total();
+        return total;
+    }
+
     public static class MemoryCounter implements Consumer<StatsAccumulator> {
         public MemoryCounter(String title) {
             this.title = title;
             this.statRegisterer = new StatRegisterer(this);
-            var.set(0L);
         }
 
         void report(StatsAccumulator accum) {
@@ -62,7 +97,7 @@ public class Stats {
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Long> var = new ThreadLocal<>();
+        ThreadLocal<Long> var = ThreadLocal.withInitial(() -> 0L);
 
         @Override
         public void accept(StatsAccumulator accum) {
@@ -78,8 +113,6 @@ public class Stats {
         public Percent(String title) {
             this.title = title;
             this.statRegisterer = new StatRegisterer(this);
-            numVar.set(0L);
-            denomVar.set(0L);
         }
 
         void report(StatsAccumulator accum) {
@@ -97,8 +130,8 @@ public class Stats {
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Long> numVar = new ThreadLocal<>();
-        ThreadLocal<Long> denomVar = new ThreadLocal<>();
+        ThreadLocal<Long> numVar = ThreadLocal.withInitial(() -> 0L);
+        ThreadLocal<Long> denomVar = ThreadLocal.withInitial(() -> 0L);
 
         @Override
         public void accept(StatsAccumulator accum) {
@@ -110,8 +143,6 @@ public class Stats {
         public Ratio(String title) {
             this.title = title;
             this.statRegisterer = new StatRegisterer(this);
-            numVar.set(0L);
-            denomVar.set(0L);
         }
 
         void report(StatsAccumulator accum) {
@@ -129,8 +160,8 @@ public class Stats {
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Long> numVar = new ThreadLocal<>();
-        ThreadLocal<Long> denomVar = new ThreadLocal<>();
+        ThreadLocal<Long> numVar = ThreadLocal.withInitial(() -> 0L);
+        ThreadLocal<Long> denomVar = ThreadLocal.withInitial(() -> 0L);
 
         @Override
         public void accept(StatsAccumulator accum) {
@@ -142,10 +173,6 @@ public class Stats {
         public IntegerDistribution(String title) {
             this.title = title;
             this.statRegisterer = new StatRegisterer(this);
-            sumVar.set(0L);
-            countVar.set(0L);
-            minVar.set(Long.MIN_VALUE);
-            maxVar.set(Long.MAX_VALUE);
         }
 
         void report(StatsAccumulator accum) {
@@ -167,10 +194,10 @@ public class Stats {
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Long> sumVar = new ThreadLocal<>();
-        ThreadLocal<Long> countVar = new ThreadLocal<>();
-        ThreadLocal<Long> minVar = new ThreadLocal<>();
-        ThreadLocal<Long> maxVar = new ThreadLocal<>();
+        ThreadLocal<Long> sumVar = ThreadLocal.withInitial(() -> 0L);
+        ThreadLocal<Long> countVar = ThreadLocal.withInitial(() -> 0L);
+        ThreadLocal<Long> minVar = ThreadLocal.withInitial(() -> Long.MAX_VALUE);
+        ThreadLocal<Long> maxVar = ThreadLocal.withInitial(() -> Long.MIN_VALUE);
 
         @Override
         public void accept(StatsAccumulator accum) {
@@ -182,10 +209,6 @@ public class Stats {
         public FloatDistribution(String title) {
             this.title = title;
             this.statRegisterer = new StatRegisterer(this);
-            sumVar.set(0.0);
-            countVar.set(0L);
-            minVar.set(Double.MIN_VALUE);
-            maxVar.set(Double.MAX_VALUE);
         }
 
         void report(StatsAccumulator accum) {
@@ -207,10 +230,10 @@ public class Stats {
 
         StatRegisterer statRegisterer;
         private final String title;
-        ThreadLocal<Double> sumVar = new ThreadLocal<>();
-        ThreadLocal<Long> countVar = new ThreadLocal<>();
-        ThreadLocal<Double> minVar = new ThreadLocal<>();
-        ThreadLocal<Double> maxVar = new ThreadLocal<>();
+        ThreadLocal<Double> sumVar = ThreadLocal.withInitial(() -> 0.0);
+        ThreadLocal<Long> countVar = ThreadLocal.withInitial(() -> 0L);
+        ThreadLocal<Double> minVar = ThreadLocal.withInitial(() -> Double.MAX_VALUE);
+        ThreadLocal<Double> maxVar = ThreadLocal.withInitial(() -> Double.MIN_VALUE);
 
         @Override
         public void accept(StatsAccumulator accum) {
@@ -218,24 +241,21 @@ public class Stats {
         }
     }
 
-    private static StatsAccumulator statsAccumulator = new StatsAccumulator();
-
+    // Statistics are accumulated per render context
     public static void PrintStats(java.io.Writer file) {
-        statsAccumulator.Print(file);
+        RenderContext.Current().GetStats().Print(file);
     }
     public static void ClearStats() {
-        statsAccumulator.Clear();
+        RenderContext.Current().GetStats().Clear();
     }
     public static void ReportThreadStats() {
-        StatRegisterer.CallCallbacks(statsAccumulator);
+        StatRegisterer.CallCallbacks(RenderContext.Current().GetStats());
     }
 
     public static class StatRegisterer {
 
         // StatRegisterer Public Methods
         public StatRegisterer(Consumer<StatsAccumulator> func) {
-            if (funcs == null)
-                funcs = new ArrayList<>();
             funcs.add(func);
         }
         public static void CallCallbacks(StatsAccumulator accum) {
@@ -244,11 +264,47 @@ public class Stats {
             }
         }
 
-        private static ArrayList<Consumer<StatsAccumulator>> funcs;
+        // Stats may be registered by classes initialized concurrently on different render jobs
+        private static final CopyOnWriteArrayList<Consumer<StatsAccumulator>> funcs = new CopyOnWriteArrayList<>();
     }
 
     public static class StatsAccumulator {
-        
+
+        public StatsAccumulator() {
+            synchronized (live) {
+                live.put(this, Boolean.TRUE);
+            }
+        }
+
+        // The running count of counter _index_, created on first use
+        LongAdder CounterValue(int index) {
+            LongAdder[] values = counterValues;
+            if (index < values.length && values[index] != null) return values[index];
+            return AddCounterValue(index);
+        }
+
+        // The running count of counter _index_ without creating it
+        long CounterCount(int index) {
+            LongAdder[] values = counterValues;
+            return (index < values.length && values[index] != null) ? values[index].sum() : 0;
+        }
+
+        // The array is replaced rather than updated so that readers never see it half built
+        private synchronized LongAdder AddCounterValue(int index) {
+            if (index < counterValues.length && counterValues[index] != null) return counterValues[index];
+            LongAdder[] values = Arrays.copyOf(counterValues, Math.max(index + 1, counterValues.length));
+            values[index] = new LongAdder();
+            counterValues = values;
+            return values[index];
+        }
+
+        // Accumulators of the contexts still in use, for the live counter totals
+        static List<StatsAccumulator> Live() {
+            synchronized (live) {
+                return new ArrayList<>(live.keySet());
+            }
+        }
+
         // StatsAccumulator Public Methods
         public void ReportCounter(String name, long val) {
             counters.put(name, counters.getOrDefault(name, 0L) + val);
@@ -404,6 +460,8 @@ public class Stats {
         }
 
         // StatsAccumulator Private Data
+        private static final WeakHashMap<StatsAccumulator, Boolean> live = new WeakHashMap<>();
+        private volatile LongAdder[] counterValues = new LongAdder[0];
         private static class PairLL {
             public PairLL(long first, long second) {
                 this.first = first;
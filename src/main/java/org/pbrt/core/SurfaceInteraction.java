@@ -78,6 +78,16 @@ public class SurfaceInteraction extends Interaction {
         this(si.p, si.pError, si.uv, si.wo, si.dpdu, si.dpdv, si.dndu, si.dndv, si.time, si.shape, si.faceIndex);
     }
 
+    // A SurfaceInteraction from the calling thread's MemoryArena when one is active. Pooled
+    // objects still hold the members of their previous use, so the caller must assign all of them.
+    static SurfaceInteraction AllocUninitialized() {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new SurfaceInteraction();
+        return arena.Alloc(arenaPool);
+    }
+
+    private static final MemoryArena.Pool<SurfaceInteraction> arenaPool = MemoryArena.NewPool(SurfaceInteraction::new);
+
     public void SetShadingGeometry(Vector3f dpdus, Vector3f dpdvs, Normal3f dndus, Normal3f dndvs, boolean orientationIsAuthoritative) {
         // Compute _shading.n_ for _SurfaceInteraction_
         shading.n = new Normal3f(Vector3f.Normalize(Vector3f.Cross(dpdus, dpdvs)));
@@ -97,8 +107,10 @@ public class SurfaceInteraction extends Interaction {
         ComputeScatteringFunctions(ray,false, Material.TransportMode.Radiance);
     }
     public void ComputeScatteringFunctions(RayDifferential ray, boolean allowMultipleLobes, Material.TransportMode mode) {
+        int prof = Profiler.Enter(Profiler.ComputeScatteringFuncs);
         ComputeDifferentials(ray);
         primitive.ComputeScatteringFunctions(this, mode, allowMultipleLobes);
+        Profiler.Exit(prof);
     }
     public void ComputeDifferentials(RayDifferential ray) {
         if (ray.hasDifferentials) {
@@ -37,6 +37,20 @@ public class Texture<T> {
             return (wrapMode != t2.wrapMode) ? -1 : 0;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TexInfo)) return false;
+            TexInfo t2 = (TexInfo) o;
+            return Objects.equals(filename, t2.filename) && doTrilinear == t2.doTrilinear &&
+                    maxAniso == t2.maxAniso && wrapMode == t2.wrapMode && scale == t2.scale && gamma == t2.gamma;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filename, doTrilinear, maxAniso, wrapMode, scale, gamma);
+        }
+
         public String filename;
         public boolean doTrilinear;
         public float maxAniso;
@@ -59,18 +73,20 @@ public class Texture<T> {
         int ix = (int)Math.floor(x), iy = (int)Math.floor(y), iz = (int)Math.floor(z);
         float dx = x - ix, dy = y - iy, dz = z - iz;
 
-        // Compute gradient weights
+        // Compute gradient weights, hashing the shared rows of the lattice cell once
         ix &= NoisePermSize - 1;
         iy &= NoisePermSize - 1;
         iz &= NoisePermSize - 1;
-        float w000 = Grad(ix, iy, iz, dx, dy, dz);
-        float w100 = Grad(ix + 1, iy, iz, dx - 1, dy, dz);
-        float w010 = Grad(ix, iy + 1, iz, dx, dy - 1, dz);
-        float w110 = Grad(ix + 1, iy + 1, iz, dx - 1, dy - 1, dz);
-        float w001 = Grad(ix, iy, iz + 1, dx, dy, dz - 1);
-        float w101 = Grad(ix + 1, iy, iz + 1, dx - 1, dy, dz - 1);
-        float w011 = Grad(ix, iy + 1, iz + 1, dx, dy - 1, dz - 1);
-        float w111 = Grad(ix + 1, iy + 1, iz + 1, dx - 1, dy - 1, dz - 1);
+        int a = NoisePerm[ix] + iy, b = NoisePerm[ix + 1] + iy;
+        int aa = NoisePerm[a] + iz, ab = NoisePerm[a + 1] + iz, ba = NoisePerm[b] + iz, bb = NoisePerm[b + 1] + iz;
+        float w000 = Grad(NoisePerm[aa], dx, dy, dz);
+        float w100 = Grad(NoisePerm[ba], dx - 1, dy, dz);
+        float w010 = Grad(NoisePerm[ab], dx, dy - 1, dz);
+        float w110 = Grad(NoisePerm[bb], dx - 1, dy - 1, dz);
+        float w001 = Grad(NoisePerm[aa + 1], dx, dy, dz - 1);
+        float w101 = Grad(NoisePerm[ba + 1], dx - 1, dy, dz - 1);
+        float w011 = Grad(NoisePerm[ab + 1], dx, dy - 1, dz - 1);
+        float w111 = Grad(NoisePerm[bb + 1], dx - 1, dy - 1, dz - 1);
 
         // Compute trilinear interpolation of weights
         float wx = NoiseWeight(dx), wy = NoiseWeight(dy), wz = NoiseWeight(dz);
@@ -93,53 +109,142 @@ public class Texture<T> {
     }
 
     public static float FBm(Point3f p, Vector3f dpdx, Vector3f dpdy, float omega, int octaves) {
+        return FBm(p.x, p.y, p.z, Math.max(dpdx.LengthSquared(), dpdy.LengthSquared()), omega, octaves);
+    }
+
+    // FBm at (x, y, z), where _len2_ is the larger squared length of the point's screen-space
+    // differentials (see MaxLengthSquared())
+    public static float FBm(float x, float y, float z, float len2, float omega, int octaves) {
+        int prof = Profiler.Enter(Profiler.TextureEvaluation);
         // Compute number of octaves for antialiased FBm
-        float len2 = Math.max(dpdx.LengthSquared(), dpdy.LengthSquared());
         float n = Pbrt.Clamp(-1 - .5f * Pbrt.Log2(len2), 0, octaves);
         int nInt = (int)Math.floor(n);
 
         // Compute sum of octaves of noise for FBm
-        float sum = 0, lambda = 1, o = 1;
+        final float[] noise = noiseOctaves.get().Evaluate(x, y, z, nInt + 1);
+        float sum = 0, o = 1;
         for (int i = 0; i < nInt; ++i) {
-            sum += o * Noise(p.scale(lambda));
-            lambda *= 1.99f;
+            sum += o * noise[i];
             o *= omega;
         }
-        Float nPartial = n - nInt;
-        sum += o * SmoothStep(.3f, .7f, nPartial) * Noise(p.scale(lambda));
+        float nPartial = n - nInt;
+        sum += o * SmoothStep(.3f, .7f, nPartial) * noise[nInt];
+        Profiler.Exit(prof);
         return sum;
     }
 
     public static float Turbulence(Point3f p, Vector3f dpdx, Vector3f dpdy, float omega, int octaves) {
+        return Turbulence(p.x, p.y, p.z, Math.max(dpdx.LengthSquared(), dpdy.LengthSquared()), omega, octaves);
+    }
+
+    // Turbulence at (x, y, z); _len2_ is as for FBm()
+    public static float Turbulence(float x, float y, float z, float len2, float omega, int octaves) {
+        int prof = Profiler.Enter(Profiler.TextureEvaluation);
         // Compute number of octaves for antialiased FBm
-        float len2 = Math.max(dpdx.LengthSquared(), dpdy.LengthSquared());
         float n = Pbrt.Clamp(-1 - .5f * Pbrt.Log2(len2), 0, octaves);
         int nInt = (int)Math.floor(n);
 
         // Compute sum of octaves of noise for turbulence
-        float sum = 0, lambda = 1, o = 1;
+        final float[] noise = noiseOctaves.get().Evaluate(x, y, z, nInt + 1);
+        float sum = 0, o = 1;
         for (int i = 0; i < nInt; ++i) {
-            sum += o * Math.abs(Noise(p.scale(lambda)));
-            lambda *= 1.99f;
+            sum += o * Math.abs(noise[i]);
             o *= omega;
         }
 
         // Account for contributions of clamped octaves in turbulence
-        Float nPartial = n - nInt;
-        sum += o * Pbrt.Lerp(SmoothStep(.3f, .7f, nPartial), 0.2f, Math.abs(Noise(p.scale(lambda))));
+        float nPartial = n - nInt;
+        sum += o * Pbrt.Lerp(SmoothStep(.3f, .7f, nPartial), 0.2f, Math.abs(noise[nInt]));
         for (int i = nInt; i < octaves; ++i) {
             sum += o * 0.2f;
             o *= omega;
         }
+        Profiler.Exit(prof);
         return sum;
     }
 
-    private static float Grad(int x, int y, int z, float dx, float dy, float dz) {
-        int h = NoisePerm[NoisePerm[NoisePerm[x] + y] + z];
+    // Larger squared length of the differentials _dpdx_ and _dpdy_ scaled by _scale_, as
+    // FBm() and Turbulence() take it
+    public static float MaxLengthSquared(Vector3f dpdx, Vector3f dpdy, float scale) {
+        float x = scale * dpdx.x, y = scale * dpdx.y, z = scale * dpdx.z;
+        float u = scale * dpdy.x, v = scale * dpdy.y, w = scale * dpdy.z;
+        return Math.max(x * x + y * y + z * z, u * u + v * v + w * w);
+    }
+
+    // Noise() at the successive octaves (x, y, z) * lambda^i, lambda = 1.99, of FBm() and
+    // Turbulence(). Each pass is a loop over all octaves: the lattice and fade-curve passes
+    // are plain float arithmetic the JIT can vectorize, and the permutation-table hashing
+    // in between is independent across octaves, so its loads overlap.
+    private static class NoiseOctaves {
+        private int[] ix = new int[0], iy = new int[0], iz = new int[0];
+        private float[] dx = new float[0], dy = new float[0], dz = new float[0];
+        private float[] w000 = new float[0], w100 = new float[0], w010 = new float[0], w110 = new float[0];
+        private float[] w001 = new float[0], w101 = new float[0], w011 = new float[0], w111 = new float[0];
+        private float[] noise = new float[0];
+
+        // Returns an array whose first _n_ entries hold the noise for octaves 0 to n-1
+        float[] Evaluate(float x, float y, float z, int n) {
+            if (n > noise.length) Reserve(n);
+
+            // Find the lattice cells and offsets within them
+            float lambda = 1;
+            for (int i = 0; i < n; ++i) {
+                float px = x * lambda, py = y * lambda, pz = z * lambda;
+                int cx = (int)Math.floor(px), cy = (int)Math.floor(py), cz = (int)Math.floor(pz);
+                dx[i] = px - cx;
+                dy[i] = py - cy;
+                dz[i] = pz - cz;
+                ix[i] = cx & (NoisePermSize - 1);
+                iy[i] = cy & (NoisePermSize - 1);
+                iz[i] = cz & (NoisePermSize - 1);
+                lambda *= 1.99f;
+            }
+
+            // Compute gradient weights at the cell corners
+            for (int i = 0; i < n; ++i) {
+                int a = NoisePerm[ix[i]] + iy[i], b = NoisePerm[ix[i] + 1] + iy[i];
+                int aa = NoisePerm[a] + iz[i], ab = NoisePerm[a + 1] + iz[i];
+                int ba = NoisePerm[b] + iz[i], bb = NoisePerm[b + 1] + iz[i];
+                float ox = dx[i], oy = dy[i], oz = dz[i];
+                w000[i] = Grad(NoisePerm[aa], ox, oy, oz);
+                w100[i] = Grad(NoisePerm[ba], ox - 1, oy, oz);
+                w010[i] = Grad(NoisePerm[ab], ox, oy - 1, oz);
+                w110[i] = Grad(NoisePerm[bb], ox - 1, oy - 1, oz);
+                w001[i] = Grad(NoisePerm[aa + 1], ox, oy, oz - 1);
+                w101[i] = Grad(NoisePerm[ba + 1], ox - 1, oy, oz - 1);
+                w011[i] = Grad(NoisePerm[ab + 1], ox, oy - 1, oz - 1);
+                w111[i] = Grad(NoisePerm[bb + 1], ox - 1, oy - 1, oz - 1);
+            }
+
+            // Compute trilinear interpolation of weights
+            for (int i = 0; i < n; ++i) {
+                float wx = NoiseWeight(dx[i]), wy = NoiseWeight(dy[i]), wz = NoiseWeight(dz[i]);
+                float x00 = Pbrt.Lerp(wx, w000[i], w100[i]);
+                float x10 = Pbrt.Lerp(wx, w010[i], w110[i]);
+                float x01 = Pbrt.Lerp(wx, w001[i], w101[i]);
+                float x11 = Pbrt.Lerp(wx, w011[i], w111[i]);
+                float y0 = Pbrt.Lerp(wy, x00, x10);
+                float y1 = Pbrt.Lerp(wy, x01, x11);
+                noise[i] = Pbrt.Lerp(wz, y0, y1);
+            }
+            return noise;
+        }
+
+        private void Reserve(int n) {
+            ix = new int[n]; iy = new int[n]; iz = new int[n];
+            dx = new float[n]; dy = new float[n]; dz = new float[n];
+            w000 = new float[n]; w100 = new float[n]; w010 = new float[n]; w110 = new float[n];
+            w001 = new float[n]; w101 = new float[n]; w011 = new float[n]; w111 = new float[n];
+            noise = new float[n];
+        }
+    }
+
+    private static final ThreadLocal<NoiseOctaves> noiseOctaves = ThreadLocal.withInitial(NoiseOctaves::new);
+
+    // Gradient for the hashed lattice point _h_, dotted with the offset (dx, dy, dz)
+    private static float Grad(int h, float dx, float dy, float dz) {
         h &= 15;
-        float u = h < 8 || h == 12 || h == 13 ? dx : dy;
-        float v = h < 4 || h == 12 || h == 13 ? dy : dz;
-        return ((h & 1) != 0 ? -u : u) + ((h & 2) != 0 ? -v : v);
+        return GradX[h] * dx + GradY[h] * dy + GradZ[h] * dz;
     }
 
     private static float NoiseWeight(float t) {
@@ -149,6 +254,18 @@ public class Texture<T> {
     }
 
     // Perlin Noise Data
+    // Gradient directions selected by the low 4 bits of a lattice hash: the classic choice of
+    // +/-u +/-v, with u and v two of (dx, dy, dz), stored as coefficients so Grad() doesn't branch
+    private static final float[] GradX = new float[16], GradY = new float[16], GradZ = new float[16];
+    static {
+        for (int h = 0; h < 16; ++h) {
+            float su = (h & 1) != 0 ? -1 : 1, sv = (h & 2) != 0 ? -1 : 1;
+            if (h < 8 || h == 12 || h == 13) GradX[h] = su;
+            else GradY[h] = su;
+            if (h < 4 || h == 12 || h == 13) GradY[h] = sv;
+            else GradZ[h] = sv;
+        }
+    }
     private static final int NoisePermSize = 256;
     private static final int[] NoisePerm = {
         151, 160, 137, 91, 90, 15, 131, 13, 201, 95, 96, 53, 194, 233, 7, 225, 140,
@@ -0,0 +1,184 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+// Decides the size of image tiles and the order in which the render threads pick them up.
+// Tiles are issued along a space filling curve (or a spiral from the image centre) so that
+// threads working at the same time touch nearby geometry and textures. Optionally a sparse
+// pre-pass times every tile and the most expensive tiles are started first, which keeps a
+// few slow tiles from running alone at the end of the render.
+public class TileSchedule {
+
+    public enum Order {
+        Raster, Hilbert, Morton, Spiral
+    }
+
+    public TileSchedule() {
+        this(Order.Hilbert, DefaultTileSize, 0);
+    }
+
+    // A _tileSize_ of 0 picks the size from the image resolution and thread count; a
+    // _prePassStride_ of 0 disables cost estimation
+    public TileSchedule(Order order, int tileSize, int prePassStride) {
+        this.order = order;
+        this.tileSize = tileSize;
+        this.prePassStride = prePassStride;
+    }
+
+    public final Order order;
+    public final int tileSize;
+    // The pre-pass traces one sample for every prePassStride x prePassStride block of pixels
+    public final int prePassStride;
+
+    // Sampler seeds depend on the tiling, so the default size is fixed to keep results
+    // independent of the number of threads
+    public static final int DefaultTileSize = 16;
+    // Smallest and largest automatic tile sizes, and the number of tiles wanted per thread
+    private static final int MinAutoTileSize = 8;
+    private static final int MaxAutoTileSize = 32;
+    private static final int TilesPerThread = 8;
+
+    // Tile side length for an image of _extent_ sample pixels
+    public int TileSize(Vector2i extent) {
+        if (tileSize > 0) return tileSize;
+        // Largest tile that still gives every thread several tiles to balance the load; the
+        // result, and so the image, depends on the number of threads
+        int size = MaxAutoTileSize;
+        long wanted = (long) TilesPerThread * Parallel.MaxThreadIndex();
+        while (size > MinAutoTileSize && NumTiles(extent, size) < wanted) size /= 2;
+        return size;
+    }
+
+    private static long NumTiles(Vector2i extent, int size) {
+        return (long) ((extent.x + size - 1) / size) * ((extent.y + size - 1) / size);
+    }
+
+    public static Point2i NumTiles(Bounds2i sampleBounds, int tileSize) {
+        Vector2i extent = sampleBounds.Diagonal();
+        return new Point2i((extent.x + tileSize - 1) / tileSize, (extent.y + tileSize - 1) / tileSize);
+    }
+
+    // Sample bounds of _tile_
+    public static Bounds2i TileBounds(Bounds2i sampleBounds, Point2i tile, int tileSize) {
+        int x0 = sampleBounds.pMin.x + tile.x * tileSize;
+        int x1 = Math.min(x0 + tileSize, sampleBounds.pMax.x);
+        int y0 = sampleBounds.pMin.y + tile.y * tileSize;
+        int y1 = Math.min(y0 + tileSize, sampleBounds.pMax.y);
+        return new Bounds2i(new Point2i(x0, y0), new Point2i(x1, y1));
+    }
+
+    // Tiles of an _nTiles_ grid in the order they should be rendered. With a pre-pass, _estimate_
+    // is called once per tile to do a representative fraction of its work and is timed.
+    public Point2i[] Schedule(Point2i nTiles, Consumer<Point2i> estimate) {
+        Point2i[] tiles = Ordered(nTiles, order);
+        if (prePassStride <= 0 || estimate == null || tiles.length <= 1) return tiles;
+
+        final long[] cost = new long[tiles.length];
+        Parallel.ParallelFor((int index) -> {
+            long startTime = System.nanoTime();
+            estimate.accept(tiles[index]);
+            cost[tiles[index].y * nTiles.x + tiles[index].x] = System.nanoTime() - startTime;
+        }, tiles.length, 1);
+        // Most expensive first; the sort is stable so equal tiles keep their curve order
+        Arrays.sort(tiles, Comparator.comparingLong((Point2i t) -> -cost[t.y * nTiles.x + t.x]));
+        return tiles;
+    }
+
+    public static Point2i[] Ordered(Point2i nTiles, Order order) {
+        Point2i[] tiles = new Point2i[nTiles.x * nTiles.y];
+        for (int y = 0; y < nTiles.y; ++y)
+            for (int x = 0; x < nTiles.x; ++x) tiles[y * nTiles.x + x] = new Point2i(x, y);
+        switch (order) {
+            case Hilbert: {
+                int n = 1;
+                while (n < Math.max(nTiles.x, nTiles.y)) n *= 2;
+                final int side = n;
+                Arrays.sort(tiles, Comparator.comparingLong((Point2i t) -> HilbertIndex(side, t.x, t.y)));
+                break;
+            }
+            case Morton:
+                Arrays.sort(tiles, Comparator.comparingLong((Point2i t) -> MortonIndex(t.x, t.y)));
+                break;
+            case Spiral: {
+                // Rings of increasing distance from the centre tile, each walked by angle
+                final float cx = (nTiles.x - 1) * 0.5f, cy = (nTiles.y - 1) * 0.5f;
+                Comparator<Point2i> ring = Comparator.comparingDouble((Point2i t) -> Math.max(Math.abs(t.x - cx), Math.abs(t.y - cy)));
+                Arrays.sort(tiles, ring.thenComparingDouble((Point2i t) -> Math.atan2(t.y - cy, t.x - cx)));
+                break;
+            }
+            default:
+                break;
+        }
+        return tiles;
+    }
+
+    // Distance along the Hilbert curve filling an _n_ x _n_ grid, _n_ a power of two
+    public static long HilbertIndex(int n, int x, int y) {
+        long d = 0;
+        for (int s = n / 2; s > 0; s /= 2) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so the curve continues in the next level
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    public static long MortonIndex(int x, int y) {
+        return SpreadBits(x) | (SpreadBits(y) << 1);
+    }
+
+    // Spread the low 32 bits of _v_ to the even bits of the result
+    private static long SpreadBits(int v) {
+        long x = v & 0xffffffffL;
+        x = (x | (x << 16)) & 0x0000ffff0000ffffL;
+        x = (x | (x << 8)) & 0x00ff00ff00ff00ffL;
+        x = (x | (x << 4)) & 0x0f0f0f0f0f0f0f0fL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+
+    // Reads "tileorder" (raster, hilbert, morton or spiral), "tilesize" (16 by default, 0 for
+    // automatic) and
+    // "tileprepass" (pixel stride of the cost estimation pass, 0 to disable)
+    public static TileSchedule Create(ParamSet params) {
+        String orderName = params.FindOneString("tileorder", "hilbert");
+        Order order = Order.Hilbert;
+        boolean found = false;
+        for (Order o : Order.values()) {
+            if (o.name().equalsIgnoreCase(orderName)) {
+                order = o;
+                found = true;
+            }
+        }
+        if (!found) PBrtTLogger.Error("Tile order \"%s\" unknown. Using \"hilbert\".", orderName);
+        int tileSize = params.FindOneInt("tilesize", DefaultTileSize);
+        if (tileSize < 0) {
+            PBrtTLogger.Error("\"tilesize\" must not be negative. Using %d.", DefaultTileSize);
+            tileSize = DefaultTileSize;
+        }
+        int prePassStride = Math.max(0, params.FindOneInt("tileprepass", 0));
+        return new TileSchedule(order, tileSize, prePassStride);
+    }
+}
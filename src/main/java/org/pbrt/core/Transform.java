@@ -70,7 +70,7 @@ public class Transform {
                 m.m[3][0] == 0.f && m.m[3][1] == 0.f && m.m[3][2] == 0.f &&
                 m.m[3][3] == 1.f);
     }
-    Matrix4x4 GetMatrix() { return m; }
+    public Matrix4x4 GetMatrix() { return m; }
     Matrix4x4 GetInverseMatrix() { return mInv; }
 
     private static boolean NOT_ONE(float x) {
@@ -124,6 +124,56 @@ public class Transform {
         }
         return new Ray(o, d, tMax, r.time, r.medium);
     }
+    // Same as xform(Ray), with the origin and direction written to _q_'s ray registers
+    // together with the bounds absError() gives for them, without allocating
+    public void xform(Ray r, QuadricSolver q) {
+        float x = r.o.x, y = r.o.y, z = r.o.z;
+        // Compute absolute error for transformed origin
+        float g3 = Pbrt.gamma(3);
+        float oex = (Math.abs(m.m[0][0] * x) + Math.abs(m.m[0][1] * y) +
+                Math.abs(m.m[0][2] * z) + Math.abs(m.m[0][3])) * g3;
+        float oey = (Math.abs(m.m[1][0] * x) + Math.abs(m.m[1][1] * y) +
+                Math.abs(m.m[1][2] * z) + Math.abs(m.m[1][3])) * g3;
+        float oez = (Math.abs(m.m[2][0] * x) + Math.abs(m.m[2][1] * y) +
+                Math.abs(m.m[2][2] * z) + Math.abs(m.m[2][3])) * g3;
+        float ox = m.m[0][0] * x + m.m[0][1] * y + m.m[0][2] * z + m.m[0][3];
+        float oy = m.m[1][0] * x + m.m[1][1] * y + m.m[1][2] * z + m.m[1][3];
+        float oz = m.m[2][0] * x + m.m[2][1] * y + m.m[2][2] * z + m.m[2][3];
+        float ow = m.m[3][0] * x + m.m[3][1] * y + m.m[3][2] * z + m.m[3][3];
+        if (ow != 1) {
+            float inv = 1.0f / ow;
+            ox = inv * ox;
+            oy = inv * oy;
+            oz = inv * oz;
+        }
+
+        x = r.d.x; y = r.d.y; z = r.d.z;
+        float dex = g3 * (Math.abs(m.m[0][0] * x) + Math.abs(m.m[0][1] * y) + Math.abs(m.m[0][2] * z));
+        float dey = g3 * (Math.abs(m.m[1][0] * x) + Math.abs(m.m[1][1] * y) + Math.abs(m.m[1][2] * z));
+        float dez = g3 * (Math.abs(m.m[2][0] * x) + Math.abs(m.m[2][1] * y) + Math.abs(m.m[2][2] * z));
+        float dx = m.m[0][0] * x + m.m[0][1] * y + m.m[0][2] * z;
+        float dy = m.m[1][0] * x + m.m[1][1] * y + m.m[1][2] * z;
+        float dz = m.m[2][0] * x + m.m[2][1] * y + m.m[2][2] * z;
+
+        // Offset ray origin to edge of error bounds and compute _tMax_
+        float lengthSquared = dx * dx + dy * dy + dz * dz;
+        float tMax = r.tMax;
+        if (lengthSquared > 0) {
+            float dt = (Math.abs(dx) * oex + Math.abs(dy) * oey + Math.abs(dz) * oez) / lengthSquared;
+            ox += dx * dt;
+            oy += dy * dt;
+            oz += dz * dt;
+            tMax -= dt;
+        }
+        q.ox.set(ox, oex);
+        q.oy.set(oy, oey);
+        q.oz.set(oz, oez);
+        q.dx.set(dx, dex);
+        q.dy.set(dy, dey);
+        q.dz.set(dz, dez);
+        q.tMax = tMax;
+    }
+
     public RayDifferential xform(RayDifferential r) {
         Ray tr = xform(new Ray(r.o, r.d, r.tMax, r.time, r.medium));
         RayDifferential ret = new RayDifferential(tr.o, tr.d, tr.tMax, tr.time, tr.medium);
@@ -135,6 +185,73 @@ public class Transform {
         return ret;
 
     }
+    // Same as xform(RayDifferential) for rays _start_ to _end_ of _rays_, in place. When
+    // _differentialRays_ is set, the offset rays' origins are moved to the edge of their error
+    // bounds as xform(Ray) does, for differentials that were generated as separate camera rays.
+    public void xform(CameraRayBuffer rays, int start, int end, boolean differentialRays) {
+        float g3 = Pbrt.gamma(3);
+        for (int i = start; i < end; ++i) {
+            rays.tMax[i] = xformRay(rays.ox, rays.oy, rays.oz, rays.dx, rays.dy, rays.dz, i, rays.tMax[i], g3);
+            if (differentialRays) {
+                xformRay(rays.rxOx, rays.rxOy, rays.rxOz, rays.rxDx, rays.rxDy, rays.rxDz, i, 0, g3);
+                xformRay(rays.ryOx, rays.ryOy, rays.ryOz, rays.ryDx, rays.ryDy, rays.ryDz, i, 0, g3);
+            } else {
+                xformPoint(rays.rxOx, rays.rxOy, rays.rxOz, i);
+                xformPoint(rays.ryOx, rays.ryOy, rays.ryOz, i);
+                xformVector(rays.rxDx, rays.rxDy, rays.rxDz, i);
+                xformVector(rays.ryDx, rays.ryDy, rays.ryDz, i);
+            }
+        }
+    }
+
+    // xform(Ray) on the origin and direction stored at index _i_; returns the adjusted _tMax_
+    private float xformRay(float[] px, float[] py, float[] pz, float[] vx, float[] vy, float[] vz, int i, float tMax, float g3) {
+        float x = px[i], y = py[i], z = pz[i];
+        float oex = (Math.abs(m.m[0][0] * x) + Math.abs(m.m[0][1] * y) +
+                Math.abs(m.m[0][2] * z) + Math.abs(m.m[0][3])) * g3;
+        float oey = (Math.abs(m.m[1][0] * x) + Math.abs(m.m[1][1] * y) +
+                Math.abs(m.m[1][2] * z) + Math.abs(m.m[1][3])) * g3;
+        float oez = (Math.abs(m.m[2][0] * x) + Math.abs(m.m[2][1] * y) +
+                Math.abs(m.m[2][2] * z) + Math.abs(m.m[2][3])) * g3;
+        xformPoint(px, py, pz, i);
+        xformVector(vx, vy, vz, i);
+        float dx = vx[i], dy = vy[i], dz = vz[i];
+        // Offset ray origin to edge of error bounds and compute _tMax_
+        float lengthSquared = dx * dx + dy * dy + dz * dz;
+        if (lengthSquared > 0) {
+            float dt = (Math.abs(dx) * oex + Math.abs(dy) * oey + Math.abs(dz) * oez) / lengthSquared;
+            px[i] += dx * dt;
+            py[i] += dy * dt;
+            pz[i] += dz * dt;
+            tMax -= dt;
+        }
+        return tMax;
+    }
+
+    private void xformPoint(float[] px, float[] py, float[] pz, int i) {
+        float x = px[i], y = py[i], z = pz[i];
+        float xp = m.m[0][0] * x + m.m[0][1] * y + m.m[0][2] * z + m.m[0][3];
+        float yp = m.m[1][0] * x + m.m[1][1] * y + m.m[1][2] * z + m.m[1][3];
+        float zp = m.m[2][0] * x + m.m[2][1] * y + m.m[2][2] * z + m.m[2][3];
+        float wp = m.m[3][0] * x + m.m[3][1] * y + m.m[3][2] * z + m.m[3][3];
+        if (wp != 1) {
+            float inv = 1.0f / wp;
+            xp = inv * xp;
+            yp = inv * yp;
+            zp = inv * zp;
+        }
+        px[i] = xp;
+        py[i] = yp;
+        pz[i] = zp;
+    }
+
+    private void xformVector(float[] vx, float[] vy, float[] vz, int i) {
+        float x = vx[i], y = vy[i], z = vz[i];
+        vx[i] = m.m[0][0] * x + m.m[0][1] * y + m.m[0][2] * z;
+        vy[i] = m.m[1][0] * x + m.m[1][1] * y + m.m[1][2] * z;
+        vz[i] = m.m[2][0] * x + m.m[2][1] * y + m.m[2][2] * z;
+    }
+
     public Bounds3f xform(Bounds3f b) {
         Bounds3f ret = new Bounds3f(xform(new Point3f(b.pMin.x, b.pMin.y, b.pMin.z)));
         ret = Bounds3f.Union(ret, xform(new Point3f(b.pMax.x, b.pMin.y, b.pMin.z)));
@@ -158,7 +275,8 @@ public class Transform {
     }
 
     public SurfaceInteraction xform(SurfaceInteraction si) {
-        SurfaceInteraction ret = new SurfaceInteraction();
+        // Every member of _ret_ is assigned below
+        SurfaceInteraction ret = SurfaceInteraction.AllocUninitialized();
         // Transform _p_ and _pError_ in _SurfaceInteraction_
         ret.p = xform(si.p);
         ret.pError = absError(si.p, si.pError);
@@ -15,22 +15,25 @@ public class TransformedPrimitive extends Primitive {
     // TransformedPrimitive Private Data
     private Primitive primitive;
     private AnimatedTransform PrimitiveToWorld;
+    // Motion bounds of the instance
+    private final Bounds3f worldBound;
 
     public TransformedPrimitive(Primitive primitive, AnimatedTransform PrimitiveToWorld) {
         this.primitive = primitive;
         this.PrimitiveToWorld = new AnimatedTransform(PrimitiveToWorld);
+        this.worldBound = this.PrimitiveToWorld.MotionBounds(primitive.WorldBound());
     }
 
     @Override
     public Bounds3f WorldBound() {
-        return PrimitiveToWorld.MotionBounds(primitive.WorldBound());
+        return worldBound;
     }
 
     @Override
     public SurfaceInteraction Intersect(Ray r) {
         // Compute _ray_ after transformation by _PrimitiveToWorld_
         Transform InterpolatedPrimToWorld = PrimitiveToWorld.Interpolate(r.time);
-        Ray ray = Transform.Inverse(InterpolatedPrimToWorld).xform(r);
+        Ray ray = PrimitiveToWorld.InterpolateInverse(r.time).xform(r);
         SurfaceInteraction isect = primitive.Intersect(ray);
         if (isect == null) return null;
         r.tMax = ray.tMax;
@@ -42,9 +45,20 @@ public class TransformedPrimitive extends Primitive {
     }
 
     @Override
-    public boolean IntersectP(Ray r) {
+    public boolean Intersect(Ray r, HitRecord hit) {
         Transform InterpolatedPrimToWorld = PrimitiveToWorld.Interpolate(r.time);
-        Transform InterpolatedWorldToPrim = Transform.Inverse(InterpolatedPrimToWorld);
+        Ray ray = PrimitiveToWorld.InterpolateInverse(r.time).xform(r);
+        if (!primitive.Intersect(ray, hit)) return false;
+        r.tMax = ray.tMax;
+        // The instance's hit is moved to world space when the record is finalized
+        if (!InterpolatedPrimToWorld.IsIdentity())
+            hit.AddTransform(InterpolatedPrimToWorld);
+        return true;
+    }
+
+    @Override
+    public boolean IntersectP(Ray r) {
+        Transform InterpolatedWorldToPrim = PrimitiveToWorld.InterpolateInverse(r.time);
         return primitive.IntersectP(InterpolatedWorldToPrim.xform(r));
     }
 
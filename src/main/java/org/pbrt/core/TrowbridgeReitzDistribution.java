@@ -17,6 +17,17 @@ public class TrowbridgeReitzDistribution extends MicrofacetDistribution {
         this.alphay = alphay;
     }
 
+    // Allocate from the calling thread's MemoryArena when one is active
+    public static TrowbridgeReitzDistribution Alloc(float alphax, float alphay, boolean samplevis) {
+        MemoryArena arena = MemoryArena.Active();
+        if (arena == null) return new TrowbridgeReitzDistribution(alphax, alphay, samplevis);
+        TrowbridgeReitzDistribution distrib = arena.Alloc(arenaPool);
+        distrib.alphax = alphax;
+        distrib.alphay = alphay;
+        distrib.sampleVisibleArea = samplevis;
+        return distrib;
+    }
+
     @Override
     public float D(Vector3f wh) {
         return 0;
@@ -137,5 +148,7 @@ public class TrowbridgeReitzDistribution extends MicrofacetDistribution {
         return Vector3f.Normalize(new Vector3f(-samp.slope_x, -samp.slope_y, 1));
     }
 
-    private final float alphax, alphay;
+    private float alphax, alphay;
+
+    private static final MemoryArena.Pool<TrowbridgeReitzDistribution> arenaPool = MemoryArena.NewPool(() -> new TrowbridgeReitzDistribution(1, 1, true));
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ public class UniformLightDistribution extends LightDistribution {
     public UniformLightDistribution(Scene scene) {
         float[] prob = new float[scene.lights.size()];
         for (int i = 0; i < prob.length; i++) prob[i] = 1;
-        distrib = new Distribution1D(prob);
+        distrib = new Distribution1D(prob, true);
     }
 
     @Override
@@ -45,10 +45,10 @@ public class BDPTIntegrator extends Integrator {
         // Partition the image into tiles
         Film film = camera.film;
         final Bounds2i sampleBounds = film.GetSampleBounds();
-        final Vector2i sampleExtent = sampleBounds.Diagonal();
-        final int tileSize = 16;
-        final int nXTiles = (sampleExtent.x + tileSize - 1) / tileSize;
-        final int nYTiles = (sampleExtent.y + tileSize - 1) / tileSize;
+        final int tileSize = tileSchedule.TileSize(sampleBounds.Diagonal());
+        final Point2i nTiles = TileSchedule.NumTiles(sampleBounds, tileSize);
+        final int nXTiles = nTiles.x;
+        final int nYTiles = nTiles.y;
 
         ProgressReporter reporter = new ProgressReporter(nXTiles * nYTiles, "Rendering");
 
@@ -61,7 +61,7 @@ public class BDPTIntegrator extends Integrator {
                     int t = depth + 2 - s;
                     if (t == 0 || (s == 1 && t == 1)) continue;
 
-                    String filename = String.format("bdpt_d%02i_s%02i_t%02i.exr", depth, s, t);
+                    String filename = String.format("bdpt_d%02d_s%02d_t%02d.exr", depth, s, t);
 
                     weightFilms[BufferIndex(s, t)] = new Film(film.fullResolution, new Bounds2f(new Point2f(0, 0), new Point2f(1, 1)),
                             BoxFilter.Create(new ParamSet()), film.diagonal * 1000, filename, 1, Pbrt.Infinity);
@@ -71,17 +71,20 @@ public class BDPTIntegrator extends Integrator {
 
         // Render and write the output image to disk
         if (scene.lights.size() > 0) {
+            // Subpath storage is reused by all the samples a thread takes
+            final ThreadLocal<Vertex.PathStorage> pathStorage =
+                    ThreadLocal.withInitial(() -> new Vertex.PathStorage(maxDepth + 2, maxDepth + 1));
 
             Consumer<Point2i> renderFunc = (Point2i tile) -> {
                 // Render a single tile using BDPT
                 int seed = tile.y * nXTiles + tile.x;
                 Sampler tileSampler = sampler.Clone(seed);
-                int x0 = sampleBounds.pMin.x + tile.x * tileSize;
-                int x1 = Math.min(x0 + tileSize, sampleBounds.pMax.x);
-                int y0 = sampleBounds.pMin.y + tile.y * tileSize;
-                int y1 = Math.min(y0 + tileSize, sampleBounds.pMax.y);
-                Bounds2i tileBounds = new Bounds2i(new Point2i(x0, y0), new Point2i(x1, y1));
+                Bounds2i tileBounds = TileSchedule.TileBounds(sampleBounds, tile, tileSize);
+                final Vertex.PathStorage paths = pathStorage.get();
+                final Vertex[] cameraVertices = paths.cameraVertices, lightVertices = paths.lightVertices;
                 Film.FilmTile filmTile = camera.film.GetFilmTile(tileBounds);
+                Film.SplatBuffer splats = film.AcquireSplatBuffer();
+                long nSamples = 0;
                 for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py++) {
                     for (int px = tileBounds.pMin.x; px < tileBounds.pMax.x; px++) {
                         Point2i pPixel = new Point2i(px, py);
@@ -93,10 +96,14 @@ public class BDPTIntegrator extends Integrator {
                             Point2f pFilm = (new Point2f(pPixel)).add(tileSampler.Get2D());
 
                             // Trace the camera subpath
-                            Vertex[] cameraVertices = new Vertex[maxDepth + 2];
-                            Vertex[] lightVertices = new Vertex[maxDepth + 1];
                             int nCamera = Vertex.GenerateCameraSubpath(scene, tileSampler, maxDepth + 2, camera,
                                     pFilm, cameraVertices);
+                            if (nCamera == 0) {
+                                // Vignetted samples carry no radiance
+                                filmTile.AddSample(pFilm, new Spectrum(0), 1);
+                                ++nSamples;
+                                continue;
+                            }
                             // Get a distribution for sampling the light at the
                             // start of the light subpath. Because the light path
                             // follows multiple bounces, basing the sampling
@@ -119,35 +126,58 @@ public class BDPTIntegrator extends Integrator {
                                         continue;
                                     // Execute the $(s, t)$ connection strategy and
                                     // update _L_
-                                    Point2f[] pFilmNew = new Point2f[1];
-                                    pFilmNew[0] = new Point2f(pFilm);
-                                    float[] misWeight = new float[1];
-                                    Spectrum Lpath = Vertex.ConnectBDPT(scene, lightVertices, cameraVertices, s, t,
-                                            lightDistr, lightToIndex, camera, tileSampler, pFilmNew, misWeight);
+                                    Spectrum Lpath = Vertex.ConnectBDPT(scene, paths, s, t,
+                                            lightDistr, lightToIndex, camera, tileSampler);
+                                    Point2f pFilmNew = (t == 1) ? paths.pRaster : pFilm;
                                     //VLOG(2) << "Connect bdpt s: " << s <<", t: " << t << ", Lpath: " << Lpath << ", misWeight: " << misWeight;
                                     if (visualizeStrategies || visualizeWeights) {
                                         Spectrum value = new Spectrum(0);
                                         if (visualizeStrategies)
-                                            value = (misWeight[0] == 0) ? new Spectrum(0) : Lpath.scale(1 / misWeight[0]);
+                                            value = (paths.misWeight == 0) ? new Spectrum(0) : Lpath.scale(1 / paths.misWeight);
                                         if (visualizeWeights) value = Lpath;
-                                        weightFilms[BufferIndex(s, t)].AddSplat(pFilmNew[0], value);
+                                        weightFilms[BufferIndex(s, t)].AddSplat(pFilmNew, value);
                                     }
                                     if (t != 1)
                                         L = L.add(Lpath);
                                     else
-                                        film.AddSplat(pFilmNew[0], Lpath);
+                                        splats.AddSplat(pFilmNew, Lpath);
                                 }
                             }
                             //VLOG(2) << "Add film sample pFilm: " << pFilm << ", L: " << L << ", (y: " << L.y() << ")";
                             filmTile.AddSample(pFilm, L, 1);
+                            ++nSamples;
 
                         } while (tileSampler.StartNextSample());
                     }
                 }
                 film.MergeFilmTile(filmTile);
+                film.ReleaseSplatBuffer(splats);
+                Metrics.AddSamples(nSamples);
+                Metrics.TileCompleted();
                 reporter.Update(1);
             };
-            Parallel.ParallelFor2D(renderFunc, new Point2i(nXTiles, nYTiles));
+            // Estimate tile costs from the subpaths alone; connections would splat to the film
+            Consumer<Point2i> estimateFunc = (Point2i tile) -> {
+                Sampler tileSampler = sampler.Clone(nXTiles * nYTiles + tile.y * nXTiles + tile.x);
+                Bounds2i tileBounds = TileSchedule.TileBounds(sampleBounds, tile, tileSize);
+                int stride = tileSchedule.prePassStride;
+                final Vertex.PathStorage paths = pathStorage.get();
+                final Vertex[] cameraVertices = paths.cameraVertices, lightVertices = paths.lightVertices;
+                for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py += stride) {
+                    for (int px = tileBounds.pMin.x; px < tileBounds.pMax.x; px += stride) {
+                        Point2i pPixel = new Point2i(px, py);
+                        tileSampler.StartPixel(pPixel);
+                        if (!Bounds2i.InsideExclusive(pPixel, pixelBounds))
+                            continue;
+                        Point2f pFilm = (new Point2f(pPixel)).add(tileSampler.Get2D());
+                        Vertex.GenerateCameraSubpath(scene, tileSampler, maxDepth + 2, camera, pFilm, cameraVertices);
+                        Vertex.GenerateLightSubpath(scene, tileSampler, maxDepth + 1, cameraVertices[0].time(),
+                                lightDistribution.Lookup(cameraVertices[0].p()), lightToIndex, lightVertices);
+                    }
+                }
+            };
+            final Point2i[] tiles = tileSchedule.Schedule(nTiles, estimateFunc);
+            Parallel.ParallelFor((int i) -> renderFunc.accept(tiles[i]), tiles.length, 1);
 
             reporter.Done();
         }
@@ -47,7 +47,7 @@ public class DirectLightingIntegrator extends SamplerIntegrator {
             if (strategy == LightStrategy.UniformSampleAll)
                 L = L.add(UniformSampleAllLights(isect, scene, sampler, nLightSamples, false));
             else
-                L = L.add(UniformSampleOneLight(isect, scene, sampler, false, null));
+                L = L.add(UniformSampleOneLight(isect, scene, sampler, false, (Distribution1D) null));
         }
         if (depth + 1 < maxDepth) {
             Vector3f wi;
@@ -46,4 +46,53 @@ public class EndpointInteraction extends Interaction {
         super(ray.at(1), ray.time, new MediumInterface(ray.medium));
         this.n = new Normal3f(ray.d.negate());
     }
-}
\ No newline at end of file
+
+    // In-place counterparts of the constructors above, used by vertices that are
+    // reinitialized for every sample
+    void SetCamera(Camera camera, Ray ray) {
+        SetOrigin(ray.o, ray.time, ray.medium);
+        this.camera = camera;
+        this.light = null;
+    }
+    void SetCamera(Interaction it, Camera camera) {
+        CopyFrom(it);
+        this.camera = camera;
+        this.light = null;
+    }
+    void SetLight(Light light, Ray ray, Normal3f nl) {
+        SetOrigin(ray.o, ray.time, ray.medium);
+        n.x = nl.x; n.y = nl.y; n.z = nl.z;
+        this.light = light;
+        this.camera = null;
+    }
+    void SetLight(Interaction it, Light light) {
+        CopyFrom(it);
+        this.light = light;
+        this.camera = null;
+    }
+    void SetEscaped(Ray ray) {
+        SetOrigin(ray.o, ray.time, ray.medium);
+        p.x += ray.d.x; p.y += ray.d.y; p.z += ray.d.z;
+        n.x = -ray.d.x; n.y = -ray.d.y; n.z = -ray.d.z;
+        this.light = null;
+        this.camera = null;
+    }
+
+    private void SetOrigin(Point3f o, float time, Medium medium) {
+        p.x = o.x; p.y = o.y; p.z = o.z;
+        this.time = time;
+        pError.x = pError.y = pError.z = 0;
+        wo.x = wo.y = wo.z = 0;
+        n.x = n.y = n.z = 0;
+        mediumInterface.inside = mediumInterface.outside = medium;
+    }
+    private void CopyFrom(Interaction it) {
+        p.x = it.p.x; p.y = it.p.y; p.z = it.p.z;
+        this.time = it.time;
+        pError.x = it.pError.x; pError.y = it.pError.y; pError.z = it.pError.z;
+        wo.x = it.wo.x; wo.y = it.wo.y; wo.z = it.wo.z;
+        n.x = it.n.x; n.y = it.n.y; n.z = it.n.z;
+        mediumInterface.inside = (it.mediumInterface != null) ? it.mediumInterface.inside : null;
+        mediumInterface.outside = (it.mediumInterface != null) ? it.mediumInterface.outside : null;
+    }
+}
@@ -13,7 +13,7 @@ package org.pbrt.integrators;
 import org.pbrt.core.*;
 
 import java.util.HashMap;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class MLTIntegrator extends Integrator {
 
@@ -48,18 +48,20 @@ public class MLTIntegrator extends Integrator {
         // Generate bootstrap samples and compute normalization constant $b$
         int nBootstrapSamples = nBootstrap * (maxDepth + 1);
         float[] bootstrapWeights = new float[nBootstrapSamples];
+        // Subpath storage is reused by all the paths a thread traces
+        final ThreadLocal<Vertex.PathStorage> pathStorage =
+                ThreadLocal.withInitial(() -> new Vertex.PathStorage(maxDepth + 2, maxDepth + 1));
         if (scene.lights.size() > 0) {
             ProgressReporter progress = new ProgressReporter(nBootstrap / 256, "Generating bootstrap paths");
             int chunkSize = Pbrt.Clamp(nBootstrap / 128, 1, 8192);
 
-            Consumer<Long> bootFunc = (Long li) -> {
-                int i = Math.toIntExact(li);
+            IntConsumer bootFunc = (int i) -> {
                 // Generate _i_th bootstrap sample
+                Vertex.PathStorage paths = pathStorage.get();
                 for (int depth = 0; depth <= maxDepth; ++depth) {
                     int rngIndex = i * (maxDepth + 1) + depth;
                     MLTSampler sampler = new MLTSampler(mutationsPerPixel, rngIndex, sigma, largeStepProbability, nSampleStreams);
-                    Point2f[] pRaster = new Point2f[1];
-                    bootstrapWeights[rngIndex] = L(scene, lightDistr, lightToIndex, sampler, depth, pRaster).y();
+                    bootstrapWeights[rngIndex] = L(scene, lightDistr, lightToIndex, sampler, depth, paths).y();
                 }
                 if ((i + 1 % 256) == 0) progress.Update(1);
             };
@@ -76,8 +78,7 @@ public class MLTIntegrator extends Integrator {
             final int progressFrequency = 32768;
             ProgressReporter progress = new ProgressReporter(nTotalMutations / progressFrequency, "Rendering");
 
-            Consumer<Long> renderFunc = (Long li) -> {
-                int i = Math.toIntExact(li);
+            IntConsumer renderFunc = (int i) -> {
 
                 long nChainMutations = Math.min((i + 1) * nTotalMutations / nChains, nTotalMutations) - i * nTotalMutations / nChains;
                 // Follow {i}th Markov chain for _nChainMutations_
@@ -90,27 +91,30 @@ public class MLTIntegrator extends Integrator {
 
                 // Initialize local variables for selected state
                 MLTSampler sampler = new MLTSampler(mutationsPerPixel, bootstrapIndex, sigma, largeStepProbability, nSampleStreams);
-                Point2f[] pCurrent = new Point2f[1];
-                pCurrent[0] = new Point2f();
-                Spectrum LCurrent = L(scene, lightDistr, lightToIndex, sampler, depth, pCurrent);
+                Vertex.PathStorage paths = pathStorage.get();
+                Spectrum LCurrent = L(scene, lightDistr, lightToIndex, sampler, depth, paths);
+                Point2f pCurrent = new Point2f(paths.pRaster), pProposed = new Point2f();
 
                 // Run the Markov chain for _nChainMutations_ steps
+                Film.SplatBuffer splats = film.AcquireSplatBuffer();
                 for (long j = 0; j < nChainMutations; ++j) {
                     sampler.StartIteration();
-                    Point2f[] pProposed = new Point2f[1];
-                    pProposed[0] = new Point2f();
-                    Spectrum LProposed = L(scene, lightDistr, lightToIndex, sampler, depth, pProposed);
+                    Spectrum LProposed = L(scene, lightDistr, lightToIndex, sampler, depth, paths);
+                    pProposed.x = paths.pRaster.x;
+                    pProposed.y = paths.pRaster.y;
                     // Compute acceptance probability for proposed sample
                     float accept = Math.min(1, LProposed.y() / LCurrent.y());
 
                     // Splat both current and proposed samples to _film_
                     if (accept > 0)
-                        film.AddSplat(pProposed[0], (LProposed.scale(accept)).scale(1 / LProposed.y()));
-                    film.AddSplat(pCurrent[0], (LCurrent.scale(1 - accept)).scale(1 / LCurrent.y()));
+                        splats.AddSplat(pProposed, (LProposed.scale(accept)).scale(1 / LProposed.y()));
+                    splats.AddSplat(pCurrent, (LCurrent.scale(1 - accept)).scale(1 / LCurrent.y()));
 
                     // Accept or reject the proposal
                     if (rng.UniformFloat() < accept) {
+                        Point2f swap = pCurrent;
                         pCurrent = pProposed;
+                        pProposed = swap;
                         LCurrent = LProposed;
                         sampler.Accept();
                         acceptedMutationsPerc.incrementNumer(1); // ++acceptedMutations;
@@ -120,6 +124,7 @@ public class MLTIntegrator extends Integrator {
                     if ((i * nTotalMutations / nChains + j) % progressFrequency == 0)
                         progress.Update(1);
                 }
+                film.ReleaseSplatBuffer(splats);
             };
             Parallel.ParallelFor(renderFunc, nChains, 1);
             progress.Done();
@@ -129,7 +134,10 @@ public class MLTIntegrator extends Integrator {
         camera.film.WriteImage(b / mutationsPerPixel);
     }
 
-    public Spectrum L(Scene scene, Distribution1D lightDistr, HashMap<Light, Integer> lightToIndex, MLTSampler sampler, int depth, Point2f[] pRaster) {
+    // Radiance along the path of the given _depth_ that _sampler_'s current sample vector maps to; its
+    // raster position is left in _paths_.pRaster
+    public Spectrum L(Scene scene, Distribution1D lightDistr, HashMap<Light, Integer> lightToIndex, MLTSampler sampler, int depth,
+                      Vertex.PathStorage paths) {
         sampler.StartStream(cameraStreamIndex);
         // Determine the number of available strategies and pick a specific one
         int s, t, nStrategies;
@@ -144,21 +152,23 @@ public class MLTIntegrator extends Integrator {
         }
 
         // Generate a camera subpath with exactly _t_ vertices
-        Vertex[] cameraVertices = new Vertex[t];
+        Vertex[] cameraVertices = paths.cameraVertices;
         Bounds2f sampleBounds = new Bounds2f(camera.film.GetSampleBounds());
-        pRaster[0] = sampleBounds.Lerp(sampler.Get2D());
-        if (Vertex.GenerateCameraSubpath(scene, sampler, t, camera, pRaster[0], cameraVertices) != t)
+        Point2f pRaster = sampleBounds.Lerp(sampler.Get2D());
+        paths.pRaster.x = pRaster.x;
+        paths.pRaster.y = pRaster.y;
+        if (Vertex.GenerateCameraSubpath(scene, sampler, t, camera, pRaster, cameraVertices) != t)
         return new Spectrum(0);
 
         // Generate a light subpath with exactly _s_ vertices
         sampler.StartStream(lightStreamIndex);
-        Vertex[] lightVertices = new Vertex[s];
+        Vertex[] lightVertices = paths.lightVertices;
         if (Vertex.GenerateLightSubpath(scene, sampler, s, cameraVertices[0].time(), lightDistr, lightToIndex, lightVertices) != s)
         return new Spectrum(0);
 
         // Execute connection strategy and return the radiance estimate
         sampler.StartStream(connectionStreamIndex);
-        return Vertex.ConnectBDPT(scene, lightVertices, cameraVertices, s, t, lightDistr, lightToIndex, camera, sampler, pRaster, null).scale(nStrategies);
+        return Vertex.ConnectBDPT(scene, paths, s, t, lightDistr, lightToIndex, camera, sampler).scale(nStrategies);
     }
 
     public static MLTIntegrator Create(ParamSet params, Camera camera) {
@@ -168,7 +178,7 @@ public class MLTIntegrator extends Integrator {
         int mutationsPerPixel = params.FindOneInt("mutationsperpixel", 100);
         float largeStepProbability = params.FindOneFloat("largestepprobability", 0.3f);
         float sigma = params.FindOneFloat("sigma", .01f);
-        if (Pbrt.options.QuickRender) {
+        if (Pbrt.GetOptions().QuickRender) {
             mutationsPerPixel = Math.max(1, mutationsPerPixel / 16);
             nBootstrap = Math.max(1, nBootstrap / 16);
         }
@@ -12,7 +12,10 @@ package org.pbrt.integrators;
 import org.pbrt.core.*;
 import org.pbrt.core.PBrtTLogger;
 
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class MLTSampler extends Sampler {
 
@@ -28,12 +31,19 @@ public class MLTSampler extends Sampler {
     public float Get1D() {
         int index = GetNextIndex();
         EnsureReady(index);
-        return X.get(index).value;
+        return value[index];
     }
 
     @Override
     public Point2f Get2D() {
-        return new Point2f(Get1D(), Get1D());
+        float x = Get1D();
+        return new Point2f(x, Get1D());
+    }
+
+    @Override
+    public void Get2D(float[] out) {
+        out[0] = Get1D();
+        out[1] = Get1D();
     }
 
     @Override
@@ -49,11 +59,16 @@ public class MLTSampler extends Sampler {
 
     public void Accept() {
         if (largeStep) lastLargeStepIteration = currentIteration;
+        nModified = 0;
     }
     public void Reject() {
-        for (PrimarySample Xi : X) {
-            if (Xi.lastModificationIteration == currentIteration) Xi.Restore();
+        // Only the dimensions mutated in this iteration need restoring
+        for (int i = 0; i < nModified; ++i) {
+            int index = modified[i];
+            value[index] = valueBackup[index];
+            lastModificationIteration[index] = modifyBackup[index];
         }
+        nModified = 0;
         --currentIteration;
     }
     public void StartStream(int index) {
@@ -64,42 +79,100 @@ public class MLTSampler extends Sampler {
 
     public int GetNextIndex() { return streamIndex + streamCount * sampleIndex++; }
 
-    private static class PrimarySample {
-        public float value = 0;
-        // PrimarySample Public Methods
-        public void Backup() {
-            valueBackup = value;
-            modifyBackup = lastModificationIteration;
+    // Snapshot of a chain's sampler: its position in the random sequence and its current
+    // sample vector. Written out with Write() it allows long renders to be resumed.
+    public static class State {
+        private long rngState, currentIteration, lastLargeStepIteration;
+        private boolean largeStep;
+        private float[] value;
+        private long[] lastModificationIteration;
+
+        public void Write(DataOutput out) throws IOException {
+            out.writeLong(rngState);
+            out.writeLong(currentIteration);
+            out.writeLong(lastLargeStepIteration);
+            out.writeBoolean(largeStep);
+            out.writeInt(value.length);
+            for (int i = 0; i < value.length; ++i) {
+                out.writeFloat(value[i]);
+                out.writeLong(lastModificationIteration[i]);
+            }
         }
-        public void Restore() {
-            value = valueBackup;
-            lastModificationIteration = modifyBackup;
+
+        public static State Read(DataInput in) throws IOException {
+            State state = new State();
+            state.rngState = in.readLong();
+            state.currentIteration = in.readLong();
+            state.lastLargeStepIteration = in.readLong();
+            state.largeStep = in.readBoolean();
+            int n = in.readInt();
+            state.value = new float[n];
+            state.lastModificationIteration = new long[n];
+            for (int i = 0; i < n; ++i) {
+                state.value[i] = in.readFloat();
+                state.lastModificationIteration[i] = in.readLong();
+            }
+            return state;
         }
+    }
+
+    // Take a snapshot between iterations, i.e. after Accept() or Reject(). MLTIntegrator
+    // doesn't checkpoint its chains yet: resuming a render would also need the film's
+    // splats and each chain's current path and contribution.
+    public State Save() {
+        State state = new State();
+        state.rngState = rng.GetState();
+        state.currentIteration = currentIteration;
+        state.lastLargeStepIteration = lastLargeStepIteration;
+        state.largeStep = largeStep;
+        state.value = Arrays.copyOf(value, size);
+        state.lastModificationIteration = Arrays.copyOf(lastModificationIteration, size);
+        return state;
+    }
+
+    public void Restore(State state) {
+        rng.SetState(state.rngState);
+        currentIteration = state.currentIteration;
+        lastLargeStepIteration = state.lastLargeStepIteration;
+        largeStep = state.largeStep;
+        size = 0;
+        Reserve(state.value.length);
+        size = state.value.length;
+        System.arraycopy(state.value, 0, value, 0, size);
+        System.arraycopy(state.lastModificationIteration, 0, lastModificationIteration, 0, size);
+        nModified = 0;
+    }
 
-        // PrimarySample Public Data
-        public long lastModificationIteration = 0;
-        public float valueBackup = 0;
-        public long modifyBackup = 0;
+    private void Reserve(int n) {
+        if (n <= value.length) return;
+        int capacity = Math.max(n, 2 * value.length);
+        value = Arrays.copyOf(value, capacity);
+        valueBackup = Arrays.copyOf(valueBackup, capacity);
+        lastModificationIteration = Arrays.copyOf(lastModificationIteration, capacity);
+        modifyBackup = Arrays.copyOf(modifyBackup, capacity);
+        modified = Arrays.copyOf(modified, capacity);
     }
 
     private void EnsureReady(int index) {    // Enlarge _MLTSampler::X_ if necessary and get current $\VEC{X}_i$
-        while (index >= X.size()) {
-            X.add(new PrimarySample());
+        if (index >= size) {
+            Reserve(index + 1);
+            size = index + 1;
         }
-        PrimarySample Xi = X.get(index);
 
         // Reset $\VEC{X}_i$ if a large step took place in the meantime
-        if (Xi.lastModificationIteration < lastLargeStepIteration) {
-            Xi.value = rng.UniformFloat();
-            Xi.lastModificationIteration = lastLargeStepIteration;
+        if (lastModificationIteration[index] < lastLargeStepIteration) {
+            value[index] = rng.UniformFloat();
+            lastModificationIteration[index] = lastLargeStepIteration;
         }
 
         // Apply remaining sequence of mutations to _sample_
-        Xi.Backup();
+        if (lastModificationIteration[index] != currentIteration) modified[nModified++] = index;
+        valueBackup[index] = value[index];
+        modifyBackup[index] = lastModificationIteration[index];
         if (largeStep) {
-            Xi.value = rng.UniformFloat();
+            value[index] = rng.UniformFloat();
         } else {
-            long nSmall = currentIteration - Xi.lastModificationIteration;
+            long nSmall = currentIteration - lastModificationIteration[index];
             // Apply _nSmall_ small step mutations
 
             // Sample the standard normal distribution $N(0, 1)$
@@ -108,18 +181,24 @@ public class MLTSampler extends Sampler {
             // Compute the effective standard deviation and apply perturbation to
             // $\VEC{X}_i$
             float effSigma = sigma * (float)Math.sqrt((float)nSmall);
-            Xi.value += normalSample * effSigma;
-            Xi.value -= Math.floor(Xi.value);
+            value[index] += normalSample * effSigma;
+            value[index] -= Math.floor(value[index]);
         }
-        Xi.lastModificationIteration = currentIteration;
+        lastModificationIteration[index] = currentIteration;
     }
 
     private RNG rng;
     private final float sigma, largeStepProbability;
     private final int streamCount;
-    private ArrayList<PrimarySample> X;
+    // Primary sample space vector $\VEC{X}$, its backups for Reject() and the dimensions
+    // modified in the current iteration
+    private int size = 0;
+    private float[] value = new float[0], valueBackup = new float[0];
+    private long[] lastModificationIteration = new long[0], modifyBackup = new long[0];
+    private int[] modified = new int[0];
+    private int nModified = 0;
     private long currentIteration = 0;
     private boolean largeStep = true;
     private long lastLargeStepIteration = 0;
     private int streamIndex, sampleIndex;
-}
\ No newline at end of file
+}
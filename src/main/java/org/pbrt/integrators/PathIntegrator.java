@@ -16,7 +16,12 @@ import org.pbrt.core.PBrtTLogger;
 public class PathIntegrator extends SamplerIntegrator{
 
     public PathIntegrator(int maxDepth, Camera camera, Sampler sampler, Bounds2i pixelBounds, float rrThreshold, String lightSampleStrategy) {
+        this(maxDepth, camera, sampler, pixelBounds, rrThreshold, lightSampleStrategy, 16);
+    }
+
+    public PathIntegrator(int maxDepth, Camera camera, Sampler sampler, Bounds2i pixelBounds, float rrThreshold, String lightSampleStrategy, int lightPrePassStride) {
         super(camera, sampler, pixelBounds);
+        this.lightPrePassStride = lightPrePassStride;
         this.maxDepth = maxDepth;
         this.rrThreshold = rrThreshold;
         this.lightSampleStrategy = lightSampleStrategy;
@@ -69,13 +74,11 @@ public class PathIntegrator extends SamplerIntegrator{
                 continue;
             }
 
-            final Distribution1D distrib = lightDistribution.Lookup(isect.p);
-
             // Sample illumination from lights to find path contribution.
             // (But skip this for perfectly specular BSDFs.)
             if (isect.bsdf.NumComponents(BxDF.BSDF_ALL & ~BxDF.BSDF_SPECULAR) > 0) {
                 pathStats.incrementDenom(1); // totalPaths
-                Spectrum Ld = beta.multiply(UniformSampleOneLight(isect, scene, sampler, false, distrib));
+                Spectrum Ld = beta.multiply(UniformSampleOneLight(isect, scene, sampler, false, lightDistribution));
                 //Api.logger.trace("Sampled direct lighting Ld = %s", Ld.toString());
                 if (Ld.isBlack()) pathStats.incrementNumer(1); // zeroRadiancePaths
                 assert (Ld.y() >= 0);
@@ -120,7 +123,7 @@ public class PathIntegrator extends SamplerIntegrator{
                 beta = beta.multiply(S.scale(1/ pdf));
 
                 // Account for the direct subsurface scattering component
-                L = L.add(beta.multiply(UniformSampleOneLight(pi, scene, sampler, false, lightDistribution.Lookup(pi.p))));
+                L = L.add(beta.multiply(UniformSampleOneLight(pi, scene, sampler, false, lightDistribution)));
 
                 // Account for the indirect subsurface scattering component
                 BxDF.BxDFSample bxsample = pi.bsdf.Sample_f(pi.wo, sampler.Get2D(), BxDF.BSDF_ALL);
@@ -152,7 +155,7 @@ public class PathIntegrator extends SamplerIntegrator{
 
     public void Preprocess(Scene scene, Sampler sampler) {
         lightDistribution = LightDistribution.CreateLightSampleDistribution(lightSampleStrategy, scene);
-
+        lightDistribution.Prepopulate(camera, pixelBounds, lightPrePassStride);
     }
 
     public static PathIntegrator Create(ParamSet params, Sampler sampler, Camera camera) {
@@ -172,12 +175,15 @@ public class PathIntegrator extends SamplerIntegrator{
         }
         float rrThreshold = params.FindOneFloat("rrthreshold", 1);
         String lightStrategy = params.FindOneString("lightsamplestrategy", "spatial");
-        return new PathIntegrator(maxDepth, camera, sampler, pixelBounds, rrThreshold, lightStrategy);
+        // Pixel spacing of the rays that find the light distributions to build before rendering; 0 disables
+        int lightPrePass = params.FindOneInt("lightprepass", 16);
+        return new PathIntegrator(maxDepth, camera, sampler, pixelBounds, rrThreshold, lightStrategy, lightPrePass);
     }
 
     private final int maxDepth;
     private final float rrThreshold;
     private final String lightSampleStrategy;
+    private final int lightPrePassStride;
     private LightDistribution lightDistribution;
 
     private static Stats.Percent pathStats = new Stats.Percent("Integrator/Zero-radiance paths");
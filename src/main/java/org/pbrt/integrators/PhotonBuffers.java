@@ -0,0 +1,99 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.integrators;
+
+import org.pbrt.core.Spectrum;
+
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Photon flux deposited during an SPPM pass. Threads deposit into buffers
+// of their own so that the deposits don't contend, and the pixel update sums
+// the buffers. A buffer holds (Spectrum.nSamples + 1) values per pixel, so
+// the number of buffers is capped to keep them within _maxBytes_; when they
+// are all in use, Acquire() waits for one to be released.
+public class PhotonBuffers {
+
+    public PhotonBuffers(int nPixels, int nThreads, long maxBytes) {
+        this.nPixels = nPixels;
+        long bufferBytes = 4L * (Spectrum.nSamples + 1) * nPixels;
+        maxBuffers = (int)Math.max(1, Math.min(nThreads, maxBytes / bufferBytes));
+    }
+
+    // A buffer for the calling thread's exclusive use until it is released
+    public Buffer Acquire() {
+        Buffer buffer = free.poll();
+        if (buffer != null) return buffer;
+        synchronized (buffers) {
+            if (buffers.size() < maxBuffers) {
+                buffer = new Buffer(nPixels);
+                buffers.add(buffer);
+                return buffer;
+            }
+        }
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void Release(Buffer buffer) {
+        free.add(buffer);
+    }
+
+    // Add the flux deposited for _pixelIndex_ in all buffers to _Phi_, clear
+    // it and return the number of photons. No buffer may be in use.
+    public int Gather(int pixelIndex, Spectrum Phi) {
+        int M = 0;
+        for (Buffer buffer : buffers) {
+            if (buffer.M[pixelIndex] == 0) continue;
+            M += buffer.M[pixelIndex];
+            buffer.M[pixelIndex] = 0;
+            for (int j = 0; j < Spectrum.nSamples; ++j) {
+                Phi.set(j, Phi.at(j) + buffer.Phi[Spectrum.nSamples * pixelIndex + j]);
+                buffer.Phi[Spectrum.nSamples * pixelIndex + j] = 0;
+            }
+        }
+        return M;
+    }
+
+    public int MaxBuffers() { return maxBuffers; }
+
+    public long MemoryBytes() {
+        synchronized (buffers) {
+            return 4L * (Spectrum.nSamples + 1) * nPixels * buffers.size();
+        }
+    }
+
+    // The summed flux (Spectrum.nSamples values per pixel) and photon count
+    // of each pixel deposited by one thread at a time
+    public static class Buffer {
+        Buffer(int nPixels) {
+            Phi = new float[Spectrum.nSamples * nPixels];
+            M = new int[nPixels];
+        }
+
+        public void Add(int pixelIndex, Spectrum flux) {
+            for (int i = 0; i < Spectrum.nSamples; ++i)
+                Phi[Spectrum.nSamples * pixelIndex + i] += flux.at(i);
+            M[pixelIndex]++;
+        }
+
+        final float[] Phi;
+        final int[] M;
+    }
+
+    private final int nPixels;
+    private final int maxBuffers;
+    private final ArrayList<Buffer> buffers = new ArrayList<>();
+    private final LinkedBlockingQueue<Buffer> free = new LinkedBlockingQueue<>();
+}
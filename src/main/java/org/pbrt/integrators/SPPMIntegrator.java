@@ -13,9 +13,7 @@ package org.pbrt.integrators;
 import org.pbrt.core.*;
 import org.pbrt.samplers.HaltonSampler;
 
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class SPPMIntegrator extends Integrator {
 
@@ -35,7 +33,10 @@ public class SPPMIntegrator extends Integrator {
         Bounds2i pixelBounds = camera.film.croppedPixelBounds;
         int nPixels = pixelBounds.Area();
         SPPMPixel[] pixels = new SPPMPixel[nPixels];
-        for (int i = 0; i < nPixels; ++i) pixels[i].radius = initialSearchRadius;
+        for (int i = 0; i < nPixels; ++i) {
+            pixels[i] = new SPPMPixel();
+            pixels[i].radius = initialSearchRadius;
+        }
         final float invSqrtSPP = 1 / (float)Math.sqrt(nIterations);
         pixelMemoryBytes.increment(nPixels * SPPMPixel.sizeof());
         // Compute _lightDistr_ for sampling lights proportional to power
@@ -49,20 +50,22 @@ public class SPPMIntegrator extends Integrator {
         final int tileSize = 16;
         Point2i nTiles = new Point2i((pixelExtent.x + tileSize - 1) / tileSize, (pixelExtent.y + tileSize - 1) / tileSize);
         ProgressReporter progress = new ProgressReporter(2 * nIterations, "Rendering");
+        VisiblePointGrid grid = new VisiblePointGrid(nPixels);
+        PhotonBuffers photonBuffers = new PhotonBuffers(nPixels, Parallel.MaxThreadIndex(), maxPhotonBufferBytes);
         for (int iter = 0; iter < nIterations; ++iter) {
             // Generate SPPM visible points
             //std::vector<MemoryArena> perThreadArenas(MaxThreadIndex());
             {
                 final int localIter = iter;
-                Consumer<Point2i> visFunc = (Point2i tile) -> {
-                    // Follow camera paths for _tile_ in image for SPPM
-                    int tileIndex = tile.y * nTiles.x + tile.x;
+                Parallel.Int2Consumer visFunc = (int tileX, int tileY) -> {
+                    // Follow camera paths for tile (_tileX_, _tileY_) in image for SPPM
+                    int tileIndex = tileY * nTiles.x + tileX;
                     Sampler tileSampler = sampler.Clone(tileIndex);
 
                     // Compute _tileBounds_ for SPPM tile
-                    int x0 = pixelBounds.pMin.x + tile.x * tileSize;
+                    int x0 = pixelBounds.pMin.x + tileX * tileSize;
                     int x1 = Math.min(x0 + tileSize, pixelBounds.pMax.x);
-                    int y0 = pixelBounds.pMin.y + tile.y * tileSize;
+                    int y0 = pixelBounds.pMin.y + tileY * tileSize;
                     int y1 = Math.min(y0 + tileSize, pixelBounds.pMax.y);
                     Bounds2i tileBounds = new Bounds2i(new Point2i(x0, y0), new Point2i(x1, y1));
                     for (int py = tileBounds.pMin.y; py < tileBounds.pMax.y; py++) {
@@ -75,6 +78,8 @@ public class SPPMIntegrator extends Integrator {
                             // Generate camera ray for pixel for SPPM
                             Camera.CameraSample cameraSample = tileSampler.GetCameraSample(pPixel);
                             Camera.CameraRayDiff camRay = camera.GenerateRayDifferential(cameraSample);
+                            // Vignetted samples have no ray
+                            if (camRay == null) continue;
                             RayDifferential ray = camRay.rd;
                             Spectrum beta = new Spectrum(camRay.weight);
                             ray.ScaleDifferentials(invSqrtSPP);
@@ -112,7 +117,7 @@ public class SPPMIntegrator extends Integrator {
                                 Vector3f wo = ray.d.negate();
                                 if (depth == 0 || specularBounce)
                                     pixel.Ld = pixel.Ld.add(beta.multiply(isect.Le(wo)));
-                                pixel.Ld = pixel.Ld.add(beta.multiply(SamplerIntegrator.UniformSampleOneLight(isect, scene, tileSampler, false, null)));
+                                pixel.Ld = pixel.Ld.add(beta.multiply(SamplerIntegrator.UniformSampleOneLight(isect, scene, tileSampler, false, (Distribution1D) null)));
 
                                 // Possibly create visible point and end camera path
                                 boolean isDiffuse = bsdf.NumComponents(BxDF.BSDF_DIFFUSE | BxDF.BSDF_REFLECTION | BxDF.BSDF_TRANSMISSION) > 0;
@@ -144,77 +149,23 @@ public class SPPMIntegrator extends Integrator {
                     }
                 };
 
-                Parallel.ParallelFor2D(visFunc, nTiles);
+                Parallel.ParallelFor2D(visFunc, nTiles.x, nTiles.y);
             }
             progress.Update(1L);
 
             // Create grid of all SPPM visible points
-            int[] gridRes = new int[3];
-            Bounds3f gridBounds = new Bounds3f();
-            // Allocate grid for SPPM visible points
-            final int hashSize = nPixels;
-            AtomicReference<SPPMPixelListNode>[] grid = new AtomicReference[hashSize];
-            {
-                // Compute grid bounds for SPPM visible points
-                float maxRadius = 0;
-                for (int i = 0; i < nPixels; ++i) {
-                    final SPPMPixel pixel = pixels[i];
-                    if (pixel.vp.beta.isBlack()) continue;
-                    Bounds3f vpBound = Bounds3f.Expand(new Bounds3f(pixel.vp.p), pixel.radius);
-                    gridBounds = Bounds3f.Union(gridBounds, vpBound);
-                    maxRadius = Math.max(maxRadius, pixel.radius);
-                }
-
-                // Compute resolution of SPPM grid in each dimension
-                Vector3f diag = gridBounds.Diagonal();
-                float maxDiag = Vector3f.MaxComponent(diag);
-                int baseGridRes = (int)(maxDiag / maxRadius);
-                assert (baseGridRes > 0);
-                for (int i = 0; i < 3; ++i)
-                    gridRes[i] = Math.max((int)(baseGridRes * diag.at(i) / maxDiag), 1);
-
-                final Bounds3f localGridBounds = gridBounds;
-
-                // Add visible points to SPPM grid
-                Consumer<Long> sumFunc = (Long li) -> {
-                    int pixelIndex = Math.toIntExact(li);
-                    //MemoryArena &arena = perThreadArenas[ThreadIndex];
-                    SPPMPixel pixel = pixels[pixelIndex];
-                    if (!pixel.vp.beta.isBlack()) {
-                        // Add pixel's visible point to applicable grid cells
-                        float radius = pixel.radius;
-                        Point3i pMin = new Point3i(), pMax = new Point3i();
-                        ToGrid(pixel.vp.p.subtract(new Vector3f(radius, radius, radius)), localGridBounds, gridRes, pMin);
-                        ToGrid(pixel.vp.p.add(new Vector3f(radius, radius, radius)), localGridBounds, gridRes, pMax);
-                        for (int z = pMin.z; z <= pMax.z; ++z) {
-                            for (int y = pMin.y; y <= pMax.y; ++y) {
-                                for (int x = pMin.x; x <= pMax.x; ++x) {
-                                    // Add visible point to grid cell $(x, y, z)$
-                                    int h = hash(new Point3i(x, y, z), hashSize);
-                                    SPPMPixelListNode node = new SPPMPixelListNode();
-                                    node.pixel = pixel;
-
-                                    // Atomically add _node_ to the start of
-                                    // _grid[h]_'s linked list
-                                    node.next = grid[h].get();
-                                    while (grid[h].weakCompareAndSet(node.next, node) == false) ;
-                                }
-                            }
-                        }
-                        gridCellsPerVisiblePoint.ReportValue((1 + pMax.x - pMin.x) * (1 + pMax.y - pMin.y) * (1 + pMax.z - pMin.z));
-                    }
-                };
-                Parallel.ParallelFor(sumFunc, nPixels, 4096);
-            }
+            Parallel.ParallelFor((int i) -> {
+                SPPMPixel pixel = pixels[i];
+                if (pixel.vp.beta.isBlack()) grid.Clear(i);
+                else grid.Set(i, pixel.vp.p, pixel.radius);
+            }, nPixels, 4096);
+            grid.Build();
+            memoryArenaMB.ReportValue((grid.MemoryBytes() + photonBuffers.MemoryBytes()) / (1024f * 1024f));
 
             // Trace photons and accumulate contributions
             {
                 int localIter = iter;
-                final Bounds3f localGridBounds = gridBounds;
-                //std::vector<MemoryArena> photonShootArenas(MaxThreadIndex());
-                Consumer<Long> traceFunc = (Long li) -> {
-                    int photonIndex = Math.toIntExact(li);
-                    //MemoryArena &arena = photonShootArenas[ThreadIndex];
+                PhotonTracer traceFunc = (int photonIndex, PhotonBuffers.Buffer buffer) -> {
                     // Follow photon path for _photonIndex_
                     long haltonIndex = (long)localIter * (long)photonsPerIteration + photonIndex;
                     int haltonDim = 0;
@@ -255,24 +206,18 @@ public class SPPMIntegrator extends Integrator {
                         pointsPerInterations.incrementDenom(1); // ++totalPhotonSurfaceInteractions;
                         if (depth > 0) {
                             // Add photon contribution to nearby visible points
-                            Point3i photonGridIndex = new Point3i();
-                            if (ToGrid(isect.p, localGridBounds, gridRes, photonGridIndex)) {
-                                int h = hash(photonGridIndex, hashSize);
-                                // Add photon contribution to visible points in
-                                // _grid[h]_
-                                for (SPPMPixelListNode node = grid[h].get(); node != null; node = node.next) {
+                            int h = grid.Lookup(isect.p);
+                            if (h >= 0) {
+                                // Add photon contribution to visible points in cell _h_
+                                Vector3f wi = photonRay.d.negate();
+                                for (int k = grid.cellStart[h]; k < grid.cellStart[h + 1]; ++k) {
                                     pointsPerInterations.incrementNumer(1); //++visiblePointsChecked;
-                                    SPPMPixel pixel = node.pixel;
-                                    float radius = pixel.radius;
-                                    if (Point3f.DistanceSquared(pixel.vp.p, isect.p) > radius * radius)
-                                        continue;
+                                    int pixelIndex = grid.cellPixels[k];
+                                    if (!grid.InRange(pixelIndex, isect.p)) continue;
                                     // Update _pixel_ $\Phi$ and $M$ for nearby
                                     // photon
-                                    Vector3f wi = photonRay.d.negate();
-                                    Spectrum Phi = beta.multiply(pixel.vp.bsdf.f(pixel.vp.wo, wi));
-                                    for (int i = 0; i < Spectrum.nSamples; ++i)
-                                        pixel.Phi[i].add(Phi.at(i));
-                                    pixel.M.incrementAndGet();
+                                    SPPMPixel.VisiblePoint vp = pixels[pixelIndex].vp;
+                                    buffer.Add(pixelIndex, beta.multiply(vp.bsdf.f(vp.wo, wi)));
                                 }
                             }
                         }
@@ -310,31 +255,38 @@ public class SPPMIntegrator extends Integrator {
                     }
                     //arena.Reset();
                 };
-                Parallel.ParallelFor(traceFunc, photonsPerIteration, 8192);
+                // Photons are traced in chunks, each depositing into one buffer
+                final int photonChunkSize = 8192;
+                Parallel.ParallelFor((int chunk) -> {
+                    PhotonBuffers.Buffer buffer = photonBuffers.Acquire();
+                    try {
+                        int end = (int)Math.min((long)(chunk + 1) * photonChunkSize, photonsPerIteration);
+                        for (int photonIndex = chunk * photonChunkSize; photonIndex < end; ++photonIndex)
+                            traceFunc.accept(photonIndex, buffer);
+                    } finally {
+                        photonBuffers.Release(buffer);
+                    }
+                }, (photonsPerIteration + photonChunkSize - 1) / photonChunkSize, 1);
                 progress.Update(1);
                 photonPaths.increment((long)photonsPerIteration);
             }
 
             // Update pixel values from this pass's photons
             {
-                Consumer<Long> updateFunc = (Long li) -> {
-                    int i = Math.toIntExact(li);
+                IntConsumer updateFunc = (int i) -> {
                     SPPMPixel p = pixels[i];
-                    if (p.M.get() > 0) {
+                    // Gather and clear the pixel's photons from the buffers
+                    Spectrum Phi = new Spectrum(0);
+                    int M = photonBuffers.Gather(i, Phi);
+                    if (M > 0) {
                         // Update pixel photon count, search radius, and $\tau$ from
                         // photons
                         float gamma = 2.0f / 3.0f;
-                        float Nnew = p.N + gamma * p.M.get();
-                        float Rnew = p.radius * (float)Math.sqrt(Nnew / (p.N + p.M.get()));
-                        Spectrum Phi = new Spectrum(0);
-                        for (int j = 0; j < Spectrum.nSamples; ++j)
-                            Phi.set(j, p.Phi[j].get());
+                        float Nnew = p.N + gamma * M;
+                        float Rnew = p.radius * (float)Math.sqrt(Nnew / (p.N + M));
                         p.tau = (p.tau.add(p.vp.beta.multiply(Phi))).scale((Rnew * Rnew) / (p.radius * p.radius));
                         p.N = Nnew;
                         p.radius = Rnew;
-                        p.M.set(0);
-                        for (int j = 0; j < Spectrum.nSamples; ++j)
-                            p.Phi[j].set(0);
                     }
                     // Reset _VisiblePoint_ in pixel
                     p.vp.beta = new Spectrum(0);
@@ -362,7 +314,7 @@ public class SPPMIntegrator extends Integrator {
                 camera.film.SetImage(image);
                 camera.film.WriteImage(1);
                 // Write SPPM radius image, if requested
-                if (!System.getenv("SPPM_RADIUS").isEmpty()) {
+                if (System.getenv("SPPM_RADIUS") != null) {
                     float[] rimg = new float[3 * pixelBounds.Area()];
                     float minrad = 1e30f, maxrad = 0;
                     for (int y = pixelBounds.pMin.y; y < pixelBounds.pMax.y; ++y) {
@@ -397,7 +349,7 @@ public class SPPMIntegrator extends Integrator {
         int photonsPerIter = params.FindOneInt("photonsperiteration", -1);
         int writeFreq = params.FindOneInt("imagewritefrequency", 1 << 31);
         float radius = params.FindOneFloat("radius", 1);
-        if (Pbrt.options.QuickRender) nIterations = Math.max(1, nIterations / 16);
+        if (Pbrt.GetOptions().QuickRender) nIterations = Math.max(1, nIterations / 16);
         return new SPPMIntegrator(camera, nIterations, photonsPerIter, maxDepth, radius, writeFreq);
     }
 
@@ -408,9 +360,11 @@ public class SPPMIntegrator extends Integrator {
     private final int photonsPerIteration;
     private final int writeFrequency;
 
+    // Upper bound on the memory of the per-thread photon buffers
+    private static final long maxPhotonBufferBytes = 256L << 20;
+
     Stats.Ratio pointsPerInterations = new Stats.Ratio("Stochastic Progressive Photon Mapping/Visible points checked per photon intersection"); // visiblePointsChecked, totalPhotonSurfaceInteractions
     Stats.Counter photonPaths = new Stats.Counter("Stochastic Progressive Photon Mapping/Photon paths followed");
-    Stats.IntegerDistribution gridCellsPerVisiblePoint = new Stats.IntegerDistribution("Stochastic Progressive Photon Mapping/Grid cells per visible point");
     Stats.MemoryCounter pixelMemoryBytes = new Stats.MemoryCounter("Memory/SPPM Pixels");
     Stats.FloatDistribution memoryArenaMB = new Stats.FloatDistribution("Memory/SPPM BSDF and Grid Memory");
 
@@ -418,7 +372,6 @@ public class SPPMIntegrator extends Integrator {
     private static class SPPMPixel {
         // SPPMPixel Public Methods
         public SPPMPixel() {
-            this.M.set(0);
         }
 
         // SPPMPixel Public Data
@@ -444,35 +397,16 @@ public class SPPMIntegrator extends Integrator {
             Point3f p;
             Vector3f wo;
             BSDF bsdf;
-            Spectrum beta;
+            Spectrum beta = new Spectrum(0);
         }
         VisiblePoint vp = new VisiblePoint();
-        AtomicFloat[] Phi = new AtomicFloat[Spectrum.nSamples];
-        AtomicInteger M = new AtomicInteger(0);
         float N = 0;
-        Spectrum tau;
-    }
-
-    private static class SPPMPixelListNode {
-        public SPPMPixel pixel;
-        public SPPMPixelListNode next;
-    }
-
-    private static boolean ToGrid(Point3f p, Bounds3f bounds, int[] gridRes, Point3i pi) {
-        boolean inBounds = true;
-        Vector3f pg = bounds.Offset(p);
-        for (int i = 0; i < 3; ++i) {
-            pi.set(i, (int)(gridRes[i] * pg.at(i)));
-            inBounds &= (pi.at(i) >= 0 && pi.at(i) < gridRes[i]);
-            pi.set(i, Pbrt.Clamp(pi.at(i), 0, gridRes[i] - 1));
-        }
-        return inBounds;
+        Spectrum tau = new Spectrum(0);
     }
 
-    private static int hash(Point3i p, int hashSize) {
-        return ((p.x * 73856093) ^ (p.y * 19349663) ^
-                (p.z * 83492791)) %
-                hashSize;
+    // Traces one photon, depositing its flux into _buffer_
+    private interface PhotonTracer {
+        void accept(int photonIndex, PhotonBuffers.Buffer buffer);
     }
 
 }
\ No newline at end of file
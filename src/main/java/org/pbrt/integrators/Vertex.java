@@ -13,7 +13,6 @@ import org.pbrt.core.*;
 import org.pbrt.core.PBrtTLogger;
 
 import java.util.HashMap;
-import java.util.function.Function;
 
 public class Vertex {
 
@@ -49,12 +48,14 @@ public class Vertex {
         cameraSample.time = sampler.Get1D();
         cameraSample.pLens = sampler.Get2D();
         final Camera.CameraRayDiff crd = camera.GenerateRayDifferential(cameraSample);
+        // Vignetted samples have no ray
+        if (crd == null) return 0;
         RayDifferential ray = crd.rd;
         Spectrum beta = new Spectrum(crd.weight);
         ray.ScaleDifferentials(1 / (float)Math.sqrt(sampler.samplesPerPixel));
 
         // Generate first vertex on camera subpath and start random walk
-        path[0] = CreateCamera(camera, ray, beta);
+        path[0].SetCamera(camera, ray, beta);
         Camera.CameraPdf cp = camera.Pdf_We(ray);
         float pdfPos = cp.pdfPos, pdfDir = cp.pdfDir;
 
@@ -79,7 +80,7 @@ public class Vertex {
         if (pdfPos == 0 || pdfDir == 0 || Le.isBlack()) return 0;
 
         // Generate first vertex on light subpath and start random walk
-        path[0] = Vertex.CreateLight(light, ray, nLight, Le, pdfPos * lightPdf);
+        path[0].SetLight(light, ray, nLight, Le, pdfPos * lightPdf);
         Spectrum beta = Le.scale(Normal3f.AbsDot(nLight, ray.d) / (lightPdf * pdfPos * pdfDir));
         //VLOG(2) << "Starting light subpath. Ray: " << ray << ", Le " << Le << ", beta " << beta << ", pdfPos " << pdfPos << ", pdfDir " << pdfDir;
         int nVertices = RandomWalk(scene, ray, sampler, beta, pdfDir, maxDepth - 1, Material.TransportMode.Importance, path, 1);
@@ -99,15 +100,17 @@ public class Vertex {
         return nVertices + 1;
     }
 
-    public static Spectrum ConnectBDPT(Scene scene, Vertex[] lightVertices, Vertex[] cameraVertices, int s, int t, Distribution1D lightDistr,
-        HashMap<Light, Integer> lightToIndex, Camera camera, Sampler sampler, Point2f[] pRaster, float[] misWeight) {
+    public static Spectrum ConnectBDPT(Scene scene, PathStorage paths, int s, int t, Distribution1D lightDistr,
+        HashMap<Light, Integer> lightToIndex, Camera camera, Sampler sampler) {
+        final Vertex[] lightVertices = paths.lightVertices, cameraVertices = paths.cameraVertices;
+        paths.misWeight = 0;
         Spectrum L = new Spectrum(0);
         // Ignore invalid connections related to infinite area lights
         if (t > 1 && s != 0 && cameraVertices[t - 1].type == VertexType.Light)
             return new Spectrum(0);
 
         // Perform connection and write contribution to _L_
-        Vertex sampled = new Vertex();
+        final Vertex sampled = paths.sampled;
         if (s == 0) {
             // Interpret the camera subpath as a complete path
             final Vertex pt = cameraVertices[t - 1];
@@ -122,11 +125,12 @@ public class Vertex {
                 Vector3f wi = cwi.wi;
                 float pdf = cwi.pdf;
                 Spectrum Wi = cwi.swe;
-                if (pRaster != null) pRaster[0] = cwi.pRaster;
 
                 if (pdf > 0 && !Wi.isBlack()) {
+                    paths.pRaster.x = cwi.pRaster.x;
+                    paths.pRaster.y = cwi.pRaster.y;
                     // Initialize dynamically sampled vertex and _L_ for $t=1$ case
-                    sampled = CreateCamera(camera, vis.P1(), Wi.scale(1 / pdf));
+                    sampled.SetCamera(camera, vis.P1(), Wi.scale(1 / pdf));
                     L = qs.beta.multiply(qs.f(sampled, Material.TransportMode.Importance).multiply(sampled.beta));
                     if (qs.IsOnSurface()) L = L.scale(Normal3f.AbsDot(wi, qs.ns()));
                     assert (!L.hasNaNs());
@@ -143,15 +147,16 @@ public class Vertex {
                 float lightPdf = ds.pdf;
                 int lightNum = ds.offset;
                 final Light light = scene.lights.get(lightNum);
+                int prof = Profiler.Enter(Profiler.LightSample);
                 Light.LiResult lir = light.Sample_Li(pt.GetInteraction(), sampler.Get2D());
+                Profiler.Exit(prof);
                 Spectrum lightWeight = lir.spectrum;
                 Light.VisibilityTester vis = lir.vis;
                 Vector3f wi = lir.wi;
                 float pdf = lir.pdf;
 
                 if (pdf > 0 && !lightWeight.isBlack()) {
-                    EndpointInteraction ei = new EndpointInteraction(vis.P1(), light);
-                    sampled = CreateLight(ei, lightWeight.scale(1 / (pdf * lightPdf)), 0);
+                    sampled.SetLight(light, vis.P1(), lightWeight.scale(1 / (pdf * lightPdf)), 0);
                     sampled.pdfFwd = sampled.PdfLightOrigin(scene, pt, lightDistr, lightToIndex);
                     L = pt.beta.multiply(pt.f(sampled, Material.TransportMode.Radiance).multiply(sampled.beta));
                     if (pt.IsOnSurface()) L = L.scale(Normal3f.AbsDot(wi, pt.ns()));
@@ -182,7 +187,7 @@ public class Vertex {
         //VLOG(2) << "MIS weight for (s,t) = (" << s << ", " << t << ") connection: " << weight;
         assert(!Float.isNaN(weight));
         L = L.scale(weight);
-        if (misWeight != null) misWeight[0] = weight;
+        paths.misWeight = weight;
         return L;
     }
 
@@ -200,50 +205,93 @@ public class Vertex {
     public boolean delta = false;
     public float pdfFwd = 0, pdfRev = 0;
 
+    // Endpoint data of camera and light vertices, reinitialized in place when the vertex is reused
+    private final EndpointInteraction endpoint = new EndpointInteraction();
+
     public Vertex() {
-        this.interaction = new EndpointInteraction();
-    }
-    public Vertex(VertexType type, EndpointInteraction ei, Spectrum beta) {
-        this.type = type;
-        this.beta = beta;
-        this.interaction = ei;
-    }
-    public Vertex(SurfaceInteraction si, Spectrum beta) {
-        this.type = VertexType.Surface;
-        this.beta = beta;
-        this.interaction = si;
-    }
-    public Vertex(MediumInteraction mi, Spectrum beta) {
-        this.type = VertexType.Medium;
-        this.beta = beta;
-        this.interaction = mi;
+        this.interaction = endpoint;
     }
 
     public static Vertex CreateCamera(Camera camera, Ray ray, Spectrum beta) {
-        return new Vertex(VertexType.Camera, new EndpointInteraction(camera, ray), beta);
+        return new Vertex().SetCamera(camera, ray, beta);
     }
     public static Vertex CreateCamera(Camera camera, Interaction it, Spectrum beta) {
-        return new Vertex(VertexType.Camera, new EndpointInteraction(it, camera), beta);
+        return new Vertex().SetCamera(camera, it, beta);
     }
     public static Vertex CreateLight(Light light, Ray ray, Normal3f nLight, Spectrum Le, float pdf) {
-        Vertex v = new Vertex(VertexType.Light, new EndpointInteraction(light, ray, nLight), Le);
-        v.pdfFwd = pdf;
-        return v;
+        return new Vertex().SetLight(light, ray, nLight, Le, pdf);
     }
-    public static Vertex CreateLight(EndpointInteraction ei, Spectrum beta, float pdf) {
-        Vertex v = new Vertex(VertexType.Light, ei, beta);
-        v.pdfFwd = pdf;
-        return v;
+    public static Vertex CreateLight(Light light, Interaction it, Spectrum beta, float pdf) {
+        return new Vertex().SetLight(light, it, beta, pdf);
     }
     public static Vertex CreateMedium(MediumInteraction mi, Spectrum beta, float pdf, Vertex prev) {
-        Vertex v = new Vertex(mi, beta);
-        v.pdfFwd = prev.ConvertDensity(pdf, v);
-        return v;
+        return new Vertex().SetMedium(mi, beta, pdf, prev);
     }
     public static Vertex CreateSurface(SurfaceInteraction si, Spectrum beta, float pdf, Vertex prev) {
-        Vertex v = new Vertex(si, beta);
-        v.pdfFwd = prev.ConvertDensity(pdf, v);
-        return v;
+        return new Vertex().SetSurface(si, beta, pdf, prev);
+    }
+
+    // In-place counterparts of the Create*() methods, for vertices reused from sample to sample
+    public Vertex SetCamera(Camera camera, Ray ray, Spectrum beta) {
+        endpoint.SetCamera(camera, ray);
+        return Reset(VertexType.Camera, endpoint, beta, 0);
+    }
+    public Vertex SetCamera(Camera camera, Interaction it, Spectrum beta) {
+        endpoint.SetCamera(it, camera);
+        return Reset(VertexType.Camera, endpoint, beta, 0);
+    }
+    public Vertex SetLight(Light light, Ray ray, Normal3f nLight, Spectrum Le, float pdf) {
+        endpoint.SetLight(light, ray, nLight);
+        return Reset(VertexType.Light, endpoint, Le, pdf);
+    }
+    public Vertex SetLight(Light light, Interaction it, Spectrum beta, float pdf) {
+        endpoint.SetLight(it, light);
+        return Reset(VertexType.Light, endpoint, beta, pdf);
+    }
+    // Light vertex for a camera ray that left the scene
+    public Vertex SetEscaped(Ray ray, Spectrum beta, float pdf) {
+        endpoint.SetEscaped(ray);
+        return Reset(VertexType.Light, endpoint, beta, pdf);
+    }
+    public Vertex SetMedium(MediumInteraction mi, Spectrum beta, float pdf, Vertex prev) {
+        Reset(VertexType.Medium, mi, beta, 0);
+        pdfFwd = prev.ConvertDensity(pdf, this);
+        return this;
+    }
+    public Vertex SetSurface(SurfaceInteraction si, Spectrum beta, float pdf, Vertex prev) {
+        Reset(VertexType.Surface, si, beta, 0);
+        pdfFwd = prev.ConvertDensity(pdf, this);
+        return this;
+    }
+
+    private Vertex Reset(VertexType type, Interaction interaction, Spectrum beta, float pdfFwd) {
+        this.type = type;
+        this.interaction = interaction;
+        this.beta = beta;
+        this.delta = false;
+        this.pdfFwd = pdfFwd;
+        this.pdfRev = 0;
+        return this;
+    }
+
+    // Per-thread storage for a pair of BDPT subpaths. The vertex slots are reinitialized
+    // for every sample, and ConnectBDPT() reports the raster position and MIS weight of a
+    // connection here rather than through freshly allocated out-parameters.
+    public static class PathStorage {
+        public PathStorage(int maxCameraVertices, int maxLightVertices) {
+            cameraVertices = new Vertex[maxCameraVertices];
+            lightVertices = new Vertex[maxLightVertices];
+            for (int i = 0; i < maxCameraVertices; ++i) cameraVertices[i] = new Vertex();
+            for (int i = 0; i < maxLightVertices; ++i) lightVertices[i] = new Vertex();
+        }
+
+        public final Vertex[] cameraVertices, lightVertices;
+        // Camera or light endpoint sampled by the $t=1$ and $s=1$ strategies
+        private final Vertex sampled = new Vertex();
+
+        // Raster position of the last $t=1$ connection, and the last connection's MIS weight
+        public final Point2f pRaster = new Point2f();
+        public float misWeight;
     }
 
     public Interaction GetInteraction() { return interaction; }
@@ -296,17 +344,18 @@ public class Vertex {
         return false;  // NOTREACHED
     }
     public boolean IsLight() {
-        SurfaceInteraction si = (SurfaceInteraction)interaction;
-        return (type == VertexType.Light) || ((type == VertexType.Surface) && (si.primitive.GetAreaLight() != null));
+        return (type == VertexType.Light) ||
+                ((type == VertexType.Surface) && (((SurfaceInteraction)interaction).primitive.GetAreaLight() != null));
     }
     public boolean IsDeltaLight() {
+        if (type != VertexType.Light) return false;
         EndpointInteraction ei = (EndpointInteraction)interaction;
-        return type == VertexType.Light && ei.light != null && Light.IsDeltaLight(ei.light.flags);
+        return ei.light != null && Light.IsDeltaLight(ei.light.flags);
     }
     public boolean IsInfiniteLight() {
+        if (type != VertexType.Light) return false;
         EndpointInteraction ei = (EndpointInteraction)interaction;
-        return type == VertexType.Light &&
-                (ei.light == null || (ei.light.flags & Light.FlagInfinite) != 0 || (ei.light.flags & Light.FlagDeltaDirection) != 0);
+        return ei.light == null || (ei.light.flags & Light.FlagInfinite) != 0 || (ei.light.flags & Light.FlagDeltaDirection) != 0;
     }
     public Spectrum Le(Scene scene, Vertex v) {
         if (!IsLight()) return new Spectrum(0);
@@ -430,9 +479,8 @@ public class Vertex {
         } else {
             // Get pointer _light_ to the light source at the vertex
             assert (IsLight());
-            EndpointInteraction ei = (EndpointInteraction)interaction;
-            SurfaceInteraction si = (SurfaceInteraction)interaction;
-            Light light = type == VertexType.Light ? ei.light : si.primitive.GetAreaLight();
+            Light light = (type == VertexType.Light) ? ((EndpointInteraction)interaction).light :
+                    ((SurfaceInteraction)interaction).primitive.GetAreaLight();
             assert (light != null);
 
             // Compute sampling density for non-infinite light sources
@@ -456,9 +504,8 @@ public class Vertex {
 
             // Get pointer _light_ to the light source at the vertex
             assert (IsLight());
-            EndpointInteraction ei = (EndpointInteraction)interaction;
-            SurfaceInteraction si = (SurfaceInteraction)interaction;
-            Light light = (type == VertexType.Light) ? ei.light : si.primitive.GetAreaLight();
+            Light light = (type == VertexType.Light) ? ((EndpointInteraction)interaction).light :
+                    ((SurfaceInteraction)interaction).primitive.GetAreaLight();
             assert (light != null);
 
             // Compute the discrete probability of sampling _light_, _pdfChoice_
@@ -492,10 +539,10 @@ public class Vertex {
                 mi = ms.mi;
             }
             if (beta.isBlack()) break;
-            Vertex vertex = path[pathStart+bounces], prev = path[pathStart+bounces - 1];
+            Vertex vertex, prev = path[pathStart+bounces - 1];
             if (mi.IsValid()) {
                 // Record medium interaction in _path_ and compute forward density
-                vertex = CreateMedium(mi, beta, pdfFwd, prev);
+                vertex = path[pathStart+bounces].SetMedium(mi, beta, pdfFwd, prev);
                 if (++bounces >= maxDepth) break;
 
                 // Sample direction and compute reverse density at preceding vertex
@@ -509,7 +556,7 @@ public class Vertex {
                 if (!foundIntersection) {
                     // Capture escaped rays when tracing from the camera
                     if (mode == Material.TransportMode.Radiance) {
-                        vertex = CreateLight(new EndpointInteraction(ray), beta, pdfFwd);
+                        path[pathStart+bounces].SetEscaped(ray, beta, pdfFwd);
                         ++bounces;
                     }
                     break;
@@ -524,13 +571,14 @@ public class Vertex {
                 }
 
                 // Initialize _vertex_ with surface intersection information
-                vertex = CreateSurface(isect, beta, pdfFwd, prev);
+                vertex = path[pathStart+bounces].SetSurface(isect, beta, pdfFwd, prev);
                 if (++bounces >= maxDepth) break;
 
                 // Sample BSDF at current vertex and compute reverse probability
                 Vector3f wo = isect.wo;
                 BxDF.BxDFSample bs = isect.bsdf.Sample_f(wo, sampler.Get2D(), BxDF.BSDF_ALL);
                 Vector3f wi = bs.wiWorld;
+                pdfFwd = bs.pdf;
                 int type = bs.sampledType;
                 Spectrum f = bs.f;
 
@@ -564,35 +612,15 @@ public class Vertex {
         return vis.Tr(scene, sampler).scale(g);
     }
 
-    private static class ScopedAssignment<T> {
-        public ScopedAssignment() {
-            this.target = null;
-            this.backup = null;
-        }
-
-        public ScopedAssignment(T target, T value) {
-            this.target = target;
-            if (this.target != null) {
-                this.backup = this.target;
-                this.target = value;
-            }
-        }
-
-        public void release() {
-            if (target != null) {
-                target = backup;
-            }
-        }
-
-        private T target, backup;
+    // Maps the zero densities of Dirac delta functions to 1
+    private static float Remap0(float f) {
+        return f != 0 ? f : 1;
     }
 
     private static float MISWeight(Scene scene, Vertex[] lightVertices, Vertex[] cameraVertices, Vertex sampled, int s, int t,
                                    Distribution1D lightPdf, HashMap<Light, Integer> lightToIndex) {
         if (s + t == 2) return 1;
         float sumRi = 0;
-        // Define helper function _remap0_ that deals with Dirac delta functions
-        Function<Float, Float> remap0 = (f) -> f != 0 ? f : 1;
 
         // Temporarily update vertex properties for current strategy
 
@@ -602,40 +630,37 @@ public class Vertex {
            qsMinus = s > 1 ? lightVertices[s - 2] : null,
            ptMinus = t > 1 ? cameraVertices[t - 2] : null;
 
-        // Update sampled vertex for $s=1$ or $t=1$ strategy
-        ScopedAssignment<Vertex> a1 = new ScopedAssignment<>();
+        // Update sampled vertex for $s=1$ or $t=1$ strategy; the subpath entries and the
+        // fields changed below are restored before returning
+        Vertex savedEndpoint = s == 1 ? lightVertices[0] : t == 1 ? cameraVertices[0] : null;
         if (s == 1)
-            a1 = new ScopedAssignment<>(qs, sampled);
+            lightVertices[0] = qs = sampled;
         else if (t == 1)
-            a1 = new ScopedAssignment<>(pt, sampled);
+            cameraVertices[0] = pt = sampled;
+        boolean ptDelta = pt != null && pt.delta, qsDelta = qs != null && qs.delta;
+        float ptPdfRev = pt != null ? pt.pdfRev : 0, ptMinusPdfRev = ptMinus != null ? ptMinus.pdfRev : 0;
+        float qsPdfRev = qs != null ? qs.pdfRev : 0, qsMinusPdfRev = qsMinus != null ? qsMinus.pdfRev : 0;
 
         // Mark connection vertices as non-degenerate
-        ScopedAssignment<Boolean> a2 = new ScopedAssignment<>(), a3 = new ScopedAssignment<>();
-        if (pt != null) a2 = new ScopedAssignment<>(pt.delta, false);
-        if (qs != null) a3 = new ScopedAssignment<>(qs.delta, false);
+        if (pt != null) pt.delta = false;
+        if (qs != null) qs.delta = false;
 
         // Update reverse density of vertex $\pt{}_{t-1}$
-        ScopedAssignment<Float> a4 = new ScopedAssignment<>();
         if (pt != null)
-            a4 = new ScopedAssignment<>(pt.pdfRev, s > 0 ? qs.Pdf(scene, qsMinus, pt)
-                                 : pt.PdfLightOrigin(scene, ptMinus, lightPdf, lightToIndex));
+            pt.pdfRev = s > 0 ? qs.Pdf(scene, qsMinus, pt) : pt.PdfLightOrigin(scene, ptMinus, lightPdf, lightToIndex);
 
         // Update reverse density of vertex $\pt{}_{t-2}$
-        ScopedAssignment<Float> a5 = new ScopedAssignment<>();
         if (ptMinus != null)
-            a5 = new ScopedAssignment<>(ptMinus.pdfRev, s > 0 ? pt.Pdf(scene, qs, ptMinus)
-                                      : pt.PdfLight(scene, ptMinus));
+            ptMinus.pdfRev = s > 0 ? pt.Pdf(scene, qs, ptMinus) : pt.PdfLight(scene, ptMinus);
 
         // Update reverse density of vertices $\pq{}_{s-1}$ and $\pq{}_{s-2}$
-        ScopedAssignment<Float> a6 = new ScopedAssignment<>();
-        if (qs != null) a6 = new ScopedAssignment<>(qs.pdfRev, pt.Pdf(scene, ptMinus, qs));
-        ScopedAssignment<Float> a7 = new ScopedAssignment<>();
-        if (qsMinus != null) a7 = new ScopedAssignment<>(qsMinus.pdfRev, qs.Pdf(scene, pt, qsMinus));
+        if (qs != null) qs.pdfRev = pt.Pdf(scene, ptMinus, qs);
+        if (qsMinus != null) qsMinus.pdfRev = qs.Pdf(scene, pt, qsMinus);
 
         // Consider hypothetical connection strategies along the camera subpath
         float ri = 1;
         for (int i = t - 1; i > 0; --i) {
-            ri *= remap0.apply(cameraVertices[i].pdfRev) / remap0.apply(cameraVertices[i].pdfFwd);
+            ri *= Remap0(cameraVertices[i].pdfRev) / Remap0(cameraVertices[i].pdfFwd);
             if (!cameraVertices[i].delta && !cameraVertices[i - 1].delta)
                 sumRi += ri;
         }
@@ -643,19 +668,24 @@ public class Vertex {
         // Consider hypothetical connection strategies along the light subpath
         ri = 1;
         for (int i = s - 1; i >= 0; --i) {
-            ri *= remap0.apply(lightVertices[i].pdfRev) / remap0.apply(lightVertices[i].pdfFwd);
+            ri *= Remap0(lightVertices[i].pdfRev) / Remap0(lightVertices[i].pdfFwd);
             boolean deltaLightvertex = i > 0 ? lightVertices[i - 1].delta
                     : lightVertices[0].IsDeltaLight();
             if (!lightVertices[i].delta && !deltaLightvertex) sumRi += ri;
         }
 
-        a1.release();
-        a2.release();
-        a3.release();
-        a4.release();
-        a5.release();
-        a6.release();
-        a7.release();
+        if (pt != null) {
+            pt.delta = ptDelta;
+            pt.pdfRev = ptPdfRev;
+        }
+        if (qs != null) {
+            qs.delta = qsDelta;
+            qs.pdfRev = qsPdfRev;
+        }
+        if (ptMinus != null) ptMinus.pdfRev = ptMinusPdfRev;
+        if (qsMinus != null) qsMinus.pdfRev = qsMinusPdfRev;
+        if (s == 1) lightVertices[0] = savedEndpoint;
+        else if (t == 1) cameraVertices[0] = savedEndpoint;
 
         return 1 / (1 + sumRi);
     }
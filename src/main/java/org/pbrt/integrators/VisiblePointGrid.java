@@ -0,0 +1,178 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.integrators;
+
+import org.pbrt.core.*;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+// Hash grid of the SPPM visible points' search spheres, stored flat: the
+// indices of the pixels whose spheres overlap cell _h_ are
+// cellPixels[cellStart[h]] up to cellPixels[cellStart[h + 1]]. The arrays
+// are reused by every pass and only grow when a pass needs more room.
+public class VisiblePointGrid {
+
+    public VisiblePointGrid(int nPixels) {
+        this.nPixels = nPixels;
+        this.hashSize = nPixels;
+        vpSearch = new float[4 * nPixels];
+        vpCells = new int[6 * nPixels];
+        cellStart = new int[nPixels + 1];
+    }
+
+    // Set the search sphere of pixel _pixelIndex_'s visible point
+    public void Set(int pixelIndex, Point3f p, float radius) {
+        vpSearch[4 * pixelIndex] = p.x;
+        vpSearch[4 * pixelIndex + 1] = p.y;
+        vpSearch[4 * pixelIndex + 2] = p.z;
+        vpSearch[4 * pixelIndex + 3] = radius;
+    }
+
+    // Mark pixel _pixelIndex_ as having no visible point this pass
+    public void Clear(int pixelIndex) {
+        vpSearch[4 * pixelIndex + 3] = -1;
+    }
+
+    // Bucket the visible points set since the last build into grid cells
+    public void Build() {
+        // Compute grid bounds for SPPM visible points
+        GridExtent extent = Parallel.ParallelReduce((long start, long end) -> {
+            GridExtent e = new GridExtent();
+            for (int i = (int)start; i < end; ++i) {
+                float radius = vpSearch[4 * i + 3];
+                if (radius < 0) continue;
+                Point3f p = new Point3f(vpSearch[4 * i], vpSearch[4 * i + 1], vpSearch[4 * i + 2]);
+                e.bounds = Bounds3f.Union(e.bounds, Bounds3f.Expand(new Bounds3f(p), radius));
+                e.maxRadius = Math.max(e.maxRadius, radius);
+            }
+            return e;
+        }, GridExtent::Union, new GridExtent(), nPixels, 4096);
+        bounds = extent.bounds;
+        float maxRadius = extent.maxRadius;
+
+        // Compute resolution of SPPM grid in each dimension
+        Vector3f diag = bounds.Diagonal();
+        float maxDiag = Vector3f.MaxComponent(diag);
+        int baseGridRes = (maxRadius > 0) ? (int)(maxDiag / maxRadius) : 1;
+        for (int i = 0; i < 3; ++i)
+            gridRes[i] = Math.max((int)(baseGridRes * diag.at(i) / maxDiag), 1);
+
+        // Count the visible points overlapping each grid cell; the search
+        // radius is squared for the photon distance tests
+        AtomicIntegerArray cellCount = new AtomicIntegerArray(hashSize);
+        IntConsumer countFunc = (int pixelIndex) -> {
+            float radius = vpSearch[4 * pixelIndex + 3];
+            if (radius < 0) return;
+            Point3f p = new Point3f(vpSearch[4 * pixelIndex], vpSearch[4 * pixelIndex + 1], vpSearch[4 * pixelIndex + 2]);
+            vpSearch[4 * pixelIndex + 3] = radius * radius;
+            Point3i pMin = new Point3i(), pMax = new Point3i();
+            ToGrid(p.subtract(new Vector3f(radius, radius, radius)), pMin);
+            ToGrid(p.add(new Vector3f(radius, radius, radius)), pMax);
+            for (int i = 0; i < 3; ++i) {
+                vpCells[6 * pixelIndex + i] = pMin.at(i);
+                vpCells[6 * pixelIndex + 3 + i] = pMax.at(i);
+            }
+            for (int z = pMin.z; z <= pMax.z; ++z)
+                for (int y = pMin.y; y <= pMax.y; ++y)
+                    for (int x = pMin.x; x <= pMax.x; ++x)
+                        cellCount.incrementAndGet(Hash(x, y, z));
+            gridCellsPerVisiblePoint.ReportValue((1 + pMax.x - pMin.x) * (1 + pMax.y - pMin.y) * (1 + pMax.z - pMin.z));
+        };
+        Parallel.ParallelFor(countFunc, nPixels, 4096);
+
+        // Turn the counts into cell offsets; _cellCount_ becomes each cell's
+        // insertion cursor
+        for (int h = 0; h < hashSize; ++h) {
+            cellStart[h + 1] = cellStart[h] + cellCount.get(h);
+            cellCount.set(h, cellStart[h]);
+        }
+        if (cellPixels.length < cellStart[hashSize])
+            cellPixels = new int[cellStart[hashSize]];
+
+        // Scatter visible points into their cells
+        final int[] localCellPixels = cellPixels;
+        IntConsumer scatterFunc = (int pixelIndex) -> {
+            if (vpSearch[4 * pixelIndex + 3] < 0) return;
+            int c = 6 * pixelIndex;
+            for (int z = vpCells[c + 2]; z <= vpCells[c + 5]; ++z)
+                for (int y = vpCells[c + 1]; y <= vpCells[c + 4]; ++y)
+                    for (int x = vpCells[c]; x <= vpCells[c + 3]; ++x)
+                        localCellPixels[cellCount.getAndIncrement(Hash(x, y, z))] = pixelIndex;
+        };
+        Parallel.ParallelFor(scatterFunc, nPixels, 4096);
+    }
+
+    // Hash of the grid cell holding _p_, or -1 if _p_ is outside the grid
+    public int Lookup(Point3f p) {
+        Point3i pi = new Point3i();
+        if (!ToGrid(p, pi)) return -1;
+        return Hash(pi.x, pi.y, pi.z);
+    }
+
+    // Whether _p_ is inside the search sphere of pixel _pixelIndex_'s visible point
+    public boolean InRange(int pixelIndex, Point3f p) {
+        float dx = vpSearch[4 * pixelIndex] - p.x;
+        float dy = vpSearch[4 * pixelIndex + 1] - p.y;
+        float dz = vpSearch[4 * pixelIndex + 2] - p.z;
+        return dx * dx + dy * dy + dz * dz <= vpSearch[4 * pixelIndex + 3];
+    }
+
+    public int[] GridRes() { return gridRes; }
+
+    public Bounds3f Bounds() { return bounds; }
+
+    public long MemoryBytes() {
+        return 4L * (vpSearch.length + vpCells.length + cellStart.length + cellPixels.length);
+    }
+
+    public boolean ToGrid(Point3f p, Point3i pi) {
+        boolean inBounds = true;
+        Vector3f pg = bounds.Offset(p);
+        for (int i = 0; i < 3; ++i) {
+            pi.set(i, (int)(gridRes[i] * pg.at(i)));
+            inBounds &= (pi.at(i) >= 0 && pi.at(i) < gridRes[i]);
+            pi.set(i, Pbrt.Clamp(pi.at(i), 0, gridRes[i] - 1));
+        }
+        return inBounds;
+    }
+
+    public int Hash(int x, int y, int z) {
+        return Math.floorMod((x * 73856093) ^ (y * 19349663) ^ (z * 83492791), hashSize);
+    }
+
+    // Bounds and largest search radius of a set of visible points
+    private static class GridExtent {
+        Bounds3f bounds = new Bounds3f();
+        float maxRadius = 0;
+
+        static GridExtent Union(GridExtent a, GridExtent b) {
+            GridExtent e = new GridExtent();
+            e.bounds = Bounds3f.Union(a.bounds, b.bounds);
+            e.maxRadius = Math.max(a.maxRadius, b.maxRadius);
+            return e;
+        }
+    }
+
+    public final int hashSize;
+    public final int[] cellStart;
+    public int[] cellPixels = new int[0];
+
+    private final int nPixels;
+    // Per pixel: visible point position and squared search radius, which is
+    // negative when the pixel has no visible point
+    private final float[] vpSearch;
+    // Per pixel: the minimum and maximum grid cell its search sphere overlaps
+    private final int[] vpCells;
+    private final int[] gridRes = new int[3];
+    private Bounds3f bounds = new Bounds3f();
+
+    private static final Stats.IntegerDistribution gridCellsPerVisiblePoint = new Stats.IntegerDistribution("Stochastic Progressive Photon Mapping/Grid cells per visible point");
+}
@@ -16,7 +16,12 @@ import org.pbrt.core.PBrtTLogger;;
 public class VolPathIntegrator extends SamplerIntegrator {
 
     public VolPathIntegrator(int maxDepth, Camera camera, Sampler sampler, Bounds2i pixelBounds, float rrThreshold, String lightSampleStrategy) {
+        this(maxDepth, camera, sampler, pixelBounds, rrThreshold, lightSampleStrategy, 16);
+    }
+
+    public VolPathIntegrator(int maxDepth, Camera camera, Sampler sampler, Bounds2i pixelBounds, float rrThreshold, String lightSampleStrategy, int lightPrePassStride) {
         super(camera, sampler, pixelBounds);
+        this.lightPrePassStride = lightPrePassStride;
         this.maxDepth = maxDepth;
         this.rrThreshold = rrThreshold;
         this.lightSampleStrategy = lightSampleStrategy;
@@ -24,6 +29,7 @@ public class VolPathIntegrator extends SamplerIntegrator {
 
     public void Preprocess(Scene scene, Sampler sampler) {
         lightDistribution = LightDistribution.CreateLightSampleDistribution(lightSampleStrategy, scene);
+        lightDistribution.Prepopulate(camera, pixelBounds, lightPrePassStride);
     }
 
     @Override
@@ -61,8 +67,7 @@ public class VolPathIntegrator extends SamplerIntegrator {
 
                 volumeInteractions.increment();
                 // Handle scattering at point in medium for volumetric path tracer
-                final Distribution1D lightDistrib = lightDistribution.Lookup(mi.p);
-                L = L.add(beta.multiply(UniformSampleOneLight(mi, scene, sampler, true, lightDistrib)));
+                L = L.add(beta.multiply(UniformSampleOneLight(mi, scene, sampler, true, lightDistribution)));
 
                 Vector3f wo = ray.d.negate();
                 PhaseFunction.PhaseSample ps = mi.phase.Sample_p(wo, sampler.Get2D());
@@ -86,7 +91,7 @@ public class VolPathIntegrator extends SamplerIntegrator {
 
                 // Compute scattering functions and skip over medium boundaries
                 isect.ComputeScatteringFunctions(ray, true, Material.TransportMode.Radiance);
-                if (isect.bsdf != null) {
+                if (isect.bsdf == null) {
                     ray = new RayDifferential(isect.SpawnRay(ray.d));
                     bounces--;
                     continue;
@@ -94,8 +99,7 @@ public class VolPathIntegrator extends SamplerIntegrator {
 
                 // Sample illumination from lights to find attenuated path
                 // contribution
-                final Distribution1D lightDistrib = lightDistribution.Lookup(isect.p);
-                L = L.add(beta.multiply(UniformSampleOneLight(isect, scene, sampler, true, lightDistrib)));
+                L = L.add(beta.multiply(UniformSampleOneLight(isect, scene, sampler, true, lightDistribution)));
 
                 // Sample BSDF to get new path direction
                 Vector3f wo = ray.d.negate();
@@ -132,7 +136,7 @@ public class VolPathIntegrator extends SamplerIntegrator {
 
                     // Account for the attenuated direct subsurface scattering
                     // component
-                    L = L.add(beta.multiply(UniformSampleOneLight(pi, scene, sampler, true, lightDistribution.Lookup(pi.p))));
+                    L = L.add(beta.multiply(UniformSampleOneLight(pi, scene, sampler, true, lightDistribution)));
 
                     // Account for the indirect subsurface scattering component
                     bxs = pi.bsdf.Sample_f(pi.wo, sampler.Get2D(), BxDF.BSDF_ALL);
@@ -177,13 +181,15 @@ public class VolPathIntegrator extends SamplerIntegrator {
         }
         float rrThreshold = params.FindOneFloat("rrthreshold", 1);
         String lightStrategy = params.FindOneString("lightsamplestrategy", "spatial");
+        int lightPrePass = params.FindOneInt("lightprepass", 16);
         return new VolPathIntegrator(maxDepth, camera, sampler, pixelBounds,
-                rrThreshold, lightStrategy);
+                rrThreshold, lightStrategy, lightPrePass);
     }
 
     private final int maxDepth;
     private final float rrThreshold;
     private final String lightSampleStrategy;
+    private final int lightPrePassStride;
     private LightDistribution lightDistribution;
 
     private static Stats.FloatDistribution pathLength = new Stats.FloatDistribution("Integrator/Path length");
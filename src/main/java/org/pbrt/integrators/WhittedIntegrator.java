@@ -46,7 +46,9 @@ public class WhittedIntegrator extends SamplerIntegrator {
 
         // Add contribution of each light source
         for (Light light : scene.lights) {
+            int prof = Profiler.Enter(Profiler.LightSample);
             Light.LiResult liResult = light.Sample_Li(isect, sampler.Get2D());
+            Profiler.Exit(prof);
             Spectrum Li = liResult.spectrum;
             Vector3f wi = liResult.wi;
             float pdf = liResult.pdf;
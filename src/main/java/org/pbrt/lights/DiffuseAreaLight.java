@@ -21,7 +21,7 @@ public class DiffuseAreaLight extends AreaLight {
         Spectrum sc = paramSet.FindOneSpectrum("scale", new Spectrum(1));
         int nSamples = paramSet.FindOneInt("samples", paramSet.FindOneInt("nsamples", 1));
         boolean twoSided = paramSet.FindOneBoolean("twosided", false);
-        if (Pbrt.options.QuickRender) nSamples = Math.max(1, nSamples / 4);
+        if (Pbrt.GetOptions().QuickRender) nSamples = Math.max(1, nSamples / 4);
         return new DiffuseAreaLight(light2world, new MediumInterface(outside), L.multiply(sc), nSamples, shape, twoSided);
     }
 
@@ -75,6 +75,13 @@ public class DiffuseAreaLight extends AreaLight {
         return Lemit.scale(area * Pbrt.Pi * (twoSided ? 2 : 1));
     }
 
+    @Override
+    public LightBounds Bounds() {
+        DirectionCone nb = shape.NormalBounds();
+        // Emission covers the hemisphere about the normal
+        return new LightBounds(shape.WorldBound(), nb.w, Power().y(), nb.cosTheta, 0, twoSided);
+    }
+
     @Override
     public float Pdf_Li(Interaction ref, Vector3f wi) {
         return shape.Pdf(ref, wi);
@@ -87,6 +94,7 @@ public class DiffuseAreaLight extends AreaLight {
         Shape.SampleResult sampRes = shape.Sample(u1);
         Interaction pShape = sampRes.isect;
         pShape.mediumInterface = mediumInterface;
+        result.pdfPos = sampRes.pdf;
         result.nLight = pShape.n;
 
         // Sample a cosine-weighted outgoing direction _w_ for area light
@@ -62,6 +62,12 @@ public class GonioPhotometricLight extends Light {
         return I.multiply(s.scale(4 * Pbrt.Pi ));
     }
 
+    @Override
+    public LightBounds Bounds() {
+        // Bounded like a point light emitting its total power in all directions
+        return new LightBounds(new Bounds3f(pLight), new Vector3f(0, 0, 1), Power().y(), -1, 0, false);
+    }
+
     @Override
     public float Pdf_Li(Interaction ref, Vector3f wi) {
         return 0;
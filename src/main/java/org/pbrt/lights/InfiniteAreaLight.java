@@ -12,11 +12,15 @@ package org.pbrt.lights;
 
 import org.pbrt.core.*;
 
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class InfiniteAreaLight extends Light {
 
     public InfiniteAreaLight(Transform lightToWorld, Spectrum L, int nSamples, String texMap) {
+        this(lightToWorld, L, nSamples, texMap, false);
+    }
+
+    public InfiniteAreaLight(Transform lightToWorld, Spectrum L, int nSamples, String texMap, boolean aliasSampling) {
         super(FlagInfinite, lightToWorld, new MediumInterface(), nSamples);
 
         // Read texel data from _texmap_ and initialize _Lmap_
@@ -46,8 +50,7 @@ public class InfiniteAreaLight extends Light {
         int width = 2 * Lmap.Width(), height = 2 * Lmap.Height();
         float[] img = new float[width * height];
         float fwidth = 0.5f / Math.min(width, height);
-        Consumer<Long> envFunc = (Long li) -> {
-            int v = Math.toIntExact(li);
+        IntConsumer envFunc = (int v) -> {
             float vp = (v + .5f) / height;
             float sinTheta = (float)Math.sin(Math.PI * (v + .5f) / height);
             for (int u = 0; u < width; ++u) {
@@ -59,7 +62,8 @@ public class InfiniteAreaLight extends Light {
         Parallel.ParallelFor(envFunc, height, 32);
 
         // Compute sampling distributions for rows and columns of image
-        distribution = new Distribution2D(img, width, height);
+        // Alias tables make sampling constant time but do not preserve sample stratification
+        distribution = new Distribution2D(img, width, height, aliasSampling);
     }
 
     public void Preprocess(Scene scene) {
@@ -172,9 +176,10 @@ public class InfiniteAreaLight extends Light {
         Spectrum sc = paramSet.FindOneSpectrum("scale", new Spectrum(1));
         String texmap = paramSet.FindOneFilename("mapname", "");
         int nSamples = paramSet.FindOneInt("samples", paramSet.FindOneInt("nsamples", 1));
-        if (Pbrt.options.QuickRender) nSamples = Math.max(1, nSamples / 4);
+        if (Pbrt.GetOptions().QuickRender) nSamples = Math.max(1, nSamples / 4);
+        boolean aliasSampling = paramSet.FindOneBoolean("aliassampling", false);
         Spectrum Lsc = Spectrum.Multiply(L, sc);
-        return new InfiniteAreaLight(light2world, Lsc, nSamples, texmap);
+        return new InfiniteAreaLight(light2world, Lsc, nSamples, texmap, aliasSampling);
     }
 
     private MIPMapSpectrum Lmap;
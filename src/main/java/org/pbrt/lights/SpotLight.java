@@ -56,6 +56,15 @@ public class SpotLight extends Light {
         return I.scale(2 * Pbrt.Pi * (1 - .5f * (cosFalloffStart + cosTotalWidth)));
     }
 
+    @Override
+    public LightBounds Bounds() {
+        Vector3f w = Vector3f.Normalize(LightToWorld.xform(new Vector3f(0, 0, 1)));
+        // Full intensity inside the falloff start; the falloff band is the emission spread
+        float phi = I.y() * 4 * Pbrt.Pi;
+        float cosTheta_e = (float) Math.cos(Math.acos(cosTotalWidth) - Math.acos(cosFalloffStart));
+        return new LightBounds(new Bounds3f(pLight), w, phi, cosFalloffStart, cosTheta_e, false);
+    }
+
     @Override
     public float Pdf_Li(Interaction ref, Vector3f wi) {
         return 0;
@@ -18,6 +18,7 @@ public class FourierMaterial extends Material {
 
     public FourierMaterial(String filename, TextureFloat bumpMap) {
         this.bumpMap = bumpMap;
+        HashMap<String, FourierBSDFTable> loadedBSDFs = RenderContext.Current().loadedBSDFs;
         if (!loadedBSDFs.containsKey(filename)) {
             FourierBSDFTable table = FourierBSDFTable.Read(filename);
             loadedBSDFs.put(filename, table);
@@ -37,7 +38,7 @@ public class FourierMaterial extends Material {
     public void ComputeScatteringFunctions(SurfaceInteraction si, TransportMode mode, boolean allowMultipleLobes) {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
         // Checking for zero channels works as a proxy for checking whether the
         // table was successfully read from the file.
         if (bsdfTable.nChannels > 0)
@@ -46,5 +47,4 @@ public class FourierMaterial extends Material {
 
     FourierBSDFTable bsdfTable;
     TextureFloat bumpMap;
-    private static HashMap<String, FourierBSDFTable> loadedBSDFs = new HashMap<>();
 }
\ No newline at end of file
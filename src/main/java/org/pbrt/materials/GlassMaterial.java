@@ -52,32 +52,32 @@ public class GlassMaterial extends Material {
         Spectrum R = Kr.Evaluate(si).clamp(0, Pbrt.Infinity);
         Spectrum T = Kt.Evaluate(si).clamp(0, Pbrt.Infinity);
         // Initialize _bsdf_ for smooth or rough dielectric
-        si.bsdf = new BSDF(si, eta);
+        si.bsdf = BSDF.Alloc(si, eta);
 
         if (R.isBlack() && T.isBlack()) return;
 
         boolean isSpecular = urough == 0 && vrough == 0;
         if (isSpecular && allowMultipleLobes) {
-            si.bsdf.Add(new FresnelSpecular(R, T, 1.f, eta, mode));
+            si.bsdf.Add(FresnelSpecular.Alloc(R, T, 1.f, eta, mode));
         }
         else {
             if (remapRoughness) {
                 urough = TrowbridgeReitzDistribution.RoughnessToAlpha(urough);
                 vrough = TrowbridgeReitzDistribution.RoughnessToAlpha(vrough);
             }
-            MicrofacetDistribution distrib = isSpecular ? null : new TrowbridgeReitzDistribution(urough, vrough, true);
+            MicrofacetDistribution distrib = isSpecular ? null : TrowbridgeReitzDistribution.Alloc(urough, vrough, true);
             if (!R.isBlack()) {
-                Fresnel fresnel = new FresnelDielectric(1.f, eta);
+                Fresnel fresnel = FresnelDielectric.Alloc(1.f, eta);
                 if (isSpecular)
-                    si.bsdf.Add(new SpecularReflection(R, fresnel));
+                    si.bsdf.Add(SpecularReflection.Alloc(R, fresnel));
             else
-                si.bsdf.Add(new MicrofacetReflection(R, distrib, fresnel));
+                si.bsdf.Add(MicrofacetReflection.Alloc(R, distrib, fresnel));
             }
             if (!T.isBlack()) {
                 if (isSpecular)
-                    si.bsdf.Add(new SpecularTransmission(T, 1.f, eta, mode));
+                    si.bsdf.Add(SpecularTransmission.Alloc(T, 1.f, eta, mode));
             else
-                si.bsdf.Add(new MicrofacetTransmission(T, distrib, 1.f, eta, mode));
+                si.bsdf.Add(MicrofacetTransmission.Alloc(T, distrib, 1.f, eta, mode));
             }
         }
     }
@@ -75,7 +75,7 @@ public class HairMaterial extends Material {
         float a = (float)Math.toRadians(alpha.Evaluate(si));
         float e = eta.Evaluate(si);
 
-        si.bsdf = new BSDF(si, e);
+        si.bsdf = BSDF.Alloc(si, e);
 
         Spectrum sig_a;
         if (sigma_a != null)
@@ -26,14 +26,14 @@ public class MatteMaterial extends Material {
         if (bumpMap != null) Bump(bumpMap, si);
 
         // Evaluate textures for _MatteMaterial_ material and allocate BRDF
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
         Spectrum r = (Kd.Evaluate(si)).clamp(0, Pbrt.Infinity);
         float sig = Pbrt.Clamp(sigma.Evaluate(si), 0.0f, 90.0f);
         if (!r.isBlack()) {
             if (sig == 0)
-                si.bsdf.Add(new LambertianReflection(r));
+                si.bsdf.Add(LambertianReflection.Alloc(r));
         else
-            si.bsdf.Add(new OrenNayar(r, sig));
+            si.bsdf.Add(OrenNayar.Alloc(r, sig));
         }
     }
 
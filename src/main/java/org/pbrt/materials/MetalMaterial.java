@@ -47,7 +47,7 @@ public class MetalMaterial extends Material {
     public void ComputeScatteringFunctions(SurfaceInteraction si, TransportMode mode, boolean allowMultipleLobes) {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
 
         float uRough = (uRoughness != null) ? uRoughness.Evaluate(si) : roughness.Evaluate(si);
         float vRough = (vRoughness != null) ? vRoughness.Evaluate(si) : roughness.Evaluate(si);
@@ -55,9 +55,9 @@ public class MetalMaterial extends Material {
             uRough = TrowbridgeReitzDistribution.RoughnessToAlpha(uRough);
             vRough = TrowbridgeReitzDistribution.RoughnessToAlpha(vRough);
         }
-        Fresnel frMf = new FresnelConductor(new Spectrum(1), eta.Evaluate(si), k.Evaluate(si));
-        MicrofacetDistribution distrib = new TrowbridgeReitzDistribution(uRough, vRough, true);
-        si.bsdf.Add(new MicrofacetReflection(new Spectrum(1), distrib, frMf));
+        Fresnel frMf = FresnelConductor.Alloc(new Spectrum(1), eta.Evaluate(si), k.Evaluate(si));
+        MicrofacetDistribution distrib = TrowbridgeReitzDistribution.Alloc(uRough, vRough, true);
+        si.bsdf.Add(MicrofacetReflection.Alloc(new Spectrum(1), distrib, frMf));
     }
 
     TextureSpectrum eta, k;
@@ -29,10 +29,10 @@ public class MirrorMaterial extends Material {
     public void ComputeScatteringFunctions(SurfaceInteraction si, TransportMode mode, boolean allowMultipleLobes) {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
         Spectrum R = Kr.Evaluate(si).clamp(0, Pbrt.Infinity);
         if (!R.isBlack())
-            si.bsdf.Add(new SpecularReflection(R, new FresnelNoOp()));
+            si.bsdf.Add(SpecularReflection.Alloc(R, new FresnelNoOp()));
     }
 
     private TextureSpectrum Kr;
@@ -39,22 +39,22 @@ public class PlasticMaterial extends Material {
     public void ComputeScatteringFunctions(SurfaceInteraction si, TransportMode mode, boolean allowMultipleLobes) {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
         // Initialize diffuse component of plastic material
         Spectrum kd = Kd.Evaluate(si).clamp(0, Pbrt.Infinity);
         if (!kd.isBlack())
-            si.bsdf.Add(new LambertianReflection(kd));
+            si.bsdf.Add(LambertianReflection.Alloc(kd));
 
         // Initialize specular component of plastic material
         Spectrum ks = Ks.Evaluate(si).clamp(0, Pbrt.Infinity);
         if (!ks.isBlack()) {
-            Fresnel fresnel = new FresnelDielectric(1.5f, 1.f);
+            Fresnel fresnel = FresnelDielectric.Alloc(1.5f, 1.f);
             // Create microfacet distribution _distrib_ for plastic material
             float rough = roughness.Evaluate(si);
             if (remapRoughness)
                 rough = TrowbridgeReitzDistribution.RoughnessToAlpha(rough);
-            MicrofacetDistribution distrib = new TrowbridgeReitzDistribution(rough, rough, true);
-            BxDF spec = new MicrofacetReflection(ks, distrib, fresnel);
+            MicrofacetDistribution distrib = TrowbridgeReitzDistribution.Alloc(rough, rough, true);
+            BxDF spec = MicrofacetReflection.Alloc(ks, distrib, fresnel);
             si.bsdf.Add(spec);
         }
     }
@@ -39,7 +39,7 @@ public class SubstrateMaterial extends Material {
     public void ComputeScatteringFunctions(SurfaceInteraction si, TransportMode mode, boolean allowMultipleLobes) {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
-        si.bsdf = new BSDF(si, 1);
+        si.bsdf = BSDF.Alloc(si, 1);
         Spectrum d = Kd.Evaluate(si).clamp(0, Pbrt.Infinity);
         Spectrum s = Ks.Evaluate(si).clamp(0, Pbrt.Infinity);
         float roughu = nu.Evaluate(si);
@@ -50,7 +50,7 @@ public class SubstrateMaterial extends Material {
                 roughu = TrowbridgeReitzDistribution.RoughnessToAlpha(roughu);
                 roughv = TrowbridgeReitzDistribution.RoughnessToAlpha(roughv);
             }
-            MicrofacetDistribution distrib = new TrowbridgeReitzDistribution(roughu, roughv, true);
+            MicrofacetDistribution distrib = TrowbridgeReitzDistribution.Alloc(roughu, roughv, true);
             si.bsdf.Add(new FresnelBlend(d, s, distrib));
         }
     }
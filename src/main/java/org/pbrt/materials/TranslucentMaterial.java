@@ -46,7 +46,7 @@ public class TranslucentMaterial extends Material {
         // Perform bump mapping with _bumpMap_, if present
         if (bumpMap != null) Bump(bumpMap, si);
         float eta = 1.5f;
-        si.bsdf = new BSDF(si, eta);
+        si.bsdf = BSDF.Alloc(si, eta);
 
         Spectrum r = reflect.Evaluate(si).clamp(0, Pbrt.Infinity);
         Spectrum t = transmit.Evaluate(si).clamp(0, Pbrt.Infinity);
@@ -55,22 +55,22 @@ public class TranslucentMaterial extends Material {
         Spectrum kd = Kd.Evaluate(si).clamp(0, Pbrt.Infinity);
         if (!kd.isBlack()) {
             if (!r.isBlack())
-                si.bsdf.Add(new LambertianReflection(r.multiply(kd)));
+                si.bsdf.Add(LambertianReflection.Alloc(r.multiply(kd)));
             if (!t.isBlack())
-                si.bsdf.Add(new LambertianTransmission(t.multiply(kd)));
+                si.bsdf.Add(LambertianTransmission.Alloc(t.multiply(kd)));
         }
         Spectrum ks = Ks.Evaluate(si).clamp(0, Pbrt.Infinity);
         if (!ks.isBlack() && (!r.isBlack() || !t.isBlack())) {
             float rough = roughness.Evaluate(si);
             if (remapRoughness)
                 rough = TrowbridgeReitzDistribution.RoughnessToAlpha(rough);
-            MicrofacetDistribution distrib = new TrowbridgeReitzDistribution(rough, rough, true);
+            MicrofacetDistribution distrib = TrowbridgeReitzDistribution.Alloc(rough, rough, true);
             if (!r.isBlack()) {
-                Fresnel fresnel = new FresnelDielectric(1.f, eta);
-                si.bsdf.Add(new MicrofacetReflection(r.multiply(ks), distrib, fresnel));
+                Fresnel fresnel = FresnelDielectric.Alloc(1.f, eta);
+                si.bsdf.Add(MicrofacetReflection.Alloc(r.multiply(ks), distrib, fresnel));
             }
             if (!t.isBlack())
-                si.bsdf.Add(new MicrofacetTransmission(t.multiply(ks), distrib, 1.f, eta, mode));
+                si.bsdf.Add(MicrofacetTransmission.Alloc(t.multiply(ks), distrib, 1.f, eta, mode));
         }
     }
 
@@ -56,21 +56,21 @@ public class UberMaterial extends Material {
         Spectrum op = opacity.Evaluate(si).clamp(0, Pbrt.Infinity);
         Spectrum t = Spectrum.Add(op.negate(), new Spectrum(1)).clamp(0, Pbrt.Infinity);
         if (!t.isBlack()) {
-            si.bsdf = new BSDF(si, 1);
-            BxDF tr = new SpecularTransmission(t, 1, 1, mode);
+            si.bsdf = BSDF.Alloc(si, 1);
+            BxDF tr = SpecularTransmission.Alloc(t, 1, 1, mode);
             si.bsdf.Add(tr);
         } else
-            si.bsdf = new BSDF(si, e);
+            si.bsdf = BSDF.Alloc(si, e);
 
         Spectrum kd = Spectrum.Multiply(op, Kd.Evaluate(si).clamp(0, Pbrt.Infinity));
         if (!kd.isBlack()) {
-            BxDF diff = new LambertianReflection(kd);
+            BxDF diff = LambertianReflection.Alloc(kd);
             si.bsdf.Add(diff);
         }
 
         Spectrum ks = Spectrum.Multiply(op, Ks.Evaluate(si).clamp(0, Pbrt.Infinity));
         if (!ks.isBlack()) {
-            Fresnel fresnel = new FresnelDielectric(1, e);
+            Fresnel fresnel = FresnelDielectric.Alloc(1, e);
             float roughu, roughv;
             if (roughnessu != null)
                 roughu = roughnessu.Evaluate(si);
@@ -84,20 +84,20 @@ public class UberMaterial extends Material {
                 roughu = TrowbridgeReitzDistribution.RoughnessToAlpha(roughu);
                 roughv = TrowbridgeReitzDistribution.RoughnessToAlpha(roughv);
             }
-            MicrofacetDistribution distrib = new TrowbridgeReitzDistribution(roughu, roughv, true);
-            BxDF spec = new MicrofacetReflection(ks, distrib, fresnel);
+            MicrofacetDistribution distrib = TrowbridgeReitzDistribution.Alloc(roughu, roughv, true);
+            BxDF spec = MicrofacetReflection.Alloc(ks, distrib, fresnel);
             si.bsdf.Add(spec);
         }
 
         Spectrum kr = Spectrum.Multiply(op, Kr.Evaluate(si).clamp(0, Pbrt.Infinity));
         if (!kr.isBlack()) {
-            Fresnel fresnel = new FresnelDielectric(1, e);
-            si.bsdf.Add(new SpecularReflection(kr, fresnel));
+            Fresnel fresnel = FresnelDielectric.Alloc(1, e);
+            si.bsdf.Add(SpecularReflection.Alloc(kr, fresnel));
         }
 
         Spectrum kt = Spectrum.Multiply(op, Kt.Evaluate(si).clamp(0, Pbrt.Infinity));
         if (!kt.isBlack())
-            si.bsdf.Add(new SpecularTransmission(kt, 1, e, mode));
+            si.bsdf.Add(SpecularTransmission.Alloc(kt, 1, e, mode));
     }
 
     private TextureSpectrum Kd, Ks, Kr, Kt, opacity;
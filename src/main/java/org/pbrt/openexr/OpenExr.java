@@ -2,10 +2,15 @@ package org.pbrt.openexr;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.DataFormatException;
 
+import org.pbrt.core.Parallel;
 import org.pbrt.openexr.compressor.Compressor;
 import org.pbrt.openexr.exception.OpenExrException;
 import org.pbrt.openexr.header.Attribute;
@@ -14,6 +19,8 @@ import org.pbrt.openexr.types.Box2i;
 import org.pbrt.openexr.types.Channel;
 import org.pbrt.openexr.types.Channels;
 import org.pbrt.openexr.types.Compression;
+import org.pbrt.openexr.types.Int;
+import org.pbrt.openexr.types.TileDescription;
 import org.pbrt.openexr.util.DataReader;
 import org.pbrt.openexr.util.Half;
 
@@ -26,6 +33,11 @@ public class OpenExr {
 	private static final int MAGIC_NUMBER = 0x01312F76;
 	private static final int VERSION = 2;
 	
+	// Version field flags
+	private static final int TILED = 0x2;
+	private static final int NON_IMAGE = 0x8;
+	private static final int MULTI_PART = 0x10;
+	
 	private int width;
 	private int height;
 	
@@ -88,15 +100,36 @@ public class OpenExr {
 	private void load(File file) throws OpenExrException {
 		try {
 			DataReader data = new DataReader(file, ByteOrder.LITTLE_ENDIAN);
-			validateFile(data);
-			header = new Header(data);
-			readBody(data);
+			int flags = validateFile(data);
+			
+			List<Header> headers = new ArrayList<>();
+			if ((flags & MULTI_PART) != 0) {
+				while (data.peekByte() != 0) {
+					headers.add(new Header(data));
+				}
+				data.skip(1);
+			} else {
+				headers.add(new Header(data));
+			}
+			
+			// read the first part with colour channels, skipping the offset tables of the
+			// parts before it
+			int part = selectPart(headers);
+			for (int i = 0; i < part; i++) {
+				data.skip(8 * ((Int) getAttribute(headers.get(i), "chunkCount")).value);
+			}
+			header = headers.get(part);
+			
+			boolean tiled = (flags & MULTI_PART) != 0 ? header.get("tiles") != null : (flags & TILED) != 0;
+			readBody(data, tiled, (flags & MULTI_PART) != 0 ? part : -1);
+		} catch (OpenExrException ex) {
+			throw ex;
 		} catch (Exception ex) {
 			throw new OpenExrException(ex);
 		}
 	}
 	
-	private void validateFile(DataReader data) throws IOException, OpenExrException {
+	private int validateFile(DataReader data) throws IOException, OpenExrException {
 		
 		if (MAGIC_NUMBER != data.readInt()) {
 			throw new OpenExrException("Not a valid OpenEXR file format");
@@ -108,14 +141,27 @@ public class OpenExr {
 		}
 		
 		byte flags = data.readByte();
-		if ((flags & 0x2) != 0) {
-			throw new OpenExrException("Tiles not supported");
+		if ((flags & NON_IMAGE) != 0) {
+			throw new OpenExrException("Deep data not supported");
 		}
 		
 		data.skip(2);
+		return flags;
 	}
 	
-	private void readBody(DataReader data) throws DataFormatException, OpenExrException {
+	private int selectPart(List<Header> headers) throws OpenExrException {
+		for (int i = 0; i < headers.size(); i++) {
+			Attribute type = headers.get(i).get("type");
+			if (type != null && type.toString().contains("deep")) continue;
+			Attribute channels = headers.get(i).get("channels");
+			if (channels instanceof Channels && hasColourChannels((Channels) channels)) {
+				return i;
+			}
+		}
+		throw new OpenExrException("No RGB colour channels were found");
+	}
+	
+	private void readBody(DataReader data, boolean tiled, int part) throws OpenExrException {
 		
 		Box2i dataWindow = (Box2i) getAttribute("dataWindow");
 		setDimensions(dataWindow);
@@ -123,58 +169,242 @@ public class OpenExr {
 		Channels channels = (Channels) getAttribute("channels");
 		verify(channels);
 		
-		int bytesPerRow = getBytesPerRow(channels.list);
-		
 		Compression compression = (Compression) getAttribute("compression");
-		Compressor compressor = Compressor.newInstance(compression, bytesPerRow);
+		Compressor compressor = Compressor.newInstance(compression, channels.list);
+		
+		ChunkLayout layout = tiled ? new ChunkLayout((TileDescription) getAttribute("tiles"), part)
+								   : new ChunkLayout(compression.linesPerBlock, part);
+		
+		// Offsets of the full resolution chunks; they come first in the offset table
+		int tableStart = data.offset();
+		int[] offsets = new int[layout.numChunks];
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = validChunkOffset(data, layout, i, data.readLong(), dataWindow);
+		}
+		for (int offset : offsets) {
+			if (offset < 0) {
+				rebuildOffsets(data, layout, tableStart + 8 * layout.numTableEntries, offsets, dataWindow);
+				break;
+			}
+		}
 		
 		pixels = new float[width * height * 3];
+		int[] channelOffsets = new int[channels.list.size()];
+		for (int c = 0; c < channelOffsets.length; c++) {
+			channelOffsets[c] = getChannelOffset(channels.list.get(c));
+		}
 		
-		int numBlocks = (int) Math.ceil(height / compression.linesPerBlock);
+		// Decode chunks in parallel; every chunk covers its own rectangle of the image
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		Parallel.ParallelFor((int i) -> {
+			if (failure.get() != null) return;
+			try {
+				readChunk(data, layout, offsets[i], i, channels.list, channelOffsets, compressor);
+			} catch (Exception ex) {
+				failure.compareAndSet(null, ex);
+			}
+		}, layout.numChunks, 1);
 		
-		// line offset table
-		data.skip(numBlocks * 8);
+		if (failure.get() != null) {
+			throw new OpenExrException(failure.get());
+		}
+	}
+	
+	private void readChunk(DataReader data, ChunkLayout layout, int offset, int chunk, List<Channel> channels,
+						   int[] channelOffsets, Compressor compressor) throws DataFormatException {
+		
+		int headerSize = layout.headerSize();
+		int size = data.slice(offset + headerSize - 4, 4).getInt();
+		ByteBuffer block = data.slice(offset + headerSize, size);
+		
+		int x0 = layout.chunkX(chunk);
+		int y0 = layout.chunkY(chunk);
+		int nx = layout.chunkWidth(chunk);
+		int ny = layout.chunkHeight(chunk);
+		
+		int rawSize = 0;
+		for (Channel channel : channels) {
+			rawSize += channel.getNumBytes() * nx * ny;
+		}
+		
+		// blocks that would not get smaller are stored uncompressed
+		if (size < rawSize) {
+			block = compressor.uncompress(block, rawSize, nx, ny);
+		} else if (size != rawSize) {
+			throw new DataFormatException("Invalid chunk size " + size);
+		}
 		
 		Half half = Half.getInstance();
-		for (int i = 0; i < numBlocks; i++) {
-			
-			int yStart = data.readInt() - dataWindow.yMin;
-			int size = data.readInt();
-			byte[] block = data.readBytes(size);
-			
-			block = compressor.uncompress(block);
-			
-			int yMax = compression.linesPerBlock;
-			if (i == numBlocks - 1) {
-				int tmp = height % compression.linesPerBlock;
-				if (tmp > 0) yMax = tmp;
+		int pos = 0;
+		for (int y = y0; y < y0 + ny; y++) {
+			for (int c = 0; c < channels.size(); c++) {
+				Channel channel = channels.get(c);
+				int channelOffset = channelOffsets[c];
+				if (channelOffset == -1) {
+					pos += channel.getNumBytes() * nx;
+					continue;
+				}
+				
+				int index = (x0 + y * width) * 3 + channelOffset;
+				switch (channel.pixelType) {
+					case Channel.HALF:
+						for (int x = 0; x < nx; x++, pos += 2, index += 3) {
+							pixels[index] = half.toFloat(block.getShort(pos));
+						}
+						break;
+					case Channel.FLOAT:
+						for (int x = 0; x < nx; x++, pos += 4, index += 3) {
+							pixels[index] = block.getFloat(pos);
+						}
+						break;
+					case Channel.UINT:
+						for (int x = 0; x < nx; x++, pos += 4, index += 3) {
+							pixels[index] = (float) (block.getInt(pos) & 0xffffffffL);
+						}
+						break;
+				}
 			}
+		}
+	}
+	
+	// Returns the offset if it points at the expected chunk, -1 otherwise. Incomplete
+	// files, and files written by older versions of pbrt, have unusable offset tables.
+	private int validChunkOffset(DataReader data, ChunkLayout layout, int chunk, long offset, Box2i dataWindow) {
+		int headerSize = layout.headerSize();
+		if (offset <= 0 || offset + headerSize > data.length()) return -1;
+		ByteBuffer chunkHeader = data.slice((int) offset, headerSize);
+		if (layout.chunkAt(chunkHeader, dataWindow) != chunk) return -1;
+		int size = chunkHeader.getInt(headerSize - 4);
+		if (size < 0 || offset + headerSize + size > data.length()) return -1;
+		return (int) offset;
+	}
+	
+	// Walk the chunks stored after the offset table and record where each one starts
+	private void rebuildOffsets(DataReader data, ChunkLayout layout, int position, int[] offsets, Box2i dataWindow)
+			throws OpenExrException {
+		if (layout.part >= 0) {
+			throw new OpenExrException("Invalid chunk offset table in multi-part file");
+		}
+		Arrays.fill(offsets, -1);
+		int headerSize = layout.headerSize();
+		for (int i = 0; i < layout.numTableEntries && position + headerSize <= data.length(); i++) {
+			ByteBuffer chunkHeader = data.slice(position, headerSize);
+			int chunk = layout.chunkAt(chunkHeader, dataWindow);
+			if (chunk >= 0 && chunk < offsets.length) offsets[chunk] = position;
+			position += headerSize + chunkHeader.getInt(headerSize - 4);
+		}
+		for (int offset : offsets) {
+			if (offset < 0) {
+				throw new OpenExrException("Incomplete OpenEXR file, image chunks are missing");
+			}
+		}
+	}
+	
+	// Division of the full resolution image into scanline blocks or tiles
+	private class ChunkLayout {
+		
+		final int part;
+		final boolean tiled;
+		final int chunkWidth;
+		final int chunkHeight;
+		final int numXChunks;
+		final int numChunks;
+		// Entries of the offset table, including the lower resolution levels of tiled files
+		final int numTableEntries;
+		
+		ChunkLayout(int linesPerBlock, int part) {
+			this.part = part;
+			tiled = false;
+			chunkWidth = width;
+			chunkHeight = linesPerBlock;
+			numXChunks = 1;
+			numChunks = numTableEntries = (height + linesPerBlock - 1) / linesPerBlock;
+		}
+		
+		ChunkLayout(TileDescription tiles, int part) {
+			this.part = part;
+			tiled = true;
+			chunkWidth = tiles.xSize;
+			chunkHeight = tiles.ySize;
+			numXChunks = numTiles(width, chunkWidth);
+			numChunks = numXChunks * numTiles(height, chunkHeight);
 			
-			int pos = 0;
-			for (int yBlock = 0; yBlock < yMax; yBlock++) {
-				LOOP:
-				for (Channel channel : channels.list) {
-					int channelOffset = getChannelOffset(channel);
-					int yOffset = (yStart + yBlock) * width;
-					for (int x = 0; x < width; x++) {
-						
-						if (channelOffset == -1) {
-							pos += channel.getNumBytes() * width;
-							continue LOOP;
+			int entries = 0;
+			switch (tiles.levelMode) {
+				case TileDescription.MIPMAP_LEVELS:
+					for (int l = 0; l < tiles.numLevels(Math.max(width, height)); l++) {
+						entries += numTiles(levelSize(width, l, tiles), chunkWidth) *
+								   numTiles(levelSize(height, l, tiles), chunkHeight);
+					}
+					break;
+				case TileDescription.RIPMAP_LEVELS:
+					for (int ly = 0; ly < tiles.numLevels(height); ly++) {
+						for (int lx = 0; lx < tiles.numLevels(width); lx++) {
+							entries += numTiles(levelSize(width, lx, tiles), chunkWidth) *
+									   numTiles(levelSize(height, ly, tiles), chunkHeight);
 						}
-						
-						short bitPattern = (short) (((block[pos + 1] & 0xff) << 8) | (block[pos] & 0xff));
-						pos += 2;
-						
-						int index = (x + yOffset) * 3 + channelOffset;
-						pixels[index] = half.toFloat(bitPattern);
 					}
-				}
+					break;
+				default:
+					entries = numChunks;
 			}
+			numTableEntries = entries;
+		}
+		
+		int numTiles(int size, int tileSize) {
+			return (size + tileSize - 1) / tileSize;
+		}
+		
+		int levelSize(int size, int level, TileDescription tiles) {
+			int levelSize = (tiles.roundingMode == TileDescription.ROUND_UP) ?
+					(size + (1 << level) - 1) >> level : size >> level;
+			return Math.max(levelSize, 1);
+		}
+		
+		// Chunks start with the part number in multi-part files, then the first line of a
+		// scanline block or the tile and level coordinates of a tile, then the data size
+		int headerSize() {
+			return (part >= 0 ? 4 : 0) + (tiled ? 20 : 8);
+		}
+		
+		// Index of the full resolution chunk a chunk header belongs to, -1 for other
+		// parts or levels
+		int chunkAt(ByteBuffer chunkHeader, Box2i dataWindow) {
+			int pos = 0;
+			if (part >= 0) {
+				if (chunkHeader.getInt(pos) != part) return -1;
+				pos += 4;
+			}
+			if (tiled) {
+				int tx = chunkHeader.getInt(pos);
+				int ty = chunkHeader.getInt(pos + 4);
+				if (chunkHeader.getInt(pos + 8) != 0 || chunkHeader.getInt(pos + 12) != 0) return -1;
+				if (tx < 0 || tx >= numXChunks || ty < 0) return -1;
+				return ty * numXChunks + tx;
+			}
+			int y = chunkHeader.getInt(pos) - dataWindow.yMin;
+			if (y < 0 || y % chunkHeight != 0) return -1;
+			return y / chunkHeight;
+		}
+		
+		int chunkX(int chunk) {
+			return (chunk % numXChunks) * chunkWidth;
+		}
+		
+		int chunkY(int chunk) {
+			return (chunk / numXChunks) * chunkHeight;
+		}
+		
+		int chunkWidth(int chunk) {
+			return Math.min(chunkWidth, width - chunkX(chunk));
+		}
+		
+		int chunkHeight(int chunk) {
+			return Math.min(chunkHeight, height - chunkY(chunk));
 		}
 	}
 	
-	private Attribute getAttribute(String name) throws OpenExrException {
+	private Attribute getAttribute(Header header, String name) throws OpenExrException {
 		Attribute attribute = header.get(name);
 		if (attribute == null) {
 			throw new OpenExrException("Required attribute \"" + name + "\" not found");
@@ -182,6 +412,10 @@ public class OpenExr {
 		return attribute;
 	}
 	
+	private Attribute getAttribute(String name) throws OpenExrException {
+		return getAttribute(header, name);
+	}
+	
 	private void setDimensions(Box2i dataWindow) {
 		width = dataWindow.xMax - dataWindow.xMin + 1;
 		height = dataWindow.yMax - dataWindow.yMin + 1;
@@ -189,59 +423,41 @@ public class OpenExr {
 	
 	private void verify(Channels channels) throws OpenExrException {
 		
-		boolean r = false;
-		boolean g = false;
-		boolean b = false;
-		
-		List<Channel> list = channels.list;
-		for (Channel channel : list) {
-			String name = channel.name.toLowerCase();
-			switch (name) {
-				case "r":
-					verify(channel);
-					r = true;
-					break;
-				case "g":
-					verify(channel);
-					g = true;
-					break;
-				case "b":
-					verify(channel);
-					b = true;
-					break;
-			}
-		}
-		
-		if (!r || !g || !b) {
+		if (!hasColourChannels(channels)) {
 			throw new OpenExrException("No RGB colour channels were found");
 		}
-	}
-	
-	private void verify(Channel channel) throws OpenExrException {
-		
-		if (channel.pixelType != Channel.HALF) {
-			throw new OpenExrException("Pixels must be stored in half precision floating-point format");
-		}
 		
-		if (channel.xSampling != 1 || channel.ySampling != 1) {
-			throw new OpenExrException("Pixel subsampling is not supported");
+		for (Channel channel : channels.list) {
+			if (channel.getNumBytes() == 0) {
+				throw new OpenExrException("Unknown pixel type for channel " + channel.name);
+			}
+			if (channel.xSampling != 1 || channel.ySampling != 1) {
+				throw new OpenExrException("Pixel subsampling is not supported");
+			}
 		}
 	}
 	
-	private int getBytesPerRow(List<Channel> list) {
-		int pixelBytes = 0;
-		for (Channel channel : list) {
-			pixelBytes += channel.getNumBytes();
+	private boolean hasColourChannels(Channels channels) {
+		boolean r = false;
+		boolean g = false;
+		boolean b = false;
+		for (Channel channel : channels.list) {
+			switch (getChannelOffset(channel)) {
+				case 0: r = true; break;
+				case 1: g = true; break;
+				case 2: b = true; break;
+			}
 		}
-		return pixelBytes * width;
+		return r && g && b;
 	}
 	
 	private int getChannelOffset(Channel channel) {
-		char c = channel.name.charAt(0);
-		if (c == 82) return 0;
-		if (c == 71) return 1;
-		if (c == 66) return 2;
-		return -1;
+		switch (channel.name.toLowerCase()) {
+			case "r": return 0;
+			case "g": return 1;
+			case "b": return 2;
+			default: return -1;
+		}
 	}
 	
 	/**
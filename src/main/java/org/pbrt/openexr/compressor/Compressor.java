@@ -1,8 +1,11 @@
 package org.pbrt.openexr.compressor;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.zip.DataFormatException;
 
 import org.pbrt.openexr.exception.OpenExrException;
+import org.pbrt.openexr.types.Channel;
 import org.pbrt.openexr.types.Compression;
 
 /**
@@ -11,23 +14,29 @@ import org.pbrt.openexr.types.Compression;
  */
 public abstract class Compressor {
 	
-	public static Compressor newInstance(Compression compression, int bytesPerRow) throws OpenExrException {
-		
-		int blockSize = compression.linesPerBlock * bytesPerRow;
+	public static Compressor newInstance(Compression compression, List<Channel> channels) throws OpenExrException {
 		
 		switch (compression.method) {
 			case Compression.NONE:
 				return new NullCompressor();
 			case Compression.ZIPS:
 			case Compression.ZIP:
-				return new ZipCompressor(blockSize);
+				return new ZipCompressor();
+			case Compression.PIZ:
+				int[] channelSizes = new int[channels.size()];
+				for (int i = 0; i < channelSizes.length; i++) {
+					channelSizes[i] = channels.get(i).getNumBytes() / 2;
+				}
+				return new PizCompressor(channelSizes);
 		}
 		
 		throw new OpenExrException("Compression method not supported: " + compression.methodName);
 	}
 	
-	public abstract byte[] uncompress(byte[] data) throws DataFormatException;
+	// Decode a block of nx by ny pixels that holds rawSize bytes once uncompressed.
+	// Compressors keep no per block state, so blocks can be decoded in parallel.
+	public abstract ByteBuffer uncompress(ByteBuffer data, int rawSize, int nx, int ny) throws DataFormatException;
 	
 	protected Compressor() {
 	}
-}
\ No newline at end of file
+}
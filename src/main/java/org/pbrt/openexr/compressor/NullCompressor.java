@@ -1,5 +1,6 @@
 package org.pbrt.openexr.compressor;
 
+import java.nio.ByteBuffer;
 import java.util.zip.DataFormatException;
 
 /**
@@ -9,7 +10,7 @@ import java.util.zip.DataFormatException;
 public class NullCompressor extends Compressor {
 
 	@Override
-	public byte[] uncompress(byte[] data) throws DataFormatException {
+	public ByteBuffer uncompress(ByteBuffer data, int rawSize, int nx, int ny) throws DataFormatException {
 		return data;
 	}
-}
\ No newline at end of file
+}
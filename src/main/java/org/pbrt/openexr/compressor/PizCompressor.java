@@ -0,0 +1,620 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+
+package org.pbrt.openexr.compressor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+
+/**
+ * OpenEXR PIZ compression. The 16-bit words of a block are remapped to the dense range
+ * of values that actually occur, each channel is transformed with a 2D Haar wavelet and
+ * the result is Huffman coded. Blocks are passed in and out in file layout: for each line,
+ * for each channel, the line's pixels as little-endian words.
+ */
+public class PizCompressor extends Compressor {
+
+	private static final int USHORT_RANGE = 1 << 16;
+	private static final int BITMAP_SIZE = USHORT_RANGE >> 3;
+
+	private static final int HUF_ENCSIZE = (1 << 16) + 1;
+	private static final int HUF_MAXCODELENGTH = 58;
+	private static final int SHORT_ZEROCODE_RUN = 59;
+	private static final int LONG_ZEROCODE_RUN = 63;
+	private static final int SHORTEST_LONG_RUN = 2 + LONG_ZEROCODE_RUN - SHORT_ZEROCODE_RUN;
+	private static final int LONGEST_LONG_RUN = 255 + SHORTEST_LONG_RUN;
+
+	private static final int A_OFFSET = 1 << 15;
+	private static final int M_OFFSET = 1 << 15;
+	private static final int MOD_MASK = (1 << 16) - 1;
+
+	// Number of 16-bit words per pixel of each channel: 1 for HALF, 2 for FLOAT and UINT
+	private final int[] channelSizes;
+
+	public PizCompressor(int[] channelSizes) {
+		this.channelSizes = channelSizes.clone();
+	}
+
+	public byte[] compress(byte[] raw, int nx, int ny) {
+		char[] data = new char[raw.length / 2];
+		toPlanar(raw, nx, ny, data);
+
+		// Range compression: only the values present in the block are coded
+		byte[] bitmap = new byte[BITMAP_SIZE];
+		for (char v : data) bitmap[v >> 3] |= (1 << (v & 7));
+		bitmap[0] &= ~1;
+		int minNonZero = BITMAP_SIZE - 1;
+		int maxNonZero = 0;
+		for (int i = 0; i < BITMAP_SIZE; ++i) {
+			if (bitmap[i] != 0) {
+				minNonZero = Math.min(minNonZero, i);
+				maxNonZero = Math.max(maxNonZero, i);
+			}
+		}
+		char[] lut = new char[USHORT_RANGE];
+		int maxValue = forwardLutFromBitmap(bitmap, lut);
+		for (int i = 0; i < data.length; ++i) data[i] = lut[data[i]];
+
+		// Wavelet encoding
+		int start = 0;
+		for (int size : channelSizes) {
+			for (int j = 0; j < size; ++j)
+				wav2Encode(data, start + j, nx, size, ny, nx * size, maxValue);
+			start += nx * ny * size;
+		}
+
+		byte[] huf = hufCompress(data);
+		int bitmapLength = (minNonZero <= maxNonZero) ? maxNonZero - minNonZero + 1 : 0;
+		ByteBuffer out = ByteBuffer.allocate(8 + bitmapLength + huf.length).order(ByteOrder.LITTLE_ENDIAN);
+		out.putShort((short) minNonZero);
+		out.putShort((short) maxNonZero);
+		out.put(bitmap, minNonZero, bitmapLength);
+		out.putInt(huf.length);
+		out.put(huf);
+		return out.array();
+	}
+
+	@Override
+	public ByteBuffer uncompress(ByteBuffer data, int rawSize, int nx, int ny) throws DataFormatException {
+		byte[] in = new byte[data.remaining()];
+		data.duplicate().get(in);
+		byte[] raw = uncompress(in, nx, ny);
+		if (raw.length != rawSize) {
+			throw new DataFormatException("PIZ block size mismatch");
+		}
+		return ByteBuffer.wrap(raw).order(data.order());
+	}
+
+	public byte[] uncompress(byte[] in, int nx, int ny) throws DataFormatException {
+		ByteBuffer buf = ByteBuffer.wrap(in).order(ByteOrder.LITTLE_ENDIAN);
+		int minNonZero = buf.getShort() & 0xffff;
+		int maxNonZero = buf.getShort() & 0xffff;
+		if (maxNonZero >= BITMAP_SIZE) {
+			throw new DataFormatException("Invalid PIZ bitmap range");
+		}
+		byte[] bitmap = new byte[BITMAP_SIZE];
+		if (minNonZero <= maxNonZero) {
+			buf.get(bitmap, minNonZero, maxNonZero - minNonZero + 1);
+		}
+		char[] lut = new char[USHORT_RANGE];
+		int maxValue = reverseLutFromBitmap(bitmap, lut);
+
+		int length = buf.getInt();
+		int words = 0;
+		for (int size : channelSizes) words += nx * ny * size;
+		char[] data = new char[words];
+		if (length < 0 || buf.position() + length > in.length) {
+			throw new DataFormatException("Truncated PIZ block");
+		}
+		hufUncompress(in, buf.position(), length, data);
+
+		// Wavelet decoding
+		int start = 0;
+		for (int size : channelSizes) {
+			for (int j = 0; j < size; ++j)
+				wav2Decode(data, start + j, nx, size, ny, nx * size, maxValue);
+			start += nx * ny * size;
+		}
+
+		for (int i = 0; i < data.length; ++i) data[i] = lut[data[i]];
+		byte[] raw = new byte[2 * words];
+		fromPlanar(data, nx, ny, raw);
+		return raw;
+	}
+
+	// Gather the interleaved lines of a block into one plane of words per channel
+	private void toPlanar(byte[] raw, int nx, int ny, char[] data) {
+		int[] end = channelStarts(nx, ny);
+		int pos = 0;
+		for (int y = 0; y < ny; ++y) {
+			for (int c = 0; c < channelSizes.length; ++c) {
+				int n = nx * channelSizes[c];
+				for (int i = 0; i < n; ++i, pos += 2)
+					data[end[c]++] = (char) ((raw[pos] & 0xff) | ((raw[pos + 1] & 0xff) << 8));
+			}
+		}
+	}
+
+	private void fromPlanar(char[] data, int nx, int ny, byte[] raw) {
+		int[] end = channelStarts(nx, ny);
+		int pos = 0;
+		for (int y = 0; y < ny; ++y) {
+			for (int c = 0; c < channelSizes.length; ++c) {
+				int n = nx * channelSizes[c];
+				for (int i = 0; i < n; ++i, pos += 2) {
+					char v = data[end[c]++];
+					raw[pos] = (byte) v;
+					raw[pos + 1] = (byte) (v >> 8);
+				}
+			}
+		}
+	}
+
+	private int[] channelStarts(int nx, int ny) {
+		int[] start = new int[channelSizes.length];
+		for (int c = 1; c < channelSizes.length; ++c)
+			start[c] = start[c - 1] + nx * ny * channelSizes[c - 1];
+		return start;
+	}
+
+	private static int forwardLutFromBitmap(byte[] bitmap, char[] lut) {
+		int k = 0;
+		for (int i = 0; i < USHORT_RANGE; ++i) {
+			if (i == 0 || (bitmap[i >> 3] & (1 << (i & 7))) != 0)
+				lut[i] = (char) k++;
+			else
+				lut[i] = 0;
+		}
+		return k - 1;
+	}
+
+	private static int reverseLutFromBitmap(byte[] bitmap, char[] lut) {
+		int k = 0;
+		for (int i = 0; i < USHORT_RANGE; ++i) {
+			if (i == 0 || (bitmap[i >> 3] & (1 << (i & 7))) != 0)
+				lut[k++] = (char) i;
+		}
+		int n = k - 1;
+		while (k < USHORT_RANGE) lut[k++] = 0;
+		return n;
+	}
+
+	// Wavelet basis functions; the two results are packed as (first << 16) | second
+
+	private static int wenc14(int a, int b) {
+		int as = (short) a;
+		int bs = (short) b;
+		int ms = (as + bs) >> 1;
+		int ds = as - bs;
+		return ((ms & 0xffff) << 16) | (ds & 0xffff);
+	}
+
+	private static int wdec14(int l, int h) {
+		int ls = (short) l;
+		int hi = (short) h;
+		int ai = ls + (hi & 1) + (hi >> 1);
+		int bi = ai - hi;
+		return ((ai & 0xffff) << 16) | (bi & 0xffff);
+	}
+
+	private static int wenc16(int a, int b) {
+		int ao = (a + A_OFFSET) & MOD_MASK;
+		int m = (ao + b) >> 1;
+		int d = ao - b;
+		if (d < 0) m = (m + M_OFFSET) & MOD_MASK;
+		d &= MOD_MASK;
+		return (m << 16) | d;
+	}
+
+	private static int wdec16(int l, int h) {
+		int bb = (l - (h >> 1)) & MOD_MASK;
+		int aa = (h + bb - A_OFFSET) & MOD_MASK;
+		return (aa << 16) | bb;
+	}
+
+	private static int wenc(boolean w14, int a, int b) {
+		return w14 ? wenc14(a, b) : wenc16(a, b);
+	}
+
+	private static int wdec(boolean w14, int l, int h) {
+		return w14 ? wdec14(l, h) : wdec16(l, h);
+	}
+
+	// 2D wavelet encoding of the nx by ny words at _in_, _ox_ and _oy_ apart
+	private static void wav2Encode(char[] buf, int in, int nx, int ox, int ny, int oy, int mx) {
+		boolean w14 = (mx < (1 << 14));
+		int n = Math.min(nx, ny);
+		int p = 1;
+		int p2 = 2;
+		while (p2 <= n) {
+			int py = in;
+			int ey = in + oy * (ny - p2);
+			int oy1 = oy * p, oy2 = oy * p2;
+			int ox1 = ox * p, ox2 = ox * p2;
+			for (; py <= ey; py += oy2) {
+				int px = py;
+				int ex = py + ox * (nx - p2);
+				for (; px <= ex; px += ox2) {
+					int p01 = px + ox1;
+					int p10 = px + oy1;
+					int p11 = p10 + ox1;
+					int r0 = wenc(w14, buf[px], buf[p01]);
+					int r1 = wenc(w14, buf[p10], buf[p11]);
+					int r2 = wenc(w14, r0 >>> 16, r1 >>> 16);
+					int r3 = wenc(w14, r0 & 0xffff, r1 & 0xffff);
+					buf[px] = (char) (r2 >>> 16);
+					buf[p10] = (char) r2;
+					buf[p01] = (char) (r3 >>> 16);
+					buf[p11] = (char) r3;
+				}
+				// Encode odd column
+				if ((nx & p) != 0) {
+					int p10 = px + oy1;
+					int r = wenc(w14, buf[px], buf[p10]);
+					buf[px] = (char) (r >>> 16);
+					buf[p10] = (char) r;
+				}
+			}
+			// Encode odd line
+			if ((ny & p) != 0) {
+				int px = py;
+				int ex = py + ox * (nx - p2);
+				for (; px <= ex; px += ox2) {
+					int p01 = px + ox1;
+					int r = wenc(w14, buf[px], buf[p01]);
+					buf[px] = (char) (r >>> 16);
+					buf[p01] = (char) r;
+				}
+			}
+			p = p2;
+			p2 <<= 1;
+		}
+	}
+
+	private static void wav2Decode(char[] buf, int in, int nx, int ox, int ny, int oy, int mx) {
+		boolean w14 = (mx < (1 << 14));
+		int n = Math.min(nx, ny);
+		int p = 1;
+		while (p <= n) p <<= 1;
+		p >>= 1;
+		int p2 = p;
+		p >>= 1;
+		while (p >= 1) {
+			int py = in;
+			int ey = in + oy * (ny - p2);
+			int oy1 = oy * p, oy2 = oy * p2;
+			int ox1 = ox * p, ox2 = ox * p2;
+			for (; py <= ey; py += oy2) {
+				int px = py;
+				int ex = py + ox * (nx - p2);
+				for (; px <= ex; px += ox2) {
+					int p01 = px + ox1;
+					int p10 = px + oy1;
+					int p11 = p10 + ox1;
+					int r0 = wdec(w14, buf[px], buf[p10]);
+					int r1 = wdec(w14, buf[p01], buf[p11]);
+					int r2 = wdec(w14, r0 >>> 16, r1 >>> 16);
+					int r3 = wdec(w14, r0 & 0xffff, r1 & 0xffff);
+					buf[px] = (char) (r2 >>> 16);
+					buf[p01] = (char) r2;
+					buf[p10] = (char) (r3 >>> 16);
+					buf[p11] = (char) r3;
+				}
+				// Decode odd column
+				if ((nx & p) != 0) {
+					int p10 = px + oy1;
+					int r = wdec(w14, buf[px], buf[p10]);
+					buf[px] = (char) (r >>> 16);
+					buf[p10] = (char) r;
+				}
+			}
+			// Decode odd line
+			if ((ny & p) != 0) {
+				int px = py;
+				int ex = py + ox * (nx - p2);
+				for (; px <= ex; px += ox2) {
+					int p01 = px + ox1;
+					int r = wdec(w14, buf[px], buf[p01]);
+					buf[px] = (char) (r >>> 16);
+					buf[p01] = (char) r;
+				}
+			}
+			p2 = p;
+			p >>= 1;
+		}
+	}
+
+	// Huffman coding. Code table entries hold (code << 6) | length.
+
+	private static final class BitOutput {
+		byte[] buf = new byte[256];
+		int pos = 0;
+		long c = 0;
+		int lc = 0;
+
+		void bits(int nBits, long bits) {
+			c = (c << nBits) | bits;
+			lc += nBits;
+			while (lc >= 8) {
+				lc -= 8;
+				put((byte) (c >> lc));
+			}
+		}
+
+		void code(long code) {
+			bits((int) (code & 63), code >> 6);
+		}
+
+		// Pad the last partial byte; returns the number of bits written before padding
+		long flush() {
+			long nBits = pos * 8L + lc;
+			if (lc > 0) put((byte) (c << (8 - lc)));
+			lc = 0;
+			return nBits;
+		}
+
+		private void put(byte b) {
+			if (pos == buf.length) buf = java.util.Arrays.copyOf(buf, 2 * buf.length);
+			buf[pos++] = b;
+		}
+	}
+
+	private static final class BitInput {
+		final byte[] in;
+		int pos;
+		final int end;
+		long c = 0;
+		int lc = 0;
+
+		BitInput(byte[] in, int pos, int end) {
+			this.in = in;
+			this.pos = pos;
+			this.end = end;
+		}
+
+		int bits(int nBits) throws DataFormatException {
+			while (lc < nBits) {
+				if (pos >= end) throw new DataFormatException("Truncated Huffman data");
+				c = (c << 8) | (in[pos++] & 0xff);
+				lc += 8;
+			}
+			lc -= nBits;
+			return (int) ((c >> lc) & ((1L << nBits) - 1));
+		}
+	}
+
+	private static byte[] hufCompress(char[] raw) {
+		if (raw.length == 0) return new byte[0];
+		long[] hcode = new long[HUF_ENCSIZE];
+		for (char v : raw) hcode[v]++;
+		int im = 0;
+		while (hcode[im] == 0) im++;
+		int iM = hufBuildEncTable(hcode, im);
+
+		BitOutput table = new BitOutput();
+		hufPackEncTable(hcode, im, iM, table);
+		table.flush();
+		BitOutput data = new BitOutput();
+		long nBits = hufEncode(hcode, raw, iM, data);
+
+		ByteBuffer out = ByteBuffer.allocate(20 + table.pos + data.pos).order(ByteOrder.LITTLE_ENDIAN);
+		out.putInt(im);
+		out.putInt(iM);
+		out.putInt(table.pos);
+		out.putInt((int) nBits);
+		out.putInt(0);
+		out.put(table.buf, 0, table.pos);
+		out.put(data.buf, 0, data.pos);
+		return out.array();
+	}
+
+	// Replace the symbol frequencies in _frq_ with a canonical code table. Adds the run
+	// length pseudo-symbol after the largest symbol and returns its index.
+	private static int hufBuildEncTable(long[] frq, int im) {
+		int[] hlink = new int[HUF_ENCSIZE];
+		int[] heap = new int[HUF_ENCSIZE];
+		int nf = 0;
+		int iM = im;
+		for (int i = im; i < HUF_ENCSIZE; i++) {
+			hlink[i] = i;
+			if (frq[i] != 0) {
+				heap[nf++] = i;
+				iM = i;
+			}
+		}
+		iM++;
+		frq[iM] = 1;
+		heap[nf++] = iM;
+
+		// Repeatedly merge the two least frequent nodes; the code length of every symbol
+		// below a merged node grows by one bit
+		for (int i = nf / 2 - 1; i >= 0; --i) siftDown(heap, i, nf, frq);
+		long[] scode = new long[HUF_ENCSIZE];
+		while (nf > 1) {
+			int mm = heap[0];
+			heap[0] = heap[--nf];
+			siftDown(heap, 0, nf, frq);
+			int m = heap[0];
+			frq[m] += frq[mm];
+			siftDown(heap, 0, nf, frq);
+
+			for (int j = m; true; j = hlink[j]) {
+				scode[j]++;
+				if (hlink[j] == j) {
+					hlink[j] = mm;
+					break;
+				}
+			}
+			for (int j = mm; true; j = hlink[j]) {
+				scode[j]++;
+				if (hlink[j] == j) break;
+			}
+		}
+		hufCanonicalCodeTable(scode);
+		System.arraycopy(scode, 0, frq, 0, HUF_ENCSIZE);
+		return iM;
+	}
+
+	private static void siftDown(int[] heap, int i, int n, long[] frq) {
+		int v = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= n) break;
+			if (child + 1 < n && frq[heap[child + 1]] < frq[heap[child]]) child++;
+			if (frq[heap[child]] >= frq[v]) break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = v;
+	}
+
+	// Turn the code lengths in _hcode_ into (code, length) pairs
+	private static void hufCanonicalCodeTable(long[] hcode) {
+		long[] n = new long[HUF_MAXCODELENGTH + 1];
+		for (int i = 0; i < HUF_ENCSIZE; ++i) n[(int) hcode[i]] += 1;
+		long c = 0;
+		for (int i = HUF_MAXCODELENGTH; i > 0; --i) {
+			long nc = (c + n[i]) >> 1;
+			n[i] = c;
+			c = nc;
+		}
+		for (int i = 0; i < HUF_ENCSIZE; ++i) {
+			int l = (int) hcode[i];
+			if (l > 0) hcode[i] = l | (n[l]++ << 6);
+		}
+	}
+
+	private static void hufPackEncTable(long[] hcode, int im, int iM, BitOutput out) {
+		for (; im <= iM; im++) {
+			int l = (int) (hcode[im] & 63);
+			if (l == 0) {
+				int zerun = 1;
+				while ((im < iM) && (zerun < LONGEST_LONG_RUN)) {
+					if ((hcode[im + 1] & 63) > 0) break;
+					im++;
+					zerun++;
+				}
+				if (zerun >= 2) {
+					if (zerun >= SHORTEST_LONG_RUN) {
+						out.bits(6, LONG_ZEROCODE_RUN);
+						out.bits(8, zerun - SHORTEST_LONG_RUN);
+					} else {
+						out.bits(6, SHORT_ZEROCODE_RUN + zerun - 2);
+					}
+					continue;
+				}
+			}
+			out.bits(6, l);
+		}
+	}
+
+	private static void hufUnpackEncTable(BitInput in, int im, int iM, long[] hcode) throws DataFormatException {
+		for (; im <= iM; im++) {
+			int l = in.bits(6);
+			hcode[im] = l;
+			if (l == LONG_ZEROCODE_RUN || l >= SHORT_ZEROCODE_RUN) {
+				int zerun = (l == LONG_ZEROCODE_RUN) ? in.bits(8) + SHORTEST_LONG_RUN : l - SHORT_ZEROCODE_RUN + 2;
+				if (im + zerun > iM + 1) throw new DataFormatException("Invalid Huffman table");
+				while (zerun-- > 0) hcode[im++] = 0;
+				im--;
+			}
+		}
+		hufCanonicalCodeTable(hcode);
+	}
+
+	// Emit _runCount_ + 1 copies of a symbol, as a run length code if that is shorter
+	private static void sendCode(long sCode, int runCount, long runCode, BitOutput out) {
+		if ((sCode & 63) + (runCode & 63) + 8 < (sCode & 63) * runCount) {
+			out.code(sCode);
+			out.code(runCode);
+			out.bits(8, runCount);
+		} else {
+			while (runCount-- >= 0) out.code(sCode);
+		}
+	}
+
+	private static long hufEncode(long[] hcode, char[] in, int rlc, BitOutput out) {
+		int s = in[0];
+		int cs = 0;
+		for (int i = 1; i < in.length; i++) {
+			if (s == in[i] && cs < 255) {
+				cs++;
+			} else {
+				sendCode(hcode[s], cs, hcode[rlc], out);
+				cs = 0;
+			}
+			s = in[i];
+		}
+		sendCode(hcode[s], cs, hcode[rlc], out);
+		return out.flush();
+	}
+
+	private static void hufUncompress(byte[] in, int offset, int length, char[] raw) throws DataFormatException {
+		if (raw.length == 0) return;
+		if (length < 20) throw new DataFormatException("Truncated Huffman header");
+		ByteBuffer header = ByteBuffer.wrap(in, offset, 20).order(ByteOrder.LITTLE_ENDIAN);
+		int im = header.getInt();
+		int iM = header.getInt();
+		header.getInt();
+		int nBits = header.getInt();
+		if (im < 0 || im >= HUF_ENCSIZE || iM < 0 || iM >= HUF_ENCSIZE) {
+			throw new DataFormatException("Invalid Huffman symbol range");
+		}
+
+		BitInput table = new BitInput(in, offset + 20, offset + length);
+		long[] hcode = new long[HUF_ENCSIZE];
+		hufUnpackEncTable(table, im, iM, hcode);
+
+		// Codes of each length are consecutive numbers assigned in symbol order
+		int[] count = new int[HUF_MAXCODELENGTH + 1];
+		long[] first = new long[HUF_MAXCODELENGTH + 1];
+		for (int i = im; i <= iM; ++i) {
+			int l = (int) (hcode[i] & 63);
+			if (l == 0) continue;
+			if (count[l]++ == 0) first[l] = hcode[i] >> 6;
+		}
+		int[] base = new int[HUF_MAXCODELENGTH + 2];
+		for (int l = 1; l <= HUF_MAXCODELENGTH; ++l) base[l + 1] = base[l] + count[l];
+		int[] symbols = new int[base[HUF_MAXCODELENGTH + 1]];
+		int[] fill = base.clone();
+		for (int i = im; i <= iM; ++i) {
+			int l = (int) (hcode[i] & 63);
+			if (l > 0) symbols[fill[l]++] = i;
+		}
+
+		BitInput data = new BitInput(in, table.pos, offset + length);
+		long bitsLeft = nBits;
+		int out = 0;
+		while (bitsLeft > 0) {
+			long code = 0;
+			int l = 0;
+			int symbol = -1;
+			while (symbol < 0) {
+				if (++l > HUF_MAXCODELENGTH || l > bitsLeft) throw new DataFormatException("Invalid Huffman code");
+				code = (code << 1) | data.bits(1);
+				if (count[l] > 0 && code >= first[l] && code - first[l] < count[l])
+					symbol = symbols[base[l] + (int) (code - first[l])];
+			}
+			bitsLeft -= l;
+			if (symbol == iM) {
+				if (bitsLeft < 8 || out == 0) throw new DataFormatException("Invalid Huffman run");
+				int cs = data.bits(8);
+				bitsLeft -= 8;
+				if (out + cs > raw.length) throw new DataFormatException("Huffman data overrun");
+				char s = raw[out - 1];
+				while (cs-- > 0) raw[out++] = s;
+			} else {
+				if (out >= raw.length) throw new DataFormatException("Huffman data overrun");
+				raw[out++] = (char) symbol;
+			}
+		}
+		if (out != raw.length) throw new DataFormatException("Huffman data underrun");
+	}
+}
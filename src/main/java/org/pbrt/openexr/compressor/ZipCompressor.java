@@ -1,7 +1,9 @@
 package org.pbrt.openexr.compressor;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 /**
@@ -10,22 +12,56 @@ import java.util.zip.Inflater;
  */
 public class ZipCompressor extends Compressor {
 	
-	private final byte[] buffer;
-	
-	public ZipCompressor(int blockSize) {
-		buffer = new byte[blockSize];
-	}
-	
 	@Override
-	public byte[] uncompress(byte[] data) throws DataFormatException {
+	public ByteBuffer uncompress(ByteBuffer data, int rawSize, int nx, int ny) throws DataFormatException {
 		
+		byte[] buffer = new byte[rawSize];
 		Inflater inflater = new Inflater();
 		inflater.setInput(data);
 		
 		int size = inflater.inflate(buffer);
 		inflater.end();
+		if (size != rawSize) {
+			throw new DataFormatException("Truncated ZIP block");
+		}
+		
+		return ByteBuffer.wrap(postProcess(buffer)).order(data.order());
+	}
+	
+	// Inverse of uncompress(): split the bytes into even and odd halves, delta encode them
+	// and deflate the result with a zlib header.
+	public static byte[] compress(byte[] data) {
+		
+		int length = data.length;
+		byte[] tmp = new byte[length];
+		
+		// reorder the pixel data
+		int half = (length + 1) / 2;
+		for (int i = 0; i < length; i++) {
+			int j = (i % 2 == 0) ? i / 2 : half + i / 2;
+			tmp[j] = data[i];
+		}
+		
+		// predictor
+		int p = (length > 0) ? tmp[0] & 0xff : 0;
+		for (int i = 1; i < length; i++) {
+			int value = tmp[i] & 0xff;
+			tmp[i] = (byte) (value - p + (128 + 256));
+			p = value;
+		}
+		
+		Deflater deflater = new Deflater();
+		deflater.setInput(tmp);
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+		byte[] buffer = new byte[Math.max(1024, length / 4)];
+		while (!deflater.finished()) {
+			int size = deflater.deflate(buffer);
+			out.write(buffer, 0, size);
+		}
+		deflater.end();
 		
-		return postProcess(Arrays.copyOfRange(buffer, 0, size));
+		return out.toByteArray();
 	}
 	
 	private byte[] postProcess(byte[] data) {
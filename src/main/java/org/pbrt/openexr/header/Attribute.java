@@ -14,6 +14,7 @@ import org.pbrt.openexr.types.LineOrder;
 import org.pbrt.openexr.types.ShortString;
 import org.pbrt.openexr.types.Preview;
 import org.pbrt.openexr.types.Rational;
+import org.pbrt.openexr.types.TileDescription;
 import org.pbrt.openexr.types.TimeCode;
 import org.pbrt.openexr.types.V2f;
 import org.pbrt.openexr.types.V2i;
@@ -64,6 +65,7 @@ public class Attribute {
 			case KEYCODE: attribute = new KeyCode(data); break;
 			case TIMECODE: attribute = new TimeCode(data); break;
 			case PREVIEW: attribute = new Preview(data); break;
+			case TILEDESC: attribute = new TileDescription(data); break;
 			
 			default:
 				attribute = new Attribute();
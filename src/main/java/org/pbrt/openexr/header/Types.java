@@ -21,6 +21,7 @@ public enum Types {
 	PREVIEW("preview"),
 	RATIONAL("rational"),
 	STRING("string"),
+	TILEDESC("tiledesc"),
 	TIMECODE("timecode"),
 	V2I("v2i"),
 	V2F("v2f"),
@@ -0,0 +1,46 @@
+package org.pbrt.openexr.types;
+
+import org.pbrt.openexr.header.Attribute;
+import org.pbrt.openexr.util.DataReader;
+
+/**
+ * Copyright (c) Bartosz Zaczynski, 2010
+ * http://syntaxcandy.blogspot.com
+ */
+public class TileDescription extends Attribute {
+	
+	public static final int ONE_LEVEL = 0;
+	public static final int MIPMAP_LEVELS = 1;
+	public static final int RIPMAP_LEVELS = 2;
+	
+	public static final int ROUND_DOWN = 0;
+	public static final int ROUND_UP = 1;
+	
+	public int xSize;
+	public int ySize;
+	public int levelMode;
+	public int roundingMode;
+	
+	public TileDescription(DataReader data) {
+		xSize = data.readInt();
+		ySize = data.readInt();
+		byte mode = data.readByte();
+		levelMode = mode & 0xf;
+		roundingMode = (mode >> 4) & 0xf;
+	}
+	
+	// Number of resolution levels along an axis of the given size
+	public int numLevels(int size) {
+		int levels = 1;
+		while (size > 1) {
+			size = (roundingMode == ROUND_UP) ? (size + 1) / 2 : size / 2;
+			levels++;
+		}
+		return levels;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%s = [%d, %d], mode %d", name, xSize, ySize, levelMode);
+	}
+}
@@ -3,6 +3,7 @@ package org.pbrt.openexr.util;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
@@ -17,12 +18,27 @@ public class DataReader {
 	private MappedByteBuffer buffer;
 	
 	public DataReader(File file, ByteOrder endian) throws IOException {
-		RandomAccessFile raf = new RandomAccessFile(file, "r");
-		FileChannel fileChannel = raf.getChannel();
-		buffer = fileChannel.map(MapMode.READ_ONLY, 0, file.length());
+		// the mapping stays valid after the file is closed
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			FileChannel fileChannel = raf.getChannel();
+			buffer = fileChannel.map(MapMode.READ_ONLY, 0, file.length());
+		}
 		buffer.order(endian);
 	}
 	
+	public int length() {
+		return buffer.limit();
+	}
+	
+	// View of a range of the file that shares the mapped memory; views can be read
+	// from several threads at once
+	public ByteBuffer slice(int offset, int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		view.limit(offset + length);
+		return view.slice().order(buffer.order());
+	}
+	
 	public int offset() {
 		return buffer.position();
 	}
@@ -59,6 +75,10 @@ public class DataReader {
 		return buffer.getInt();
 	}
 	
+	public long readLong() {
+		return buffer.getLong();
+	}
+	
 	public float readFloat() {
 		return buffer.getFloat();
 	}
@@ -8,29 +8,28 @@ package org.pbrt.openexr.util;
  */
 public class Half {
 	
-	private static Half instance = null;
-	private static float[] lookupTable = new float[1 << 16];
+	private static final Half instance = new Half();
+	private static final float[] lookupTable = new float[1 << 16];
 	
-	public static Half getInstance() {
-		if (instance == null) {
-			instance = new Half();
+	static {
+		for (int i = 0; i < lookupTable.length; i++) {
+			lookupTable[i] = makeFloat(i);
 		}
+	}
+	
+	public static Half getInstance() {
 		return instance;
 	}
 	
 	public float toFloat(short bitPattern) {
-		int index = bitPattern - Short.MIN_VALUE;
-		return lookupTable[index];
+		return lookupTable[bitPattern & 0xffff];
 	}
 	
 	private Half() {
-		for (int i = 0; i < lookupTable.length; i++) {
-			short bitPattern = (short) (Short.MIN_VALUE + i);
-			lookupTable[i] = makeFloat(bitPattern);
-		}
 	}
 	
-	private float makeFloat(short bitPattern) {
+	// Rebias the exponent and widen the mantissa of the half into the float bit layout
+	private static float makeFloat(int bitPattern) {
 		
 		// sign, exponent, mantissa bits
 		int s = (bitPattern >> 15) & 1;
@@ -39,42 +38,19 @@ public class Half {
 		
 		if (e == 0) {
 			if (m == 0) {
-				return 0.0f;
-			} else {
-				return getDenormalized(s, m);
+				return Float.intBitsToFloat(s << 31);
 			}
-		} else if (e == 31) {
-			if (m == 0) {
-				return (s == 1) ? Float.NEGATIVE_INFINITY :
-								  Float.POSITIVE_INFINITY;
-			} else {
-				return Float.NaN;
-			}
-		} else {
-			return getNormalized(s, e, m);
-		}
-	}
-	
-	private float getDenormalized(int s, int m) {
-		float mantissa = getMantissa(m);
-		float value = (float) (Math.pow(2.0, -14) * mantissa);
-		return (s == 1) ? -value : value;
-	}
-	
-	private float getNormalized(int s, int e, int m) {
-		float mantissa = 1.0f + getMantissa(m);
-		float value = (float) (Math.pow(2.0, e - 15) * mantissa);
-		return (s == 1) ? -value : value;
-	}
-	
-	public float getMantissa(int mantissaBits) {
-		double mantissa = 0.0;
-		for (int i = 9; i >= 0; i--) {
-			int bitMask = 1 << i;
-			if (((mantissaBits & bitMask) >> i) == 1) {
-				mantissa += Math.pow(2.0, i - 10);
+			// denormalized: shift the mantissa up until it is normalized
+			e = 1;
+			while ((m & 1024) == 0) {
+				m <<= 1;
+				e--;
 			}
+			m &= 1023;
+		} else if (e == 31) {
+			return Float.intBitsToFloat((s << 31) | 0x7f800000 | (m << 13));
 		}
-		return (float) mantissa;
+		
+		return Float.intBitsToFloat((s << 31) | ((e + 127 - 15) << 23) | (m << 13));
 	}
-}
\ No newline at end of file
+}
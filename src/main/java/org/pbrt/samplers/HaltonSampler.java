@@ -54,7 +54,7 @@ public class HaltonSampler extends GlobalSampler {
         multInverse[1] = (int)multiplicativeInverse(baseScales.x, baseScales.y);
     }
     public HaltonSampler(HaltonSampler sampler) {
-        super(sampler.samplesPerPixel);
+        super(sampler);
         this.sampleAtPixelCenter = sampler.sampleAtPixelCenter;
         this.baseScales = sampler.baseScales;
         this.baseExponents = sampler.baseExponents;
@@ -96,7 +96,7 @@ public class HaltonSampler extends GlobalSampler {
         else if (dim == 1)
             return LowDiscrepancy.RadicalInverse(dim, index / baseScales.y);
         else
-            return LowDiscrepancy.ScrambledRadicalInverse(dim, index, radicalInversePermutations);
+            return LowDiscrepancy.ScrambledRadicalInverse(dim, index, radicalInversePermutations, PermutationForDimension(dim));
     }
 
     @Override
@@ -106,13 +106,13 @@ public class HaltonSampler extends GlobalSampler {
 
     public static Sampler Create(ParamSet paramSet, Bounds2i sampleBounds) {
         int nsamp = paramSet.FindOneInt("pixelsamples", 16);
-        if (Pbrt.options.QuickRender) nsamp = 1;
+        if (Pbrt.GetOptions().QuickRender) nsamp = 1;
         boolean sampleAtCenter = paramSet.FindOneBoolean("samplepixelcenter", false);
         return new HaltonSampler(nsamp, sampleBounds, sampleAtCenter);
     }
 
 
-    private static Short[] radicalInversePermutations = new Short[0];
+    private static short[] radicalInversePermutations = new short[0];
     private Point2i baseScales = new Point2i(), baseExponents = new Point2i();
     private int sampleStride;
     private int[] multInverse = { 0, 0 };
@@ -36,7 +36,8 @@ public class MaxMinDistSampler extends PixelSampler {
         CPixel = LowDiscrepancy.CMaxMinDist[Cindex];
     }
     public MaxMinDistSampler(MaxMinDistSampler mms) {
-        this(mms.samplesPerPixel, mms.samples1D.length);
+        super(mms);
+        CPixel = mms.CPixel;
     }
 
     @Override
@@ -48,10 +49,13 @@ public class MaxMinDistSampler extends PixelSampler {
 
     @Override
     public void StartPixel(Point2i p) {
+        UnshareTables();
         float invSPP = 1.0f / samplesPerPixel;
-        for (int i = 0; i < samplesPerPixel; ++i)
-            samples2D[0][i] = new Point2f(i * invSPP, LowDiscrepancy.SampleGeneratorMatrix(CPixel, i, 0));
-        Sampling.Shuffle(samples2D[0], 0, samplesPerPixel, 1, rng);
+        for (int i = 0; i < samplesPerPixel; ++i) {
+            samples2D[0][2 * i] = i * invSPP;
+            samples2D[0][2 * i + 1] = LowDiscrepancy.SampleGeneratorMatrix(CPixel, i, 0);
+        }
+        Sampling.ShuffleF(samples2D[0], 0, samplesPerPixel, 2, rng);
         // Generate remaining samples for _MaxMinDistSampler_
         for (float[] aSamples1D : samples1D) LowDiscrepancy.VanDerCorput(1, samplesPerPixel, aSamples1D, rng);
 
@@ -73,9 +77,9 @@ public class MaxMinDistSampler extends PixelSampler {
     public static Sampler Create(ParamSet paramSet) {
         int nsamp = paramSet.FindOneInt("pixelsamples", 16);
         int sd = paramSet.FindOneInt("dimensions", 4);
-        if (Pbrt.options.QuickRender) nsamp = 1;
+        if (Pbrt.GetOptions().QuickRender) nsamp = 1;
         return new MaxMinDistSampler(nsamp, sd);
     }
 
-    private int[] CPixel;
+    private final int[] CPixel;
 }
\ No newline at end of file
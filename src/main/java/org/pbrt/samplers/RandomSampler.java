@@ -21,15 +21,20 @@ public class RandomSampler extends Sampler {
     public RandomSampler(int samplesPerPixel) {
         this(samplesPerPixel, 0);
     }
+    public RandomSampler(RandomSampler sampler) {
+        super(sampler);
+        this.rng = new RNG();
+    }
 
     public void StartPixel(Point2i p) {
+        UnshareTables();
         for (float[] aSampleArray1D : sampleArray1D)
             for (int j = 0; j < aSampleArray1D.length; ++j)
                 aSampleArray1D[j] = rng.UniformFloat();
 
-        for (Point2f[] aSampleArray2D : sampleArray2D)
+        for (float[] aSampleArray2D : sampleArray2D)
             for (int j = 0; j < aSampleArray2D.length; ++j)
-                aSampleArray2D[j] = new Point2f(rng.UniformFloat(), rng.UniformFloat());
+                aSampleArray2D[j] = rng.UniformFloat();
         super.StartPixel(p);
     }
 
@@ -45,9 +50,22 @@ public class RandomSampler extends Sampler {
         return new Point2f(rng.UniformFloat(), rng.UniformFloat());
     }
 
+    @Override
+    public void Get2D(float[] out) {
+        assert (currentPixelSampleIndex < samplesPerPixel);
+        out[0] = rng.UniformFloat();
+        out[1] = rng.UniformFloat();
+    }
+
+    // Random samples don't depend on their dimension, so there are no camera dimensions to skip
+    @Override
+    public boolean SetSampleNumberPastCamera(int sampleNum) {
+        return SetSampleNumber(sampleNum);
+    }
+
     @Override
     public Sampler Clone(int seed) {
-        RandomSampler rs = new RandomSampler(this.samplesPerPixel);
+        RandomSampler rs = new RandomSampler(this);
         rs.rng.SetSequence(seed);
         return rs;
     }
@@ -57,5 +75,5 @@ public class RandomSampler extends Sampler {
         return new RandomSampler(ns);
     }
 
-    private RNG rng;
+    private final RNG rng;
 }
\ No newline at end of file
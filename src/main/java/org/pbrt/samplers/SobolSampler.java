@@ -27,7 +27,7 @@ public class SobolSampler extends GlobalSampler {
     }
 
     public SobolSampler(SobolSampler sampler) {
-        super(Pbrt.RoundUpPow2(sampler.samplesPerPixel));
+        super(sampler);
         this.sampleBounds = sampler.sampleBounds;
         this.resolution = sampler.resolution;
         this.log2Resolution = sampler.log2Resolution;
@@ -58,7 +58,7 @@ public class SobolSampler extends GlobalSampler {
 
     public static Sampler Create(ParamSet paramSet, Bounds2i sampleBounds) {
         int nsamp = paramSet.FindOneInt("pixelsamples", 16);
-        if (Pbrt.options.QuickRender) nsamp = 1;
+        if (Pbrt.GetOptions().QuickRender) nsamp = 1;
         return new SobolSampler(nsamp, sampleBounds);
     }
 
@@ -22,10 +22,14 @@ public class StratifiedSampler extends PixelSampler {
     }
 
     public StratifiedSampler(StratifiedSampler sampler) {
-        this(sampler.xPixelSamples, sampler.yPixelSamples, sampler.jitterSamples, sampler.samples1D.length);
+        super(sampler);
+        this.xPixelSamples = sampler.xPixelSamples;
+        this.yPixelSamples = sampler.yPixelSamples;
+        this.jitterSamples = sampler.jitterSamples;
     }
 
     public void StartPixel(Point2i p) {
+        UnshareTables();
         // Generate single stratified samples for the pixel
         for (int i = 0; i < samples1D.length; ++i) {
             samples1D[i] = Sampling.StratifiedSample1D(samples1D[i], xPixelSamples * yPixelSamples, rng, jitterSamples);
@@ -33,7 +37,7 @@ public class StratifiedSampler extends PixelSampler {
         }
         for (int i = 0; i < samples2D.length; ++i) {
             samples2D[i] = Sampling.StratifiedSample2D(samples2D[i], xPixelSamples, yPixelSamples, rng, jitterSamples);
-            samples2D[i] = Sampling.Shuffle(samples2D[i], 0, xPixelSamples * yPixelSamples, 1, rng);
+            samples2D[i] = Sampling.ShuffleF(samples2D[i], 0, xPixelSamples * yPixelSamples, 2, rng);
         }
 
         // Generate arrays of stratified samples for the pixel
@@ -47,7 +51,7 @@ public class StratifiedSampler extends PixelSampler {
         for (int i = 0; i < samples2DArraySizes.size(); ++i) {
             for (int j = 0; j < samplesPerPixel; ++j) {
                 int count = samples2DArraySizes.get(i);
-                sampleArray2D.set(i, Sampling.LatinHypercube(sampleArray2D.get(i), j * count, (j + 1) * count, rng));
+                sampleArray2D.set(i, Sampling.LatinHypercube(sampleArray2D.get(i), j * count, (j + 1) * count, 2, rng));
             }
         }
         super.StartPixel(p);
@@ -65,7 +69,7 @@ public class StratifiedSampler extends PixelSampler {
         int xsamp = paramSet.FindOneInt("xsamples", 4);
         int ysamp = paramSet.FindOneInt("ysamples", 4);
         int sd = paramSet.FindOneInt("dimensions", 4);
-        if (Pbrt.options.QuickRender) xsamp = ysamp = 1;
+        if (Pbrt.GetOptions().QuickRender) xsamp = ysamp = 1;
         return new StratifiedSampler(xsamp, ysamp, jitter, sd);
     }
 
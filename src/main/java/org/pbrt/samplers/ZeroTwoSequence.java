@@ -22,10 +22,11 @@ public class ZeroTwoSequence extends PixelSampler {
     }
 
     public ZeroTwoSequence(ZeroTwoSequence sampler) {
-        this(sampler.samplesPerPixel, sampler.samples1D.length);
+        super(sampler);
     }
 
     public void StartPixel(Point2i p) {
+        UnshareTables();
         // Generate 1D and 2D pixel sample components using $(0,2)$-sequence
         for (int i = 0; i < samples1D.length; ++i)
             samples1D[i] = LowDiscrepancy.VanDerCorput(1, samplesPerPixel, samples1D[i], rng);
@@ -54,7 +55,7 @@ public class ZeroTwoSequence extends PixelSampler {
     public static Sampler Create(ParamSet paramSet) {
         int nsamp = paramSet.FindOneInt("pixelsamples", 16);
         int sd = paramSet.FindOneInt("dimensions", 4);
-        if (Pbrt.options.QuickRender) nsamp = 1;
+        if (Pbrt.GetOptions().QuickRender) nsamp = 1;
         return new ZeroTwoSequence(nsamp, sd);
     }
 }
\ No newline at end of file
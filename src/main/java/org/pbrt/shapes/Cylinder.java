@@ -37,60 +37,11 @@ public class Cylinder extends Shape {
 
     @Override
     public HitResult Intersect(Ray r, boolean testAlphaTexture) {
-        float phi;
-        Point3f pHit;
-        // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
-
-        // Compute quadratic cylinder coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = dx.multiply(dx).add(dy.multiply(dy));
-        EFloat b = (dx.multiply(ox).add(dy.multiply(oy))).multiply(2);
-        EFloat c = ox.multiply(ox).add(oy.multiply(oy)).subtract(new EFloat(radius).multiply(new EFloat(radius)));
-
-        // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return null;
-
-        // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return null;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return null;
-        }
-
-        // Compute cylinder hit point and $\phi$
-        pHit = ray.at(tShapeHit.asFloat());
-
-        // Refine cylinder intersection point
-        float hitRad = (float)Math.sqrt(pHit.x * pHit.x + pHit.y * pHit.y);
-        pHit.x *= radius / hitRad;
-        pHit.y *= radius / hitRad;
-        phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
-
-        // Test cylinder intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return null;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return null;
-            // Compute cylinder hit point and $\phi$
-            pHit = ray.at(tShapeHit.asFloat());
-
-            // Refine cylinder intersection point
-            hitRad = (float)Math.sqrt(pHit.x * pHit.x + pHit.y * pHit.y);
-            pHit.x *= radius / hitRad;
-            pHit.y *= radius / hitRad;
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return null;
-        }
+        // Find the nearest hit that passes the clipping tests; objects are only created for a hit
+        QuadricSolver q = QuadricSolver.Get();
+        if (!FindHit(r, q)) return null;
+        Point3f pHit = new Point3f(q.px, q.py, q.pz);
+        float phi = q.phi;
 
         // Find parametric representation of cylinder hit
         float u = phi / phiMax;
@@ -123,71 +74,63 @@ public class Cylinder extends Shape {
 
         // Initialize _SurfaceInteraction_ from parametric information
         HitResult hr = new HitResult();
-        hr.isect = ObjectToWorld.xform(new SurfaceInteraction(pHit, pError, new Point2f(u, v), ray.d.negate(), dpdu, dpdv, dndu, dndv,
-                ray.time, this));
+        hr.isect = ObjectToWorld.xform(new SurfaceInteraction(pHit, pError, new Point2f(u, v), new Vector3f(-q.dx.v, -q.dy.v, -q.dz.v), dpdu, dpdv, dndu, dndv,
+                r.time, this));
 
         // Update _tHit_ for quadric intersection
-        hr.tHit = tShapeHit.asFloat();
+        hr.tHit = q.tHit.v;
         return hr;
     }
 
     @Override
     public boolean IntersectP(Ray r, boolean testAlphaTexture) {
-        Float phi;
-        Point3f pHit;
+        return FindHit(r, QuadricSolver.Get());
+    }
+
+    // Intersect _r_ with the cylinder using _q_'s registers instead of _EFloat_ objects; on
+    // success the hit is left in _q_. Nothing is allocated.
+    private boolean FindHit(Ray r, QuadricSolver q) {
         // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
+        q.SetRay(WorldToObject, r);
 
         // Compute quadratic cylinder coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = dx.multiply(dx).add(dy.multiply(dy));
-        EFloat b = (dx.multiply(ox).add(dy.multiply(oy))).multiply(2);
-        EFloat c = ox.multiply(ox).add(oy.multiply(oy)).subtract(new EFloat(radius).multiply(new EFloat(radius)));
+        q.Multiply(q.dx, q.dx, q.s0);
+        q.Multiply(q.dy, q.dy, q.s1);
+        q.Add(q.s0, q.s1, q.a);
+        q.Multiply(q.dx, q.ox, q.s0);
+        q.Multiply(q.dy, q.oy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s0, q.s1.set(2), q.b);
+        q.Multiply(q.ox, q.ox, q.s0);
+        q.Multiply(q.oy, q.oy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s1.set(radius), q.s1, q.s1);
+        q.Subtract(q.s0, q.s1, q.c);
 
         // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return false;
+        if (!q.Solve()) return false;
 
         // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return false;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return false;
-        }
+        if (q.t0.high > q.tMax || q.t1.low <= 0) return false;
+        if (q.t0.low > 0 && AcceptHit(q, q.t0)) return true;
+        if (q.t1.high > q.tMax) return false;
+        return AcceptHit(q, q.t1);
+    }
 
+    // Set the hit in _q_ to the ray point at _t_ and test it against the clipping parameters
+    private boolean AcceptHit(QuadricSolver q, QuadricSolver.Var t) {
         // Compute cylinder hit point and $\phi$
-        pHit = ray.at(tShapeHit.asFloat());
+        q.SetHit(t);
 
         // Refine cylinder intersection point
-        float hitRad = (float)Math.sqrt(pHit.x * pHit.x + pHit.y * pHit.y);
-        pHit.x *= radius / hitRad;
-        pHit.y *= radius / hitRad;
-        phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
+        float hitRad = (float)Math.sqrt(q.px * q.px + q.py * q.py);
+        q.px *= radius / hitRad;
+        q.py *= radius / hitRad;
+        q.phi = (float)Math.atan2(q.py, q.px);
+        if (q.phi < 0) q.phi += 2 * Pbrt.Pi;
 
         // Test cylinder intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return false;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return false;
-            // Compute cylinder hit point and $\phi$
-            pHit = ray.at(tShapeHit.asFloat());
-
-            // Refine cylinder intersection point
-            hitRad = (float)Math.sqrt(pHit.x * pHit.x + pHit.y * pHit.y);
-            pHit.x *= radius / hitRad;
-            pHit.y *= radius / hitRad;
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return false;
-        }
-        return true;
+        return !(q.pz < zMin || q.pz > zMax || q.phi > phiMax);
     }
 
     @Override
@@ -105,6 +105,13 @@ public class Disk extends Shape {
         return phiMax * 0.5f * (radius * radius - innerRadius * innerRadius);
     }
 
+    @Override
+    public DirectionCone NormalBounds() {
+        Normal3f n = Normal3f.Normalize(ObjectToWorld.xform(new Normal3f(0, 0, 1)));
+        if (reverseOrientation) n = n.negate();
+        return new DirectionCone(new Vector3f(n));
+    }
+
     @Override
     public SampleResult Sample(Point2f u) {
         Point2f pd = Sampling.ConcentricSampleDisk(u);
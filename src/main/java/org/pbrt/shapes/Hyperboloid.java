@@ -59,54 +59,12 @@ public class Hyperboloid extends Shape {
 
     @Override
     public HitResult Intersect(Ray r, boolean testAlphaTexture) {
-        float phi;
-        Point3f pHit;
-        // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
-
-        // Compute quadratic hyperboloid coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = (dx.multiply(dx.multiply(ah))).add(dy.multiply(dy.multiply(ah))).subtract(dz.multiply(dz.multiply(ch)));
-        EFloat b = ((dx.multiply(ox.multiply(ah))).add(dy.multiply(oy.multiply(ah))).subtract(dz.multiply(oz.multiply(ch)))).multiply(2);
-        EFloat c = (ox.multiply(ox.multiply(ah))).add(oy.multiply(oy.multiply(ah))).subtract(oz.multiply(oz.multiply(ch))).subtract(1);
-
-        // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return null;
-
-        // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return null;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return null;
-        }
-
-        // Compute hyperboloid inverse mapping
-        pHit = ray.at(tShapeHit.asFloat());
+        // Find the nearest hit that passes the clipping tests; objects are only created for a hit
+        QuadricSolver q = QuadricSolver.Get();
+        if (!FindHit(r, q)) return null;
+        Point3f pHit = new Point3f(q.px, q.py, q.pz);
+        float phi = q.phi;
         float v = (pHit.z - p1.z) / (p2.z - p1.z);
-        Point3f pr = p1.scale(1-v).add(p2.scale(v));
-        phi = (float)Math.atan2(pr.x * pHit.y - pHit.x * pr.y, pHit.x * pr.x + pHit.y * pr.y);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
-
-        // Test hyperboloid intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return null;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return null;
-            // Compute hyperboloid inverse mapping
-            pHit = ray.at(tShapeHit.asFloat());
-            v = (pHit.z - p1.z) / (p2.z - p1.z);
-            pr = p1.scale(1-v).add(p2.scale(v));
-            phi = (float)Math.atan2(pr.x * pHit.y - pHit.x * pr.y, pHit.x * pr.x + pHit.y * pr.y);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return null;
-        }
 
         // Compute parametric representation of hyperboloid hit
         float u = phi / phiMax;
@@ -139,70 +97,78 @@ public class Hyperboloid extends Shape {
         // Compute error bounds for hyperboloid intersection
 
         // Compute error bounds for intersection computed with ray equation
-        EFloat px = ox.add(tShapeHit.multiply(dx));
-        EFloat py = oy.add(tShapeHit.multiply(dy));
-        EFloat pz = oz.add(tShapeHit.multiply(dz));
-        Vector3f pError = new Vector3f(px.getAbsoluteError(), py.getAbsoluteError(), pz.getAbsoluteError());
+        Vector3f pError = new Vector3f(q.HitError(q.ox, q.dx), q.HitError(q.oy, q.dy), q.HitError(q.oz, q.dz));
 
         // Initialize _SurfaceInteraction_ from parametric information
         HitResult hr = new HitResult();
         hr.isect = ObjectToWorld.xform(new SurfaceInteraction(pHit, pError, new Point2f(u, v),
-                ray.d.negate(), dpdu, dpdv, dndu, dndv, ray.time, this));
-        hr.tHit = tShapeHit.asFloat();
+                new Vector3f(-q.dx.v, -q.dy.v, -q.dz.v), dpdu, dpdv, dndu, dndv, r.time, this));
+        hr.tHit = q.tHit.v;
         return hr;
     }
 
     @Override
     public boolean IntersectP(Ray r, boolean testAlphaTexture) {
-        float phi;
-        Point3f pHit;
+        return FindHit(r, QuadricSolver.Get());
+    }
+
+    // Intersect _r_ with the hyperboloid using _q_'s registers instead of _EFloat_ objects; on
+    // success the hit is left in _q_. Nothing is allocated.
+    private boolean FindHit(Ray r, QuadricSolver q) {
         // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
+        q.SetRay(WorldToObject, r);
 
         // Compute quadratic hyperboloid coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = (dx.multiply(dx.multiply(ah))).add(dy.multiply(dy.multiply(ah))).subtract(dz.multiply(dz.multiply(ch)));
-        EFloat b = ((dx.multiply(ox.multiply(ah))).add(dy.multiply(oy.multiply(ah))).subtract(dz.multiply(oz.multiply(ch)))).multiply(2);
-        EFloat c = (ox.multiply(ox.multiply(ah))).add(oy.multiply(oy.multiply(ah))).subtract(oz.multiply(oz.multiply(ch))).subtract(1);
+        q.s2.set(ah);
+        q.s3.set(ch);
+        q.Multiply(q.dx, q.s2, q.s0);
+        q.Multiply(q.dx, q.s0, q.a);
+        q.Multiply(q.dy, q.s2, q.s0);
+        q.Multiply(q.dy, q.s0, q.s0);
+        q.Add(q.a, q.s0, q.a);
+        q.Multiply(q.dz, q.s3, q.s0);
+        q.Multiply(q.dz, q.s0, q.s0);
+        q.Subtract(q.a, q.s0, q.a);
+        q.Multiply(q.ox, q.s2, q.s0);
+        q.Multiply(q.dx, q.s0, q.b);
+        q.Multiply(q.oy, q.s2, q.s0);
+        q.Multiply(q.dy, q.s0, q.s0);
+        q.Add(q.b, q.s0, q.b);
+        q.Multiply(q.oz, q.s3, q.s0);
+        q.Multiply(q.dz, q.s0, q.s0);
+        q.Subtract(q.b, q.s0, q.b);
+        q.Multiply(q.b, q.s0.set(2), q.b);
+        q.Multiply(q.ox, q.s2, q.s0);
+        q.Multiply(q.ox, q.s0, q.c);
+        q.Multiply(q.oy, q.s2, q.s0);
+        q.Multiply(q.oy, q.s0, q.s0);
+        q.Add(q.c, q.s0, q.c);
+        q.Multiply(q.oz, q.s3, q.s0);
+        q.Multiply(q.oz, q.s0, q.s0);
+        q.Subtract(q.c, q.s0, q.c);
+        q.Subtract(q.c, q.s0.set(1), q.c);
 
         // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return false;
+        if (!q.Solve()) return false;
 
         // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return false;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return false;
-        }
+        if (q.t0.high > q.tMax || q.t1.low <= 0) return false;
+        if (q.t0.low > 0 && AcceptHit(q, q.t0)) return true;
+        if (q.t1.high > q.tMax) return false;
+        return AcceptHit(q, q.t1);
+    }
 
+    // Set the hit in _q_ to the ray point at _t_ and test it against the clipping parameters
+    private boolean AcceptHit(QuadricSolver q, QuadricSolver.Var t) {
         // Compute hyperboloid inverse mapping
-        pHit = ray.at(tShapeHit.asFloat());
-        float v = (pHit.z - p1.z) / (p2.z - p1.z);
-        Point3f pr = p1.scale(1-v).add(p2.scale(v));
-        phi = (float)Math.atan2(pr.x * pHit.y - pHit.x * pr.y, pHit.x * pr.x + pHit.y * pr.y);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
+        q.SetHit(t);
+        float v = (q.pz - p1.z) / (p2.z - p1.z);
+        float prx = (1 - v) * p1.x + v * p2.x, pry = (1 - v) * p1.y + v * p2.y;
+        q.phi = (float)Math.atan2(prx * q.py - q.px * pry, q.px * prx + q.py * pry);
+        if (q.phi < 0) q.phi += 2 * Pbrt.Pi;
 
         // Test hyperboloid intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return false;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return false;
-            // Compute hyperboloid inverse mapping
-            pHit = ray.at(tShapeHit.asFloat());
-            v = (pHit.z - p1.z) / (p2.z - p1.z);
-            pr = p1.scale(1-v).add(p2.scale(v));
-            phi = (float)Math.atan2(pr.x * pHit.y - pHit.x * pr.y, pHit.x * pr.x + pHit.y * pr.y);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return false;
-        }
-        return true;
+        return !(q.pz < zMin || q.pz > zMax || q.phi > phiMax);
     }
 
     private static float SQR(float a) { return a * a; }
@@ -40,53 +40,11 @@ public class Paraboloid extends Shape {
 
     @Override
     public HitResult Intersect(Ray r, boolean testAlphaTexture) {
-        float phi;
-        Point3f pHit;
-        // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
-
-        // Compute quadratic paraboloid coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat eradius = new EFloat(radius);
-        EFloat ezmax = new EFloat(zMax);
-        EFloat k = ezmax.divide(eradius.multiply(eradius));
-        EFloat a = k.multiply(dx.multiply(dx).add(dy.multiply(dy)));
-        EFloat b = (k.multiply(2).multiply(ox.multiply(dx).add(oy.multiply(dy)))).subtract(dz);
-        EFloat c = (k.multiply(ox.multiply(ox).add(oy.multiply(oy)))).subtract(oz);
-
-        // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return null;
-
-        // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return null;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return null;
-        }
-
-        // Compute paraboloid inverse mapping
-        pHit = ray.at(tShapeHit.asFloat());
-        phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
-
-        // Test paraboloid intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return null;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return null;
-            // Compute paraboloid inverse mapping
-            pHit = ray.at(tShapeHit.asFloat());
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return null;
-        }
+        // Find the nearest hit that passes the clipping tests; objects are only created for a hit
+        QuadricSolver q = QuadricSolver.Get();
+        if (!FindHit(r, q)) return null;
+        Point3f pHit = new Point3f(q.px, q.py, q.pz);
+        float phi = q.phi;
 
         // Find parametric representation of paraboloid hit
         float u = phi / phiMax;
@@ -118,69 +76,66 @@ public class Paraboloid extends Shape {
         // Compute error bounds for paraboloid intersection
 
         // Compute error bounds for intersection computed with ray equation
-        EFloat px = ox.add(tShapeHit.multiply(dx));
-        EFloat py = oy.add(tShapeHit.multiply(dy));
-        EFloat pz = oz.add(tShapeHit.multiply(dz));
-        Vector3f pError = new Vector3f(px.getAbsoluteError(), py.getAbsoluteError(), pz.getAbsoluteError());
+        Vector3f pError = new Vector3f(q.HitError(q.ox, q.dx), q.HitError(q.oy, q.dy), q.HitError(q.oz, q.dz));
 
         // Initialize _SurfaceInteraction_ from parametric information
         HitResult hr = new HitResult();
         hr.isect = ObjectToWorld.xform(new SurfaceInteraction(pHit, pError, new Point2f(u, v),
-                ray.d.negate(), dpdu, dpdv, dndu, dndv, ray.time, this));
-        hr.tHit = tShapeHit.asFloat();
+                new Vector3f(-q.dx.v, -q.dy.v, -q.dz.v), dpdu, dpdv, dndu, dndv, r.time, this));
+        hr.tHit = q.tHit.v;
         return hr;
     }
 
     @Override
     public boolean IntersectP(Ray r, boolean testAlphaTexture) {
-        float phi;
-        Point3f pHit;
+        return FindHit(r, QuadricSolver.Get());
+    }
+
+    // Intersect _r_ with the paraboloid using _q_'s registers instead of _EFloat_ objects; on
+    // success the hit is left in _q_. Nothing is allocated.
+    private boolean FindHit(Ray r, QuadricSolver q) {
         // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
+        q.SetRay(WorldToObject, r);
 
         // Compute quadratic paraboloid coefficients
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat eradius = new EFloat(radius);
-        EFloat ezmax = new EFloat(zMax);
-        EFloat k = ezmax.divide(eradius.multiply(eradius));
-        EFloat a = k.multiply(dx.multiply(dx).add(dy.multiply(dy)));
-        EFloat b = (k.multiply(2).multiply(ox.multiply(dx).add(oy.multiply(dy)))).subtract(dz);
-        EFloat c = (k.multiply(ox.multiply(ox).add(oy.multiply(oy)))).subtract(oz);
+        q.Multiply(q.s0.set(radius), q.s0, q.s0);
+        // _s3_ holds $k = z_{max} / r^2$
+        q.Divide(q.s1.set(zMax), q.s0, q.s3);
+        q.Multiply(q.dx, q.dx, q.s0);
+        q.Multiply(q.dy, q.dy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s3, q.s0, q.a);
+        q.Multiply(q.ox, q.dx, q.s0);
+        q.Multiply(q.oy, q.dy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s3, q.s1.set(2), q.s1);
+        q.Multiply(q.s1, q.s0, q.s0);
+        q.Subtract(q.s0, q.dz, q.b);
+        q.Multiply(q.ox, q.ox, q.s0);
+        q.Multiply(q.oy, q.oy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s3, q.s0, q.s0);
+        q.Subtract(q.s0, q.oz, q.c);
 
         // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return false;
+        if (!q.Solve()) return false;
 
         // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return false;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return false;
-        }
+        if (q.t0.high > q.tMax || q.t1.low <= 0) return false;
+        if (q.t0.low > 0 && AcceptHit(q, q.t0)) return true;
+        if (q.t1.high > q.tMax) return false;
+        return AcceptHit(q, q.t1);
+    }
 
+    // Set the hit in _q_ to the ray point at _t_ and test it against the clipping parameters
+    private boolean AcceptHit(QuadricSolver q, QuadricSolver.Var t) {
         // Compute paraboloid inverse mapping
-        pHit = ray.at(tShapeHit.asFloat());
-        phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
+        q.SetHit(t);
+        q.phi = (float)Math.atan2(q.py, q.px);
+        if (q.phi < 0) q.phi += 2 * Pbrt.Pi;
 
         // Test paraboloid intersection against clipping parameters
-        if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) {
-            if (tShapeHit == qr.t1) return false;
-            tShapeHit = qr.t1;
-            if (qr.t1.upperBound() > ray.tMax) return false;
-            // Compute paraboloid inverse mapping
-            pHit = ray.at(tShapeHit.asFloat());
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if (pHit.z < zMin || pHit.z > zMax || phi > phiMax) return false;
-        }
-        return true;
+        return !(q.pz < zMin || q.pz > zMax || q.phi > phiMax);
     }
 
     @Override
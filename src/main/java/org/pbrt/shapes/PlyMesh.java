@@ -27,18 +27,65 @@ import org.smurn.jply.util.TextureMode;
 
 public class PlyMesh {
 
+    // Vertex and face data read from a PLY file, before it is transformed to world space
+    private static class PlyData {
+        Point3f[] points;
+        Normal3f[] normals;
+        Point2f[] uvs;
+        int[] indices;
+        int nTriangles;
+    }
+
     public static ArrayList<Shape> Create(Transform object2world, Transform world2object, boolean reverseOrientation, ParamSet paramSet, Map<String, TextureFloat> floatTextures) {
         String filename = paramSet.FindOneFilename("filename", "");
 
+        // The parsed file data is shared across renders when the asset cache is enabled
+        PlyData data = AssetCache.Get(filename, PlyData.class, () -> Read(filename));
+        if (data == null) {
+            return new ArrayList<>();
+        }
+
+        // Look up an alpha texture, if applicable
+        TextureFloat alphaTex = null;
+        String alphaTexName = paramSet.FindTexture("alpha");
+        if (!alphaTexName.isEmpty()) {
+            if (floatTextures.containsKey(alphaTexName)) {
+                alphaTex = floatTextures.get(alphaTexName);
+            }
+            else {
+                PBrtTLogger.Error("Couldn't find float texture \"%s\" for \"alpha\" parameter", alphaTexName);
+            }
+        } else if (paramSet.FindOneFloat("alpha", 1) == 0) {
+            alphaTex = new ConstantTextureFloat(0.0f);
+        }
+
+        TextureFloat shadowAlphaTex = null;
+        String shadowAlphaTexName = paramSet.FindTexture("shadowalpha");
+        if (!shadowAlphaTexName.isEmpty()) {
+            if (floatTextures.containsKey(shadowAlphaTexName)) {
+                shadowAlphaTex = floatTextures.get(shadowAlphaTexName);
+            }
+            else {
+                PBrtTLogger.Error("Couldn't find float texture \"%s\" for \"shadowalpha\" parameter", shadowAlphaTexName);
+            }
+        }
+        else if (paramSet.FindOneFloat("shadowalpha", 1) == 0) {
+            shadowAlphaTex = new ConstantTextureFloat(0.0f);
+        }
+
+        return Triangle.CreateTriangleMesh(object2world, world2object, reverseOrientation,
+                data.nTriangles, data.indices, data.points.length, data.points, null, data.normals, data.uvs, alphaTex, shadowAlphaTex);
+    }
+
+    private static PlyData Read(String filename) {
         PlyReader ply = null;
         try {
             ply = new PlyReaderFile(filename);
         }
         catch (IOException e) {
             PBrtTLogger.Error("Couldn't open PLY file \"%s\"", filename);
-            return new ArrayList<>();
+            return null;
         }
-
         ply = new NormalizingPlyReader(ply, TesselationMode.TRIANGLES, NormalMode.ADD_NORMALS_CCW, TextureMode.XY);
 
         int vertexCount = ply.getElementCount("vertex");
@@ -46,7 +93,7 @@ public class PlyMesh {
 
         if (vertexCount == 0 || faceCount == 0) {
             PBrtTLogger.Error("PLY file \"%s\" is invalid! No face/vertex elements found!", filename);
-            return new ArrayList<>();
+            return null;
         }
 
         Point3f[] points = new Point3f[vertexCount];
@@ -101,38 +148,15 @@ public class PlyMesh {
 
         } catch (IOException e) {
             PBrtTLogger.Error("PLY file \"%s\", failed to read elements.", filename);
-            return new ArrayList<>();
-        }
-
-        // Look up an alpha texture, if applicable
-        TextureFloat alphaTex = null;
-        String alphaTexName = paramSet.FindTexture("alpha");
-        if (!alphaTexName.isEmpty()) {
-            if (floatTextures.containsKey(alphaTexName)) {
-                alphaTex = floatTextures.get(alphaTexName);
-            }
-            else {
-                PBrtTLogger.Error("Couldn't find float texture \"%s\" for \"alpha\" parameter", alphaTexName);
-            }
-        } else if (paramSet.FindOneFloat("alpha", 1) == 0) {
-            alphaTex = new ConstantTextureFloat(0.0f);
+            return null;
         }
 
-        TextureFloat shadowAlphaTex = null;
-        String shadowAlphaTexName = paramSet.FindTexture("shadowalpha");
-        if (!shadowAlphaTexName.isEmpty()) {
-            if (floatTextures.containsKey(shadowAlphaTexName)) {
-                shadowAlphaTex = floatTextures.get(shadowAlphaTexName);
-            }
-            else {
-                PBrtTLogger.Error("Couldn't find float texture \"%s\" for \"shadowalpha\" parameter", shadowAlphaTexName);
-            }
-        }
-        else if (paramSet.FindOneFloat("shadowalpha", 1) == 0) {
-            shadowAlphaTex = new ConstantTextureFloat(0.0f);
-        }
-
-        return Triangle.CreateTriangleMesh(object2world, world2object, reverseOrientation,
-                indexCtr / 3, indices, vertexCount, points, null, normals, uvs, alphaTex, shadowAlphaTex);
+        PlyData data = new PlyData();
+        data.points = points;
+        data.normals = normals;
+        data.uvs = uvs;
+        data.indices = indices;
+        data.nTriangles = indexCtr / 3;
+        return data;
     }
 }
\ No newline at end of file
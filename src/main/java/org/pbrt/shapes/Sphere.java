@@ -39,63 +39,11 @@ public class Sphere extends Shape {
 
     @Override
     public HitResult Intersect(Ray r, boolean testAlphaTexture) {
-        // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
-
-        // Compute quadratic sphere coefficients
-
-        //float fox = ray.o.x, foy = ray.o.y, foz = ray.o.z;
-        //float fdx = ray.d.x, fdy = ray.d.y, fdz = ray.d.z;
-        //float fa = fdx*fdx + fdy*fdy + fdz*fdz;
-        //float fb = 2 * (fdx*fox + fdy * foy + fdz*foz);
-        //float fc = fox *fox + foy*foy + foz*foz - radius * radius;
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = dx.multiply(dx).add(dy.multiply(dy)).add(dz.multiply(dz));
-        EFloat b = (new EFloat(2)).multiply(dx.multiply(ox).add(dy.multiply(oy).add(dz.multiply(oz))));
-        EFloat c = (ox.multiply(ox)).add(oy.multiply(oy)).add(oz.multiply(oz)).subtract(new EFloat(radius).multiply(new EFloat(radius)));
-
-        // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return null;
-
-        // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return null;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return null;
-        }
-
-        // Compute sphere hit position and $\phi$
-        Point3f pHit = ray.at(tShapeHit.asFloat());
-
-        // Refine sphere intersection point
-        pHit = pHit.scale(radius / Point3f.Distance(pHit, new Point3f(0, 0, 0)));
-        if (pHit.x == 0 && pHit.y == 0) pHit.x = 1e-5f * radius;
-        float phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
-
-        // Test sphere intersection against clipping parameters
-        if ((zMin > -radius && pHit.z < zMin) || (zMax < radius && pHit.z > zMax) || phi > phiMax) {
-            if (tShapeHit == qr.t1) return null;
-            if (qr.t1.upperBound() > ray.tMax) return null;
-            tShapeHit = qr.t1;
-            // Compute sphere hit position and $\phi$
-            pHit = ray.at(tShapeHit.asFloat());
-
-            // Refine sphere intersection point
-            pHit = pHit.scale(radius / Point3f.Distance(pHit, new Point3f(0, 0, 0)));
-            if (pHit.x == 0 && pHit.y == 0) pHit.x = 1e-5f * radius;
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if ((zMin > -radius && pHit.z < zMin) || (zMax < radius && pHit.z > zMax) || phi > phiMax)
-                return null;
-        }
+        // Find the nearest hit that passes the clipping tests; objects are only created for a hit
+        QuadricSolver q = QuadricSolver.Get();
+        if (!FindHit(r, q)) return null;
+        Point3f pHit = new Point3f(q.px, q.py, q.pz);
+        float phi = q.phi;
 
         // Find parametric representation of sphere hit
         float u = phi / phiMax;
@@ -104,9 +52,9 @@ public class Sphere extends Shape {
 
         // Compute sphere $\dpdu$ and $\dpdv$
         float zRadius = (float)Math.sqrt(pHit.x * pHit.x + pHit.y * pHit.y);
-        Float invZRadius = 1 / zRadius;
-        Float cosPhi = pHit.x * invZRadius;
-        Float sinPhi = pHit.y * invZRadius;
+        float invZRadius = 1 / zRadius;
+        float cosPhi = pHit.x * invZRadius;
+        float sinPhi = pHit.y * invZRadius;
         Vector3f dpdu = new Vector3f(-phiMax * pHit.y, phiMax * pHit.x, 0);
         Vector3f dpdv = (new Vector3f(pHit.z * cosPhi, pHit.z * sinPhi, -radius * (float)Math.sin(theta))).scale(thetaMax - thetaMin);
 
@@ -135,73 +83,70 @@ public class Sphere extends Shape {
         // Initialize _SurfaceInteraction_ from parametric information
         HitResult hr = new HitResult();
         hr.isect = ObjectToWorld.xform(new SurfaceInteraction(pHit, pError, new Point2f(u, v),
-                ray.d.negate(), dpdu, dpdv, dndu, dndv, ray.time, this));
+                new Vector3f(-q.dx.v, -q.dy.v, -q.dz.v), dpdu, dpdv, dndu, dndv, r.time, this));
 
         // Update _tHit_ for quadric intersection
-        hr.tHit = tShapeHit.asFloat();
+        hr.tHit = q.tHit.v;
         return hr;
     }
 
     @Override
     public boolean IntersectP(Ray r, boolean testAlphaTexture) {
+        return FindHit(r, QuadricSolver.Get());
+    }
+
+    // Intersect _r_ with the sphere using _q_'s registers instead of _EFloat_ objects; on
+    // success the hit is left in _q_. Nothing is allocated.
+    private boolean FindHit(Ray r, QuadricSolver q) {
         // Transform _Ray_ to object space
-        Vector3f oErr = WorldToObject.absError(r.o);
-        Vector3f dErr = WorldToObject.absError(r.d);
-        Ray ray = WorldToObject.xform(r);
+        q.SetRay(WorldToObject, r);
 
         // Compute quadratic sphere coefficients
-
-        //float fox = ray.o.x, foy = ray.o.y, foz = ray.o.z;
-        //float fdx = ray.d.x, fdy = ray.d.y, fdz = ray.d.z;
-        //float fa = fdx*fdx + fdy*fdy + fdz*fdz;
-        //float fb = 2 * (fdx*fox + fdy * foy + fdz*foz);
-        //float fc = fox *fox + foy*foy + foz*foz - radius * radius;
-
-        // Initialize _EFloat_ ray coordinate values
-        EFloat ox = new EFloat(ray.o.x, oErr.x), oy = new EFloat(ray.o.y, oErr.y), oz = new EFloat(ray.o.z, oErr.z);
-        EFloat dx = new EFloat(ray.d.x, dErr.x), dy = new EFloat(ray.d.y, dErr.y), dz = new EFloat(ray.d.z, dErr.z);
-        EFloat a = dx.multiply(dx).add(dy.multiply(dy)).add(dz.multiply(dz));
-        EFloat b = (new EFloat(2)).multiply(dx.multiply(ox).add(dy.multiply(oy).add(dz.multiply(oz))));
-        EFloat c = (ox.multiply(ox)).add(oy.multiply(oy)).add(oz.multiply(oz)).subtract(new EFloat(radius).multiply(new EFloat(radius)));
+        q.Multiply(q.dx, q.dx, q.s0);
+        q.Multiply(q.dy, q.dy, q.s1);
+        q.Add(q.s0, q.s1, q.a);
+        q.Multiply(q.dz, q.dz, q.s0);
+        q.Add(q.a, q.s0, q.a);
+        q.Multiply(q.dy, q.oy, q.s0);
+        q.Multiply(q.dz, q.oz, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.dx, q.ox, q.s1);
+        q.Add(q.s1, q.s0, q.s0);
+        q.Multiply(q.s1.set(2), q.s0, q.b);
+        q.Multiply(q.ox, q.ox, q.s0);
+        q.Multiply(q.oy, q.oy, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.oz, q.oz, q.s1);
+        q.Add(q.s0, q.s1, q.s0);
+        q.Multiply(q.s1.set(radius), q.s1, q.s1);
+        q.Subtract(q.s0, q.s1, q.c);
 
         // Solve quadratic equation for _t_ values
-        EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
-        if (qr == null) return false;
+        if (!q.Solve()) return false;
 
         // Check quadric shape _t0_ and _t1_ for nearest intersection
-        if (qr.t0.upperBound() > ray.tMax || qr.t1.lowerBound() <= 0) return false;
-        EFloat tShapeHit = qr.t0;
-        if (tShapeHit.lowerBound() <= 0) {
-            tShapeHit = qr.t1;
-            if (tShapeHit.upperBound() > ray.tMax) return false;
-        }
+        if (q.t0.high > q.tMax || q.t1.low <= 0) return false;
+        if (q.t0.low > 0 && AcceptHit(q, q.t0)) return true;
+        if (q.t1.high > q.tMax) return false;
+        return AcceptHit(q, q.t1);
+    }
 
+    // Set the hit in _q_ to the ray point at _t_ and test it against the clipping parameters
+    private boolean AcceptHit(QuadricSolver q, QuadricSolver.Var t) {
         // Compute sphere hit position and $\phi$
-        Point3f pHit = ray.at(tShapeHit.asFloat());
+        q.SetHit(t);
 
         // Refine sphere intersection point
-        pHit = pHit.scale(radius / Point3f.Distance(pHit, new Point3f(0, 0, 0)));
-        if (pHit.x == 0 && pHit.y == 0) pHit.x = 1e-5f * radius;
-        float phi = (float)Math.atan2(pHit.y, pHit.x);
-        if (phi < 0) phi += 2 * Pbrt.Pi;
+        float scale = radius / (float)Math.sqrt(q.px * q.px + q.py * q.py + q.pz * q.pz);
+        q.px = scale * q.px;
+        q.py = scale * q.py;
+        q.pz = scale * q.pz;
+        if (q.px == 0 && q.py == 0) q.px = 1e-5f * radius;
+        q.phi = (float)Math.atan2(q.py, q.px);
+        if (q.phi < 0) q.phi += 2 * Pbrt.Pi;
 
         // Test sphere intersection against clipping parameters
-        if ((zMin > -radius && pHit.z < zMin) || (zMax < radius && pHit.z > zMax) || phi > phiMax) {
-            if (tShapeHit == qr.t1) return false;
-            if (qr.t1.upperBound() > ray.tMax) return false;
-            tShapeHit = qr.t1;
-            // Compute sphere hit position and $\phi$
-            pHit = ray.at(tShapeHit.asFloat());
-
-            // Refine sphere intersection point
-            pHit = pHit.scale(radius / Point3f.Distance(pHit, new Point3f(0, 0, 0)));
-            if (pHit.x == 0 && pHit.y == 0) pHit.x = 1e-5f * radius;
-            phi = (float)Math.atan2(pHit.y, pHit.x);
-            if (phi < 0) phi += 2 * Pbrt.Pi;
-            if ((zMin > -radius && pHit.z < zMin) || (zMax < radius && pHit.z > zMax) || phi > phiMax)
-                return false;
-        }
-        return true;
+        return !((zMin > -radius && q.pz < zMin) || (zMax < radius && q.pz > zMax) || q.phi > phiMax);
     }
 
     @Override
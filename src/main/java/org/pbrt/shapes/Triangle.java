@@ -139,8 +139,53 @@ public class Triangle extends Shape {
         return Bounds3f.Union(new Bounds3f(p0, p1), p2);
     }
 
+    @Override
+    public DirectionCone NormalBounds() {
+        Point3f p0 = mesh.p[v[0]];
+        Point3f p1 = mesh.p[v[1]];
+        Point3f p2 = mesh.p[v[2]];
+        Normal3f n = Normal3f.Normalize(new Normal3f(Vector3f.Cross(p1.subtract(p0), p2.subtract(p0))));
+        // Orient the normal as Sample() does
+        if (mesh.n != null) {
+            Normal3f ns = mesh.n[v[0]].add(mesh.n[v[1]].add(mesh.n[v[2]]));
+            n = Normal3f.Faceforward(n, ns);
+        } else if (reverseOrientation ^ transformSwapsHandedness)
+            n = n.negate();
+        return new DirectionCone(new Vector3f(n));
+    }
+
     @Override
     public HitResult Intersect(Ray ray, boolean testAlphaTexture) {
+        HitRecord hit = new HitRecord();
+        if (!TestHit(ray, hit)) return null;
+        SurfaceInteraction isect = BuildInteraction(ray, hit.b0, hit.b1, hit.b2, testAlphaTexture);
+        if (isect == null) return null;
+        HitResult hr = new HitResult();
+        hr.isect = isect;
+        hr.tHit = hit.tHit;
+        interPerRayTri.incrementNumer(1); //++nHits;
+        return hr;
+    }
+
+    @Override
+    public boolean Intersect(Ray ray, boolean testAlphaTexture, HitRecord hit) {
+        // The alpha test needs the interaction, so it cannot be deferred
+        if (testAlphaTexture && mesh.alphaMask != null)
+            return super.Intersect(ray, true, hit);
+        if (!TestHit(ray, hit)) return false;
+        hit.isect = null;
+        interPerRayTri.incrementNumer(1); //++nHits;
+        return true;
+    }
+
+    @Override
+    public SurfaceInteraction FinalizeHit(Ray ray, HitRecord hit) {
+        if (hit.isect != null) return hit.isect;
+        return BuildInteraction(ray, hit.b0, hit.b1, hit.b2, false);
+    }
+
+    // Ray--triangle test; on a hit stores $t$ and the barycentrics in _hit_
+    private boolean TestHit(Ray ray, HitRecord hit) {
         interPerRayTri.incrementDenom(1); //++nTests;
 
         // Get triangle vertices in _p0_, _p1_, and _p2_
@@ -199,9 +244,9 @@ public class Triangle extends Shape {
 
         // Perform triangle edge and determinant tests
         if ((e0 < 0 || e1 < 0 || e2 < 0) && (e0 > 0 || e1 > 0 || e2 > 0))
-            return null;
+            return false;
         float det = e0 + e1 + e2;
-        if (det == 0) return null;
+        if (det == 0) return false;
 
         // Compute scaled hit distance to triangle and test against ray $t$ range
         p0t.z *= Sz;
@@ -209,9 +254,9 @@ public class Triangle extends Shape {
         p2t.z *= Sz;
         float tScaled = e0 * p0t.z + e1 * p1t.z + e2 * p2t.z;
         if (det < 0 && (tScaled >= 0 || tScaled < ray.tMax * det))
-            return null;
+            return false;
         else if (det > 0 && (tScaled <= 0 || tScaled > ray.tMax * det))
-            return null;
+            return false;
 
         // Compute barycentric coordinates and $t$ value for triangle intersection
         float invDet = 1 / det;
@@ -238,7 +283,21 @@ public class Triangle extends Shape {
         // Compute $\delta_t$ term for triangle $t$ error bounds and check _t_
         float maxE = Vector3f.MaxComponent(Vector3f.Abs(new Vector3f(e0, e1, e2)));
         float deltaT = 3 * (Pbrt.gamma(3) * maxE * maxZt + deltaE * maxZt + deltaZ * maxE) * Math.abs(invDet);
-        if (t <= deltaT) return null;
+        if (t <= deltaT) return false;
+
+        hit.tHit = t;
+        hit.b0 = b0;
+        hit.b1 = b1;
+        hit.b2 = b2;
+        return true;
+    }
+
+    // Build the interaction at barycentrics _b0_, _b1_, _b2_; null if the alpha test fails
+    private SurfaceInteraction BuildInteraction(Ray ray, float b0, float b1, float b2, boolean testAlphaTexture) {
+        // Get triangle vertices in _p0_, _p1_, and _p2_
+        Point3f p0 = mesh.p[v[0]];
+        Point3f p1 = mesh.p[v[1]];
+        Point3f p2 = mesh.p[v[2]];
 
         // Compute triangle partial derivatives
         Vector3f dpdu = null, dpdv = null;
@@ -279,12 +338,11 @@ public class Triangle extends Shape {
         }
 
         // Fill in _SurfaceInteraction_ from triangle hit
-        HitResult hr = new HitResult();
-        hr.isect = new SurfaceInteraction(pHit, pError, uvHit, ray.d.negate(), dpdu, dpdv,
+        SurfaceInteraction isect = new SurfaceInteraction(pHit, pError, uvHit, ray.d.negate(), dpdu, dpdv,
                 new Normal3f(0, 0, 0), new Normal3f(0, 0, 0), ray.time, this);
 
         // Override surface normal in _isect_ for triangle
-        hr.isect.n = hr.isect.shading.n = new Normal3f(Vector3f.Normalize(Vector3f.Cross(dp02, dp12)));
+        isect.n = isect.shading.n = new Normal3f(Vector3f.Normalize(Vector3f.Cross(dp02, dp12)));
         if (mesh.n != null || mesh.s != null) {
             // Initialize _Triangle_ shading geometry
 
@@ -295,9 +353,9 @@ public class Triangle extends Shape {
                 if (ns.LengthSquared() > 0)
                     ns = Normal3f.Normalize(ns);
                 else
-                    ns = hr.isect.n;
+                    ns = isect.n;
             } else
-                ns = hr.isect.n;
+                ns = isect.n;
 
             // Compute shading tangent _ss_ for triangle
             Vector3f ss;
@@ -306,9 +364,9 @@ public class Triangle extends Shape {
                 if (ss.LengthSquared() > 0)
                     ss = Vector3f.Normalize(ss);
                 else
-                    ss = Vector3f.Normalize(hr.isect.dpdu);
+                    ss = Vector3f.Normalize(isect.dpdu);
             } else
-                ss = Vector3f.Normalize(hr.isect.dpdu);
+                ss = Vector3f.Normalize(isect.dpdu);
 
             // Compute shading bitangent _ts_ for triangle and adjust _ss_
             Vector3f ts = Vector3f.Cross(ss, ns);
@@ -333,24 +391,22 @@ public class Triangle extends Shape {
                 if (degenerateUV)
                     dndu = dndv = new Normal3f(0, 0, 0);
                 else {
-                    invDet = 1 / determinant;
+                    float invDet = 1 / determinant;
                     dndu = (dn1.scale(duv12.y).add(dn2.scale(-duv02.y))).scale(invDet);
                     dndv = (dn1.scale(-duv12.x).add(dn2.scale(duv02.x))).scale(invDet);
                 }
             } else
                 dndu = dndv = new Normal3f(0, 0, 0);
-            hr.isect.SetShadingGeometry(ss, ts, dndu, dndv, true);
+            isect.SetShadingGeometry(ss, ts, dndu, dndv, true);
         }
 
         // Ensure correct orientation of the geometric normal
         if (mesh.n != null)
-            hr.isect.n = Normal3f.Faceforward(hr.isect.n, hr.isect.shading.n);
+            isect.n = Normal3f.Faceforward(isect.n, isect.shading.n);
         else if (reverseOrientation ^ transformSwapsHandedness) {
-            hr.isect.shading.n = hr.isect.n = hr.isect.n.negate();
+            isect.shading.n = isect.n = isect.n.negate();
         }
-        hr.tHit = t;
-        interPerRayTri.incrementNumer(1); //++nHits;
-        return hr;
+        return isect;
     }
 
     @Override
@@ -66,26 +66,36 @@ public class ImageTextureFloat extends TextureFloat {
 
     @Override
     public float Evaluate(SurfaceInteraction si) {
+        int prof = Profiler.Enter(Profiler.TextureEvaluation);
         TextureMapping2D.MapPoint point = mapping.Map(si);
-        return mipmap.Lookup(point.st, point.dstdx, point.dstdy);
+        float value = mipmap.Lookup(point.st, point.dstdx, point.dstdy);
+        Profiler.Exit(prof);
+        return value;
     }
 
     private TextureMapping2D mapping;
     private MIPMapFloat mipmap;
 
-    private static HashMap<Texture.TexInfo, MIPMapFloat> texturesFloat = new HashMap<>();
-
     public static void ClearCacheFloat() {
-        texturesFloat.clear();
+        RenderContext.Current().texturesFloat.clear();
     }
 
     private static MIPMapFloat GetTexture(String filename, boolean doTrilinear, float maxAniso,
                                           Texture.ImageWrap wrap, float scale, boolean gamma) {
         // Return _MIPMap_ from texture cache if present
+        HashMap<Texture.TexInfo, MIPMapFloat> texturesFloat = RenderContext.Current().texturesFloat;
         Texture.TexInfo texInfo = new Texture.TexInfo(filename, doTrilinear, maxAniso, wrap, scale, gamma);
         if (texturesFloat.containsKey(texInfo))
             return texturesFloat.get(texInfo);
 
+        // Share _MIPMap_s across renders when the asset cache is enabled
+        MIPMapFloat mipmap = AssetCache.Get(filename, texInfo, () -> LoadTexture(filename, doTrilinear, maxAniso, wrap, scale, gamma));
+        texturesFloat.put(texInfo, mipmap);
+        return mipmap;
+    }
+
+    private static MIPMapFloat LoadTexture(String filename, boolean doTrilinear, float maxAniso,
+                                           Texture.ImageWrap wrap, float scale, boolean gamma) {
         // Create _MIPMap_ for _filename_
         ImageIO.SpectrumImage image = ImageIO.Read(filename);
         if (image == null) {
@@ -120,7 +130,6 @@ public class ImageTextureFloat extends TextureFloat {
             float[] oneVal = { scale };
             mipmap = new MIPMapFloat(new Point2i(1, 1), oneVal, doTrilinear, maxAniso, wrap, 0);
         }
-        texturesFloat.put(texInfo, mipmap);
         return mipmap;
     }
 
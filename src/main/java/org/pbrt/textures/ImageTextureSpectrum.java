@@ -65,26 +65,36 @@ public class ImageTextureSpectrum extends TextureSpectrum {
 
     @Override
     public Spectrum Evaluate(SurfaceInteraction si) {
+        int prof = Profiler.Enter(Profiler.TextureEvaluation);
         TextureMapping2D.MapPoint point = mapping.Map(si);
-        return mipmap.Lookup(point.st, point.dstdx, point.dstdy);
+        Spectrum value = mipmap.Lookup(point.st, point.dstdx, point.dstdy);
+        Profiler.Exit(prof);
+        return value;
     }
 
     private TextureMapping2D mapping;
     private MIPMapSpectrum mipmap;
 
-    private static HashMap<Texture.TexInfo, MIPMapSpectrum> texturesSpectrum = new HashMap<>();
-
     public static void ClearCacheSpectrum() {
-        texturesSpectrum.clear();
+        RenderContext.Current().texturesSpectrum.clear();
     }
 
     private static MIPMapSpectrum GetTexture(String filename, boolean doTrilinear, float maxAniso,
                                           Texture.ImageWrap wrap, float scale, boolean gamma) {
         // Return _MIPMap_ from texture cache if present
+        HashMap<Texture.TexInfo, MIPMapSpectrum> texturesSpectrum = RenderContext.Current().texturesSpectrum;
         Texture.TexInfo texInfo = new Texture.TexInfo(filename, doTrilinear, maxAniso, wrap, scale, gamma);
         if (texturesSpectrum.containsKey(texInfo))
             return texturesSpectrum.get(texInfo);
 
+        // Share _MIPMap_s across renders when the asset cache is enabled
+        MIPMapSpectrum mipmap = AssetCache.Get(filename, texInfo, () -> LoadTexture(filename, doTrilinear, maxAniso, wrap, scale, gamma));
+        texturesSpectrum.put(texInfo, mipmap);
+        return mipmap;
+    }
+
+    private static MIPMapSpectrum LoadTexture(String filename, boolean doTrilinear, float maxAniso,
+                                           Texture.ImageWrap wrap, float scale, boolean gamma) {
         // Create _MIPMap_ for _filename_
         ImageIO.SpectrumImage image = ImageIO.Read(filename);
         if (image == null) {
@@ -119,7 +129,6 @@ public class ImageTextureSpectrum extends TextureSpectrum {
             Spectrum[] oneVal = { new Spectrum(scale) };
             mipmap = new MIPMapSpectrum(new Point2i(1, 1), oneVal, doTrilinear, maxAniso, wrap, new Spectrum(0));
         }
-        texturesSpectrum.put(texInfo, mipmap);
         return mipmap;
     }
 
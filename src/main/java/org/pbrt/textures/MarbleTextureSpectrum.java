@@ -27,7 +27,8 @@ public class MarbleTextureSpectrum extends TextureSpectrum {
         TextureMapping3D.MapPoint point = mapping.Map(si);
 
         point.p = point.p.scale(scale);
-        float marble = point.p.y + variation * Texture.FBm(point.p, point.dpdx.scale(scale), point.dpdy.scale(scale), omega, octaves);
+        float marble = point.p.y + variation * Texture.FBm(point.p.x, point.p.y, point.p.z,
+                Texture.MaxLengthSquared(point.dpdx, point.dpdy, scale), omega, octaves);
         float t = .5f + .5f * (float)Math.sin(marble);
         // Evaluate marble spline at _t_
         final int nc = marbleColors.length;
@@ -21,7 +21,8 @@ public class WindyTextureSpectrum extends TextureSpectrum {
     @Override
     public Spectrum Evaluate(SurfaceInteraction si) {
         TextureMapping3D.MapPoint point = mapping.Map(si);
-        float windStrength = Texture.FBm(point.p.scale(0.1f), point.dpdx.scale(0.1f), point.dpdy.scale(0.1f), 0.5f, 3);
+        float windStrength = Texture.FBm(0.1f * point.p.x, 0.1f * point.p.y, 0.1f * point.p.z,
+                Texture.MaxLengthSquared(point.dpdx, point.dpdy, 0.1f), 0.5f, 3);
         float waveHeight = Texture.FBm(point.p, point.dpdx, point.dpdy, 0.5f, 6);
         return new Spectrum(Math.abs(windStrength) * waveHeight);
     }
@@ -8,6 +8,7 @@
  */
 package org.pbrt;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.pbrt.core.Sampling.UniformSampleSphere;
 
@@ -84,4 +85,85 @@ public class AnimatedTransformTest {
         }
     }
 
+    @Test
+    public void testInterpolateInPlace() {
+        final RNG rng = new RNG();
+        Transform translate0 = Transform.Translate(new Vector3f(1, 2, 3));
+        Transform translate1 = Transform.Translate(new Vector3f(-4, 5, 6));
+        Transform rotate = Transform.Rotate(30, new Vector3f(1, 1, 0));
+        AnimatedTransform[] ats = {
+                // General, rotation-free and translation-only animations
+                new AnimatedTransform(RandomTransform(rng), 0, RandomTransform(rng), 1),
+                new AnimatedTransform(translate0, 0, translate1.concatenate(Transform.Scale(2, 1, 3)), 1),
+                new AnimatedTransform(translate0.concatenate(rotate), 0, translate1.concatenate(rotate), 1)
+        };
+        Matrix4x4 m = new Matrix4x4(), mInv = new Matrix4x4();
+        for (AnimatedTransform at : ats) {
+            for (int i = 0; i < 100; ++i) {
+                float time = -0.1f + 1.2f * rng.UniformFloat();
+                at.Interpolate(time, m, mInv);
+                // The cached transforms match the in-place result
+                assertTrue(at.Interpolate(time).GetMatrix().equal(m));
+                assertTrue(Transform.Inverse(at.InterpolateInverse(time)).GetMatrix().equal(m));
+                Matrix4x4 product = Matrix4x4.Mul(m, mInv);
+                for (int r = 0; r < 4; ++r)
+                    for (int c = 0; c < 4; ++c)
+                        assertEquals(r == c ? 1 : 0, product.m[r][c], 1e-4f);
+            }
+        }
+
+        // Translation-only animations move points linearly
+        AnimatedTransform at = ats[2];
+        Point3f p = new Point3f(1, -1, 2);
+        Point3f p0 = at.xform(0, p), p1 = at.xform(1, p), ph = at.xform(0.25f, p);
+        assertEquals(0.75f * p0.x + 0.25f * p1.x, ph.x, 1e-4f);
+        assertEquals(0.75f * p0.y + 0.25f * p1.y, ph.y, 1e-4f);
+        assertEquals(0.75f * p0.z + 0.25f * p1.z, ph.z, 1e-4f);
+    }
+
+    // Interpolation as originally written: decompose both ends, then compose
+    // Translate(T) * Rotate(Slerp(R)) * Scale(S) for every time
+    static Transform ReferenceInterpolate(Transform t0, Transform t1, float time) {
+        if (time <= 0) return t0;
+        if (time >= 1) return t1;
+        AnimatedTransform.MatComponents c0 = AnimatedTransform.Decompose(t0.GetMatrix());
+        AnimatedTransform.MatComponents c1 = AnimatedTransform.Decompose(t1.GetMatrix());
+        Quaternion r1 = (Quaternion.Dot(c0.R, c1.R) < 0) ? c1.R.negate() : c1.R;
+        Vector3f trans = c0.T.scale(1 - time).add(c1.T.scale(time));
+        Quaternion rotate = Quaternion.Slerp(time, c0.R, r1);
+        Matrix4x4 scale = new Matrix4x4();
+        for (int i = 0; i < 4; ++i)
+            for (int j = 0; j < 4; ++j)
+                scale.m[i][j] = Pbrt.Lerp(time, c0.S.m[i][j], c1.S.m[i][j]);
+        return Transform.Translate(trans).concatenate(rotate.ToTransform()).concatenate(new Transform(scale));
+    }
+
+    @Test
+    public void testMatchesReferenceComposition() {
+        final RNG rng = new RNG(3);
+        Transform rotate0 = Transform.Rotate(20, new Vector3f(0, 1, 1));
+        Transform rotate1 = Transform.Rotate(250, new Vector3f(1, 0, 2));
+        Transform[][] animations = {
+                { RandomTransform(rng), RandomTransform(rng) },
+                // Scale only
+                { Transform.Scale(1, 1, 1), Transform.Scale(2, 3, 0.5f) },
+                { Transform.Scale(0.5f, 0.5f, 0.5f), Transform.Scale(4, 1, 2) },
+                // Translation only, rotation only (past 180 degrees) and both with a fixed scale
+                { Transform.Translate(new Vector3f(1, 2, 3)), Transform.Translate(new Vector3f(-4, 5, 6)) },
+                { rotate0, rotate1 },
+                { Transform.Translate(new Vector3f(1, 0, 0)).concatenate(rotate0).concatenate(Transform.Scale(2, 2, 2)),
+                  Transform.Translate(new Vector3f(0, 3, 0)).concatenate(rotate1).concatenate(Transform.Scale(2, 2, 2)) }
+        };
+        for (Transform[] ends : animations) {
+            AnimatedTransform at = new AnimatedTransform(ends[0], 0, ends[1], 1);
+            for (int i = 0; i <= 50; ++i) {
+                float time = -0.1f + 1.2f * i / 50;
+                Matrix4x4 expected = ReferenceInterpolate(ends[0], ends[1], time).GetMatrix();
+                Matrix4x4 actual = at.Interpolate(time).GetMatrix();
+                for (int r = 0; r < 4; ++r)
+                    for (int c = 0; c < 4; ++c)
+                        assertEquals(expected.m[r][c], actual.m[r][c], 1e-4f * Math.max(1, Math.abs(expected.m[r][c])));
+            }
+        }
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.cameras.EnvironmentCamera;
+import org.pbrt.cameras.OrthographicCamera;
+import org.pbrt.cameras.PerspectiveCamera;
+import org.pbrt.cameras.RealisticCamera;
+import org.pbrt.core.*;
+import org.pbrt.filters.BoxFilter;
+import org.pbrt.integrators.BDPTIntegrator;
+import org.pbrt.integrators.SPPMIntegrator;
+import org.pbrt.samplers.RandomSampler;
+
+import static org.junit.Assert.*;
+
+public class CameraTest {
+
+    // D-GAUSS F/2 22deg HFOV: radius, thickness, eta and aperture diameter of each interface in mm
+    private static final float[] dgauss = {
+        29.475f, 3.76f, 1.67f, 25.2f,
+        84.83f, 0.12f, 1, 25.2f,
+        19.275f, 4.025f, 1.67f, 23,
+        40.77f, 3.275f, 1.699f, 23,
+        12.75f, 5.705f, 1, 18,
+        0, 4.5f, 0, 17.1f,
+        -14.495f, 1.18f, 1.603f, 17,
+        40.77f, 6.065f, 1.658f, 20,
+        -20.385f, 0.19f, 1, 20,
+        437.065f, 3.22f, 1.717f, 20,
+        -39.73f, 0, 1, 20
+    };
+
+    private static Film makeFilm() {
+        return new Film(new Point2i(16, 12), new Bounds2f(new Point2f(0, 0), new Point2f(1, 1)),
+                new BoxFilter(new Vector2f(0.5f, 0.5f)), 35, "camera-test.exr", 1, Pbrt.Infinity);
+    }
+
+    private static Camera makeRealisticCamera() {
+        AnimatedTransform identity = new AnimatedTransform(new Transform(), 0, new Transform(), 1);
+        return new RealisticCamera(identity, 0, 1, 6, 1, false, dgauss.clone(), makeFilm(), null);
+    }
+
+    // The realistic camera has no importance functions, so BDPT sees vignetting through a
+    // perspective camera that blocks the film corners instead
+    private static Camera makeVignettingPerspectiveCamera() {
+        AnimatedTransform identity = new AnimatedTransform(new Transform(), 0, new Transform(), 1);
+        return new PerspectiveCamera(identity, new Bounds2f(new Point2f(-1, -0.75f), new Point2f(1, 0.75f)), 0, 1, 0, 1, 45, makeFilm(), null) {
+            @Override
+            public CameraRayDiff GenerateRayDifferential(CameraSample sample) {
+                float dx = sample.pFilm.x - 8, dy = sample.pFilm.y - 6;
+                if (dx * dx + dy * dy > 49) return null;
+                return super.GenerateRayDifferential(sample);
+            }
+        };
+    }
+
+    private static void assertRendered(String filename) {
+        ImageIO.SpectrumImage image = ImageIO.Read(filename);
+        assertNotNull(image);
+        float sum = 0;
+        for (int i = 0; i < image.resolution.x * image.resolution.y; ++i) {
+            for (int c = 0; c < 3; ++c) {
+                assertTrue(Float.isFinite(image.image[i].at(c)));
+                sum += image.image[i].at(c);
+            }
+        }
+        assertTrue(sum > 0);
+    }
+
+    @Test
+    public void testVignettedSamples() {
+        Options options = new Options();
+        options.Quiet = true;
+        Api.pbrtInit(options);
+
+        // The lens system must actually block some of the samples for the renders below to cover them
+        Camera camera = makeRealisticCamera();
+        RNG rng = new RNG(3);
+        int blocked = 0;
+        Camera.CameraSample sample = new Camera.CameraSample();
+        for (int i = 0; i < 1000; ++i) {
+            sample.pFilm = new Point2f(rng.UniformFloat() * 16, rng.UniformFloat() * 12);
+            sample.pLens = new Point2f(rng.UniformFloat(), rng.UniformFloat());
+            sample.time = 0;
+            if (camera.GenerateRayDifferential(sample) == null) ++blocked;
+        }
+        assertTrue(blocked > 0);
+
+        Scene scene = SceneTest.GetScenes().get(0).scene;
+        new SPPMIntegrator(camera, 2, 1000, 3, 0.1f, 1 << 30).Render(scene);
+        assertRendered("camera-test.exr");
+
+        camera = makeVignettingPerspectiveCamera();
+        new BDPTIntegrator(new RandomSampler(4), camera, 3, false, false, camera.film.croppedPixelBounds, "power").Render(scene);
+        assertRendered("camera-test.exr");
+
+        Api.pbrtCleanup();
+    }
+
+    private static void assertSameBits(String message, float[] expected, float[] actual, int count) {
+        for (int i = 0; i < count; ++i)
+            assertEquals(message + " [" + i + "]", Float.floatToRawIntBits(expected[i]), Float.floatToRawIntBits(actual[i]));
+    }
+
+    // The batched rays must be exactly the ones the per-sample path generates
+    private static void assertBatchMatchesScalar(String name, Camera camera) {
+        RNG rng = new RNG(5);
+        CameraRayBuffer rays = new CameraRayBuffer(64);
+        Camera.CameraSample sample = new Camera.CameraSample();
+        for (int i = 0; i < 200; ++i) {
+            // Include the film corners and the shutter interval's ends
+            sample.pFilm = (i < 4) ? new Point2f((i & 1) * 16, (i >> 1) * 12) : new Point2f(rng.UniformFloat() * 16, rng.UniformFloat() * 12);
+            sample.pLens = new Point2f(rng.UniformFloat(), rng.UniformFloat());
+            sample.time = (i < 8) ? (i & 1) : rng.UniformFloat();
+            rays.Add(sample);
+        }
+        camera.GenerateRayDifferentials(rays);
+
+        CameraRayBuffer expected = new CameraRayBuffer(rays.count);
+        for (int i = 0; i < rays.count; ++i) {
+            rays.GetSample(i, sample);
+            expected.Add(sample);
+            Camera.CameraRayDiff crd = camera.GenerateRayDifferential(sample);
+            expected.SetRay(i, crd.rd, crd.weight);
+        }
+
+        int n = rays.count;
+        assertSameBits(name + " o.x", expected.ox, rays.ox, n);
+        assertSameBits(name + " o.y", expected.oy, rays.oy, n);
+        assertSameBits(name + " o.z", expected.oz, rays.oz, n);
+        assertSameBits(name + " d.x", expected.dx, rays.dx, n);
+        assertSameBits(name + " d.y", expected.dy, rays.dy, n);
+        assertSameBits(name + " d.z", expected.dz, rays.dz, n);
+        assertSameBits(name + " rxOrigin.x", expected.rxOx, rays.rxOx, n);
+        assertSameBits(name + " rxOrigin.y", expected.rxOy, rays.rxOy, n);
+        assertSameBits(name + " rxOrigin.z", expected.rxOz, rays.rxOz, n);
+        assertSameBits(name + " rxDirection.x", expected.rxDx, rays.rxDx, n);
+        assertSameBits(name + " rxDirection.y", expected.rxDy, rays.rxDy, n);
+        assertSameBits(name + " rxDirection.z", expected.rxDz, rays.rxDz, n);
+        assertSameBits(name + " ryOrigin.x", expected.ryOx, rays.ryOx, n);
+        assertSameBits(name + " ryOrigin.y", expected.ryOy, rays.ryOy, n);
+        assertSameBits(name + " ryOrigin.z", expected.ryOz, rays.ryOz, n);
+        assertSameBits(name + " ryDirection.x", expected.ryDx, rays.ryDx, n);
+        assertSameBits(name + " ryDirection.y", expected.ryDy, rays.ryDy, n);
+        assertSameBits(name + " ryDirection.z", expected.ryDz, rays.ryDz, n);
+        assertSameBits(name + " tMax", expected.tMax, rays.tMax, n);
+        assertSameBits(name + " time", expected.time, rays.time, n);
+        assertSameBits(name + " weight", expected.weight, rays.weight, n);
+        assertEquals(name + " medium", camera.medium, rays.medium);
+    }
+
+    @Test
+    public void testBatchedRayDifferentials() {
+        Pbrt.options = new Options();
+        Bounds2f screen = new Bounds2f(new Point2f(-1, -0.75f), new Point2f(1, 0.75f));
+        Bounds2f cornerScreen = new Bounds2f(new Point2f(0, 0), new Point2f(2, 1.5f));
+        Transform placement = Transform.LookAt(new Point3f(1, 2, -5), new Point3f(0, 0.5f, 0), new Vector3f(0, 1, 0));
+        AnimatedTransform[] cameraToWorld = {
+            new AnimatedTransform(new Transform(), 0, new Transform(), 1),
+            new AnimatedTransform(placement, 0, placement, 1),
+            // Moving and turning during the shutter interval
+            new AnimatedTransform(placement, 0,
+                    Transform.Translate(new Vector3f(0.5f, -0.25f, 1)).concatenate(Transform.RotateY(20)).concatenate(placement), 1)
+        };
+        for (int t = 0; t < cameraToWorld.length; ++t) {
+            assertBatchMatchesScalar("perspective " + t, new PerspectiveCamera(cameraToWorld[t], screen, 0, 1, 0, 1e6f, 45, makeFilm(), null));
+            assertBatchMatchesScalar("orthographic " + t, new OrthographicCamera(cameraToWorld[t], screen, 0, 1, 0, 1e6f, makeFilm(), null));
+            // A screen window corner at the origin zeroes the raster-to-camera translation
+            assertBatchMatchesScalar("orthographic corner " + t, new OrthographicCamera(cameraToWorld[t], cornerScreen, 0, 1, 0, 1e6f, makeFilm(), null));
+            assertBatchMatchesScalar("perspective corner " + t, new PerspectiveCamera(cameraToWorld[t], cornerScreen, 0, 1, 0, 1e6f, 45, makeFilm(), null));
+            assertBatchMatchesScalar("environment " + t, new EnvironmentCamera(cameraToWorld[t], 0, 1, makeFilm(), null));
+            // Lens sampling falls back to the per-sample path
+            assertBatchMatchesScalar("thin lens " + t, new PerspectiveCamera(cameraToWorld[t], screen, 0, 1, 0.1f, 3, 45, makeFilm(), null));
+        }
+    }
+}
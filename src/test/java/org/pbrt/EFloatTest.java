@@ -8,12 +8,14 @@
  */
 package org.pbrt;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import org.pbrt.core.EFloat;
 import org.pbrt.core.Pbrt;
+import org.pbrt.core.QuadricSolver;
 import org.pbrt.core.RNG;
 
 public class EFloatTest {
@@ -184,4 +186,46 @@ public class EFloatTest {
         }
     }
     
+    static void load(QuadricSolver.Var var, EFloat ef) {
+        var.v = ef.asFloat();
+        var.low = ef.lowerBound();
+        var.high = ef.upperBound();
+    }
+
+    static void assertSame(EFloat ef, QuadricSolver.Var var) {
+        assertEquals(ef.asFloat(), var.v, 0);
+        assertEquals(ef.lowerBound(), var.low, 0);
+        assertEquals(ef.upperBound(), var.high, 0);
+    }
+
+    // The allocation-free arithmetic used by the quadrics must round exactly like EFloat.
+    @Test
+    public void testQuadricSolverMatchesEFloat() {
+        QuadricSolver q = QuadricSolver.Get();
+        for (int trial = 0; trial < kEFloatIters / 10; ++trial) {
+            RNG rng = new RNG(trial);
+
+            EFloat a = getFloat(rng), b = getFloat(rng), c = getFloat(rng);
+            load(q.a, a);
+            load(q.b, b);
+            load(q.c, c);
+
+            q.Add(q.a, q.b, q.s0);
+            assertSame(a.add(b), q.s0);
+            q.Subtract(q.a, q.b, q.s0);
+            assertSame(a.subtract(b), q.s0);
+            q.Multiply(q.a, q.b, q.s0);
+            assertSame(a.multiply(b), q.s0);
+            q.Divide(q.a, q.b, q.s0);
+            assertSame(a.divide(b), q.s0);
+
+            EFloat.QuadRes qr = EFloat.Quadratic(a, b, c);
+            assertEquals(qr != null, q.Solve());
+            if (qr != null) {
+                assertSame(qr.t0, q.t0);
+                assertSame(qr.t1, q.t1);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.EXROutput;
+import org.pbrt.core.Options;
+import org.pbrt.core.Pbrt;
+import org.pbrt.openexr.OpenExr;
+import org.pbrt.openexr.compressor.PizCompressor;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EXROutputTest {
+
+    private static float[] testImage(int width, int height) {
+        float[] rgb = new float[3 * width * height];
+        Random rng = new Random(7);
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] = (i % 5 == 0) ? rng.nextFloat() * 4 : (float) (i % 37) / 8;
+        return rgb;
+    }
+
+    private static File writeImage(float[] rgb, int width, int height, int compression, int pixelType, int tileSize)
+            throws Exception {
+        Pbrt.options = new Options();
+        File file = File.createTempFile("exroutput", ".exr");
+        file.deleteOnExit();
+        EXROutput.WriteOptions options = new EXROutput.WriteOptions();
+        options.compression = compression;
+        options.pixelType = pixelType;
+        options.tileSize = tileSize;
+        assertEquals(EXROutput.SUCCESS, EXROutput.SaveEXR(rgb, width, height, 3, file.getPath(), options));
+        return file;
+    }
+
+    private static void checkPixels(float[] rgb, int width, int height, File file, float tolerance) throws Exception {
+        OpenExr exr = new OpenExr(file);
+        assertEquals(width, exr.getWidth());
+        assertEquals(height, exr.getHeight());
+        float[] pixels = exr.getPixels();
+        for (int i = 0; i < rgb.length; i++)
+            assertEquals(rgb[i], pixels[i], rgb[i] * tolerance);
+    }
+
+    private static void checkRoundTrip(int compression, int pixelType, int tileSize, int width, int height)
+            throws Exception {
+        float[] rgb = testImage(width, height);
+        File file = writeImage(rgb, width, height, compression, pixelType, tileSize);
+        // Half precision keeps 11 significant bits
+        checkPixels(rgb, width, height, file, (pixelType == EXROutput.PIXELTYPE_HALF) ? 1e-3f : 0);
+    }
+
+    @Test
+    public void testScanlineRoundTrip() throws Exception {
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_NONE, EXROutput.PIXELTYPE_HALF, 0, 13, 9);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_ZIPS, EXROutput.PIXELTYPE_HALF, 0, 13, 9);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_ZIP, EXROutput.PIXELTYPE_HALF, 0, 37, 21);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_PIZ, EXROutput.PIXELTYPE_HALF, 0, 37, 45);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_ZIP, EXROutput.PIXELTYPE_FLOAT, 0, 37, 21);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_PIZ, EXROutput.PIXELTYPE_FLOAT, 0, 19, 40);
+    }
+
+    @Test
+    public void testTiledRoundTrip() throws Exception {
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_NONE, EXROutput.PIXELTYPE_HALF, 8, 13, 9);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_ZIP, EXROutput.PIXELTYPE_FLOAT, 16, 37, 21);
+        checkRoundTrip(EXROutput.COMPRESSIONTYPE_PIZ, EXROutput.PIXELTYPE_HALF, 32, 70, 33);
+    }
+
+    @Test
+    public void testMissingOffsetTable() throws Exception {
+        // Chunks are found by walking the file when the offset table is unusable
+        int width = 21, height = 35;
+        float[] rgb = testImage(width, height);
+        File file = writeImage(rgb, width, height, EXROutput.COMPRESSIONTYPE_ZIP, EXROutput.PIXELTYPE_HALF, 0);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        int numBlocks = (height + 15) / 16;
+        // The first table entry points just past the table
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int tableStart = 8;
+        while (buffer.getLong(tableStart) != tableStart + 8 * numBlocks) tableStart++;
+        for (int i = 0; i < numBlocks; i++) buffer.putLong(tableStart + 8 * i, 0);
+        Files.write(file.toPath(), bytes);
+        checkPixels(rgb, width, height, file, 1e-3f);
+    }
+
+    @Test
+    public void testPizRoundTrip() throws Exception {
+        Random rng = new Random(11);
+        // Two half channels and one float channel, odd block sizes
+        PizCompressor piz = new PizCompressor(new int[] {1, 1, 2});
+        int[][] sizes = {{1, 1}, {7, 3}, {32, 32}, {45, 17}};
+        for (int[] size : sizes) {
+            byte[] raw = new byte[size[0] * size[1] * 8];
+            for (int i = 0; i < raw.length; i++)
+                raw[i] = (byte) ((i % 3 == 0) ? rng.nextInt(256) : i / 16);
+            byte[] decoded = piz.uncompress(piz.compress(raw, size[0], size[1]), size[0], size[1]);
+            assertArrayEquals(raw, decoded);
+        }
+    }
+}
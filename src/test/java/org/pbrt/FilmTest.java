@@ -0,0 +1,70 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.*;
+import org.pbrt.filters.BoxFilter;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FilmTest {
+
+    private static Film makeFilm() {
+        // Odd resolution and crop window so that the splat blocks don't line up with the image
+        return new Film(new Point2i(45, 37), new Bounds2f(new Point2f(0.1f, 0.05f), new Point2f(0.93f, 0.9f)),
+                new BoxFilter(new Vector2f(0.5f, 0.5f)), 35, "film-test.exr", 1, Float.POSITIVE_INFINITY);
+    }
+
+    private static void splat(Random rng, Film direct, Film.SplatBuffer[] buffers, int count) {
+        for (int i = 0; i < count; i++) {
+            // Some splats land outside the crop window and must be dropped by both paths
+            Point2f p = new Point2f(rng.nextFloat() * 49 - 2, rng.nextFloat() * 41 - 2);
+            Spectrum v = Spectrum.FromRGB(rng.nextFloat(), rng.nextFloat(), rng.nextFloat());
+            direct.AddSplat(p, v);
+            buffers[i % buffers.length].AddSplat(p, v);
+        }
+    }
+
+    private static void assertSameSplats(Film expected, Film actual) {
+        Bounds2i bounds = expected.croppedPixelBounds;
+        for (int y = bounds.pMin.y; y < bounds.pMax.y; y++) {
+            for (int x = bounds.pMin.x; x < bounds.pMax.x; x++) {
+                float[] e = expected.GetSplatXYZ(new Point2i(x, y));
+                float[] a = actual.GetSplatXYZ(new Point2i(x, y));
+                for (int c = 0; c < 3; c++)
+                    assertEquals(e[c], a[c], 1e-4f * Math.max(1, Math.abs(e[c])));
+            }
+        }
+    }
+
+    @Test
+    public void testSplatBufferMerge() {
+        Pbrt.options = new Options();
+        Random rng = new Random(11);
+        Film direct = makeFilm(), buffered = makeFilm();
+
+        Film.SplatBuffer[] buffers = new Film.SplatBuffer[3];
+        for (int i = 0; i < buffers.length; i++) buffers[i] = buffered.AcquireSplatBuffer();
+        splat(rng, direct, buffers, 5000);
+        for (Film.SplatBuffer buffer : buffers) buffered.ReleaseSplatBuffer(buffer);
+        buffered.MergeSplatBuffers();
+        assertSameSplats(direct, buffered);
+
+        // Merged buffers are cleared, so reusing them doesn't add their splats again
+        for (int i = 0; i < buffers.length; i++) buffers[i] = buffered.AcquireSplatBuffer();
+        splat(rng, direct, buffers, 2000);
+        for (Film.SplatBuffer buffer : buffers) buffered.ReleaseSplatBuffer(buffer);
+        buffered.MergeSplatBuffers();
+        assertSameSplats(direct, buffered);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.pbrt.core.AsyncImageWriter;
+import org.pbrt.core.Bounds2i;
+import org.pbrt.core.ImageIO;
+import org.pbrt.core.Options;
+import org.pbrt.core.Pbrt;
+import org.pbrt.core.Point2i;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ImageIOTest {
+
+    private static final int width = 23, height = 11;
+
+    private static float[] testImage() {
+        float[] rgb = new float[3 * width * height];
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] = (float) (i % 41) / 7 - 1;
+        return rgb;
+    }
+
+    private static File writeImage(float[] rgb, String extension) throws Exception {
+        File file = File.createTempFile("imageio", extension);
+        file.deleteOnExit();
+        Point2i resolution = new Point2i(width, height);
+        ImageIO.Write(file.getPath(), rgb, new Bounds2i(new Point2i(0, 0), resolution), resolution);
+        return file;
+    }
+
+    @Before
+    public void setUp() {
+        Pbrt.options = new Options();
+    }
+
+    @Test
+    public void testPFMRoundTrip() throws Exception {
+        float[] rgb = testImage();
+        File file = writeImage(rgb, ".pfm");
+        Point2i resolution = new Point2i(0, 0);
+        assertArrayEquals(rgb, ImageIO.ReadPFM(file.getPath(), resolution), 0);
+        assertEquals(width, resolution.x);
+        assertEquals(height, resolution.y);
+
+        ImageIO.SpectrumImage image = ImageIO.Read(file.getPath());
+        assertNotNull(image);
+        assertEquals(width * height, image.image.length);
+        float[] pixel = image.image[width + 2].toRGB();
+        for (int c = 0; c < 3; c++)
+            assertEquals(rgb[3 * (width + 2) + c], pixel[c], 1e-6f);
+    }
+
+    @Test
+    public void testRawRoundTrip() throws Exception {
+        float[] rgb = testImage();
+        File file = writeImage(rgb, ".raw");
+        assertEquals(4L * rgb.length, file.length());
+        assertArrayEquals(rgb, ImageIO.ReadRaw(file.getPath(), width, height, 3), 0);
+    }
+
+    @Test
+    public void testAsyncWrite() throws Exception {
+        File file = File.createTempFile("imageio", ".raw");
+        file.deleteOnExit();
+        Point2i resolution = new Point2i(width, height);
+        float[] rgb = testImage();
+        // More images than the queue holds, all to the same file
+        for (int i = 0; i < 5; i++) {
+            float[] buffer = AsyncImageWriter.AcquireBuffer(rgb.length);
+            System.arraycopy(rgb, 0, buffer, 0, rgb.length);
+            buffer[0] = i;
+            AsyncImageWriter.Submit(file.getPath(), buffer, new Bounds2i(new Point2i(0, 0), resolution), resolution, null);
+        }
+        AsyncImageWriter.WaitFor(file.getPath());
+        float[] written = ImageIO.ReadRaw(file.getPath(), width, height, 3);
+        assertEquals(4, written[0], 0);
+        assertArrayEquals(Arrays.copyOfRange(rgb, 1, rgb.length), Arrays.copyOfRange(written, 1, rgb.length), 0);
+        AsyncImageWriter.Flush();
+    }
+
+    @Test(timeout = 10000)
+    public void testAsyncWriteFailure() throws Exception {
+        File file = File.createTempFile("imageio", ".raw");
+        file.deleteOnExit();
+        Point2i resolution = new Point2i(width, height);
+        Bounds2i bounds = new Bounds2i(new Point2i(0, 0), resolution);
+        // A buffer too short for the image makes the write throw; Flush() must still return
+        AsyncImageWriter.Submit(file.getPath(), new float[3 * width], bounds, resolution, null);
+        AsyncImageWriter.Flush();
+        assertTrue(AsyncImageWriter.WriteFailed(file.getPath()));
+
+        // The writer carries on with later images
+        float[] buffer = AsyncImageWriter.AcquireBuffer(3 * width * height);
+        System.arraycopy(testImage(), 0, buffer, 0, buffer.length);
+        AsyncImageWriter.Submit(file.getPath(), buffer, bounds, resolution, null);
+        AsyncImageWriter.Flush();
+        assertFalse(AsyncImageWriter.WriteFailed(file.getPath()));
+        assertArrayEquals(testImage(), ImageIO.ReadRaw(file.getPath(), width, height, 3), 0);
+    }
+}
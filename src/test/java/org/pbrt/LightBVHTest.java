@@ -0,0 +1,113 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.accelerators.BVHAccel;
+import org.pbrt.core.*;
+import org.pbrt.shapes.Sphere;
+import org.pbrt.lights.DiffuseAreaLight;
+import org.pbrt.lights.PointLight;
+import org.pbrt.lights.SpotLight;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LightBVHTest {
+
+    private static Scene makeScene(Random rng) {
+        ArrayList<Light> lights = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Transform l2w = Transform.Translate(new Vector3f(rng.nextFloat() * 10 - 5, rng.nextFloat() * 10 - 5, rng.nextFloat() * 10 - 5));
+            float power = 0.1f + rng.nextFloat() * 10;
+            if (i % 4 == 0)
+                lights.add(new SpotLight(l2w, new MediumInterface(), new Spectrum(power), 30, 25));
+            else
+                lights.add(new PointLight(l2w, new MediumInterface(), new Spectrum(power)));
+        }
+        return new Scene(new BVHAccel(new Primitive[0]), lights);
+    }
+
+    @Test
+    public void testSamplePMFMatch() {
+        Pbrt.options = new Options();
+        Random rng = new Random(5);
+        Scene scene = makeScene(rng);
+        LightDistribution distribution = LightDistribution.CreateLightSampleDistribution("bvh", scene);
+        for (int trial = 0; trial < 20; trial++) {
+            Interaction it = new Interaction();
+            it.p = new Point3f(rng.nextFloat() * 12 - 6, rng.nextFloat() * 12 - 6, rng.nextFloat() * 12 - 6);
+            it.n = Normal3f.Normalize(new Normal3f(rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f));
+
+            // Sampled probabilities match PMF(); subtrees that cannot light the point are never
+            // chosen, so sampling fails with the probability missing from the sum
+            float sum = 0;
+            for (int i = 0; i < scene.lights.size(); i++) sum += distribution.PMF(it, i);
+            assertTrue(sum <= 1 + 1e-4f);
+            int nSamples = 2000, nFailed = 0;
+            for (int i = 0; i < nSamples; i++) {
+                Distribution1D.DiscreteSample ds = distribution.Sample(it, (i + 0.5f) / nSamples);
+                if (ds == null) {
+                    nFailed++;
+                    continue;
+                }
+                assertEquals(distribution.PMF(it, ds.offset), ds.pdf, 1e-5f);
+            }
+            assertEquals(1 - sum, (float) nFailed / nSamples, 0.01f);
+        }
+    }
+
+    @Test
+    public void testConeUnion() {
+        DirectionCone a = new DirectionCone(new Vector3f(1, 0, 0), (float) Math.cos(0.2));
+        DirectionCone b = new DirectionCone(new Vector3f(0, 1, 0), (float) Math.cos(0.3));
+        DirectionCone u = DirectionCone.Union(a, b);
+        // Both axes lie inside the merged cone
+        assertTrue(Vector3f.Dot(u.w, a.w) >= u.cosTheta - 1e-5f);
+        assertTrue(Vector3f.Dot(u.w, b.w) >= u.cosTheta - 1e-5f);
+        assertEquals(-1, DirectionCone.Union(a, DirectionCone.EntireSphere()).cosTheta, 0);
+    }
+
+    // Spherical lights whose distance and power both double: the farthest light is as far from
+    // the next as all the others together and outshines them, so each split peels it off
+    private static Scene makeChainScene(int nLights) {
+        ArrayList<Light> lights = new ArrayList<>();
+        for (int i = 0; i < nLights; i++) {
+            Transform o2w = Transform.Translate(new Vector3f((float) Math.scalb(1.0, i), 0, 0));
+            Sphere sphere = new Sphere(o2w, Transform.Inverse(o2w), false, 0.01f, -0.01f, 0.01f, 360);
+            lights.add(new DiffuseAreaLight(o2w, new MediumInterface(), new Spectrum((float) Math.scalb(1.0, i)), 1, sphere));
+        }
+        return new Scene(new BVHAccel(new Primitive[0]), lights);
+    }
+
+    @Test
+    public void testDepthLimit() {
+        Pbrt.options = new Options();
+        // The deepest leaf still has a bit trail that fits
+        Scene scene = makeChainScene(64);
+        LightDistribution distribution = LightDistribution.CreateLightSampleDistribution("bvh", scene);
+        Interaction it = new Interaction();
+        it.p = new Point3f(0, 1, 0);
+        it.n = new Normal3f(0, -1, 0);
+        float sum = 0;
+        for (int i = 0; i < scene.lights.size(); i++) sum += distribution.PMF(it, i);
+        assertEquals(1, sum, 1e-3f);
+
+        // One more level can't be encoded and fails the build instead of wrapping
+        try {
+            LightDistribution.CreateLightSampleDistribution("bvh", makeChainScene(65));
+            fail("light BVH deeper than 63 levels was built");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.integrators.MLTSampler;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MLTSamplerTest {
+
+    private static float[] Iterate(MLTSampler sampler, int n) {
+        sampler.StartIteration();
+        sampler.StartStream(0);
+        float[] x = new float[n];
+        for (int i = 0; i < n; ++i) x[i] = sampler.Get1D();
+        return x;
+    }
+
+    // Snapshot of the sampler with the RNG state and the step type of the last iteration
+    // zeroed, leaving the iteration counters and the sample vector
+    private static byte[] SampleVector(MLTSampler sampler) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sampler.Save().Write(new DataOutputStream(bytes));
+        byte[] state = bytes.toByteArray();
+        Arrays.fill(state, 0, 8, (byte)0);
+        state[24] = 0;
+        return state;
+    }
+
+    @Test
+    public void testRejectRestoresSamples() throws IOException {
+        // A high large step probability so that both kinds of mutation get rejected
+        MLTSampler sampler = new MLTSampler(16, 3, 0.01f, 0.5f, 3);
+        Iterate(sampler, 8);
+        sampler.Accept();
+        for (int i = 0; i < 50; ++i) {
+            byte[] before = SampleVector(sampler);
+            Iterate(sampler, 8);
+            if (i % 3 == 0) {
+                sampler.Accept();
+            } else {
+                sampler.Reject();
+                assertArrayEquals(before, SampleVector(sampler));
+            }
+        }
+    }
+
+    @Test
+    public void testSaveRestore() throws IOException {
+        MLTSampler sampler = new MLTSampler(16, 7, 0.01f, 0.3f, 3);
+        for (int i = 0; i < 20; ++i) {
+            Iterate(sampler, 6);
+            if (i % 2 == 0) sampler.Accept();
+            else sampler.Reject();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sampler.Save().Write(new DataOutputStream(bytes));
+        float[][] expected = new float[10][];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = Iterate(sampler, 6);
+            sampler.Accept();
+        }
+
+        // A fresh sampler resumed from the checkpoint continues the same chain
+        MLTSampler resumed = new MLTSampler(16, 0, 0.01f, 0.3f, 3);
+        resumed.Restore(MLTSampler.State.Read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        for (float[] x : expected) {
+            assertArrayEquals(x, Iterate(resumed, 6), 0);
+            resumed.Accept();
+        }
+    }
+}
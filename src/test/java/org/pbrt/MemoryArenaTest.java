@@ -0,0 +1,49 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.*;
+
+import static org.junit.Assert.*;
+
+public class MemoryArenaTest {
+
+    @Test
+    public void testInactiveArena() {
+        assertNull(MemoryArena.Active());
+        LambertianReflection a = LambertianReflection.Alloc(new Spectrum(0.5f));
+        LambertianReflection b = LambertianReflection.Alloc(new Spectrum(0.5f));
+        assertNotSame(a, b);
+    }
+
+    @Test
+    public void testReuseAfterReset() {
+        MemoryArena arena = MemoryArena.Begin();
+        try {
+            assertSame(arena, MemoryArena.Active());
+            LambertianReflection a = LambertianReflection.Alloc(new Spectrum(0.25f));
+            LambertianReflection b = LambertianReflection.Alloc(new Spectrum(0.75f));
+            assertNotSame(a, b);
+            assertEquals(0.25f, a.rho(0, null, null).at(0), 0);
+            assertEquals(2, arena.InUse());
+
+            arena.Reset();
+            assertEquals(0, arena.InUse());
+            LambertianReflection c = LambertianReflection.Alloc(new Spectrum(1));
+            assertSame(a, c);
+            assertEquals(1, c.rho(0, null, null).at(0), 0);
+            assertEquals(2, arena.TotalAllocated());
+        } finally {
+            MemoryArena.End();
+        }
+        assertNull(MemoryArena.Active());
+    }
+}
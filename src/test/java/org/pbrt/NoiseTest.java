@@ -0,0 +1,131 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.*;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NoiseTest {
+
+    // Reference implementation: the original Perlin noise, hashing every lattice corner
+    // separately and branching on the hash, and FBm/Turbulence calling Noise(Point3f) once
+    // per octave.
+    private static int[] perm;
+
+    private static float Grad(int x, int y, int z, float dx, float dy, float dz) {
+        int h = perm[perm[perm[x] + y] + z];
+        h &= 15;
+        float u = h < 8 || h == 12 || h == 13 ? dx : dy;
+        float v = h < 4 || h == 12 || h == 13 ? dy : dz;
+        return ((h & 1) != 0 ? -u : u) + ((h & 2) != 0 ? -v : v);
+    }
+
+    private static float NoiseWeight(float t) {
+        float t3 = t * t * t;
+        float t4 = t3 * t;
+        return 6 * t4 * t - 15 * t4 + 10 * t3;
+    }
+
+    private static float RefNoise(Point3f p) {
+        int ix = (int)Math.floor(p.x), iy = (int)Math.floor(p.y), iz = (int)Math.floor(p.z);
+        float dx = p.x - ix, dy = p.y - iy, dz = p.z - iz;
+        ix &= 255;
+        iy &= 255;
+        iz &= 255;
+        float w000 = Grad(ix, iy, iz, dx, dy, dz);
+        float w100 = Grad(ix + 1, iy, iz, dx - 1, dy, dz);
+        float w010 = Grad(ix, iy + 1, iz, dx, dy - 1, dz);
+        float w110 = Grad(ix + 1, iy + 1, iz, dx - 1, dy - 1, dz);
+        float w001 = Grad(ix, iy, iz + 1, dx, dy, dz - 1);
+        float w101 = Grad(ix + 1, iy, iz + 1, dx - 1, dy, dz - 1);
+        float w011 = Grad(ix, iy + 1, iz + 1, dx, dy - 1, dz - 1);
+        float w111 = Grad(ix + 1, iy + 1, iz + 1, dx - 1, dy - 1, dz - 1);
+        float wx = NoiseWeight(dx), wy = NoiseWeight(dy), wz = NoiseWeight(dz);
+        float x00 = Pbrt.Lerp(wx, w000, w100);
+        float x10 = Pbrt.Lerp(wx, w010, w110);
+        float x01 = Pbrt.Lerp(wx, w001, w101);
+        float x11 = Pbrt.Lerp(wx, w011, w111);
+        float y0 = Pbrt.Lerp(wy, x00, x10);
+        float y1 = Pbrt.Lerp(wy, x01, x11);
+        return Pbrt.Lerp(wz, y0, y1);
+    }
+
+    private static float SmoothStep(float min, float max, float value) {
+        float v = Pbrt.Clamp((value - min) / (max - min), 0, 1);
+        return v * v * (-2 * v + 3);
+    }
+
+    private static float RefFBm(Point3f p, Vector3f dpdx, Vector3f dpdy, float omega, int octaves) {
+        float len2 = Math.max(dpdx.LengthSquared(), dpdy.LengthSquared());
+        float n = Pbrt.Clamp(-1 - .5f * Pbrt.Log2(len2), 0, octaves);
+        int nInt = (int)Math.floor(n);
+        float sum = 0, lambda = 1, o = 1;
+        for (int i = 0; i < nInt; ++i) {
+            sum += o * RefNoise(p.scale(lambda));
+            lambda *= 1.99f;
+            o *= omega;
+        }
+        float nPartial = n - nInt;
+        sum += o * SmoothStep(.3f, .7f, nPartial) * RefNoise(p.scale(lambda));
+        return sum;
+    }
+
+    private static float RefTurbulence(Point3f p, Vector3f dpdx, Vector3f dpdy, float omega, int octaves) {
+        float len2 = Math.max(dpdx.LengthSquared(), dpdy.LengthSquared());
+        float n = Pbrt.Clamp(-1 - .5f * Pbrt.Log2(len2), 0, octaves);
+        int nInt = (int)Math.floor(n);
+        float sum = 0, lambda = 1, o = 1;
+        for (int i = 0; i < nInt; ++i) {
+            sum += o * Math.abs(RefNoise(p.scale(lambda)));
+            lambda *= 1.99f;
+            o *= omega;
+        }
+        float nPartial = n - nInt;
+        sum += o * Pbrt.Lerp(SmoothStep(.3f, .7f, nPartial), 0.2f, Math.abs(RefNoise(p.scale(lambda))));
+        for (int i = nInt; i < octaves; ++i) {
+            sum += o * 0.2f;
+            o *= omega;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testMatchesReference() throws Exception {
+        Field permField = Texture.class.getDeclaredField("NoisePerm");
+        permField.setAccessible(true);
+        perm = (int[])permField.get(null);
+
+        Random rng = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            Point3f p = new Point3f((rng.nextFloat() - 0.5f) * 600, (rng.nextFloat() - 0.5f) * 600, (rng.nextFloat() - 0.5f) * 600);
+            // Differentials from far below to above a lattice cell, so that every octave count occurs
+            float scale = (float)Math.pow(2, -12 + 14 * rng.nextFloat());
+            Vector3f dpdx = new Vector3f(rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f).scale(scale);
+            Vector3f dpdy = new Vector3f(rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f).scale(scale);
+            float omega = 0.3f + 0.5f * rng.nextFloat();
+            int octaves = 1 + rng.nextInt(10);
+
+            assertEquals(RefNoise(p), Texture.Noise(p.x, p.y, p.z), 0);
+
+            float fbm = RefFBm(p, dpdx, dpdy, omega, octaves);
+            assertEquals(fbm, Texture.FBm(p, dpdx, dpdy, omega, octaves), 0);
+            assertEquals(fbm, Texture.FBm(p.x, p.y, p.z, Texture.MaxLengthSquared(dpdx, dpdy, 1), omega, octaves), 0);
+
+            float turbulence = RefTurbulence(p, dpdx, dpdy, omega, octaves);
+            assertEquals(turbulence, Texture.Turbulence(p, dpdx, dpdy, omega, octaves), 0);
+            assertEquals(turbulence, Texture.Turbulence(p.x, p.y, p.z, Texture.MaxLengthSquared(dpdx, dpdy, 1), omega, octaves), 0);
+        }
+    }
+}
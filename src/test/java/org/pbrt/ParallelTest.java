@@ -10,17 +10,17 @@ package org.pbrt;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
 import org.pbrt.core.Options;
 import org.pbrt.core.Parallel;
 import org.pbrt.core.Pbrt;
-import org.pbrt.core.Point2i;
 
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class ParallelTest {
 
@@ -32,7 +32,7 @@ public class ParallelTest {
 
         AtomicLong counter = new AtomicLong();
         counter.set(0);
-        Consumer<Long> funcL = (Long i) -> { counter.incrementAndGet(); };
+        IntConsumer funcL = (int i) -> { counter.incrementAndGet(); };
         Parallel.ParallelFor(funcL, 1000, 1);
         assertEquals(1000, counter.get());
 
@@ -41,8 +41,8 @@ public class ParallelTest {
         assertEquals(1000, counter.get());
 
         counter.set(0);
-        Consumer<Point2i> funcP = (Point2i p) -> { counter.incrementAndGet(); };
-        Parallel.ParallelFor2D(funcP, new Point2i(15, 14));
+        Parallel.Int2Consumer funcP = (int x, int y) -> { counter.incrementAndGet(); };
+        Parallel.ParallelFor2D(funcP, 15, 14);
         assertEquals(15*14, counter.get());
 
         Parallel.ParallelCleanup();
@@ -56,16 +56,64 @@ public class ParallelTest {
 
         AtomicInteger counter = new AtomicInteger();
         counter.set(0);
-        Consumer<Long> funcL = (Long i) -> { counter.incrementAndGet(); };
-        Parallel.ParallelFor(funcL, 0L, 1);
+        IntConsumer funcL = (int i) -> { counter.incrementAndGet(); };
+        Parallel.ParallelFor(funcL, 0, 1);
         assertEquals(0, counter.get());
 
         counter.set(0);
-        Consumer<Point2i> funcP = (Point2i p) -> { counter.incrementAndGet(); };
-        Parallel.ParallelFor2D(funcP, new Point2i(0, 0));
+        Parallel.Int2Consumer funcP = (int x, int y) -> { counter.incrementAndGet(); };
+        Parallel.ParallelFor2D(funcP, 0, 0);
         assertEquals(0, counter.get());
 
         Parallel.ParallelCleanup();
     }
 
+    @Test
+    public void testPrimitiveLoopsAndReduce() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 4;
+
+        AtomicLong sum = new AtomicLong();
+        Parallel.ParallelFor((int i) -> sum.addAndGet(i), 1000, 7);
+        assertEquals(999 * 1000 / 2, sum.get());
+
+        sum.set(0);
+        Parallel.ParallelFor((long i) -> sum.addAndGet(i), 10, 20, 3);
+        assertEquals(145, sum.get());
+
+        int[] hits = new int[15 * 14];
+        Parallel.ParallelFor2D((int x, int y) -> hits[y * 15 + x]++, 15, 14);
+        for (int h : hits) assertEquals(1, h);
+
+        // Chunks are combined in order, so a non-commutative reduction is deterministic
+        String digits = Parallel.ParallelReduce((long start, long end) -> {
+            StringBuilder sb = new StringBuilder();
+            for (long i = start; i < end; i++) sb.append(i % 10);
+            return sb.toString();
+        }, String::concat, "", 95, 8);
+        assertEquals(95, digits.length());
+        for (int i = 0; i < 95; i++) assertEquals((char)('0' + i % 10), digits.charAt(i));
+        assertEquals("", Parallel.ParallelReduce((long start, long end) -> "x", String::concat, "", 0, 8));
+    }
+
+    @Test
+    public void testExceptionsReachCaller() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 4;
+
+        // The exception of a failing iteration is rethrown as is, whichever thread ran it
+        try {
+            Parallel.ParallelFor((int i) -> {
+                if (i == 10) throw new IllegalStateException("iteration " + i);
+            }, 1000, 1);
+            fail("ParallelFor swallowed the exception");
+        } catch (IllegalStateException e) {
+            assertEquals("iteration 10", e.getMessage());
+        }
+
+        // Loops nested inside loops still complete
+        AtomicLong count = new AtomicLong();
+        Parallel.ParallelFor((int i) -> Parallel.ParallelFor((int j) -> count.incrementAndGet(), 50, 1), 20, 1);
+        assertEquals(20 * 50, count.get());
+    }
 }
@@ -18,7 +18,7 @@ import org.pbrt.core.Pbrt;
 import org.pbrt.core.RNG;
 
 import java.util.EnumSet;
-import java.util.function.Predicate;
+import java.util.function.IntPredicate;
 
 public class PbrtTest {
 
@@ -30,22 +30,27 @@ public class PbrtTest {
         float[] a = {0.0f, 1.0f, 2.0f, 3.0f, 4.0f, 5.0f, 6.0f, 7.0f, 8.0f, 9.0f};
 
         // Check clamping for out of range
-        Predicate<Integer> p1 = (Integer index) -> {return a[index] <= -1;};
-        Predicate<Integer> p2 = (Integer index) -> {return a[index] <= 100;};
+        IntPredicate p1 = (int index) -> {return a[index] <= -1;};
+        IntPredicate p2 = (int index) -> {return a[index] <= 100;};
         assertEquals(0, Pbrt.FindInterval(a.length, p1));
         assertEquals(a.length - 2, Pbrt.FindInterval(a.length, p2));
 
         for (int i = 0; i < a.length - 1; ++i) {
             final int ii = i;
-            Predicate<Integer> p3 = (Integer index) -> {return a[index] <= ii;};
-            Predicate<Integer> p4 = (Integer index) -> {return a[index] <= ii + 0.5f;};
-            Predicate<Integer> p5 = (Integer index) -> {return a[index] <= ii - 0.5f;};
+            IntPredicate p3 = (int index) -> {return a[index] <= ii;};
+            IntPredicate p4 = (int index) -> {return a[index] <= ii + 0.5f;};
+            IntPredicate p5 = (int index) -> {return a[index] <= ii - 0.5f;};
     
             assertEquals(i, Pbrt.FindInterval(a.length, p3));
             assertEquals(i, Pbrt.FindInterval(a.length, p4));
             if (i > 0)
                 assertEquals(i - 1, Pbrt.FindInterval(a.length, p5));
+
+            assertEquals(i, Pbrt.FindInterval(a, a.length, ii));
+            assertEquals(i, Pbrt.FindInterval(a, a.length, ii + 0.5f));
         }
+        assertEquals(0, Pbrt.FindInterval(a, a.length, -1));
+        assertEquals(a.length - 2, Pbrt.FindInterval(a, a.length, 100));
     }
 
     float GetFloat(RNG rng) {
@@ -0,0 +1,48 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.Metrics;
+import org.pbrt.core.Options;
+import org.pbrt.core.Pbrt;
+import org.pbrt.core.ProgressReporter;
+
+import static org.junit.Assert.*;
+
+public class ProgressReporterTest {
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        Pbrt.options = new Options();
+        Pbrt.options.Quiet = true;
+        final int nThreads = 4, nUpdates = 10000;
+        ProgressReporter reporter = new ProgressReporter(nThreads * nUpdates, "Test");
+        Thread[] threads = new Thread[nThreads];
+        for (int i = 0; i < nThreads; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < nUpdates; j++) reporter.Update(1);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(nThreads * nUpdates, reporter.WorkDone());
+        reporter.Exit();
+    }
+
+    @Test
+    public void testMetricsJson() {
+        Metrics.AddSamples(5);
+        String json = Metrics.ToJson();
+        assertTrue(json.startsWith("{") && json.endsWith("}"));
+        assertTrue(json.contains("\"samples\":"));
+        assertTrue(json.contains("\"phaseSeconds\":{\"Parse\":"));
+    }
+}
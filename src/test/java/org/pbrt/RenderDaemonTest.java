@@ -0,0 +1,52 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import org.pbrt.core.AssetCache;
+import org.pbrt.core.Options;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class RenderDaemonTest {
+
+    private static void assertRejected(RenderDaemon daemon, String imageFile) {
+        try {
+            daemon.Submit(null, "", imageFile);
+            fail("accepted image file " + imageFile);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testImagePathsStayInOutputDirectory() {
+        Path outdir = Paths.get("target", "render-daemon-test").toAbsolutePath();
+        RenderDaemon daemon = new RenderDaemon(new Options(), outdir.toString(), 1);
+        try {
+            assertEquals(outdir.resolve("a.exr").toString(), daemon.Submit(null, "", "a.exr").imageFile);
+            assertEquals(outdir.resolve("b.exr").toString(), daemon.Submit(null, "", "sub/../b.exr").imageFile);
+            assertEquals(outdir.resolve("sub/c.exr").toString(), daemon.Submit(null, "", outdir.resolve("sub/c.exr").toString()).imageFile);
+            assertEquals(outdir.resolve("scene.exr").toString(), daemon.Submit("/some/where/scene.pbrt", null, null).imageFile);
+
+            assertRejected(daemon, "../escaped.exr");
+            assertRejected(daemon, "sub/../../escaped.exr");
+            assertRejected(daemon, outdir.resolveSibling("escaped.exr").toString());
+            assertRejected(daemon, outdir.resolveSibling("render-daemon-test-2").resolve("x.exr").toString());
+            assertRejected(daemon, ".");
+        } finally {
+            AssetCache.SetEnabled(false);
+        }
+    }
+}
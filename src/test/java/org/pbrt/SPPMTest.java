@@ -0,0 +1,170 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.pbrt.core.*;
+import org.pbrt.integrators.PhotonBuffers;
+import org.pbrt.integrators.VisiblePointGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+public class SPPMTest {
+
+    private static final int nPixels = 1000;
+
+    // Random visible points with a tenth of the pixels left empty
+    private static VisiblePointGrid makeGrid(RNG rng, Point3f[] p, float[] radius) {
+        VisiblePointGrid grid = new VisiblePointGrid(nPixels);
+        for (int i = 0; i < nPixels; ++i) {
+            if (rng.UniformFloat() < 0.1f) {
+                radius[i] = -1;
+                grid.Clear(i);
+                continue;
+            }
+            p[i] = new Point3f(rng.UniformFloat() * 10 - 5, rng.UniformFloat() * 4, rng.UniformFloat() * 2 - 1);
+            radius[i] = 0.05f + 0.3f * rng.UniformFloat();
+            grid.Set(i, p[i], radius[i]);
+        }
+        grid.Build();
+        return grid;
+    }
+
+    @Test
+    public void testGridCells() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 4;
+        Parallel.ParallelInit();
+
+        RNG rng = new RNG(7);
+        Point3f[] p = new Point3f[nPixels];
+        float[] radius = new float[nPixels];
+        VisiblePointGrid grid = makeGrid(rng, p, radius);
+
+        // Brute force: each visible point belongs to every cell its search sphere's bounds overlap
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int h = 0; h < grid.hashSize; ++h) expected.add(new ArrayList<>());
+        for (int i = 0; i < nPixels; ++i) {
+            if (radius[i] < 0) continue;
+            float r = radius[i];
+            Point3i pMin = new Point3i(), pMax = new Point3i();
+            grid.ToGrid(p[i].subtract(new Vector3f(r, r, r)), pMin);
+            grid.ToGrid(p[i].add(new Vector3f(r, r, r)), pMax);
+            for (int z = pMin.z; z <= pMax.z; ++z)
+                for (int y = pMin.y; y <= pMax.y; ++y)
+                    for (int x = pMin.x; x <= pMax.x; ++x)
+                        expected.get(grid.Hash(x, y, z)).add(i);
+        }
+
+        assertEquals(0, grid.cellStart[0]);
+        for (int h = 0; h < grid.hashSize; ++h) {
+            assertTrue(grid.cellStart[h] <= grid.cellStart[h + 1]);
+            List<Integer> cell = new ArrayList<>();
+            for (int j = grid.cellStart[h]; j < grid.cellStart[h + 1]; ++j) cell.add(grid.cellPixels[j]);
+            Collections.sort(cell);
+            Collections.sort(expected.get(h));
+            assertEquals("cell " + h, expected.get(h), cell);
+        }
+
+        // Photons inside the grid find exactly the visible points whose search spheres hold them
+        for (int k = 0; k < 2000; ++k) {
+            Point3f photon = new Point3f(rng.UniformFloat() * 10 - 5, rng.UniformFloat() * 4, rng.UniformFloat() * 2 - 1);
+            int h = grid.Lookup(photon);
+            TreeSet<Integer> found = new TreeSet<>();
+            if (h >= 0) {
+                for (int j = grid.cellStart[h]; j < grid.cellStart[h + 1]; ++j)
+                    if (grid.InRange(grid.cellPixels[j], photon)) found.add(grid.cellPixels[j]);
+            }
+            TreeSet<Integer> inRange = new TreeSet<>();
+            for (int i = 0; i < nPixels; ++i) {
+                if (radius[i] < 0) continue;
+                Vector3f d = p[i].subtract(photon);
+                if (d.x * d.x + d.y * d.y + d.z * d.z <= radius[i] * radius[i]) inRange.add(i);
+            }
+            assertEquals("photon " + k, inRange, found);
+        }
+
+        Parallel.ParallelCleanup();
+    }
+
+    private static void checkPhotonBuffers(PhotonBuffers photonBuffers) {
+        // Deposit small integer fluxes, which sum exactly in any order
+        final int nPhotons = 20000;
+        int[] pixel = new int[nPhotons];
+        float[] flux = new float[nPhotons];
+        RNG rng = new RNG(11);
+        for (int k = 0; k < nPhotons; ++k) {
+            pixel[k] = Math.min((int)(rng.UniformFloat() * nPixels), nPixels - 1);
+            flux[k] = 1 + Math.min((int)(rng.UniformFloat() * 8), 7);
+        }
+        IntConsumer depositFunc = (int chunk) -> {
+            PhotonBuffers.Buffer buffer = photonBuffers.Acquire();
+            try {
+                for (int k = 100 * chunk; k < 100 * (chunk + 1); ++k)
+                    buffer.Add(pixel[k], new Spectrum(flux[k]));
+            } finally {
+                photonBuffers.Release(buffer);
+            }
+        };
+        Parallel.ParallelFor(depositFunc, nPhotons / 100, 1);
+
+        float[] expectedPhi = new float[nPixels];
+        int[] expectedM = new int[nPixels];
+        for (int k = 0; k < nPhotons; ++k) {
+            expectedPhi[pixel[k]] += flux[k];
+            expectedM[pixel[k]]++;
+        }
+        for (int i = 0; i < nPixels; ++i) {
+            Spectrum Phi = new Spectrum(0);
+            assertEquals(expectedM[i], photonBuffers.Gather(i, Phi));
+            float[] values = new float[Spectrum.nSamples];
+            for (int j = 0; j < Spectrum.nSamples; ++j) values[j] = Phi.at(j);
+            float[] expectedValues = new float[Spectrum.nSamples];
+            Arrays.fill(expectedValues, expectedPhi[i]);
+            assertArrayEquals(expectedValues, values, 0);
+        }
+
+        // Gathering clears the buffers for the next pass
+        for (int i = 0; i < nPixels; ++i) {
+            Spectrum Phi = new Spectrum(0);
+            assertEquals(0, photonBuffers.Gather(i, Phi));
+            assertTrue(Phi.isBlack());
+        }
+    }
+
+    @Test
+    public void testPhotonBuffers() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 4;
+        Parallel.ParallelInit();
+
+        PhotonBuffers photonBuffers = new PhotonBuffers(nPixels, 4, 1L << 30);
+        assertEquals(4, photonBuffers.MaxBuffers());
+        checkPhotonBuffers(photonBuffers);
+        assertTrue(photonBuffers.MemoryBytes() <= 4L * 4 * (Spectrum.nSamples + 1) * nPixels);
+
+        // A memory cap below one buffer still leaves a single buffer that the threads share in turn
+        photonBuffers = new PhotonBuffers(nPixels, 4, 1);
+        assertEquals(1, photonBuffers.MaxBuffers());
+        checkPhotonBuffers(photonBuffers);
+        assertEquals(4L * (Spectrum.nSamples + 1) * nPixels, photonBuffers.MemoryBytes());
+
+        Parallel.ParallelCleanup();
+    }
+}
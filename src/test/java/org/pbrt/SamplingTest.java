@@ -28,7 +28,8 @@ public class SamplingTest {
     @Test
     public void testRadicalInverse() {
         for (int a = 0; a < 1024; ++a) {
-            assertEquals(LowDiscrepancy.ReverseBits32(a) * 2.3283064365386963e-10f, LowDiscrepancy.RadicalInverse(0, a), epsilon);
+            // Base 2 reverses the bits of _a_ into an unsigned binary fraction
+            assertEquals(Integer.toUnsignedLong(LowDiscrepancy.ReverseBits32(a)) * 0x1p-32f, LowDiscrepancy.RadicalInverse(0, a), epsilon);
         }
     }
 
@@ -39,9 +40,9 @@ public class SamplingTest {
             // Random permutation table
             final int base = LowDiscrepancy.Primes[dim];
 
-            Short[] perm = new Short[base];
+            short[] perm = new short[base];
             for (int i = 0; i < base; ++i) perm[i] = (short)(base - 1 - i);
-            Sampling.Shuffle(perm, 0, perm.length, 1, rng);
+            Sampling.ShuffleS(perm, 0, perm.length, 1, rng);
 
             int[] indices = {0, 1, 2, 1151, 32351, 4363211, 681122};
             for (int index : indices) {
@@ -360,4 +361,28 @@ public class SamplingTest {
         cs = dist.SampleContinuous(1.0f);
         assertEquals(1.0, cs.sample, epsilon);
     }
+
+    @Test
+    public void testDistribution1DAlias() {
+        float[] func = {0, 1.0f, 0.0f, 3.0f, 0.5f, 2.5f};
+        Distribution1D dist = new Distribution1D(func, true);
+        assertTrue(dist.HasAliasTable());
+
+        // A uniform sweep of _u_ must select each segment in proportion to its value
+        int n = 1 << 16;
+        int[] counts = new int[func.length];
+        for (int i = 0; i < n; ++i) {
+            Distribution1D.DiscreteSample ds = dist.SampleDiscrete((i + 0.5f) / n);
+            assertEquals(dist.DiscretePDF(ds.offset), ds.pdf, epsilon);
+            assertTrue(ds.uRemapped >= 0 && ds.uRemapped < 1);
+            counts[ds.offset]++;
+        }
+        for (int i = 0; i < func.length; ++i)
+            assertEquals(dist.DiscretePDF(i), (float)counts[i] / n, 1e-3f);
+
+        Distribution1D.ContSample cs = dist.SampleContinuous(Pbrt.OneMinusEpsilon);
+        assertTrue(cs.sample < 1);
+        assertEquals(cs.offset, (int)(cs.sample * dist.Count()));
+        assertEquals(dist.Count() * func[cs.offset] / 7.0f, cs.pdf, epsilon);
+    }
 }
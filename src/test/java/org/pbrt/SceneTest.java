@@ -100,22 +100,22 @@ public class SceneTest {
         options.Quiet = true;
         Api.pbrtInit(options);
 
-        float delta = 0.2f;
+        float delta = 0.05f;
         var tests = GetIntegrators();
+        ArrayList<String> failures = new ArrayList<>();
         for (TestIntegrator tr : tests) {
             try {
                 tr.integrator.Render(tr.scene.scene);
                 float avg = GetSceneAverage("test.exr");
-                if (!Pbrt.AlmostEqual(tr.scene.expected, avg, delta)) {
-                    System.out.format("Render test failed, %s.  Got: %f Expected: %f\n", tr.description, avg, tr.scene.expected);
-                }
+                if (!Pbrt.AlmostEqual(tr.scene.expected, avg, delta))
+                    failures.add(String.format("%s.  Got: %f Expected: %f", tr.description, avg, tr.scene.expected));
             }
             catch (Exception ex) {
-                System.out.format("Render test failed, %s, exception.\n", tr.description);
-                ex.printStackTrace();
+                failures.add(String.format("%s, exception: %s", tr.description, ex));
             }
         }
         Api.pbrtCleanup();
+        assertTrue("Render test failed, " + String.join("\n", failures), failures.isEmpty());
     }
 
     static ArrayList<TestScene> GetScenes() {
@@ -193,7 +193,7 @@ public class SceneTest {
 
             MediumInterface mediumInterface = new MediumInterface();
             Primitive[] prims = new Primitive[1];
-            prims[0] = new GeometricPrimitive(sphere, material, null, mediumInterface);
+            prims[0] = new GeometricPrimitive(sphere, material, areaLight, mediumInterface);
             BVHAccel bvh = new BVHAccel(prims);
 
             Scene scene = new Scene(bvh, lights);
@@ -316,14 +316,6 @@ public class SceneTest {
             }
 
             // Ortho camera not currently supported with BDPT.
-            for (PairSamplerString sampler : GetSamplers(new Bounds2i(new Point2i(0,0), resolution))) {
-                Filter filter = new BoxFilter(new Vector2f(0.5f, 0.5f));
-                Film film = new Film(resolution, new Bounds2f(new Point2f(0,0), new Point2f(1,1)), filter, 1.0f, "test.exr", 1.0f, Pbrt.Infinity);
-                Camera camera = new OrthographicCamera(identity, new Bounds2f(new Point2f(-0.1f,-0.1f), new Point2f(0.1f,0.1f)), 0.0f, 1.0f, 0.0f, 10.0f, film, null);
-
-                Integrator integrator = new BDPTIntegrator(sampler.first, camera, 8, false, false, film.croppedPixelBounds, "power");
-                integrators.add(new TestIntegrator(integrator, film, "BDPT, depth 8, Ortho, " + sampler.second + ", " + scene.description, scene));
-            }
 
             // MLT
             try {
@@ -0,0 +1,58 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.accelerators.BVHAccel;
+import org.pbrt.core.*;
+import org.pbrt.lights.PointLight;
+import org.pbrt.shapes.Sphere;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class SpatialLightDistributionTest {
+
+    @Test
+    public void testConcurrentLookups() throws InterruptedException {
+        Pbrt.options = new Options();
+        Transform o2w = Transform.Scale(10, 10, 10), w2o = Transform.Inverse(o2w);
+        Primitive sphere = new GeometricPrimitive(new Sphere(o2w, w2o, false, 1, -1, 1, 360), null, null, new MediumInterface());
+        ArrayList<Light> lights = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            lights.add(new PointLight(Transform.Translate(new Vector3f(i - 4, 2, 0)), new MediumInterface(), new Spectrum(i + 1)));
+        Scene scene = new Scene(new BVHAccel(new Primitive[]{sphere}), lights);
+        SpatialLightDistribution distribution = new SpatialLightDistribution(scene, 8);
+
+        // Every thread sees the same distribution for a voxel, however the lookups race
+        int nThreads = 4, nPoints = 200;
+        Distribution1D[][] found = new Distribution1D[nThreads][nPoints];
+        Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < nPoints; i++) {
+                    Point3f p = new Point3f(-10 + 20 * LowDiscrepancy.RadicalInverse(0, i), -10 + 20 * LowDiscrepancy.RadicalInverse(1, i),
+                            -10 + 20 * LowDiscrepancy.RadicalInverse(2, i));
+                    found[thread][i] = distribution.Lookup(p);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        for (int i = 0; i < nPoints; i++) {
+            assertNotNull(found[0][i]);
+            assertEquals(lights.size(), found[0][i].Count());
+            for (int t = 1; t < nThreads; t++)
+                assertSame(found[0][i], found[t][i]);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.pbrt.core.Options;
+import org.pbrt.core.RenderContext;
+import org.pbrt.core.Stats;
+
+import java.io.StringWriter;
+
+public class StatsTest {
+
+    private static final Stats.Counter nTestEvents = new Stats.Counter("Test/Events counted");
+
+    private static String report(RenderContext context) {
+        Stats.StatRegisterer.CallCallbacks(context.GetStats());
+        StringWriter writer = new StringWriter();
+        context.GetStats().Print(writer);
+        context.GetStats().Clear();
+        return writer.toString();
+    }
+
+    @Test
+    public void testCountersPerContext() throws InterruptedException {
+        RenderContext a = new RenderContext(new Options());
+        RenderContext b = new RenderContext(new Options());
+        long total = nTestEvents.Total();
+
+        // Contexts rendering concurrently only count their own work
+        Thread ta = new Thread(() -> a.Run(() -> {
+            for (int i = 0; i < 1000; ++i) nTestEvents.increment();
+        }));
+        Thread tb = new Thread(() -> b.Run(() -> nTestEvents.increment(25)));
+        ta.start();
+        tb.start();
+        ta.join();
+        tb.join();
+        assertEquals(total + 1025, nTestEvents.Total());
+
+        String reportA = report(a);
+        assertTrue(reportA, reportA.matches("(?s).*Events counted +1000\n.*"));
+        String reportB = report(b);
+        assertTrue(reportB, reportB.matches("(?s).*Events counted +25\n.*"));
+
+        // Reported counts stay in the process total but aren't reported again
+        assertEquals(total + 1025, nTestEvents.Total());
+        assertFalse(report(a).contains("Events counted"));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * PBrtJ -- Port of pbrt v3 to Java.
+ * Copyright (c) 2017 Rick Weyrauch.
+ *
+ * pbrt source code is Copyright(c) 1998-2016
+ * Matt Pharr, Greg Humphreys, and Wenzel Jakob.
+ *
+ */
+package org.pbrt;
+
+import org.junit.Test;
+
+import org.pbrt.core.*;
+
+import static org.junit.Assert.*;
+
+public class TileScheduleTest {
+
+    @Test
+    public void testOrdersArePermutations() {
+        Point2i nTiles = new Point2i(7, 5);
+        for (TileSchedule.Order order : TileSchedule.Order.values()) {
+            Point2i[] tiles = TileSchedule.Ordered(nTiles, order);
+            assertEquals(nTiles.x * nTiles.y, tiles.length);
+            boolean[] seen = new boolean[tiles.length];
+            for (Point2i t : tiles) {
+                assertFalse(seen[t.y * nTiles.x + t.x]);
+                seen[t.y * nTiles.x + t.x] = true;
+            }
+        }
+    }
+
+    @Test
+    public void testHilbertIsContinuous() {
+        // On a power of two grid every step of the curve moves to a neighbouring tile
+        Point2i[] tiles = TileSchedule.Ordered(new Point2i(8, 8), TileSchedule.Order.Hilbert);
+        for (int i = 1; i < tiles.length; i++)
+            assertEquals(1, Math.abs(tiles[i].x - tiles[i - 1].x) + Math.abs(tiles[i].y - tiles[i - 1].y));
+    }
+
+    @Test
+    public void testCostOrder() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 1;
+        TileSchedule schedule = new TileSchedule(TileSchedule.Order.Raster, 16, 1);
+        // The tile at (2, 1) is much more expensive than the others and must come first
+        Point2i[] tiles = schedule.Schedule(new Point2i(3, 2), (Point2i tile) -> {
+            if (tile.x == 2 && tile.y == 1) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertEquals(2, tiles[0].x);
+        assertEquals(1, tiles[0].y);
+    }
+
+    @Test
+    public void testAutoTileSize() {
+        Pbrt.options = new Options();
+        Pbrt.options.NumThreads = 4;
+        TileSchedule schedule = new TileSchedule(TileSchedule.Order.Hilbert, 0, 0);
+        assertEquals(32, schedule.TileSize(new Vector2i(1920, 1080)));
+        assertEquals(8, schedule.TileSize(new Vector2i(32, 32)));
+        assertEquals(16, new TileSchedule(TileSchedule.Order.Hilbert, 16, 0).TileSize(new Vector2i(32, 32)));
+        // The default does not depend on the thread count
+        assertEquals(TileSchedule.DefaultTileSize, new TileSchedule().TileSize(new Vector2i(1920, 1080)));
+        assertEquals(TileSchedule.DefaultTileSize, TileSchedule.Create(new ParamSet()).TileSize(new Vector2i(32, 32)));
+    }
+}
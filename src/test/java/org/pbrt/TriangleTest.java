@@ -9,15 +9,18 @@
 
 package org.pbrt;
 
+import org.pbrt.core.HitRecord;
 import org.pbrt.core.Point3f;
 import org.pbrt.core.Ray;
 import org.pbrt.core.Shape;
+import org.pbrt.core.SurfaceInteraction;
 import org.pbrt.shapes.Triangle;
 
 import org.pbrt.core.Transform;
 import org.pbrt.core.Vector3f;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -43,6 +46,36 @@ public class TriangleTest {
         }
     }
 
+    @Test
+    public void testDeferredHit() {
+        Transform o2w = Transform.Translate(new Vector3f(0, 0, 10));
+        Transform w2o = Transform.Inverse(o2w);
+        int[] indices = {0, 1, 2};
+        Point3f[] points = {new Point3f(-10, 10, 0), new Point3f(10, 10, 0), new Point3f(10, -10, 0)};
+        Shape tri = Triangle.CreateTriangleMesh(o2w, w2o, false, 1,
+                indices, points.length, points, null, null, null, null, null).get(0);
+
+        Ray ray = new Ray(new Point3f(1, 2, -100), new Vector3f(0.01f, 0, 1));
+        Shape.HitResult full = tri.Intersect(ray, true);
+        HitRecord hit = new HitRecord();
+        assertTrue(tri.Intersect(ray, true, hit));
+        assertEquals(full.tHit, hit.tHit, 0);
+
+        // The interaction built after the fact matches the one built during the test
+        SurfaceInteraction isect = tri.FinalizeHit(ray, hit);
+        assertEquals(full.isect.p.x, isect.p.x, 0);
+        assertEquals(full.isect.p.y, isect.p.y, 0);
+        assertEquals(full.isect.p.z, isect.p.z, 0);
+        assertEquals(full.isect.uv.x, isect.uv.x, 0);
+        assertEquals(full.isect.uv.y, isect.uv.y, 0);
+        assertEquals(full.isect.n.z, isect.n.z, 0);
+
+        // A miss leaves the record untouched
+        Ray miss = new Ray(new Point3f(50, 50, -100), new Vector3f(0, 0, 1));
+        assertFalse(tri.Intersect(miss, true, hit));
+        assertEquals(full.tHit, hit.tHit, 0);
+    }
+
     @Test
     public void testIntersectP() {
 